@@ -0,0 +1,71 @@
+package org.brabocoin.brabocoin.crypto;
+
+import com.google.protobuf.ByteString;
+import org.brabocoin.brabocoin.model.Hash;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of double SHA-256 hashing of 80-byte block headers by multiple threads.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HashingBenchmark {
+
+    private ByteString header;
+
+    private byte[] headerBytes;
+
+    @Setup
+    public void setup() {
+        headerBytes = new byte[80];
+        new Random().nextBytes(headerBytes);
+        header = ByteString.copyFrom(headerBytes);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Hash doubleSHA256Threads1() {
+        return Hashing.digestSHA256(Hashing.digestSHA256(header));
+    }
+
+    @Benchmark
+    @Threads(2)
+    public Hash doubleSHA256Threads2() {
+        return Hashing.digestSHA256(Hashing.digestSHA256(header));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Hash doubleSHA256Threads4() {
+        return Hashing.digestSHA256(Hashing.digestSHA256(header));
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Hash doubleSHA256Threads8() {
+        return Hashing.digestSHA256(Hashing.digestSHA256(header));
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Hash doubleSHA256ByteArray() {
+        return Hashing.digestSHA256(Hashing.digestSHA256(headerBytes));
+    }
+}
@@ -0,0 +1,162 @@
+package org.brabocoin.brabocoin.dal;
+
+import com.google.protobuf.ByteString;
+import org.brabocoin.brabocoin.model.Hash;
+import org.brabocoin.brabocoin.model.Input;
+import org.brabocoin.brabocoin.model.Output;
+import org.brabocoin.brabocoin.model.Transaction;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Churn on a transaction pool holding a large number of transactions: adding, removing,
+ * promoting and demoting transactions, and evicting orphans.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionPoolBenchmark {
+
+    /**
+     * The number of transactions in the pool.
+     */
+    private static final int SIZE = 100_000;
+
+    private static final int MAX_FEE = 10_000;
+
+    private Random random;
+
+    private TransactionPool pool;
+
+    private List<Transaction> transactions;
+
+    private List<Hash> parents;
+
+    private long[] fees;
+
+    /**
+     * The orphan that is not in the orphan pool, since it was evicted last.
+     */
+    private Transaction evictedOrphan;
+
+    private int position;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        random = new Random(42);
+        transactions = new ArrayList<>(SIZE);
+        parents = new ArrayList<>(SIZE);
+        fees = new long[SIZE];
+
+        // Every transaction spends an output of a distinct transaction outside the pool
+        for (int i = 0; i < SIZE; i++) {
+            Hash parent = randomHash(random);
+            parents.add(parent);
+            transactions.add(createTransaction(parent));
+            fees[i] = random.nextInt(MAX_FEE);
+        }
+
+        pool = new TransactionPool(SIZE, SIZE, random, 0);
+        for (int i = 0; i < SIZE; i++) {
+            pool.addIndependentTransaction(transactions.get(i), fees[i]);
+            pool.addOrphanTransaction(createTransaction(randomHash(random)));
+        }
+
+        evictedOrphan = createTransaction(randomHash(random));
+        pool.addListener(new TransactionPoolListener() {
+            @Override
+            public void onTransactionRemovedAsOrphan(@NotNull Transaction transaction) {
+                evictedOrphan = transaction;
+            }
+        });
+
+        position = 0;
+    }
+
+    private static Transaction createTransaction(Hash parent) {
+        return new Transaction(
+            Collections.singletonList(new Input(parent, 0)),
+            Collections.singletonList(new Output(parent, 1)),
+            Collections.emptyList()
+        );
+    }
+
+    private static Hash randomHash(Random random) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        return new Hash(ByteString.copyFrom(bytes));
+    }
+
+    private int next() {
+        position = (position + 1) % SIZE;
+        return position;
+    }
+
+    /**
+     * Remove a transaction from the full pool and add it again.
+     */
+    @Benchmark
+    public TransactionPool removeAdd() {
+        int i = next();
+        Transaction transaction = transactions.get(i);
+        pool.removeValidatedTransaction(transaction.getHash());
+        pool.addIndependentTransaction(transaction, fees[i]);
+        return pool;
+    }
+
+    /**
+     * Demote a transaction to dependent and promote it back to independent.
+     */
+    @Benchmark
+    public TransactionPool demotePromote() {
+        Hash parent = parents.get(next());
+        pool.demoteIndependentToDependent(parent);
+        pool.promoteDependentToIndependentFromParent(parent, t -> true);
+        return pool;
+    }
+
+    /**
+     * Add an orphan to the full orphan pool, such that a random orphan is evicted.
+     */
+    @Benchmark
+    public TransactionPool orphanEviction() {
+        pool.addOrphanTransaction(evictedOrphan);
+        return pool;
+    }
+
+    /**
+     * Remove all transactions from the pool in random order.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public TransactionPool drain() {
+        List<Transaction> shuffled = new ArrayList<>(transactions);
+        Collections.shuffle(shuffled, random);
+        for (Transaction transaction : shuffled) {
+            pool.removeValidatedTransaction(transaction.getHash());
+        }
+        return pool;
+    }
+}
@@ -0,0 +1,132 @@
+package org.brabocoin.brabocoin.mining;
+
+import com.google.protobuf.ByteString;
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.brabocoin.brabocoin.Constants;
+import org.brabocoin.brabocoin.model.Block;
+import org.brabocoin.brabocoin.model.Hash;
+import org.brabocoin.brabocoin.util.ByteUtil;
+import org.brabocoin.brabocoin.validation.consensus.Consensus;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hashes per second of a mining block, comparing hashing the full header for every nonce with
+ * starting from the precomputed SHA-256 midstate of the header prefix.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MiningBlockBenchmark {
+
+    /**
+     * The number of nonces tried in a single mining invocation.
+     */
+    private static final int NONCE_SPACE = 1 << 16;
+
+    private MiningBlock block;
+
+    private byte[] header;
+
+    private int prefixLength;
+
+    private SHA256Digest digest;
+
+    private NonceHasher hasher;
+
+    private byte[] hash;
+
+    private long nonce;
+
+    private Consensus consensus;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        block = new MiningBlock(
+            randomHash(random),
+            randomHash(random),
+            new Hash(ByteString.copyFrom(new byte[1])),
+            BigInteger.ZERO,
+            1000,
+            Collections.emptyList(),
+            0
+        );
+
+        byte[] prefix = ByteUtil.toByteString(block.getNetworkId())
+            .concat(block.getPreviousBlockHash().getValue())
+            .concat(block.getMerkleRoot().getValue())
+            .concat(block.getTargetValue().getValue())
+            .concat(ByteUtil.toByteString(block.getBlockHeight()))
+            .toByteArray();
+        header = Arrays.copyOf(prefix, prefix.length + Long.BYTES + 1);
+        prefixLength = prefix.length;
+        digest = new SHA256Digest();
+
+        hasher = block.createNonceHasher();
+        hash = new byte[Constants.BLOCK_HASH_SIZE];
+
+        // Impossible target, such that the full nonce space is tried
+        consensus = new Consensus() {
+            @Override
+            public @NotNull BigInteger getMaxNonce() {
+                return BigInteger.valueOf(NONCE_SPACE);
+            }
+        };
+    }
+
+    private static Hash randomHash(Random random) {
+        byte[] bytes = new byte[Constants.BLOCK_HASH_SIZE];
+        random.nextBytes(bytes);
+        return new Hash(ByteString.copyFrom(bytes));
+    }
+
+    /**
+     * Hash the full header for every nonce, as done before the midstate was precomputed.
+     */
+    @Benchmark
+    public byte[] fullHeader() {
+        long current = nonce++ & 0xFF_FFFF_FFFFL;
+        int length = (Long.SIZE - Long.numberOfLeadingZeros(current)) / Byte.SIZE + 1;
+        for (int i = 0; i < length; i++) {
+            header[prefixLength + length - 1 - i] = (byte)(current >>> (i * Byte.SIZE));
+        }
+
+        digest.update(header, 0, prefixLength + length);
+        digest.doFinal(hash, 0);
+        digest.update(hash, 0, hash.length);
+        digest.doFinal(hash, 0);
+        return hash;
+    }
+
+    @Benchmark
+    public byte[] midstate() {
+        hasher.hash(nonce++ & 0xFF_FFFF_FFFFL, hash);
+        return hash;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NONCE_SPACE)
+    public Block mine() {
+        return block.mine(consensus, 1);
+    }
+}
@@ -0,0 +1,174 @@
+package org.brabocoin.brabocoin.model;
+
+import com.google.protobuf.ByteString;
+import org.bouncycastle.util.Arrays;
+import org.brabocoin.brabocoin.util.collection.MultiDependenceIndex;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Mempool index operations keyed by {@link Hash}, compared with a key that uses the previous
+ * byte array based implementation of equality, ordering and hashing.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HashMapBenchmark {
+
+    /**
+     * The number of transactions in the index.
+     */
+    private static final int SIZE = 5000;
+
+    @Param({"hash", "legacy"})
+    private String keyType;
+
+    private MultiDependenceIndex<Object, Entry, Object> index;
+
+    private List<Entry> entries;
+
+    private Entry extraEntry;
+
+    private int position;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        Function<ByteString, Object> keyFactory = "hash".equals(keyType)
+            ? Hash::new
+            : LegacyHash::new;
+
+        entries = new ArrayList<>();
+        for (int i = 0; i <= SIZE; i++) {
+            Object key = keyFactory.apply(randomBytes(random));
+            List<Object> dependencies = new ArrayList<>();
+            for (int j = 0; j < 2; j++) {
+                dependencies.add(i > 0
+                    ? entries.get(random.nextInt(i)).key
+                    : keyFactory.apply(randomBytes(random)));
+            }
+            entries.add(new Entry(key, dependencies));
+        }
+        extraEntry = entries.remove(SIZE);
+
+        index = new MultiDependenceIndex<>(e -> e.key, e -> e.dependencies);
+        for (Entry entry : entries) {
+            index.put(entry);
+        }
+    }
+
+    private static ByteString randomBytes(Random random) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        return ByteString.copyFrom(bytes);
+    }
+
+    private Entry nextEntry() {
+        position = (position + 1) % SIZE;
+        return entries.get(position);
+    }
+
+    @Benchmark
+    public boolean containsKey() {
+        return index.containsKey(nextEntry().key);
+    }
+
+    @Benchmark
+    public Collection<Entry> getFromDependency() {
+        return index.getFromDependency(nextEntry().key);
+    }
+
+    @Benchmark
+    public Entry putAndRemove() {
+        index.put(extraEntry);
+        return index.removeKey(extraEntry.key);
+    }
+
+    private static class Entry {
+
+        private final Object key;
+
+        private final List<Object> dependencies;
+
+        private Entry(Object key, List<Object> dependencies) {
+            this.key = key;
+            this.dependencies = dependencies;
+        }
+    }
+
+    /**
+     * Key with the previous implementation of {@link Hash} equality, ordering and hashing.
+     */
+    private static class LegacyHash implements Comparable<LegacyHash> {
+
+        private final @NotNull ByteString value;
+
+        private LegacyHash(@NotNull ByteString value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+
+            return this.compareTo((LegacyHash)o) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return value.hashCode();
+        }
+
+        @Override
+        public int compareTo(@NotNull LegacyHash o) {
+            int lengthDifference = value.size() - o.value.size();
+
+            byte[] thisArray;
+            byte[] otherArray;
+
+            if (lengthDifference > 0) {
+                thisArray = value.toByteArray();
+                otherArray = ByteString.copyFrom(new byte[lengthDifference])
+                    .concat(o.value)
+                    .toByteArray();
+            }
+            else if (lengthDifference < 0) {
+                thisArray = ByteString.copyFrom(new byte[-lengthDifference])
+                    .concat(value)
+                    .toByteArray();
+                otherArray = o.value.toByteArray();
+            }
+            else {
+                thisArray = value.toByteArray();
+                otherArray = o.value.toByteArray();
+            }
+
+            return Arrays.compareUnsigned(thisArray, otherArray);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package org.brabocoin.brabocoin.util;
+
+import com.google.protobuf.ByteString;
+import org.brabocoin.brabocoin.crypto.EllipticCurve;
+import org.brabocoin.brabocoin.crypto.PublicKey;
+import org.brabocoin.brabocoin.model.Block;
+import org.brabocoin.brabocoin.model.Hash;
+import org.brabocoin.brabocoin.model.Input;
+import org.brabocoin.brabocoin.model.Output;
+import org.brabocoin.brabocoin.model.Transaction;
+import org.brabocoin.brabocoin.model.crypto.Signature;
+import org.brabocoin.brabocoin.proto.model.BrabocoinProtos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the direct proto codecs with the reflective converter for blocks.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProtoConverterBenchmark {
+
+    @Param({"1", "100"})
+    private int transactionCount;
+
+    private Block block;
+
+    private BrabocoinProtos.Block proto;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        EllipticCurve curve = EllipticCurve.secp256k1();
+        PublicKey publicKey = curve.getPublicKeyFromPrivateKey(new BigInteger(255, random));
+
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < transactionCount; i++) {
+            List<Input> inputs = new ArrayList<>();
+            List<Output> outputs = new ArrayList<>();
+            List<Signature> signatures = new ArrayList<>();
+            for (int j = 0; j < 2; j++) {
+                inputs.add(new Input(randomHash(random), j));
+                outputs.add(new Output(randomHash(random), random.nextInt(1000)));
+                signatures.add(new Signature(
+                    new BigInteger(255, random),
+                    new BigInteger(255, random),
+                    publicKey
+                ));
+            }
+            transactions.add(new Transaction(inputs, outputs, signatures));
+        }
+
+        block = new Block(
+            randomHash(random),
+            randomHash(random),
+            randomHash(random),
+            BigInteger.valueOf(random.nextLong()),
+            1,
+            transactions,
+            0
+        );
+        proto = ProtoConverter.toProto(block, BrabocoinProtos.Block.class);
+    }
+
+    private static Hash randomHash(Random random) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        return new Hash(ByteString.copyFrom(bytes));
+    }
+
+    @Benchmark
+    public BrabocoinProtos.Block toProtoCodec() {
+        return ProtoConverter.toProto(block, BrabocoinProtos.Block.class);
+    }
+
+    @Benchmark
+    public BrabocoinProtos.Block toProtoReflective() {
+        return ProtoConverter.reflectiveToProto(block, BrabocoinProtos.Block.class);
+    }
+
+    @Benchmark
+    public Block toDomainCodec() {
+        return ProtoConverter.toDomain(proto, Block.Builder.class);
+    }
+
+    @Benchmark
+    public Block toDomainReflective() {
+        return ProtoConverter.reflectiveToDomain(proto, Block.Builder.class);
+    }
+}
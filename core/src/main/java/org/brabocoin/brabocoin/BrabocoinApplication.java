@@ -24,6 +24,9 @@ import org.jetbrains.annotations.NotNull;
 import java.io.File;
 import java.io.IOException;
 import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.prefs.BackingStoreException;
@@ -36,6 +39,11 @@ public class BrabocoinApplication {
 
     private static final Logger LOGGER = Logger.getLogger(BrabocoinApplication.class.getName());
 
+    /**
+     * The time in seconds to wait for a periodic transaction pool write on shutdown.
+     */
+    private static final long TRANSACTION_POOL_WRITER_TIMEOUT = 10;
+
     /**
      * The node.
      */
@@ -48,6 +56,11 @@ public class BrabocoinApplication {
      */
     private final @NotNull Set<KeyValueStore> storages;
 
+    /**
+     * Scheduler of the periodic transaction pool writes, or {@code null} when disabled.
+     */
+    private ScheduledExecutorService transactionPoolWriter;
+
     /**
      * Initialize a new Brabocoin node instance.
      * <p>
@@ -169,6 +182,7 @@ public class BrabocoinApplication {
      * <ol>
      * <li>Load the main chain in memory, setting the top block to the last processed block
      * stored in the chain UTXO set.</li>
+     * <li>Restore the transaction pool from the transaction pool file.</li>
      * <li>Start the network node.</li>
      * </ol>
      *
@@ -183,11 +197,57 @@ public class BrabocoinApplication {
      */
     public void start() throws IOException, DatabaseException, IllegalStateException {
         state.getBlockProcessor().syncMainChainWithUTXOSet();
+        restoreTransactionPool();
         state.getNode().start();
 
+        scheduleTransactionPoolWrites();
         addShutdownHook();
     }
 
+    private void restoreTransactionPool() throws DatabaseException {
+        LOGGER.info("Restoring the transaction pool.");
+        try {
+            state.getTransactionProcessor().restoreTransactions(
+                state.getTransactionPoolIO().read(state.getTransactionPoolFile())
+            );
+        }
+        catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Transaction pool file could not be read", e);
+        }
+    }
+
+    private void scheduleTransactionPoolWrites() {
+        int interval = state.getConfig().getTransactionPoolPersistInterval();
+        if (interval <= 0) {
+            return;
+        }
+
+        transactionPoolWriter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "transaction-pool-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        transactionPoolWriter.scheduleWithFixedDelay(
+            this::writeTransactionPool,
+            interval,
+            interval,
+            TimeUnit.SECONDS
+        );
+    }
+
+    private void writeTransactionPool() {
+        try {
+            state.getTransactionPoolIO().write(
+                state.getTransactionPool(),
+                state.getConfig().isPersistOrphanTransactions(),
+                state.getTransactionPoolFile()
+            );
+        }
+        catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Transaction pool could not be written", e);
+        }
+    }
+
     private void addShutdownHook() {
         Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown));
     }
@@ -204,6 +264,41 @@ public class BrabocoinApplication {
             // TODO: What to do here?
         }
 
+        // Write the transaction pool, after a periodic write in progress is finished
+        LOGGER.info("Writing the transaction pool.");
+        if (transactionPoolWriter != null) {
+            transactionPoolWriter.shutdown();
+            try {
+                transactionPoolWriter.awaitTermination(
+                    TRANSACTION_POOL_WRITER_TIMEOUT,
+                    TimeUnit.SECONDS
+                );
+            }
+            catch (InterruptedException e) {
+                LOGGER.log(Level.WARNING, "Interrupted while waiting for the pool writer", e);
+                Thread.currentThread().interrupt();
+            }
+        }
+        writeTransactionPool();
+
+        // Write cached UTXO changes
+        LOGGER.info("Flushing the UTXO set.");
+        try {
+            state.getChainUTXODatabase().flush();
+        }
+        catch (DatabaseException e) {
+            LOGGER.log(Level.SEVERE, "UTXO set could not be flushed", e);
+        }
+
+        // Sync and close block files
+        LOGGER.info("Closing the block files.");
+        try {
+            state.getBlockDatabase().close();
+        }
+        catch (DatabaseException e) {
+            LOGGER.log(Level.SEVERE, "Block files could not be closed", e);
+        }
+
         // Close databases
         LOGGER.info("Closing all databases.");
         for (KeyValueStore db : storages) {
@@ -54,4 +54,14 @@ public final class Constants {
      * Maximum amount of messages to store per peer.
      */
     public static final int MAX_MESSAGE_HISTORY_PER_PEER = 100;
+
+    /**
+     * Maximum amount of block and transaction hashes to remember per peer as known to the peer.
+     */
+    public static final int MAX_KNOWN_INVENTORY_PER_PEER = 5000;
+
+    /**
+     * Maximum amount of block and transaction hashes in a single inventory message.
+     */
+    public static final int MAX_INVENTORY_SIZE = 1000;
 }
@@ -3,6 +3,7 @@ package org.brabocoin.brabocoin.chain;
 import com.google.common.collect.EvictingQueue;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.SetMultimap;
+import com.google.protobuf.ByteString;
 import org.brabocoin.brabocoin.dal.BlockDatabase;
 import org.brabocoin.brabocoin.exceptions.DatabaseException;
 import org.brabocoin.brabocoin.model.Block;
@@ -174,6 +175,19 @@ public class Blockchain {
         return database.findBlock(hash);
     }
 
+    /**
+     * Get the serialized full block from its hash, as stored in the block database.
+     *
+     * @param hash
+     *     The hash of the full block to retrieve.
+     * @return The serialized block, or {@code null} if the block is unknown.
+     * @throws DatabaseException
+     *     When the block database is not available.
+     */
+    public @Nullable ByteString getRawBlock(@NotNull Hash hash) throws DatabaseException {
+        return database.findRawBlock(hash);
+    }
+
     /**
      * Checks whether the block with the given hash is stored in the block database.
      * <p>
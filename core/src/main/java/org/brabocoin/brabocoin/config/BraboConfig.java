@@ -49,4 +49,44 @@ public interface BraboConfig {
     int getMaxOrphanTransactions();
 
     int getMaxRecentRejectTransactions();
+
+    int getMaxUtxoCacheSize();
+
+    String getBlockFileSyncPolicy();
+
+    int getBlockFileSyncInterval();
+
+    int getBlockFileSyncBytes();
+
+    int getBlockFilePreallocationSize();
+
+    int getMaxBlockCacheSize();
+
+    int getSignatureCacheSize();
+
+    int getSignatureVerificationThreads();
+
+    String getTransactionPoolFile();
+
+    int getTransactionPoolPersistInterval();
+
+    boolean isPersistOrphanTransactions();
+
+    int getBlockDownloadChunkSize();
+
+    int getBlockDownloadWindow();
+
+    int getBlockDownloadTimeout();
+
+    int getServiceThreads();
+
+    int getAnnounceDeadline();
+
+    int getAnnounceConcurrency();
+
+    int getAnnounceQueueSize();
+
+    int getAnnounceTrickleInterval();
+
+    int getRequestTimeout();
 }
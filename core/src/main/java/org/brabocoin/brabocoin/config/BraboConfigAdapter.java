@@ -28,6 +28,26 @@ public class BraboConfigAdapter implements BraboConfig {
     private final int maxTransactionPoolSize;
     private final int maxOrphanTransactions;
     private final int maxRecentRejectTransactions;
+    private final int maxUtxoCacheSize;
+    private final String blockFileSyncPolicy;
+    private final int blockFileSyncInterval;
+    private final int blockFileSyncBytes;
+    private final int blockFilePreallocationSize;
+    private final int maxBlockCacheSize;
+    private final int signatureCacheSize;
+    private final int signatureVerificationThreads;
+    private final String transactionPoolFile;
+    private final int transactionPoolPersistInterval;
+    private final boolean persistOrphanTransactions;
+    private final int blockDownloadChunkSize;
+    private final int blockDownloadWindow;
+    private final int blockDownloadTimeout;
+    private final int serviceThreads;
+    private final int announceDeadline;
+    private final int announceConcurrency;
+    private final int announceQueueSize;
+    private final int announceTrickleInterval;
+    private final int requestTimeout;
 
     public BraboConfigAdapter(MutableBraboConfig mutableBraboConfig) {
         networkId = mutableBraboConfig.getNetworkId();
@@ -52,6 +72,26 @@ public class BraboConfigAdapter implements BraboConfig {
         maxTransactionPoolSize = mutableBraboConfig.getMaxTransactionPoolSize();
         maxOrphanTransactions = mutableBraboConfig.getMaxOrphanTransactions();
         maxRecentRejectTransactions = mutableBraboConfig.getMaxRecentRejectTransactions();
+        maxUtxoCacheSize = mutableBraboConfig.getMaxUtxoCacheSize();
+        blockFileSyncPolicy = mutableBraboConfig.getBlockFileSyncPolicy();
+        blockFileSyncInterval = mutableBraboConfig.getBlockFileSyncInterval();
+        blockFileSyncBytes = mutableBraboConfig.getBlockFileSyncBytes();
+        blockFilePreallocationSize = mutableBraboConfig.getBlockFilePreallocationSize();
+        maxBlockCacheSize = mutableBraboConfig.getMaxBlockCacheSize();
+        signatureCacheSize = mutableBraboConfig.getSignatureCacheSize();
+        signatureVerificationThreads = mutableBraboConfig.getSignatureVerificationThreads();
+        transactionPoolFile = mutableBraboConfig.getTransactionPoolFile();
+        transactionPoolPersistInterval = mutableBraboConfig.getTransactionPoolPersistInterval();
+        persistOrphanTransactions = mutableBraboConfig.isPersistOrphanTransactions();
+        blockDownloadChunkSize = mutableBraboConfig.getBlockDownloadChunkSize();
+        blockDownloadWindow = mutableBraboConfig.getBlockDownloadWindow();
+        blockDownloadTimeout = mutableBraboConfig.getBlockDownloadTimeout();
+        serviceThreads = mutableBraboConfig.getServiceThreads();
+        announceDeadline = mutableBraboConfig.getAnnounceDeadline();
+        announceConcurrency = mutableBraboConfig.getAnnounceConcurrency();
+        announceQueueSize = mutableBraboConfig.getAnnounceQueueSize();
+        announceTrickleInterval = mutableBraboConfig.getAnnounceTrickleInterval();
+        requestTimeout = mutableBraboConfig.getRequestTimeout();
     }
 
     @Override
@@ -163,4 +203,104 @@ public class BraboConfigAdapter implements BraboConfig {
     public int getMaxRecentRejectTransactions() {
         return maxRecentRejectTransactions;
     }
+
+    @Override
+    public int getMaxUtxoCacheSize() {
+        return maxUtxoCacheSize;
+    }
+
+    @Override
+    public String getBlockFileSyncPolicy() {
+        return blockFileSyncPolicy;
+    }
+
+    @Override
+    public int getBlockFileSyncInterval() {
+        return blockFileSyncInterval;
+    }
+
+    @Override
+    public int getBlockFileSyncBytes() {
+        return blockFileSyncBytes;
+    }
+
+    @Override
+    public int getBlockFilePreallocationSize() {
+        return blockFilePreallocationSize;
+    }
+
+    @Override
+    public int getMaxBlockCacheSize() {
+        return maxBlockCacheSize;
+    }
+
+    @Override
+    public int getSignatureCacheSize() {
+        return signatureCacheSize;
+    }
+
+    @Override
+    public int getSignatureVerificationThreads() {
+        return signatureVerificationThreads;
+    }
+
+    @Override
+    public String getTransactionPoolFile() {
+        return transactionPoolFile;
+    }
+
+    @Override
+    public int getTransactionPoolPersistInterval() {
+        return transactionPoolPersistInterval;
+    }
+
+    @Override
+    public boolean isPersistOrphanTransactions() {
+        return persistOrphanTransactions;
+    }
+
+    @Override
+    public int getBlockDownloadChunkSize() {
+        return blockDownloadChunkSize;
+    }
+
+    @Override
+    public int getBlockDownloadWindow() {
+        return blockDownloadWindow;
+    }
+
+    @Override
+    public int getBlockDownloadTimeout() {
+        return blockDownloadTimeout;
+    }
+
+    @Override
+    public int getServiceThreads() {
+        return serviceThreads;
+    }
+
+    @Override
+    public int getAnnounceDeadline() {
+        return announceDeadline;
+    }
+
+    @Override
+    public int getAnnounceConcurrency() {
+        return announceConcurrency;
+    }
+
+    @Override
+    public int getAnnounceQueueSize() {
+        return announceQueueSize;
+    }
+
+    @Override
+    public int getAnnounceTrickleInterval() {
+        return announceTrickleInterval;
+    }
+
+    @Override
+    public int getRequestTimeout() {
+        return requestTimeout;
+    }
 }
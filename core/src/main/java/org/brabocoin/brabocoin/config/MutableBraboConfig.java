@@ -43,6 +43,26 @@ public class MutableBraboConfig implements BraboConfig {
         maxTransactionPoolSize.setValue(300);
         maxOrphanTransactions.setValue(100);
         maxRecentRejectTransactions.setValue(20);
+        maxUtxoCacheSize.setValue(50000000);
+        blockFileSyncPolicy.setValue("group");
+        blockFileSyncInterval.setValue(1000);
+        blockFileSyncBytes.setValue(4000000);
+        blockFilePreallocationSize.setValue(16000000);
+        maxBlockCacheSize.setValue(20000000);
+        signatureCacheSize.setValue(100000);
+        signatureVerificationThreads.setValue(0);
+        transactionPoolFile.setValue("mempool.dat");
+        transactionPoolPersistInterval.setValue(300);
+        persistOrphanTransactions.setValue(false);
+        blockDownloadChunkSize.setValue(16);
+        blockDownloadWindow.setValue(4);
+        blockDownloadTimeout.setValue(30000);
+        serviceThreads.setValue(16);
+        announceDeadline.setValue(5000);
+        announceConcurrency.setValue(32);
+        announceQueueSize.setValue(1000);
+        announceTrickleInterval.setValue(500);
+        requestTimeout.setValue(10000);
     }
 
     public IntegerProperty networkId = new SimpleIntegerProperty();
@@ -90,6 +110,46 @@ public class MutableBraboConfig implements BraboConfig {
 
     public IntegerProperty maxRecentRejectTransactions = new SimpleIntegerProperty();
 
+    public IntegerProperty maxUtxoCacheSize = new SimpleIntegerProperty();
+
+    public StringProperty blockFileSyncPolicy = new SimpleStringProperty();
+
+    public IntegerProperty blockFileSyncInterval = new SimpleIntegerProperty();
+
+    public IntegerProperty blockFileSyncBytes = new SimpleIntegerProperty();
+
+    public IntegerProperty blockFilePreallocationSize = new SimpleIntegerProperty();
+
+    public IntegerProperty maxBlockCacheSize = new SimpleIntegerProperty();
+
+    public IntegerProperty signatureCacheSize = new SimpleIntegerProperty();
+
+    public IntegerProperty signatureVerificationThreads = new SimpleIntegerProperty();
+
+    public StringProperty transactionPoolFile = new SimpleStringProperty();
+
+    public IntegerProperty transactionPoolPersistInterval = new SimpleIntegerProperty();
+
+    public BooleanProperty persistOrphanTransactions = new SimpleBooleanProperty();
+
+    public IntegerProperty blockDownloadChunkSize = new SimpleIntegerProperty();
+
+    public IntegerProperty blockDownloadWindow = new SimpleIntegerProperty();
+
+    public IntegerProperty blockDownloadTimeout = new SimpleIntegerProperty();
+
+    public IntegerProperty serviceThreads = new SimpleIntegerProperty();
+
+    public IntegerProperty announceDeadline = new SimpleIntegerProperty();
+
+    public IntegerProperty announceConcurrency = new SimpleIntegerProperty();
+
+    public IntegerProperty announceQueueSize = new SimpleIntegerProperty();
+
+    public IntegerProperty announceTrickleInterval = new SimpleIntegerProperty();
+
+    public IntegerProperty requestTimeout = new SimpleIntegerProperty();
+
     @Override
     public int getNetworkId() {
         return networkId.get();
@@ -199,4 +259,104 @@ public class MutableBraboConfig implements BraboConfig {
     public int getMaxRecentRejectTransactions() {
         return maxRecentRejectTransactions.get();
     }
+
+    @Override
+    public int getMaxUtxoCacheSize() {
+        return maxUtxoCacheSize.get();
+    }
+
+    @Override
+    public String getBlockFileSyncPolicy() {
+        return blockFileSyncPolicy.get();
+    }
+
+    @Override
+    public int getBlockFileSyncInterval() {
+        return blockFileSyncInterval.get();
+    }
+
+    @Override
+    public int getBlockFileSyncBytes() {
+        return blockFileSyncBytes.get();
+    }
+
+    @Override
+    public int getBlockFilePreallocationSize() {
+        return blockFilePreallocationSize.get();
+    }
+
+    @Override
+    public int getMaxBlockCacheSize() {
+        return maxBlockCacheSize.get();
+    }
+
+    @Override
+    public int getSignatureCacheSize() {
+        return signatureCacheSize.get();
+    }
+
+    @Override
+    public int getSignatureVerificationThreads() {
+        return signatureVerificationThreads.get();
+    }
+
+    @Override
+    public String getTransactionPoolFile() {
+        return transactionPoolFile.get();
+    }
+
+    @Override
+    public int getTransactionPoolPersistInterval() {
+        return transactionPoolPersistInterval.get();
+    }
+
+    @Override
+    public boolean isPersistOrphanTransactions() {
+        return persistOrphanTransactions.get();
+    }
+
+    @Override
+    public int getBlockDownloadChunkSize() {
+        return blockDownloadChunkSize.get();
+    }
+
+    @Override
+    public int getBlockDownloadWindow() {
+        return blockDownloadWindow.get();
+    }
+
+    @Override
+    public int getBlockDownloadTimeout() {
+        return blockDownloadTimeout.get();
+    }
+
+    @Override
+    public int getServiceThreads() {
+        return serviceThreads.get();
+    }
+
+    @Override
+    public int getAnnounceDeadline() {
+        return announceDeadline.get();
+    }
+
+    @Override
+    public int getAnnounceConcurrency() {
+        return announceConcurrency.get();
+    }
+
+    @Override
+    public int getAnnounceQueueSize() {
+        return announceQueueSize.get();
+    }
+
+    @Override
+    public int getAnnounceTrickleInterval() {
+        return announceTrickleInterval.get();
+    }
+
+    @Override
+    public int getRequestTimeout() {
+        return requestTimeout.get();
+    }
 }
@@ -1,15 +1,20 @@
 package org.brabocoin.brabocoin.crypto;
 
+import com.google.protobuf.ByteOutput;
 import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
 import org.bouncycastle.jcajce.provider.digest.RIPEMD160;
 import org.bouncycastle.jcajce.provider.digest.SHA256;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 import org.brabocoin.brabocoin.model.Hash;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.security.MessageDigest;
 import java.security.Security;
 import java.text.MessageFormat;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -21,8 +26,12 @@ import static org.brabocoin.brabocoin.util.ByteUtil.toHexString;
 public final class Hashing {
 
     private static final Logger LOGGER = Logger.getLogger(Hashing.class.getName());
-    private static SHA256.Digest SHA256Digest = new SHA256.Digest();
-    private static RIPEMD160.Digest RIPEMD160Digest = new RIPEMD160.Digest();
+
+    /**
+     * Digest instances of the current thread, such that hashes can be computed concurrently
+     * without locking.
+     */
+    private static final ThreadLocal<Digests> DIGESTS = ThreadLocal.withInitial(Digests::new);
 
     static {
         LOGGER.fine("Hashing class initializing.");
@@ -41,7 +50,8 @@ public final class Hashing {
      */
     public static Hash digestSHA256(@NotNull ByteString message) {
         LOGGER.fine("Digest SHA256 for ByteString message.");
-        return digest(SHA256Digest, message);
+        Digests digests = DIGESTS.get();
+        return digest(digests.sha256, digests, message);
     }
 
     /**
@@ -56,6 +66,33 @@ public final class Hashing {
         return digestSHA256(message.getValue());
     }
 
+    /**
+     * Compute the SHA-256 hash of a message.
+     *
+     * @param message
+     *     The message to be hashed.
+     * @return The hashed message.
+     */
+    public static Hash digestSHA256(@NotNull byte[] message) {
+        LOGGER.fine("Digest SHA256 for byte array message.");
+        return digest(DIGESTS.get().sha256, message);
+    }
+
+    /**
+     * Compute the SHA-256 hash of a message.
+     * <p>
+     * The remaining bytes of the buffer are hashed, after which the position of the buffer
+     * equals its limit.
+     *
+     * @param message
+     *     The message to be hashed.
+     * @return The hashed message.
+     */
+    public static Hash digestSHA256(@NotNull ByteBuffer message) {
+        LOGGER.fine("Digest SHA256 for ByteBuffer message.");
+        return digest(DIGESTS.get().sha256, message);
+    }
+
     /**
      * Compute the RIPEMD-160 hash of a message.
      *
@@ -65,7 +102,8 @@ public final class Hashing {
      */
     public static Hash digestRIPEMD160(@NotNull ByteString message) {
         LOGGER.fine("Digest RIPEMD160 for ByteString message.");
-        return digest(RIPEMD160Digest, message);
+        Digests digests = DIGESTS.get();
+        return digest(digests.ripemd160, digests, message);
     }
 
     /**
@@ -80,21 +118,124 @@ public final class Hashing {
         return digestRIPEMD160(message.getValue());
     }
 
-    private synchronized static @NotNull Hash digest(@NotNull MessageDigest messageDigest,
-                                                     @NotNull ByteString message) {
+    /**
+     * Compute the RIPEMD-160 hash of a message.
+     *
+     * @param message
+     *     The message to be hashed.
+     * @return The hashed message.
+     */
+    public static Hash digestRIPEMD160(@NotNull byte[] message) {
+        LOGGER.fine("Digest RIPEMD160 for byte array message.");
+        return digest(DIGESTS.get().ripemd160, message);
+    }
+
+    /**
+     * Compute the RIPEMD-160 hash of a message.
+     * <p>
+     * The remaining bytes of the buffer are hashed, after which the position of the buffer
+     * equals its limit.
+     *
+     * @param message
+     *     The message to be hashed.
+     * @return The hashed message.
+     */
+    public static Hash digestRIPEMD160(@NotNull ByteBuffer message) {
+        LOGGER.fine("Digest RIPEMD160 for ByteBuffer message.");
+        return digest(DIGESTS.get().ripemd160, message);
+    }
+
+    private static @NotNull Hash digest(@NotNull MessageDigest messageDigest,
+                                        @NotNull Digests digests,
+                                        @NotNull ByteString message) {
+        digests.output.target = messageDigest;
+        try {
+            UnsafeByteOperations.unsafeWriteTo(message, digests.output);
+        }
+        catch (IOException e) {
+            // Updating a message digest never throws
+            messageDigest.reset();
+            throw new IllegalStateException("Could not update message digest.", e);
+        }
+        finally {
+            digests.output.target = null;
+        }
+
+        return finish(messageDigest, () -> toHexString(message));
+    }
+
+    private static @NotNull Hash digest(@NotNull MessageDigest messageDigest,
+                                        @NotNull byte[] message) {
+        messageDigest.update(message);
+        return finish(messageDigest, () -> toHexString(ByteString.copyFrom(message)));
+    }
+
+    private static @NotNull Hash digest(@NotNull MessageDigest messageDigest,
+                                        @NotNull ByteBuffer message) {
+        ByteBuffer original = message.duplicate();
+        messageDigest.update(message);
+        return finish(messageDigest, () -> toHexString(ByteString.copyFrom(original)));
+    }
+
+    private static @NotNull Hash finish(@NotNull MessageDigest messageDigest,
+                                        @NotNull Supplier<String> messageHex) {
         LOGGER.log(
             Level.FINE,
-            "Digest for ByteString message using MessageDigest: {0}",
+            "Digest for message using MessageDigest: {0}",
             messageDigest.getAlgorithm()
         );
-        Hash hash = new Hash(ByteString.copyFrom(messageDigest.digest(message.toByteArray())));
+        Hash hash = new Hash(UnsafeByteOperations.unsafeWrap(messageDigest.digest()));
         LOGGER.log(Level.FINEST, () -> MessageFormat.format(
             "{0} ( {1} ) = {2}",
             messageDigest.getAlgorithm(),
-            toHexString(message),
+            messageHex.get(),
             toHexString(hash.getValue())
         ));
         return hash;
     }
 
+    /**
+     * The digest instances used by a single thread.
+     */
+    private static class Digests {
+
+        private final @NotNull MessageDigest sha256 = new SHA256.Digest();
+
+        private final @NotNull MessageDigest ripemd160 = new RIPEMD160.Digest();
+
+        private final @NotNull DigestOutput output = new DigestOutput();
+    }
+
+    /**
+     * Feeds the bytes of a byte string to a message digest without copying them.
+     */
+    private static class DigestOutput extends ByteOutput {
+
+        private MessageDigest target;
+
+        @Override
+        public void write(byte value) {
+            target.update(value);
+        }
+
+        @Override
+        public void write(byte[] value, int offset, int length) {
+            target.update(value, offset, length);
+        }
+
+        @Override
+        public void writeLazy(byte[] value, int offset, int length) {
+            target.update(value, offset, length);
+        }
+
+        @Override
+        public void write(ByteBuffer value) {
+            target.update(value);
+        }
+
+        @Override
+        public void writeLazy(ByteBuffer value) {
+            target.update(value);
+        }
+    }
 }
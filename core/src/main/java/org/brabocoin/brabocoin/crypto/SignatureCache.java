@@ -0,0 +1,195 @@
+package org.brabocoin.brabocoin.crypto;
+
+import org.brabocoin.brabocoin.model.Hash;
+import org.brabocoin.brabocoin.model.crypto.Signature;
+import org.jetbrains.annotations.NotNull;
+
+import java.math.BigInteger;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of signatures that are verified to be valid.
+ * <p>
+ * A signature is identified by the hash of the signed message, the public key and the {@code r}
+ * and {@code s} values of the signature. Only valid signatures are stored, such that a signature
+ * that was verified when the transaction entered the transaction pool does not need to be
+ * verified again when the transaction is included in a block. When the cache is full, the oldest
+ * signatures are evicted first. A cache with a maximum size of {@code 0} is disabled.
+ */
+public class SignatureCache {
+
+    /**
+     * Maximum number of cached signatures.
+     */
+    private final int maxSize;
+
+    private final @NotNull Map<Key, Boolean> entries = new ConcurrentHashMap<>();
+
+    /**
+     * The cached signatures in order of insertion.
+     */
+    private final @NotNull Queue<Key> insertionOrder = new ConcurrentLinkedQueue<>();
+
+    private final @NotNull LongAdder hitCount = new LongAdder();
+    private final @NotNull LongAdder missCount = new LongAdder();
+
+    /**
+     * Creates a new signature cache.
+     *
+     * @param maxSize
+     *     Maximum number of cached signatures, or {@code 0} to disable the cache.
+     */
+    public SignatureCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Checks whether the signature is known to be valid for the message.
+     *
+     * @param signature
+     *     The signature.
+     * @param messageHash
+     *     The hash of the signed message.
+     * @return Whether the signature is cached.
+     */
+    public boolean contains(@NotNull Signature signature, @NotNull Hash messageHash) {
+        if (!isEnabled()) {
+            return false;
+        }
+
+        if (entries.containsKey(new Key(signature, messageHash))) {
+            hitCount.increment();
+            return true;
+        }
+
+        missCount.increment();
+        return false;
+    }
+
+    /**
+     * Add a signature that is verified to be valid for the message.
+     *
+     * @param signature
+     *     The valid signature.
+     * @param messageHash
+     *     The hash of the signed message.
+     */
+    public void put(@NotNull Signature signature, @NotNull Hash messageHash) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        Key key = new Key(signature, messageHash);
+        if (entries.putIfAbsent(key, Boolean.TRUE) != null) {
+            return;
+        }
+
+        insertionOrder.add(key);
+
+        while (entries.size() > maxSize) {
+            Key eldest = insertionOrder.poll();
+            if (eldest == null) {
+                break;
+            }
+            entries.remove(eldest);
+        }
+    }
+
+    /**
+     * Removes all signatures from the cache.
+     */
+    public void clear() {
+        entries.clear();
+        insertionOrder.clear();
+    }
+
+    /**
+     * Whether the cache is enabled.
+     *
+     * @return Whether the maximum size of the cache is larger than zero.
+     */
+    public boolean isEnabled() {
+        return maxSize > 0;
+    }
+
+    /**
+     * The number of cached signatures.
+     *
+     * @return The number of signatures in the cache.
+     */
+    public int getCount() {
+        return entries.size();
+    }
+
+    /**
+     * The number of lookups of signatures that were cached.
+     *
+     * @return The hit count.
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * The number of lookups of signatures that were not cached.
+     *
+     * @return The miss count.
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * The fraction of lookups of signatures that were cached.
+     *
+     * @return The hit rate, or {@code 0} if no lookups were done.
+     */
+    public double getHitRate() {
+        long hits = getHitCount();
+        long total = hits + getMissCount();
+        return total == 0 ? 0 : (double)hits / total;
+    }
+
+    private static class Key {
+
+        private final @NotNull Hash messageHash;
+
+        private final @NotNull PublicKey publicKey;
+
+        private final @NotNull BigInteger r;
+
+        private final @NotNull BigInteger s;
+
+        private Key(@NotNull Signature signature, @NotNull Hash messageHash) {
+            this.messageHash = messageHash;
+            this.publicKey = signature.getPublicKey();
+            this.r = signature.getR();
+            this.s = signature.getS();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key)o;
+            return messageHash.equals(key.messageHash)
+                && r.equals(key.r)
+                && s.equals(key.s)
+                && publicKey.equals(key.publicKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(messageHash, r, s);
+        }
+    }
+}
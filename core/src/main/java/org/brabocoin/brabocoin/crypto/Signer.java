@@ -33,13 +33,31 @@ public class Signer {
     private final @NotNull EllipticCurve curve;
 
     /**
-     * Create a new signing using the given elliptic curve.
+     * Cache of signatures that are verified to be valid.
+     */
+    private final @NotNull SignatureCache signatureCache;
+
+    /**
+     * Create a new signing using the given elliptic curve, without signature cache.
      *
      * @param curve
      *     The elliptic curve.
      */
     public Signer(@NotNull EllipticCurve curve) {
+        this(curve, new SignatureCache(0));
+    }
+
+    /**
+     * Create a new signing using the given elliptic curve.
+     *
+     * @param curve
+     *     The elliptic curve.
+     * @param signatureCache
+     *     Cache of signatures that are verified to be valid.
+     */
+    public Signer(@NotNull EllipticCurve curve, @NotNull SignatureCache signatureCache) {
         this.curve = curve;
+        this.signatureCache = signatureCache;
     }
 
     /**
@@ -51,7 +69,7 @@ public class Signer {
      *     The private key used to sign the message.
      * @return The signature, containing the private key, of the message.
      */
-    public synchronized @NotNull Signature signMessage(@NotNull ByteString message,
+    public @NotNull Signature signMessage(@NotNull ByteString message,
                                           @NotNull BigInteger privateKey) {
         LOGGER.fine("Signing a message.");
 
@@ -94,6 +112,9 @@ public class Signer {
 
     /**
      * Verify a signature.
+     * <p>
+     * Signatures found in the signature cache are not verified again. Valid signatures are added
+     * to the cache.
      *
      * @param signature
      *     The signature to verify.
@@ -101,8 +122,28 @@ public class Signer {
      *     The message that is signed.
      * @return Whether the signature is valid.
      */
-    public synchronized boolean verifySignature(@NotNull Signature signature,
+    public boolean verifySignature(@NotNull Signature signature,
                                    @NotNull ByteString message) {
+        if (!signatureCache.isEnabled()) {
+            return verifySignatureUncached(signature, message);
+        }
+
+        Hash messageHash = Hashing.digestSHA256(message);
+        if (signatureCache.contains(signature, messageHash)) {
+            LOGGER.fine("Signature found in signature cache.");
+            return true;
+        }
+
+        boolean valid = verifySignatureUncached(signature, message);
+        if (valid) {
+            signatureCache.put(signature, messageHash);
+        }
+
+        return valid;
+    }
+
+    private boolean verifySignatureUncached(@NotNull Signature signature,
+                                            @NotNull ByteString message) {
         ECPoint publicKeyPoint = signature.getPublicKey().getPoint();
         CipherParameters parameters = new ECPublicKeyParameters(publicKeyPoint, curve.getDomain());
 
@@ -129,7 +170,7 @@ public class Signer {
      *     The hash of the public key that is used in the signature.
      * @return Whether the signature is valid.
      */
-    public synchronized boolean verifySignaturePublicKey(@NotNull Signature signature, @NotNull Hash publicKeyHash) {
+    public boolean verifySignaturePublicKey(@NotNull Signature signature, @NotNull Hash publicKeyHash) {
         LOGGER.fine("Checking if public key hash corresponds to public key in signature.");
         if (!signature.getPublicKey().getHash().equals(publicKeyHash)) {
             LOGGER.fine("Public key hash does not match signature public key: signature invalid.");
@@ -139,4 +180,8 @@ public class Signer {
         LOGGER.fine("Public key hash matches signature public key.");
         return true;
     }
+
+    public @NotNull SignatureCache getSignatureCache() {
+        return signatureCache;
+    }
 }
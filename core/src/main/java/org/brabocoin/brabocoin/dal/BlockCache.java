@@ -0,0 +1,185 @@
+package org.brabocoin.brabocoin.dal;
+
+import org.brabocoin.brabocoin.model.Block;
+import org.brabocoin.brabocoin.model.Hash;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.text.MessageFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Least recently used cache of decoded blocks, bounded by the total size of the cached blocks.
+ * <p>
+ * The size of a block is estimated by its serialized size. A cache with a maximum size of
+ * {@code 0} is disabled and never stores any block.
+ */
+public class BlockCache {
+
+    private static final Logger LOGGER = Logger.getLogger(BlockCache.class.getName());
+
+    /**
+     * Maximum total size of the cached blocks in bytes.
+     */
+    private final long maxSize;
+
+    /**
+     * The cached blocks by hash, in order of access.
+     */
+    private final @NotNull Map<Hash, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Total size of the cached blocks in bytes.
+     */
+    private long size;
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * Creates a new block cache.
+     *
+     * @param maxSize
+     *     Maximum total size of the cached blocks in bytes, or {@code 0} to disable the cache.
+     */
+    public BlockCache(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Get the cached block with the given hash.
+     *
+     * @param hash
+     *     The hash of the block.
+     * @return The block, or {@code null} if the block is not cached.
+     */
+    public synchronized @Nullable Block get(@NotNull Hash hash) {
+        if (!isEnabled()) {
+            return null;
+        }
+
+        Entry entry = entries.get(hash);
+        if (entry == null) {
+            missCount++;
+            return null;
+        }
+
+        hitCount++;
+        return entry.block;
+    }
+
+    /**
+     * Add a block to the cache, evicting the least recently used blocks when the maximum size is
+     * exceeded.
+     * <p>
+     * Blocks larger than the maximum size of the cache are not cached.
+     *
+     * @param block
+     *     The block to add.
+     * @param serializedSize
+     *     The serialized size of the block in bytes.
+     */
+    public synchronized void put(@NotNull Block block, int serializedSize) {
+        if (!isEnabled() || serializedSize > maxSize) {
+            return;
+        }
+
+        Entry previous = entries.put(block.getHash(), new Entry(block, serializedSize));
+        if (previous != null) {
+            size -= previous.size;
+        }
+        size += serializedSize;
+
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (size > maxSize) {
+            Entry eldest = iterator.next();
+            iterator.remove();
+            size -= eldest.size;
+            evictionCount++;
+
+            LOGGER.log(Level.FINEST, () -> MessageFormat.format(
+                "Evicted block {0} from the cache.",
+                eldest.block.getHash()
+            ));
+        }
+    }
+
+    /**
+     * Removes all blocks from the cache.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        size = 0;
+    }
+
+    /**
+     * Whether the cache is enabled.
+     *
+     * @return Whether the maximum size of the cache is larger than zero.
+     */
+    public boolean isEnabled() {
+        return maxSize > 0;
+    }
+
+    /**
+     * The number of cached blocks.
+     *
+     * @return The number of blocks in the cache.
+     */
+    public synchronized int getCount() {
+        return entries.size();
+    }
+
+    /**
+     * The total serialized size of the cached blocks.
+     *
+     * @return The size of the cache in bytes.
+     */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    /**
+     * The number of lookups that were served from the cache.
+     *
+     * @return The hit count.
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * The number of lookups for blocks that were not cached.
+     *
+     * @return The miss count.
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * The number of blocks evicted to keep the cache within its maximum size.
+     *
+     * @return The eviction count.
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    private static class Entry {
+
+        private final @NotNull Block block;
+
+        private final int size;
+
+        private Entry(@NotNull Block block, int size) {
+            this.block = block;
+            this.size = size;
+        }
+    }
+}
@@ -23,10 +23,11 @@ import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
 import java.nio.file.Paths;
 import java.text.MessageFormat;
 import java.time.Instant;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -52,6 +53,26 @@ public class BlockDatabase {
 
     private final @NotNull File directory;
 
+    /**
+     * Reader for the block and undo files.
+     */
+    private final @NotNull MappedFileReader fileReader;
+
+    /**
+     * Writer for the block and undo files.
+     */
+    private final @NotNull BlockFileWriter fileWriter;
+
+    /**
+     * Cache of recently stored and retrieved blocks.
+     */
+    private final @NotNull BlockCache blockCache;
+
+    /**
+     * In-memory index of the block information records of all stored blocks.
+     */
+    private final @NotNull BlockInfoIndex blockIndex;
+
     /**
      * Creates a new block database using provided the key-value store and directory for the
      * block files.
@@ -68,9 +89,39 @@ public class BlockDatabase {
     public BlockDatabase(@NotNull KeyValueStore storage,
                          @NotNull File blockStoreDirectory,
                          int maxFileSize) throws DatabaseException {
+        this(storage, blockStoreDirectory, maxFileSize, new BlockFileWriter(), new BlockCache(0));
+    }
+
+    /**
+     * Creates a new block database using provided the key-value store and directory for the
+     * block files, writing the files with the given writer and caching decoded blocks in the
+     * given cache.
+     *
+     * @param storage
+     *     The key-value store to use for the database.
+     * @param blockStoreDirectory
+     *     The directory in which the block files are stored.
+     * @param maxFileSize
+     *     The maximum file size of the storage files.
+     * @param fileWriter
+     *     The writer for the block and undo files.
+     * @param blockCache
+     *     The cache for decoded blocks.
+     * @throws DatabaseException
+     *     When the database could not be initialized.
+     */
+    public BlockDatabase(@NotNull KeyValueStore storage,
+                         @NotNull File blockStoreDirectory,
+                         int maxFileSize,
+                         @NotNull BlockFileWriter fileWriter,
+                         @NotNull BlockCache blockCache) throws DatabaseException {
         this.storage = storage;
         this.directory = blockStoreDirectory;
         this.maxFileSize = maxFileSize;
+        this.fileReader = new MappedFileReader();
+        this.fileWriter = fileWriter;
+        this.blockCache = blockCache;
+        this.blockIndex = new BlockInfoIndex();
 
         initialize();
     }
@@ -106,6 +157,37 @@ public class BlockDatabase {
             registerNewBlockFile(0);
             LOGGER.fine("Current file key created.");
         }
+
+        loadBlockIndex();
+    }
+
+    /**
+     * Loads the block information records of all stored blocks into the in-memory index.
+     *
+     * @throws DatabaseException
+     *     When the block information could not be read.
+     */
+    private void loadBlockIndex() throws DatabaseException {
+        LOGGER.info("Loading block index.");
+
+        try (CloseableIterator<Map.Entry<ByteString, ByteString>> iterator = storage.iterator(
+            KEY_PREFIX_BLOCK)) {
+            while (iterator.hasNext()) {
+                Map.Entry<ByteString, ByteString> entry = iterator.next();
+                Hash hash = new Hash(entry.getKey().substring(KEY_PREFIX_BLOCK.size()));
+                BlockInfo info = parseProtoValue(
+                    entry.getValue(),
+                    BlockInfo.Builder.class,
+                    BrabocoinStorageProtos.BlockInfo.parser()
+                );
+
+                if (info != null) {
+                    blockIndex.put(hash, info);
+                }
+            }
+        }
+
+        LOGGER.log(Level.INFO, "Loaded {0} blocks into the block index.", blockIndex.size());
     }
 
     /**
@@ -172,7 +254,7 @@ public class BlockDatabase {
         LOGGER.log(Level.FINEST, "key: {0}", toHexString(key));
 
         // Check if block is already stored
-        if (storage.has(key)) {
+        if (blockIndex.contains(hash)) {
             LOGGER.fine("Block is already stored.");
             return findBlockInfo(hash);
         }
@@ -190,7 +272,11 @@ public class BlockDatabase {
         LOGGER.log(Level.FINEST, () -> MessageFormat.format("fileNumber: {0}", fileNumber));
 
         // Position in file where the block is be written
-        int offsetInFile = writeProtoToFile(getBlockFileName(fileNumber), protoBlock);
+        int offsetInFile = writeProtoToFile(
+            getBlockFileName(fileNumber),
+            getBlockFileInfo(fileNumber).getSize(),
+            protoBlock
+        );
         LOGGER.log(Level.FINEST, () -> MessageFormat.format("offsetInFile: {0}", offsetInFile));
 
         // Write new file info to database
@@ -224,6 +310,9 @@ public class BlockDatabase {
         );
         LOGGER.log(Level.FINEST, () -> MessageFormat.format("value: {0}", toHexString(value)));
         store(key, value);
+        blockIndex.put(hash, blockInfo);
+
+        blockCache.put(block, size);
 
         return blockInfo;
     }
@@ -256,12 +345,26 @@ public class BlockDatabase {
         int undoSize = protoUndo.getSerializedSize();
         LOGGER.finest(() -> MessageFormat.format("undoSize={0}", undoSize));
 
-        int offsetInUndoFile = writeProtoToFile(
-            getUndoFileName(info.getFileNumber()),
-            protoUndo
-        );
+        String undoFileName = getUndoFileName(info.getFileNumber());
+        BlockFileInfo fileInfo = getBlockFileInfo(info.getFileNumber());
+
+        // Undo files written before the undo size was recorded have no preallocated space
+        int undoFileEnd = fileInfo.getUndoSize();
+        if (undoFileEnd == 0) {
+            undoFileEnd = Math.toIntExact(new File(undoFileName).length());
+        }
+
+        int offsetInUndoFile = writeProtoToFile(undoFileName, undoFileEnd, protoUndo);
         LOGGER.finest(() -> MessageFormat.format("offsetInUndoFile={0}", offsetInUndoFile));
 
+        setBlockFileInfo(info.getFileNumber(), new BlockFileInfo(
+            fileInfo.getNumberOfBlocks(),
+            fileInfo.getSize(),
+            fileInfo.getLowestBlockHeight(),
+            fileInfo.getHighestBlockHeight(),
+            offsetInUndoFile + undoSize
+        ));
+
         BlockInfo newInfo = new BlockInfo(
             info.getPreviousBlockHash(),
             info.getMerkleRoot(),
@@ -286,17 +389,18 @@ public class BlockDatabase {
             BrabocoinStorageProtos.BlockInfo.class
         );
         store(key, value);
+        blockIndex.put(block.getHash(), newInfo);
 
         return newInfo;
     }
 
-    private synchronized int writeProtoToFile(String fileName,
+    private synchronized int writeProtoToFile(String fileName, int fileEnd,
                                               @NotNull MessageLite proto) throws DatabaseException {
         int offsetInFile;
-        try (RandomAccessFile file = new RandomAccessFile(fileName, "rw")) {
-            file.seek(file.length());
-            offsetInFile = Math.toIntExact(file.getFilePointer());
-            file.write(proto.toByteArray());
+        try {
+            offsetInFile = Math.toIntExact(
+                fileWriter.append(fileName, fileEnd, ByteBuffer.wrap(proto.toByteArray()))
+            );
         }
         catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Data could not be written to disk.", e);
@@ -306,6 +410,18 @@ public class BlockDatabase {
         return offsetInFile;
     }
 
+    private synchronized @NotNull BlockFileInfo getBlockFileInfo(
+        int fileNumber) throws DatabaseException {
+        BlockFileInfo fileInfo = findBlockFileInfo(fileNumber);
+
+        if (fileInfo == null) {
+            LOGGER.severe("Could not find file info.");
+            throw new DatabaseException("Block file info was not found.");
+        }
+
+        return fileInfo;
+    }
+
     private synchronized String getUndoFileName(int fileNumber) {
         return Paths.get(this.directory.getPath(), "und" + fileNumber + ".dat").toString();
     }
@@ -362,6 +478,7 @@ public class BlockDatabase {
             BrabocoinStorageProtos.BlockInfo.class
         );
         store(key, value);
+        blockIndex.put(blockHash, newInfo);
 
         return newInfo;
     }
@@ -394,7 +511,8 @@ public class BlockDatabase {
             fileInfo.getNumberOfBlocks() + 1,
             fileInfo.getSize() + serializedSize,
             Math.min(fileInfo.getLowestBlockHeight(), block.getBlockHeight()),
-            Math.max(fileInfo.getHighestBlockHeight(), block.getBlockHeight())
+            Math.max(fileInfo.getHighestBlockHeight(), block.getBlockHeight()),
+            fileInfo.getUndoSize()
         );
         LOGGER.fine("Created new file info for updated version.");
 
@@ -432,6 +550,11 @@ public class BlockDatabase {
         else {
             LOGGER.fine("Registering next block file, block does not fit in current file.");
             registerNewBlockFile(current + 1);
+
+            // Drop the partial mappings of the previous files, such that they are mapped once
+            // at their final size when read again
+            fileReader.release(getBlockFileName(current));
+            fileReader.release(getUndoFileName(current));
             return current + 1;
         }
     }
@@ -460,24 +583,69 @@ public class BlockDatabase {
             Level.FINEST,
             () -> MessageFormat.format("Hash: {0}", toHexString(hash.getValue()))
         );
-        BlockInfo blockInfo = findBlockInfo(hash);
+        Block cachedBlock = blockCache.get(hash);
+        if (cachedBlock != null) {
+            LOGGER.fine("Block found in cache.");
+            return cachedBlock;
+        }
 
-        if (blockInfo == null) {
+        int id = blockIndex.find(hash);
+
+        if (id == BlockInfoIndex.NOT_FOUND) {
             LOGGER.fine("Block info not found.");
             return null;
         }
         LOGGER.fine("Block info found.");
 
-        ByteString rawBlock = readRawBlockFromFile(blockInfo);
+        ByteString rawBlock = readRawBlockFromFile(id);
         LOGGER.log(
             Level.FINEST,
             () -> MessageFormat.format("Raw block data: {0}", toHexString(rawBlock))
         );
-        return parseProtoValue(rawBlock, Block.Builder.class, BrabocoinProtos.Block.parser());
+        Block block = parseProtoValue(
+            rawBlock,
+            Block.Builder.class,
+            BrabocoinProtos.Block.parser()
+        );
+
+        if (block != null) {
+            blockCache.put(block, blockIndex.getSizeInFile(id));
+        }
+
+        return block;
+    }
+
+    /**
+     * Find the serialized block with the given block hash, as stored on disk.
+     * <p>
+     * The data is the serialized {@link BrabocoinProtos.Block} message, which can be sent to
+     * peers without parsing the block.
+     *
+     * @param hash
+     *     The hash of the block to find.
+     * @return The serialized block with the given hash, or {@code null} if no block with that
+     * hash is stored in the database.
+     * @throws DatabaseException
+     *     When the block could not be retrieved.
+     */
+    public synchronized @Nullable ByteString findRawBlock(
+        @NotNull Hash hash) throws DatabaseException {
+        LOGGER.fine("Finding raw block for a given hash.");
+        int id = blockIndex.find(hash);
+
+        if (id == BlockInfoIndex.NOT_FOUND) {
+            LOGGER.fine("Block info not found.");
+            return null;
+        }
+
+        return readRawBlockFromFile(id);
     }
 
     /**
      * Find the block information from the database for the block with the given hash.
+     * <p>
+     * The block information is retrieved from the in-memory block index, which is kept in sync
+     * with the database.
      *
      * @param hash
      *     The hash of the block to find the block information for.
@@ -489,26 +657,17 @@ public class BlockDatabase {
     public synchronized @Nullable BlockInfo findBlockInfo(
         @NotNull Hash hash) throws DatabaseException {
         LOGGER.fine("Finding block info for a given hash.");
-        ByteString key = getBlockKey(hash);
-        LOGGER.log(Level.FINEST, () -> MessageFormat.format("key: {0}", toHexString(key)));
-        ByteString value = retrieve(key);
-        LOGGER.log(Level.FINEST, () -> MessageFormat.format("value: {0}", toHexString(value)));
-
-        return parseProtoValue(
-            value,
-            BlockInfo.Builder.class,
-            BrabocoinStorageProtos.BlockInfo.parser()
-        );
+        return blockIndex.get(hash);
     }
 
     private synchronized @NotNull ByteString readRawBlockFromFile(
-        @NotNull BlockInfo blockInfo) throws DatabaseException {
+        int id) throws DatabaseException {
         LOGGER.fine("Read raw block from file.");
-        String fileName = getBlockFileName(blockInfo.getFileNumber());
+        String fileName = getBlockFileName(blockIndex.getFileNumber(id));
         LOGGER.log(Level.FINEST, () -> MessageFormat.format("filename: {0}", fileName));
-        int offset = blockInfo.getOffsetInFile();
+        int offset = blockIndex.getOffsetInFile(id);
         LOGGER.log(Level.FINEST, () -> MessageFormat.format("offset: {0}", offset));
-        int size = blockInfo.getSizeInFile();
+        int size = blockIndex.getSizeInFile(id);
         LOGGER.log(Level.FINEST, () -> MessageFormat.format("size: {0}", size));
 
         return readBytesFromFile(fileName, offset, size);
@@ -541,20 +700,14 @@ public class BlockDatabase {
     private synchronized @NotNull ByteString readBytesFromFile(@NotNull String fileName, int offset,
                                                                int size) throws DatabaseException {
         LOGGER.fine("Read raw bytes from file.");
-        byte[] data;
 
-        try (RandomAccessFile file = new RandomAccessFile(fileName, "r")) {
-            data = new byte[size];
-            file.seek(offset);
-            file.readFully(data);
-            LOGGER.fine("Read file into input stream.");
+        try {
+            return fileReader.read(fileName, offset, size);
         }
         catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Could not read file: {0}", e.getMessage());
             throw new DatabaseException("Data could not be read from file.", e);
         }
-
-        return ByteString.copyFrom(data);
     }
 
     /**
@@ -625,8 +778,7 @@ public class BlockDatabase {
      *     When the block information could not be retrieved.
      */
     public synchronized boolean hasBlock(@NotNull Hash hash) throws DatabaseException {
-        ByteString key = getBlockKey(hash);
-        return storage.has(key);
+        return blockIndex.contains(hash);
     }
 
     /**
@@ -694,4 +846,38 @@ public class BlockDatabase {
 
         store(key, value);
     }
+
+    /**
+     * Get the writer of the block and undo files.
+     *
+     * @return The block file writer.
+     */
+    public @NotNull BlockFileWriter getFileWriter() {
+        return fileWriter;
+    }
+
+    /**
+     * Get the cache of decoded blocks.
+     *
+     * @return The block cache.
+     */
+    public @NotNull BlockCache getBlockCache() {
+        return blockCache;
+    }
+
+    /**
+     * Syncs and closes the block and undo files that are open for writing.
+     *
+     * @throws DatabaseException
+     *     When the files could not be closed.
+     */
+    public synchronized void close() throws DatabaseException {
+        try {
+            fileWriter.close();
+        }
+        catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Block files could not be closed.", e);
+            throw new DatabaseException("Block files could not be closed.", e);
+        }
+    }
 }
@@ -0,0 +1,190 @@
+package org.brabocoin.brabocoin.dal;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.text.MessageFormat;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Appends records to a single block or undo file through a file channel that is kept open.
+ * <p>
+ * Without preallocation, records are appended at the physical end of the file. When preallocation
+ * is enabled, the file is extended with zeros in chunks ahead of the data, such that the file grows
+ * in large contiguous steps instead of one record at a time. The physical size of the file is then
+ * no indication of the amount of data stored, so the appender keeps track of the logical end of the
+ * file instead.
+ */
+public class BlockFileAppender implements Closeable {
+
+    private static final Logger LOGGER = Logger.getLogger(BlockFileAppender.class.getName());
+
+    /**
+     * Buffer of zeros used to preallocate file space.
+     */
+    private static final ByteBuffer ZEROS = ByteBuffer.allocateDirect(64 * 1024).asReadOnlyBuffer();
+
+    private final @NotNull String fileName;
+
+    private final @NotNull FileChannel channel;
+
+    /**
+     * The size of the chunks in which file space is preallocated, or {@code 0} if preallocation
+     * is disabled.
+     */
+    private final long preallocationSize;
+
+    /**
+     * The physical file size up to which space is preallocated.
+     */
+    private final long maxPreallocatedSize;
+
+    /**
+     * The logical end of the file, when preallocation is enabled.
+     */
+    private long position;
+
+    /**
+     * The physical size of the file.
+     */
+    private long allocated;
+
+    /**
+     * The number of bytes written since the last sync.
+     */
+    private long unsyncedBytes;
+
+    /**
+     * Opens an appender on the given file, creating the file if it does not exist.
+     *
+     * @param fileName
+     *     The name of the file.
+     * @param position
+     *     The logical end of the data that is already stored in the file. Only used when
+     *     preallocation is enabled.
+     * @param preallocationSize
+     *     The size of the chunks in which file space is preallocated, or {@code 0} to disable
+     *     preallocation.
+     * @param maxPreallocatedSize
+     *     The physical file size up to which space is preallocated.
+     * @throws IOException
+     *     When the file could not be opened.
+     */
+    public BlockFileAppender(@NotNull String fileName, long position, long preallocationSize,
+                             long maxPreallocatedSize) throws IOException {
+        this.fileName = fileName;
+        this.position = position;
+        this.preallocationSize = preallocationSize;
+        this.maxPreallocatedSize = maxPreallocatedSize;
+        this.channel = FileChannel.open(
+            Paths.get(fileName),
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE
+        );
+        this.allocated = channel.size();
+
+        LOGGER.log(Level.FINE, () -> MessageFormat.format(
+            "Opened file {0} for appending at position {1}.",
+            fileName,
+            position
+        ));
+    }
+
+    /**
+     * Append a record to the file.
+     *
+     * @param data
+     *     The record to write. All remaining bytes of the buffer are written.
+     * @return The offset in the file at which the record is written.
+     * @throws IOException
+     *     When the record could not be written.
+     */
+    public synchronized long append(@NotNull ByteBuffer data) throws IOException {
+        long offset = preallocationSize > 0 ? position : channel.size();
+        int length = data.remaining();
+
+        preallocate(offset + length);
+
+        long writePosition = offset;
+        while (data.hasRemaining()) {
+            writePosition += channel.write(data, writePosition);
+        }
+
+        position = offset + length;
+        allocated = Math.max(allocated, position);
+        unsyncedBytes += length;
+
+        return offset;
+    }
+
+    private void preallocate(long end) throws IOException {
+        if (preallocationSize <= 0 || end <= allocated) {
+            return;
+        }
+
+        long chunks = (end + preallocationSize - 1) / preallocationSize;
+        long target = Math.max(end, Math.min(chunks * preallocationSize, maxPreallocatedSize));
+
+        LOGGER.log(Level.FINE, () -> MessageFormat.format(
+            "Preallocating file {0} from {1} to {2} bytes.",
+            fileName,
+            allocated,
+            target
+        ));
+
+        long writePosition = allocated;
+        while (writePosition < target) {
+            ByteBuffer zeros = ZEROS.duplicate();
+            zeros.limit((int)Math.min(zeros.capacity(), target - writePosition));
+            writePosition += channel.write(zeros, writePosition);
+        }
+
+        allocated = target;
+    }
+
+    /**
+     * Force all written data to the storage device.
+     *
+     * @throws IOException
+     *     When the data could not be synced.
+     */
+    public synchronized void sync() throws IOException {
+        if (unsyncedBytes == 0) {
+            return;
+        }
+
+        channel.force(false);
+        unsyncedBytes = 0;
+    }
+
+    /**
+     * The number of bytes written since the last sync.
+     *
+     * @return The number of unsynced bytes.
+     */
+    public synchronized long getUnsyncedBytes() {
+        return unsyncedBytes;
+    }
+
+    /**
+     * Syncs and closes the file.
+     *
+     * @throws IOException
+     *     When the file could not be synced or closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            sync();
+        }
+        finally {
+            channel.close();
+        }
+    }
+}
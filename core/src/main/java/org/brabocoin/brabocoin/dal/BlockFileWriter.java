@@ -0,0 +1,371 @@
+package org.brabocoin.brabocoin.dal;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.text.MessageFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Writes records to the block and undo files of the {@link BlockDatabase}.
+ * <p>
+ * An appender is kept open for the most recently written files, such that the files are not
+ * reopened for every record. When data is forced to disk is determined by the {@link SyncPolicy}.
+ * The writer records the latency of all writes, including the time spent preallocating and
+ * syncing.
+ */
+public class BlockFileWriter implements Closeable {
+
+    private static final Logger LOGGER = Logger.getLogger(BlockFileWriter.class.getName());
+
+    /**
+     * Maximum number of files that are kept open.
+     */
+    private static final int MAX_OPEN_FILES = 4;
+
+    /**
+     * Determines when written data is forced to the storage device.
+     */
+    public enum SyncPolicy {
+        /**
+         * Data is never synced explicitly, except when the file is closed.
+         */
+        NONE,
+
+        /**
+         * Data is synced after every record.
+         */
+        BLOCK,
+
+        /**
+         * Data is synced when a given amount of bytes is written, or when a given time has
+         * passed since the last sync.
+         */
+        GROUP;
+
+        /**
+         * Parse the sync policy from its case-insensitive name.
+         *
+         * @param name
+         *     The name of the policy.
+         * @return The sync policy.
+         * @throws IllegalArgumentException
+         *     When the name is not a valid sync policy.
+         */
+        public static @NotNull SyncPolicy fromName(@NotNull String name) {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private final @NotNull SyncPolicy syncPolicy;
+
+    /**
+     * Maximum time in milliseconds between syncs for group commits.
+     */
+    private final long syncInterval;
+
+    /**
+     * Maximum number of unsynced bytes over all open files for group commits.
+     */
+    private final long syncBytes;
+
+    /**
+     * The size of the chunks in which file space is preallocated.
+     */
+    private final long preallocationSize;
+
+    /**
+     * The physical file size up to which space is preallocated.
+     */
+    private final long maxFileSize;
+
+    /**
+     * The open appenders by file name, in order of access.
+     */
+    private final @NotNull Map<String, BlockFileAppender> appenders = new LinkedHashMap<>(
+        MAX_OPEN_FILES,
+        0.75f,
+        true
+    );
+
+    private final @Nullable ScheduledExecutorService scheduler;
+
+    private long lastSyncTime = System.nanoTime();
+
+    /**
+     * The number of bytes written to all open files that are not yet synced.
+     */
+    private long unsyncedBytes;
+
+    private long writeCount;
+    private long totalWriteTime;
+    private long maxWriteTime;
+    private long syncCount;
+    private long totalSyncTime;
+
+    /**
+     * Creates a writer that does not sync explicitly and does not preallocate file space.
+     */
+    public BlockFileWriter() {
+        this(SyncPolicy.NONE, 0, 0, 0, 0);
+    }
+
+    /**
+     * Creates a new block file writer.
+     *
+     * @param syncPolicy
+     *     The policy that determines when data is synced.
+     * @param syncInterval
+     *     Maximum time in milliseconds between syncs, when using group commits.
+     * @param syncBytes
+     *     Maximum number of unsynced bytes over all open files, when using group commits.
+     * @param preallocationSize
+     *     The size of the chunks in which file space is preallocated, or {@code 0} to disable
+     *     preallocation.
+     * @param maxFileSize
+     *     The physical file size up to which space is preallocated.
+     */
+    public BlockFileWriter(@NotNull SyncPolicy syncPolicy, int syncInterval, int syncBytes,
+                           int preallocationSize, int maxFileSize) {
+        this.syncPolicy = syncPolicy;
+        this.syncInterval = syncInterval;
+        this.syncBytes = syncBytes;
+        this.preallocationSize = preallocationSize;
+        this.maxFileSize = maxFileSize;
+
+        if (syncPolicy == SyncPolicy.GROUP && syncInterval > 0) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "block-file-sync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(
+                this::syncIfDue,
+                syncInterval,
+                syncInterval,
+                TimeUnit.MILLISECONDS
+            );
+        }
+        else {
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Append a record to a file.
+     *
+     * @param fileName
+     *     The name of the file.
+     * @param position
+     *     The logical end of the data already stored in the file. This value is only used when
+     *     the file is not yet opened by this writer.
+     * @param data
+     *     The record to write.
+     * @return The offset in the file at which the record is written.
+     * @throws IOException
+     *     When the record could not be written.
+     */
+    public synchronized long append(@NotNull String fileName, long position,
+                                    @NotNull ByteBuffer data) throws IOException {
+        long start = System.nanoTime();
+
+        BlockFileAppender appender = getAppender(fileName, position);
+        int length = data.remaining();
+        long offset = appender.append(data);
+        unsyncedBytes += length;
+
+        switch (syncPolicy) {
+            case BLOCK:
+                sync(appender);
+                break;
+            case GROUP:
+                if (unsyncedBytes >= syncBytes
+                    || System.nanoTime() - lastSyncTime >= TimeUnit.MILLISECONDS.toNanos(
+                    syncInterval)) {
+                    syncAll();
+                }
+                break;
+            default:
+                break;
+        }
+
+        long latency = System.nanoTime() - start;
+        writeCount++;
+        totalWriteTime += latency;
+        maxWriteTime = Math.max(maxWriteTime, latency);
+
+        LOGGER.log(Level.FINEST, () -> MessageFormat.format(
+            "Wrote {0} bytes to {1} in {2} us.",
+            data.limit(),
+            fileName,
+            TimeUnit.NANOSECONDS.toMicros(latency)
+        ));
+
+        return offset;
+    }
+
+    private @NotNull BlockFileAppender getAppender(@NotNull String fileName,
+                                                   long position) throws IOException {
+        BlockFileAppender appender = appenders.get(fileName);
+        if (appender != null) {
+            return appender;
+        }
+
+        if (appenders.size() >= MAX_OPEN_FILES) {
+            Iterator<BlockFileAppender> eldest = appenders.values().iterator();
+            BlockFileAppender closing = eldest.next();
+            eldest.remove();
+            unsyncedBytes -= closing.getUnsyncedBytes();
+            closing.close();
+        }
+
+        appender = new BlockFileAppender(fileName, position, preallocationSize, maxFileSize);
+        appenders.put(fileName, appender);
+        return appender;
+    }
+
+    private void sync(@NotNull BlockFileAppender appender) throws IOException {
+        long appenderUnsyncedBytes = appender.getUnsyncedBytes();
+        if (appenderUnsyncedBytes == 0) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        appender.sync();
+        unsyncedBytes -= appenderUnsyncedBytes;
+        long latency = System.nanoTime() - start;
+
+        syncCount++;
+        totalSyncTime += latency;
+        lastSyncTime = System.nanoTime();
+    }
+
+    /**
+     * Force all written data of all open files to the storage device.
+     *
+     * @throws IOException
+     *     When the data could not be synced.
+     */
+    public synchronized void syncAll() throws IOException {
+        if (unsyncedBytes == 0) {
+            lastSyncTime = System.nanoTime();
+            return;
+        }
+
+        for (BlockFileAppender appender : appenders.values()) {
+            sync(appender);
+        }
+        lastSyncTime = System.nanoTime();
+    }
+
+    private synchronized void syncIfDue() {
+        if (System.nanoTime() - lastSyncTime < TimeUnit.MILLISECONDS.toNanos(syncInterval)) {
+            return;
+        }
+
+        try {
+            syncAll();
+        }
+        catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Block files could not be synced.", e);
+        }
+    }
+
+    /**
+     * Syncs and closes all open files.
+     *
+     * @throws IOException
+     *     When a file could not be synced or closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+
+        IOException exception = null;
+        for (BlockFileAppender appender : appenders.values()) {
+            try {
+                appender.close();
+            }
+            catch (IOException e) {
+                exception = e;
+            }
+        }
+        appenders.clear();
+        unsyncedBytes = 0;
+
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    public @NotNull SyncPolicy getSyncPolicy() {
+        return syncPolicy;
+    }
+
+    /**
+     * The number of bytes written to all open files that are not yet synced.
+     *
+     * @return The number of unsynced bytes.
+     */
+    public synchronized long getUnsyncedBytes() {
+        return unsyncedBytes;
+    }
+
+    /**
+     * The number of records written.
+     *
+     * @return The write count.
+     */
+    public synchronized long getWriteCount() {
+        return writeCount;
+    }
+
+    /**
+     * The average latency of a write in nanoseconds, including preallocation and syncing.
+     *
+     * @return The average write latency, or {@code 0} if nothing is written.
+     */
+    public synchronized long getAverageWriteLatency() {
+        return writeCount == 0 ? 0 : totalWriteTime / writeCount;
+    }
+
+    /**
+     * The maximum latency of a write in nanoseconds, including preallocation and syncing.
+     *
+     * @return The maximum write latency.
+     */
+    public synchronized long getMaxWriteLatency() {
+        return maxWriteTime;
+    }
+
+    /**
+     * The number of times a file is synced.
+     *
+     * @return The sync count.
+     */
+    public synchronized long getSyncCount() {
+        return syncCount;
+    }
+
+    /**
+     * The average latency of a sync in nanoseconds.
+     *
+     * @return The average sync latency, or {@code 0} if no file is synced.
+     */
+    public synchronized long getAverageSyncLatency() {
+        return syncCount == 0 ? 0 : totalSyncTime / syncCount;
+    }
+}
@@ -0,0 +1,368 @@
+package org.brabocoin.brabocoin.dal;
+
+import com.google.protobuf.ByteString;
+import org.brabocoin.brabocoin.model.Hash;
+import org.brabocoin.brabocoin.model.dal.BlockInfo;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * In-memory index of the block information records of all stored blocks.
+ * <p>
+ * Every block is assigned an integer id on insertion. The fields of the block information records
+ * are stored in parallel primitive arrays indexed by this id, such that no object per record is
+ * retained. Hashes and nonces are stored in fixed-width slots of {@link #SLOT_SIZE} bytes,
+ * left-padded with zeros, together with their original length. Blocks are looked up by hash in
+ * an open addressing table of ids.
+ * <p>
+ * Block hashes and records with a missing field or a field that does not fit in a slot never
+ * occur for valid blocks. These are kept as objects in separate maps.
+ */
+public class BlockInfoIndex {
+
+    /**
+     * Value returned by {@link #find(Hash)} when the block is not indexed.
+     */
+    public static final int NOT_FOUND = -1;
+
+    /**
+     * The width in bytes of the slots in which hashes and nonces are stored.
+     */
+    static final int SLOT_SIZE = 32;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static final byte FLAG_VALID = 1;
+    private static final byte FLAG_MINED_BY_ME = 1 << 1;
+    private static final byte FLAG_IRREGULAR = 1 << 2;
+    private static final byte FLAG_WIDE_HASH = 1 << 3;
+
+    /**
+     * Open addressing table with linear probing, holding the id plus one of the block at the slot
+     * of its hash code, or {@code 0} for an empty slot. The table is at most half full.
+     */
+    private int[] table = new int[INITIAL_CAPACITY * 2];
+
+    private int[] hashCodes = new int[INITIAL_CAPACITY];
+    private byte[] hashes = new byte[INITIAL_CAPACITY * SLOT_SIZE];
+    private byte[] previousBlockHashes = new byte[INITIAL_CAPACITY * SLOT_SIZE];
+    private byte[] previousBlockHashSizes = new byte[INITIAL_CAPACITY];
+    private byte[] merkleRoots = new byte[INITIAL_CAPACITY * SLOT_SIZE];
+    private byte[] merkleRootSizes = new byte[INITIAL_CAPACITY];
+    private byte[] targetValues = new byte[INITIAL_CAPACITY * SLOT_SIZE];
+    private byte[] targetValueSizes = new byte[INITIAL_CAPACITY];
+    private byte[] nonces = new byte[INITIAL_CAPACITY * SLOT_SIZE];
+    private byte[] nonceSizes = new byte[INITIAL_CAPACITY];
+    private long[] timesReceived = new long[INITIAL_CAPACITY];
+    private int[] networkIds = new int[INITIAL_CAPACITY];
+    private int[] blockHeights = new int[INITIAL_CAPACITY];
+    private int[] transactionCounts = new int[INITIAL_CAPACITY];
+    private int[] fileNumbers = new int[INITIAL_CAPACITY];
+    private int[] offsetsInFile = new int[INITIAL_CAPACITY];
+    private int[] sizesInFile = new int[INITIAL_CAPACITY];
+    private int[] offsetsInUndoFile = new int[INITIAL_CAPACITY];
+    private int[] sizesInUndoFile = new int[INITIAL_CAPACITY];
+    private byte[] flags = new byte[INITIAL_CAPACITY];
+
+    /**
+     * Ids of the blocks of which the hash does not fit in a slot, by hash.
+     */
+    private final @NotNull Map<Hash, Integer> wideHashIds = new HashMap<>();
+
+    /**
+     * Records that do not fit in the fixed-width slots, by id.
+     */
+    private final @NotNull Map<Integer, BlockInfo> irregularRecords = new HashMap<>();
+
+    /**
+     * The number of indexed blocks, which is also the next id to assign.
+     */
+    private int count;
+
+    /**
+     * Add or replace the block information record of a block.
+     *
+     * @param hash
+     *     The hash of the block.
+     * @param info
+     *     The block information record.
+     */
+    public synchronized void put(@NotNull Hash hash, @NotNull BlockInfo info) {
+        int id = find(hash);
+        boolean wideHash = false;
+
+        if (id == NOT_FOUND) {
+            id = count++;
+            ensureCapacity(count);
+            hashCodes[id] = hash.hashCode();
+
+            if (fitsInSlot(hash)) {
+                writeSlot(hashes, id, hash.getValue());
+                insert(id);
+            }
+            else {
+                wideHashIds.put(hash, id);
+                wideHash = true;
+            }
+        }
+        else {
+            wideHash = (flags[id] & FLAG_WIDE_HASH) != 0;
+        }
+
+        timesReceived[id] = info.getTimeReceived();
+        networkIds[id] = info.getNetworkId();
+        blockHeights[id] = info.getBlockHeight();
+        transactionCounts[id] = info.getTransactionCount();
+        fileNumbers[id] = info.getFileNumber();
+        offsetsInFile[id] = info.getOffsetInFile();
+        sizesInFile[id] = info.getSizeInFile();
+        offsetsInUndoFile[id] = info.getOffsetInUndoFile();
+        sizesInUndoFile[id] = info.getSizeInUndoFile();
+        flags[id] = (byte)((info.isValid() ? FLAG_VALID : 0)
+            | (info.isMinedByMe() ? FLAG_MINED_BY_ME : 0)
+            | (wideHash ? FLAG_WIDE_HASH : 0));
+
+        if (!fitsInSlots(info)) {
+            flags[id] |= FLAG_IRREGULAR;
+            irregularRecords.put(id, info);
+            return;
+        }
+
+        irregularRecords.remove(id);
+        previousBlockHashSizes[id] = writeSlot(
+            previousBlockHashes,
+            id,
+            info.getPreviousBlockHash().getValue()
+        );
+        merkleRootSizes[id] = writeSlot(merkleRoots, id, info.getMerkleRoot().getValue());
+        targetValueSizes[id] = writeSlot(targetValues, id, info.getTargetValue().getValue());
+        nonceSizes[id] = writeSlot(
+            nonces,
+            id,
+            ByteString.copyFrom(info.getNonce().toByteArray())
+        );
+    }
+
+    /**
+     * Get the block information record of a block.
+     * <p>
+     * A new record is created on every call. Use {@link #find(Hash)} and the field accessors to
+     * read single fields without allocating.
+     *
+     * @param hash
+     *     The hash of the block.
+     * @return The block information record, or {@code null} if the block is not indexed.
+     */
+    public synchronized @Nullable BlockInfo get(@NotNull Hash hash) {
+        int id = find(hash);
+        if (id == NOT_FOUND) {
+            return null;
+        }
+
+        if ((flags[id] & FLAG_IRREGULAR) != 0) {
+            return irregularRecords.get(id);
+        }
+
+        return new BlockInfo(
+            new Hash(readSlot(previousBlockHashes, id, previousBlockHashSizes[id])),
+            new Hash(readSlot(merkleRoots, id, merkleRootSizes[id])),
+            new Hash(readSlot(targetValues, id, targetValueSizes[id])),
+            new BigInteger(readSlot(nonces, id, nonceSizes[id]).toByteArray()),
+            blockHeights[id],
+            transactionCounts[id],
+            networkIds[id],
+            (flags[id] & FLAG_VALID) != 0,
+            timesReceived[id],
+            fileNumbers[id],
+            offsetsInFile[id],
+            sizesInFile[id],
+            offsetsInUndoFile[id],
+            sizesInUndoFile[id],
+            (flags[id] & FLAG_MINED_BY_ME) != 0
+        );
+    }
+
+    /**
+     * Find the id of a block.
+     * <p>
+     * Ids are never reassigned, such that the id can be used to read the fields of the record
+     * without allocating.
+     *
+     * @param hash
+     *     The hash of the block.
+     * @return The id of the block, or {@link #NOT_FOUND} if the block is not indexed.
+     */
+    public synchronized int find(@NotNull Hash hash) {
+        ByteString value = hash.getValue();
+        int mask = table.length - 1;
+
+        for (int slot = hash.hashCode() & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+            int id = table[slot] - 1;
+            if (hashCodes[id] == hash.hashCode() && slotEquals(hashes, id, value)) {
+                return id;
+            }
+        }
+
+        if (!wideHashIds.isEmpty()) {
+            Integer id = wideHashIds.get(hash);
+            if (id != null) {
+                return id;
+            }
+        }
+
+        return NOT_FOUND;
+    }
+
+    /**
+     * Checks whether the block is indexed.
+     *
+     * @param hash
+     *     The hash of the block.
+     * @return Whether the block is indexed.
+     */
+    public synchronized boolean contains(@NotNull Hash hash) {
+        return find(hash) != NOT_FOUND;
+    }
+
+    /**
+     * The number of indexed blocks.
+     *
+     * @return The number of blocks.
+     */
+    public synchronized int size() {
+        return count;
+    }
+
+    public synchronized int getBlockHeight(int id) {
+        return blockHeights[id];
+    }
+
+    public synchronized boolean isValid(int id) {
+        return (flags[id] & FLAG_VALID) != 0;
+    }
+
+    public synchronized int getFileNumber(int id) {
+        return fileNumbers[id];
+    }
+
+    public synchronized int getOffsetInFile(int id) {
+        return offsetsInFile[id];
+    }
+
+    public synchronized int getSizeInFile(int id) {
+        return sizesInFile[id];
+    }
+
+    public synchronized int getOffsetInUndoFile(int id) {
+        return offsetsInUndoFile[id];
+    }
+
+    public synchronized int getSizeInUndoFile(int id) {
+        return sizesInUndoFile[id];
+    }
+
+    private static boolean fitsInSlots(@NotNull BlockInfo info) {
+        return fitsInSlot(info.getPreviousBlockHash())
+            && fitsInSlot(info.getMerkleRoot())
+            && fitsInSlot(info.getTargetValue())
+            && info.getNonce() != null
+            && info.getNonce().bitLength() < SLOT_SIZE * Byte.SIZE;
+    }
+
+    private static boolean fitsInSlot(@Nullable Hash hash) {
+        return hash != null && hash.getValue().size() <= SLOT_SIZE;
+    }
+
+    /**
+     * Writes the value right-aligned in the slot of the given id.
+     *
+     * @return The size of the value.
+     */
+    private static byte writeSlot(@NotNull byte[] slots, int id, @NotNull ByteString value) {
+        int offset = id * SLOT_SIZE;
+        int padding = SLOT_SIZE - value.size();
+        Arrays.fill(slots, offset, offset + padding, (byte)0);
+        value.copyTo(slots, 0, offset + padding, value.size());
+        return (byte)value.size();
+    }
+
+    private static @NotNull ByteString readSlot(@NotNull byte[] slots, int id, int size) {
+        return ByteString.copyFrom(slots, (id + 1) * SLOT_SIZE - size, size);
+    }
+
+    /**
+     * Checks whether the slot holds a value that is equal to the given value after removing
+     * leading zero bytes, consistent with {@link Hash#equals(Object)}.
+     */
+    private static boolean slotEquals(@NotNull byte[] slots, int id, @NotNull ByteString value) {
+        int offset = id * SLOT_SIZE;
+        int size = value.size();
+
+        for (int i = 0; i < SLOT_SIZE - size; i++) {
+            if (slots[offset + i] != 0) {
+                return false;
+            }
+        }
+
+        for (int i = 0; i < size; i++) {
+            int slotIndex = SLOT_SIZE - size + i;
+            byte expected = slotIndex < 0 ? 0 : slots[offset + slotIndex];
+            if (value.byteAt(i) != expected) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void insert(int id) {
+        int mask = table.length - 1;
+        int slot = hashCodes[id] & mask;
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = id + 1;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity * 2 > table.length) {
+            table = new int[table.length * 2];
+            for (int id = 0; id < capacity - 1; id++) {
+                if ((flags[id] & FLAG_WIDE_HASH) == 0) {
+                    insert(id);
+                }
+            }
+        }
+
+        if (capacity <= flags.length) {
+            return;
+        }
+
+        int newCapacity = Math.max(capacity, flags.length * 2);
+        hashCodes = Arrays.copyOf(hashCodes, newCapacity);
+        hashes = Arrays.copyOf(hashes, newCapacity * SLOT_SIZE);
+        previousBlockHashes = Arrays.copyOf(previousBlockHashes, newCapacity * SLOT_SIZE);
+        previousBlockHashSizes = Arrays.copyOf(previousBlockHashSizes, newCapacity);
+        merkleRoots = Arrays.copyOf(merkleRoots, newCapacity * SLOT_SIZE);
+        merkleRootSizes = Arrays.copyOf(merkleRootSizes, newCapacity);
+        targetValues = Arrays.copyOf(targetValues, newCapacity * SLOT_SIZE);
+        targetValueSizes = Arrays.copyOf(targetValueSizes, newCapacity);
+        nonces = Arrays.copyOf(nonces, newCapacity * SLOT_SIZE);
+        nonceSizes = Arrays.copyOf(nonceSizes, newCapacity);
+        timesReceived = Arrays.copyOf(timesReceived, newCapacity);
+        networkIds = Arrays.copyOf(networkIds, newCapacity);
+        blockHeights = Arrays.copyOf(blockHeights, newCapacity);
+        transactionCounts = Arrays.copyOf(transactionCounts, newCapacity);
+        fileNumbers = Arrays.copyOf(fileNumbers, newCapacity);
+        offsetsInFile = Arrays.copyOf(offsetsInFile, newCapacity);
+        sizesInFile = Arrays.copyOf(sizesInFile, newCapacity);
+        offsetsInUndoFile = Arrays.copyOf(offsetsInUndoFile, newCapacity);
+        sizesInUndoFile = Arrays.copyOf(sizesInUndoFile, newCapacity);
+        flags = Arrays.copyOf(flags, newCapacity);
+    }
+}
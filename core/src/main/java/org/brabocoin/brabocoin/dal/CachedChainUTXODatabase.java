@@ -0,0 +1,457 @@
+package org.brabocoin.brabocoin.dal;
+
+import com.google.common.collect.Iterators;
+import org.brabocoin.brabocoin.exceptions.DatabaseException;
+import org.brabocoin.brabocoin.model.Hash;
+import org.brabocoin.brabocoin.model.Input;
+import org.brabocoin.brabocoin.model.dal.UnspentOutputInfo;
+import org.brabocoin.brabocoin.proto.dal.BrabocoinStorageProtos;
+import org.brabocoin.brabocoin.validation.consensus.Consensus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.text.MessageFormat;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Write-back cache in front of the chain UTXO database.
+ * <p>
+ * Recently created and recently read outputs are kept in memory. Changes are written to the
+ * key-value store in a single atomic batch when the estimated memory usage of the cache exceeds
+ * the configured budget, or when {@link #flush()} is called. Outputs that are created and spent
+ * again before the cache is flushed are never written to the key-value store.
+ * <p>
+ * Mutations made between {@link #beginBatch()} and {@link #commitBatch()} are collected in a
+ * separate layer that is merged into the cache on commit, or dropped on
+ * {@link #discardBatch()}. The cache is only flushed on batch boundaries, such that the stored
+ * UTXO set is always consistent with the stored last processed block.
+ */
+public class CachedChainUTXODatabase extends ChainUTXODatabase {
+
+    private static final Logger LOGGER = Logger.getLogger(CachedChainUTXODatabase.class.getName());
+
+    /**
+     * Estimated memory usage of a single cache entry in bytes, including the map node, the key
+     * and the unspent output information.
+     */
+    static final int ESTIMATED_ENTRY_SIZE = 256;
+
+    /**
+     * Maximum estimated memory usage of the cache in bytes.
+     */
+    private final long maxCacheSize;
+
+    /**
+     * The cached entries.
+     */
+    private final @NotNull Map<Input, CacheEntry> cache;
+
+    /**
+     * The entries mutated in the active batch, or {@code null} when no batch is active.
+     */
+    private @Nullable Map<Input, CacheEntry> batchLayer;
+
+    /**
+     * Listener events of the active batch, fired when the batch is committed.
+     */
+    private final @NotNull List<Consumer<UTXOSetListener>> batchEvents;
+
+    /**
+     * The last processed block hash, or {@code null} when it is not yet read from the database.
+     */
+    private @Nullable Hash lastProcessedBlockHash;
+
+    /**
+     * The last processed block hash of the active batch, or {@code null} when not changed.
+     */
+    private @Nullable Hash batchLastProcessedBlockHash;
+
+    /**
+     * Whether the last processed block hash has changed since the last flush.
+     */
+    private boolean lastProcessedBlockHashDirty;
+
+    private long hitCount;
+    private long missCount;
+    private long flushCount;
+
+    /**
+     * Creates a new cached UTXO set database using the provided key-value store.
+     *
+     * @param storage
+     *     The key-value store to use for the database.
+     * @param consensus
+     *     The consensus on which this UTXO needs to be initialized, if necessary.
+     * @param maxCacheSize
+     *     The maximum estimated memory usage of the cache in bytes.
+     * @throws DatabaseException
+     *     When the database could not be initialized.
+     */
+    public CachedChainUTXODatabase(@NotNull KeyValueStore storage,
+                                   @NotNull Consensus consensus,
+                                   long maxCacheSize) throws DatabaseException {
+        super(storage, consensus);
+        this.maxCacheSize = maxCacheSize;
+        this.cache = new HashMap<>();
+        this.batchEvents = new ArrayList<>();
+    }
+
+    @Override
+    public synchronized boolean isUnspent(@NotNull Hash transactionHash,
+                                          int outputIndex) throws DatabaseException {
+        return findUnspentOutputInfo(transactionHash, outputIndex) != null;
+    }
+
+    @Override
+    public synchronized @Nullable UnspentOutputInfo findUnspentOutputInfo(
+        @NotNull Hash transactionHash, int outputIndex) throws DatabaseException {
+        Input key = new Input(transactionHash, outputIndex);
+        CacheEntry entry = findEntry(key);
+
+        if (entry != null) {
+            hitCount++;
+            return entry.info;
+        }
+
+        missCount++;
+        UnspentOutputInfo info = super.findUnspentOutputInfo(transactionHash, outputIndex);
+        if (info != null) {
+            cache.put(key, new CacheEntry(info, false, false));
+            ensureBudget();
+        }
+
+        return info;
+    }
+
+    @Override
+    public synchronized void addUnspentOutputInfo(@NotNull Hash transactionHash, int outputIndex,
+                                                  @NotNull UnspentOutputInfo info) throws DatabaseException {
+        LOGGER.log(Level.FINE, "Caching unspent output for outputIndex: {0}", outputIndex);
+        Input key = new Input(transactionHash, outputIndex);
+        CacheEntry existing = findEntry(key);
+
+        // Without an existing entry, the output is assumed to be absent from the database, since
+        // outputs are never created twice
+        boolean fresh = existing == null || existing.fresh;
+        putEntry(key, new CacheEntry(info, true, fresh));
+
+        fireEvent(l -> l.onOutputUnspent(transactionHash, outputIndex, info));
+    }
+
+    @Override
+    public synchronized void setOutputSpent(@NotNull Hash transactionHash,
+                                            int outputIndex) throws DatabaseException {
+        LOGGER.log(Level.FINE, "Caching output as spent");
+        Input key = new Input(transactionHash, outputIndex);
+        CacheEntry existing = findEntry(key);
+
+        if (existing != null && existing.fresh) {
+            // The output was never written, forget about it
+            putEntry(key, CacheEntry.FORGOTTEN);
+        }
+        else {
+            putEntry(key, new CacheEntry(null, true, false));
+        }
+
+        fireEvent(l -> l.onOutputSpent(transactionHash, outputIndex));
+    }
+
+    @Override
+    public synchronized @NotNull Hash getLastProcessedBlockHash() throws DatabaseException {
+        if (batchLastProcessedBlockHash != null) {
+            return batchLastProcessedBlockHash;
+        }
+
+        if (lastProcessedBlockHash == null) {
+            lastProcessedBlockHash = super.getLastProcessedBlockHash();
+        }
+
+        return lastProcessedBlockHash;
+    }
+
+    @Override
+    public synchronized void setLastProcessedBlockHash(
+        @NotNull Hash hash) throws DatabaseException {
+        if (batchLayer != null) {
+            batchLastProcessedBlockHash = hash;
+            return;
+        }
+
+        lastProcessedBlockHash = hash;
+        lastProcessedBlockHashDirty = true;
+        ensureBudget();
+    }
+
+    @Override
+    public synchronized void beginBatch() {
+        if (batchLayer != null) {
+            throw new IllegalStateException("A write batch is already active.");
+        }
+
+        batchLayer = new HashMap<>();
+    }
+
+    @Override
+    public synchronized void commitBatch() throws DatabaseException {
+        if (batchLayer == null) {
+            throw new IllegalStateException("No write batch is active.");
+        }
+
+        LOGGER.log(Level.FINE, "Merge batch of size {0} into UTXO cache.", batchLayer.size());
+        for (Map.Entry<Input, CacheEntry> entry : batchLayer.entrySet()) {
+            mergeEntry(cache, entry.getKey(), entry.getValue());
+        }
+
+        if (batchLastProcessedBlockHash != null) {
+            lastProcessedBlockHash = batchLastProcessedBlockHash;
+            lastProcessedBlockHashDirty = true;
+        }
+
+        List<Consumer<UTXOSetListener>> events = new ArrayList<>(batchEvents);
+        clearBatch();
+
+        events.forEach(this::notifyListeners);
+        ensureBudget();
+    }
+
+    @Override
+    public synchronized void discardBatch() {
+        if (batchLayer == null) {
+            return;
+        }
+
+        LOGGER.fine("Discard UTXO cache batch.");
+        clearBatch();
+    }
+
+    /**
+     * Write all changed entries and the last processed block hash to the key-value store in a
+     * single atomic batch, and clear the cache.
+     *
+     * @throws DatabaseException
+     *     When the changes could not be written.
+     * @throws IllegalStateException
+     *     When a batch is active.
+     */
+    @Override
+    public synchronized void flush() throws DatabaseException {
+        if (batchLayer != null) {
+            throw new IllegalStateException("Cannot flush the cache while a batch is active.");
+        }
+
+        LOGGER.log(Level.FINE, "Flushing UTXO cache with {0} entries.", cache.size());
+        super.beginBatch();
+        try {
+            int written = 0;
+            for (Map.Entry<Input, CacheEntry> entry : cache.entrySet()) {
+                CacheEntry cacheEntry = entry.getValue();
+                if (!cacheEntry.dirty) {
+                    continue;
+                }
+
+                Input input = entry.getKey();
+                if (cacheEntry.info == null) {
+                    remove(getOutputKey(
+                        input.getReferencedTransaction(),
+                        input.getReferencedOutputIndex()
+                    ));
+                }
+                else {
+                    store(
+                        getOutputKey(
+                            input.getReferencedTransaction(),
+                            input.getReferencedOutputIndex()
+                        ),
+                        getRawProtoValue(
+                            cacheEntry.info,
+                            BrabocoinStorageProtos.UnspentOutputInfo.class
+                        )
+                    );
+                }
+                written++;
+            }
+
+            if (lastProcessedBlockHashDirty && lastProcessedBlockHash != null) {
+                super.setLastProcessedBlockHash(lastProcessedBlockHash);
+            }
+
+            super.commitBatch();
+
+            int finalWritten = written;
+            LOGGER.log(Level.FINE, () -> MessageFormat.format(
+                "Flushed {0} changed outputs.",
+                finalWritten
+            ));
+        }
+        finally {
+            super.discardBatch();
+        }
+
+        cache.clear();
+        lastProcessedBlockHashDirty = false;
+        flushCount++;
+    }
+
+    @Override
+    public synchronized @NotNull Iterator<Map.Entry<Input, UnspentOutputInfo>> iterator() {
+        Map<Input, CacheEntry> entries = new HashMap<>(cache);
+        if (batchLayer != null) {
+            batchLayer.forEach((key, entry) -> mergeEntry(entries, key, entry));
+        }
+
+        List<Map.Entry<Input, UnspentOutputInfo>> cachedOutputs = new ArrayList<>();
+        entries.forEach((key, entry) -> {
+            if (entry.info != null) {
+                cachedOutputs.add(new AbstractMap.SimpleEntry<>(key, entry.info));
+            }
+        });
+
+        return Iterators.concat(
+            Iterators.filter(super.iterator(), e -> !entries.containsKey(e.getKey())),
+            cachedOutputs.iterator()
+        );
+    }
+
+    private @Nullable CacheEntry findEntry(@NotNull Input key) {
+        CacheEntry entry = batchLayer != null ? batchLayer.get(key) : null;
+        if (entry == null) {
+            entry = cache.get(key);
+        }
+
+        return entry;
+    }
+
+    private void putEntry(@NotNull Input key, @NotNull CacheEntry entry) throws DatabaseException {
+        if (batchLayer != null) {
+            batchLayer.put(key, entry);
+            return;
+        }
+
+        mergeEntry(cache, key, entry);
+        ensureBudget();
+    }
+
+    private static void mergeEntry(@NotNull Map<Input, CacheEntry> target, @NotNull Input key,
+                                   @NotNull CacheEntry entry) {
+        if (entry == CacheEntry.FORGOTTEN) {
+            target.remove(key);
+        }
+        else {
+            target.put(key, entry);
+        }
+    }
+
+    private void fireEvent(@NotNull Consumer<UTXOSetListener> event) {
+        if (batchLayer != null) {
+            batchEvents.add(event);
+        }
+        else {
+            notifyListeners(event);
+        }
+    }
+
+    private void clearBatch() {
+        batchLayer = null;
+        batchLastProcessedBlockHash = null;
+        batchEvents.clear();
+    }
+
+    /**
+     * Flush the cache when the memory budget is exceeded and no batch is active.
+     *
+     * @throws DatabaseException
+     *     When the cache could not be flushed.
+     */
+    private void ensureBudget() throws DatabaseException {
+        if (batchLayer == null && getEstimatedMemoryUsage() > maxCacheSize) {
+            LOGGER.fine("UTXO cache exceeds memory budget.");
+            flush();
+        }
+    }
+
+    /**
+     * Get the number of cached entries, excluding the entries of the active batch.
+     *
+     * @return The number of cached entries.
+     */
+    public synchronized int getCacheSize() {
+        return cache.size();
+    }
+
+    /**
+     * Get the estimated memory usage of the cache in bytes.
+     *
+     * @return The estimated memory usage.
+     */
+    public synchronized long getEstimatedMemoryUsage() {
+        return (long)cache.size() * ESTIMATED_ENTRY_SIZE;
+    }
+
+    /**
+     * Get the number of lookups that were served from the cache.
+     *
+     * @return The number of cache hits.
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Get the number of lookups that needed to read from the key-value store.
+     *
+     * @return The number of cache misses.
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Get the number of times the cache has been flushed.
+     *
+     * @return The number of flushes.
+     */
+    public synchronized long getFlushCount() {
+        return flushCount;
+    }
+
+    /**
+     * Cached state of a single output.
+     */
+    private static class CacheEntry {
+
+        /**
+         * Marks an output that was created and spent before it was written. The entry is
+         * removed from the cache when merged.
+         */
+        static final CacheEntry FORGOTTEN = new CacheEntry(null, false, true);
+
+        /**
+         * The unspent output information, or {@code null} when the output is spent.
+         */
+        final @Nullable UnspentOutputInfo info;
+
+        /**
+         * Whether the entry differs from the key-value store.
+         */
+        final boolean dirty;
+
+        /**
+         * Whether the output is not present in the key-value store.
+         */
+        final boolean fresh;
+
+        CacheEntry(@Nullable UnspentOutputInfo info, boolean dirty, boolean fresh) {
+            this.info = info;
+            this.dirty = dirty;
+            this.fresh = fresh;
+        }
+    }
+}
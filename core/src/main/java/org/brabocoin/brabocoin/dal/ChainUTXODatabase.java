@@ -46,7 +46,7 @@ public class ChainUTXODatabase extends UTXODatabase {
 
         if (!storage.has(key)) {
             LOGGER.fine("Storage block marker key not found.");
-            setLastProcessedBlockHash(genesisBlock.getHash());
+            store(key, getRawProtoValue(genesisBlock.getHash(), BrabocoinProtos.Hash.class));
             LOGGER.fine("Storage block marker key created from consensus genesis block hash.");
         }
     }
@@ -96,6 +96,19 @@ public class ChainUTXODatabase extends UTXODatabase {
         store(key, value);
     }
 
+    /**
+     * Write all pending changes to the key-value store.
+     * <p>
+     * This database writes all changes to the key-value store directly, hence this method does
+     * nothing. Caching subclasses write their pending changes.
+     *
+     * @throws DatabaseException
+     *     When the pending changes could not be written.
+     */
+    public void flush() throws DatabaseException {
+        // Nothing is pending
+    }
+
     private synchronized ByteString getBlockMarkerKey() {
         LOGGER.log(Level.FINE, "Block marker key value: {0}", toHexString(KEY_BLOCK_MARKER));
         return KEY_BLOCK_MARKER;
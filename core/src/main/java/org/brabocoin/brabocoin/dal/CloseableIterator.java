@@ -0,0 +1,22 @@
+package org.brabocoin.brabocoin.dal;
+
+import java.io.Closeable;
+import java.util.Iterator;
+
+/**
+ * Iterator over a data source that holds resources until it is closed.
+ * <p>
+ * The iterator should be closed when it is no longer used, preferably using a
+ * try-with-resources statement.
+ *
+ * @param <T>
+ *     The type of the elements.
+ */
+public interface CloseableIterator<T> extends Iterator<T>, Closeable {
+
+    /**
+     * Releases the resources held by the iterator.
+     */
+    @Override
+    void close();
+}
@@ -8,6 +8,7 @@ import java.util.Iterator;
 import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
 import static org.brabocoin.brabocoin.util.ByteUtil.toHexString;
 
@@ -39,6 +40,20 @@ public class HashMapDB implements KeyValueStore {
         map.remove(key);
     }
 
+    @Override
+    public synchronized void write(WriteBatch batch) {
+        LOGGER.fine("Writing batch.");
+        LOGGER.log(Level.FINEST, () -> MessageFormat.format("size: {0}", batch.size()));
+        for (Map.Entry<ByteString, ByteString> mutation : batch) {
+            if (mutation.getValue() == null) {
+                map.remove(mutation.getKey());
+            }
+            else {
+                map.put(mutation.getKey(), mutation.getValue());
+            }
+        }
+    }
+
     @Override
     public synchronized boolean has(ByteString key) {
         LOGGER.fine("Checking if store has key-value pair using key.");
@@ -63,4 +78,32 @@ public class HashMapDB implements KeyValueStore {
         LOGGER.fine("HashMapDB iterator constructor.");
         return map.entrySet().iterator();
     }
+
+    @Override
+    public synchronized CloseableIterator<Map.Entry<ByteString, ByteString>> iterator(
+        ByteString prefix) {
+        LOGGER.fine("HashMapDB prefix iterator constructor.");
+        Iterator<Map.Entry<ByteString, ByteString>> iterator = map.entrySet()
+            .stream()
+            .filter(e -> e.getKey().startsWith(prefix))
+            .collect(Collectors.toList())
+            .iterator();
+
+        return new CloseableIterator<Map.Entry<ByteString, ByteString>>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public Map.Entry<ByteString, ByteString> next() {
+                return iterator.next();
+            }
+
+            @Override
+            public void close() {
+
+            }
+        };
+    }
 }
@@ -44,6 +44,29 @@ public interface KeyValueStore extends Iterable<Map.Entry<ByteString, ByteString
      */
     void delete(final ByteString key) throws DatabaseException;
 
+    /**
+     * Atomically applies all mutations in the write batch to the database.
+     * <p>
+     * Either all mutations in the batch are applied, or none are.
+     *
+     * @param batch
+     *     The batch of mutations to write.
+     * @throws DatabaseException
+     *     Exception thrown when the database returns an error.
+     */
+    void write(final WriteBatch batch) throws DatabaseException;
+
+    /**
+     * Iterates over all key-value pairs of which the key starts with the given prefix.
+     * <p>
+     * The returned iterator must be closed after use.
+     *
+     * @param prefix
+     *     The key prefix.
+     * @return An iterator over the key-value pairs with the given key prefix.
+     */
+    CloseableIterator<Map.Entry<ByteString, ByteString>> iterator(final ByteString prefix);
+
     /**
      * Checks whether the key exists.
      *
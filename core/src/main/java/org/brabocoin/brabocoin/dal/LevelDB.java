@@ -14,6 +14,7 @@ import java.text.MessageFormat;
 import java.util.AbstractMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -115,6 +116,31 @@ public class LevelDB implements KeyValueStore {
         }
     }
 
+    @Override
+    public synchronized void write(final WriteBatch batch) throws DatabaseException {
+        LOGGER.fine("Writing batch.");
+        LOGGER.log(Level.FINEST, () -> MessageFormat.format("size: {0}", batch.size()));
+        try (org.iq80.leveldb.WriteBatch writeBatch = database.createWriteBatch()) {
+            for (Map.Entry<ByteString, ByteString> mutation : batch) {
+                if (mutation.getValue() == null) {
+                    writeBatch.delete(mutation.getKey().toByteArray());
+                }
+                else {
+                    writeBatch.put(
+                        mutation.getKey().toByteArray(),
+                        mutation.getValue().toByteArray()
+                    );
+                }
+            }
+
+            database.write(writeBatch);
+        }
+        catch (final DBException | IOException e) {
+            LOGGER.log(Level.SEVERE, "Exception while writing batch: {0}", e.getMessage());
+            throw new DatabaseException(e.getMessage());
+        }
+    }
+
     @Override
     public synchronized boolean has(ByteString key) {
         LOGGER.fine("Checking whether store has key-value pair using key.");
@@ -149,4 +175,62 @@ public class LevelDB implements KeyValueStore {
             }
         };
     }
+
+    @Override
+    public synchronized @NotNull CloseableIterator<Map.Entry<ByteString, ByteString>> iterator(
+        @NotNull ByteString prefix) {
+        LOGGER.fine("LevelDB prefix iterator constructor.");
+        return new CloseableIterator<Map.Entry<ByteString, ByteString>>() {
+            DBIterator iterator = database.iterator();
+            boolean closed;
+
+            {
+                iterator.seek(prefix.toByteArray());
+            }
+
+            @Override
+            public boolean hasNext() {
+                if (closed) {
+                    return false;
+                }
+
+                if (iterator.hasNext()
+                    && ByteString.copyFrom(iterator.peekNext().getKey()).startsWith(prefix)) {
+                    return true;
+                }
+
+                // Release the native iterator as soon as it is exhausted
+                close();
+                return false;
+            }
+
+            @Override
+            public Map.Entry<ByteString, ByteString> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                Map.Entry<byte[], byte[]> entry = iterator.next();
+                return new AbstractMap.SimpleEntry<>(
+                    ByteString.copyFrom(entry.getKey()),
+                    ByteString.copyFrom(entry.getValue())
+                );
+            }
+
+            @Override
+            public void close() {
+                if (closed) {
+                    return;
+                }
+
+                closed = true;
+                try {
+                    iterator.close();
+                }
+                catch (IOException e) {
+                    LOGGER.log(Level.WARNING, "LevelDB iterator could not be closed.", e);
+                }
+            }
+        };
+    }
 }
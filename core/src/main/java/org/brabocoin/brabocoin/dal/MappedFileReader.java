@@ -0,0 +1,125 @@
+package org.brabocoin.brabocoin.dal;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.text.MessageFormat;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Reads byte ranges from append-only files through read-only memory mappings.
+ * <p>
+ * Every file is mapped once and remapped only when a range beyond the current mapping is
+ * requested, which happens when the file has grown. A file that is still being appended to is
+ * not remapped for every new range: it is only remapped when it has at least doubled in size
+ * since it was last mapped, and ranges beyond the mapping are read directly from the file
+ * otherwise. This bounds the number of superseded mappings, which are only unmapped once they
+ * are garbage collected, to a logarithmic number per file.
+ * <p>
+ * The returned byte strings are views on the mapped memory and are not copied. Hence, the files
+ * must only be appended to, and never be truncated or overwritten while they are mapped.
+ */
+public class MappedFileReader {
+
+    private static final Logger LOGGER = Logger.getLogger(MappedFileReader.class.getName());
+
+    /**
+     * The current mapping of each file, by file name.
+     */
+    private final @NotNull Map<String, MappedByteBuffer> mappings = new HashMap<>();
+
+    /**
+     * Read a range of bytes from a file.
+     *
+     * @param fileName
+     *     The name of the file to read from.
+     * @param offset
+     *     The offset of the range in the file.
+     * @param size
+     *     The size of the range.
+     * @return A read-only view on the requested bytes.
+     * @throws IOException
+     *     When the file could not be mapped, or when the requested range exceeds the size of the
+     *     file.
+     */
+    public synchronized @NotNull ByteString read(@NotNull String fileName, int offset,
+                                                 int size) throws IOException {
+        if (offset < 0 || size < 0) {
+            throw new IOException("Invalid range requested.");
+        }
+
+        long end = (long)offset + size;
+        MappedByteBuffer mapping = mappings.get(fileName);
+
+        if (mapping == null || mapping.capacity() < end) {
+            try (FileChannel channel = FileChannel.open(
+                Paths.get(fileName),
+                StandardOpenOption.READ
+            )) {
+                long fileSize = channel.size();
+                if (fileSize < end) {
+                    throw new IOException("Requested range exceeds the file size.");
+                }
+
+                if (mapping != null && fileSize < 2L * mapping.capacity()) {
+                    return readDirect(channel, offset, size);
+                }
+
+                mapping = map(channel, fileName, fileSize);
+                mappings.put(fileName, mapping);
+            }
+        }
+
+        ByteBuffer view = mapping.duplicate();
+        view.position(offset);
+        view.limit(offset + size);
+
+        return UnsafeByteOperations.unsafeWrap(view.slice());
+    }
+
+    /**
+     * Remove the mapping of the given file, if any.
+     * <p>
+     * Should be called when a file is no longer appended to, such that the next read maps the
+     * file once at its final size instead of growing the partial mapping.
+     *
+     * @param fileName
+     *     The name of the file.
+     */
+    public synchronized void release(@NotNull String fileName) {
+        mappings.remove(fileName);
+    }
+
+    private @NotNull MappedByteBuffer map(@NotNull FileChannel channel, @NotNull String fileName,
+                                          long size) throws IOException {
+        LOGGER.log(Level.FINE, () -> MessageFormat.format(
+            "Mapping file {0} of size {1}.",
+            fileName,
+            size
+        ));
+
+        return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+    }
+
+    private @NotNull ByteString readDirect(@NotNull FileChannel channel, int offset,
+                                           int size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                throw new IOException("Requested range exceeds the file size.");
+            }
+        }
+
+        return UnsafeByteOperations.unsafeWrap(buffer.array());
+    }
+}
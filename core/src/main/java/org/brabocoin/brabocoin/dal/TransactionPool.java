@@ -1,6 +1,7 @@
 package org.brabocoin.brabocoin.dal;
 
 import com.google.common.collect.EvictingQueue;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Iterators;
 import org.brabocoin.brabocoin.model.Hash;
 import org.brabocoin.brabocoin.model.Input;
@@ -13,13 +14,23 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.text.MessageFormat;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
 import java.util.Queue;
 import java.util.Random;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.function.Function;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -43,6 +54,12 @@ import java.util.stream.Collectors;
  * validated to be included in a block, to prevent double spending. The size of the orphan set is
  * limited and entries have an expiration time.
  * When the limit is met, orphan transactions are discarded randomly.
+ * <p>
+ * Validated transactions are indexed by fee rate. For every validated transaction, the fees and
+ * sizes of its ancestor package and descendant package in the pool are aggregated, see
+ * {@link TransactionPoolEntry}. The aggregates of the affected packages are updated whenever a
+ * transaction enters or leaves the pool. When the pool is full, the package with the lowest
+ * descendant fee rate is discarded.
  */
 public class TransactionPool implements Iterable<Transaction> {
 
@@ -91,6 +108,26 @@ public class TransactionPool implements Iterable<Transaction> {
      */
     private final @NotNull Queue<RejectedTransaction> recentRejects;
 
+    /**
+     * Entries of all dependent and independent transactions, indexed by transaction hash.
+     */
+    private final @NotNull Map<Hash, TransactionPoolEntry> entries;
+
+    /**
+     * Entries ordered by descending ancestor fee rate.
+     */
+    private final @NotNull NavigableSet<TransactionPoolEntry> ancestorFeeRateOrder;
+
+    /**
+     * Entries ordered by ascending descendant fee rate.
+     */
+    private final @NotNull NavigableSet<TransactionPoolEntry> descendantFeeRateOrder;
+
+    /**
+     * Sequence number of the next entry that is added to the pool.
+     */
+    private long nextSequence;
+
     /**
      * Creates an empty transaction pool.
      *  @param maxPoolSize
@@ -109,6 +146,11 @@ public class TransactionPool implements Iterable<Transaction> {
         this.maxPoolSize = maxPoolSize;
         this.random = random;
         this.recentRejects = EvictingQueue.create(maxRecentRejects);
+        this.entries = new HashMap<>();
+        this.ancestorFeeRateOrder = new TreeSet<>(TransactionPoolEntry.ANCESTOR_FEE_RATE_DESCENDING);
+        this.descendantFeeRateOrder = new TreeSet<>(
+            TransactionPoolEntry.DESCENDANT_FEE_RATE_ASCENDING
+        );
 
         this.independentTransactions = new MultiDependenceIndex<>(
             Transaction::getHash,
@@ -171,14 +213,50 @@ public class TransactionPool implements Iterable<Transaction> {
      *     The validated transaction to be stored as independent in the transaction pool.
      * @throws IllegalArgumentException
      *     If the transaction is already present as independent.
+     * @see #addIndependentTransaction(Transaction, long)
      */
     public synchronized void addIndependentTransaction(@NotNull Transaction transaction) {
+        addIndependentTransaction(transaction, 0);
+    }
+
+    /**
+     * Add an independent transaction with a known fee to the transaction pool.
+     *
+     * @param transaction
+     *     The validated transaction to be stored as independent in the transaction pool.
+     * @param fee
+     *     The fee of the transaction.
+     * @throws IllegalArgumentException
+     *     If the transaction is already present as independent.
+     * @see #addIndependentTransaction(Transaction)
+     */
+    public synchronized void addIndependentTransaction(@NotNull Transaction transaction,
+                                                       long fee) {
+        addIndependentTransaction(transaction, fee, Instant.now().getEpochSecond());
+    }
+
+    /**
+     * Add an independent transaction with a known fee and receive time to the transaction pool.
+     *
+     * @param transaction
+     *     The validated transaction to be stored as independent in the transaction pool.
+     * @param fee
+     *     The fee of the transaction.
+     * @param timeReceived
+     *     The time the transaction was received, in seconds since the epoch.
+     * @throws IllegalArgumentException
+     *     If the transaction is already present as independent.
+     * @see #addIndependentTransaction(Transaction, long)
+     */
+    public synchronized void addIndependentTransaction(@NotNull Transaction transaction,
+                                                       long fee, long timeReceived) {
         LOGGER.fine("Adding independent transaction.");
         if (orphanTransactions.removeValue(transaction) != null) {
             listeners.forEach(l -> l.onTransactionRemovedAsOrphan(transaction));
         }
 
         independentTransactions.put(transaction);
+        addEntry(transaction, fee, timeReceived, false);
         listeners.forEach(l -> l.onTransactionAddedToPool(transaction));
 
         limitTransactionPoolSize();
@@ -197,14 +275,49 @@ public class TransactionPool implements Iterable<Transaction> {
      *     The validated transaction to be stored as dependent in the transaction pool.
      * @throws IllegalArgumentException
      *     If the transaction is already present as dependent.
+     * @see #addDependentTransaction(Transaction, long)
      */
     public synchronized void addDependentTransaction(@NotNull Transaction transaction) {
+        addDependentTransaction(transaction, 0);
+    }
+
+    /**
+     * Add an dependent transaction with a known fee to the transaction pool.
+     *
+     * @param transaction
+     *     The validated transaction to be stored as dependent in the transaction pool.
+     * @param fee
+     *     The fee of the transaction.
+     * @throws IllegalArgumentException
+     *     If the transaction is already present as dependent.
+     * @see #addDependentTransaction(Transaction)
+     */
+    public synchronized void addDependentTransaction(@NotNull Transaction transaction, long fee) {
+        addDependentTransaction(transaction, fee, Instant.now().getEpochSecond());
+    }
+
+    /**
+     * Add an dependent transaction with a known fee and receive time to the transaction pool.
+     *
+     * @param transaction
+     *     The validated transaction to be stored as dependent in the transaction pool.
+     * @param fee
+     *     The fee of the transaction.
+     * @param timeReceived
+     *     The time the transaction was received, in seconds since the epoch.
+     * @throws IllegalArgumentException
+     *     If the transaction is already present as dependent.
+     * @see #addDependentTransaction(Transaction, long)
+     */
+    public synchronized void addDependentTransaction(@NotNull Transaction transaction, long fee,
+                                                     long timeReceived) {
         LOGGER.fine("Adding dependent transaction.");
         if (orphanTransactions.removeValue(transaction) != null) {
             listeners.forEach(l -> l.onTransactionRemovedAsOrphan(transaction));
         }
 
         dependentTransactions.put(transaction);
+        addEntry(transaction, fee, timeReceived, true);
         listeners.forEach(l -> l.onTransactionAddedToPool(transaction));
 
         limitTransactionPoolSize();
@@ -212,42 +325,36 @@ public class TransactionPool implements Iterable<Transaction> {
 
     /**
      * Limit the size of the transaction pool.
+     * <p>
+     * While the pool is too large, the transaction with the lowest descendant fee rate is removed
+     * together with all its descendants.
      */
     public synchronized void limitTransactionPoolSize() {
         LOGGER.fine("Limiting the size of the transaction pool.");
-        // Remove dependent transactions first
-        while (dependentTransactions.size() + independentTransactions.size() > maxPoolSize) {
-            if (dependentTransactions.size() > 0) {
-                Hash remove = dependentTransactions.getKeyAt(
-                    random.nextInt(dependentTransactions.size())
-                );
-                Transaction removedParent = dependentTransactions.removeKey(remove);
-                listeners.forEach(l -> l.onTransactionRemovedFromPool(removedParent));
-
-                List<Transaction> removed = dependentTransactions.removeMatchingDependants(
-                    remove,
-                    t -> true
-                );
-
-                for (Transaction t : removed) {
-                    listeners.forEach(l -> l.onTransactionRemovedFromPool(t));
-                }
+        while (entries.size() > maxPoolSize) {
+            TransactionPoolEntry lowest = descendantFeeRateOrder.first();
 
-                LOGGER.finest(() -> MessageFormat.format(
-                    "Removed {0} dependent transactions from the pool.",
-                    removed.size() + 1
-                ));
+            List<Transaction> removed = new ArrayList<>();
+            removed.add(lowest.getTransaction());
+            for (TransactionPoolEntry descendant : findDescendants(lowest)) {
+                removed.add(descendant.getTransaction());
             }
-            else {
-                Hash remove = independentTransactions.getKeyAt(
-                    random.nextInt(independentTransactions.size())
-                );
-                Transaction removed = independentTransactions.removeKey(remove);
 
-                listeners.forEach(l -> l.onTransactionRemovedFromPool(removed));
+            for (Transaction transaction : removed) {
+                independentTransactions.removeValue(transaction);
+                dependentTransactions.removeValue(transaction);
+            }
+            removeEntries(removed);
 
-                LOGGER.finest("Removed an independent transactions from the pool.");
+            for (Transaction t : removed) {
+                listeners.forEach(l -> l.onTransactionRemovedFromPool(t));
             }
+
+            LOGGER.finest(() -> MessageFormat.format(
+                "Removed package of {0} transactions with fee rate {1} from the pool.",
+                removed.size(),
+                lowest.getDescendantFeeRate()
+            ));
         }
     }
 
@@ -311,11 +418,13 @@ public class TransactionPool implements Iterable<Transaction> {
         LOGGER.fine("Removing validated transaction from the transaction pool.");
         Transaction independent = independentTransactions.removeKey(hash);
         if (independent != null) {
+            removeEntries(Collections.singletonList(independent));
             listeners.forEach(l -> l.onTransactionRemovedFromPool(independent));
         }
 
         Transaction dependent = dependentTransactions.removeKey(hash);
         if (dependent != null) {
+            removeEntries(Collections.singletonList(dependent));
             listeners.forEach(l -> l.onTransactionRemovedFromPool(dependent));
         }
     }
@@ -391,6 +500,7 @@ public class TransactionPool implements Iterable<Transaction> {
             t -> {
                 if (matcher.apply(t)) {
                     independentTransactions.put(t);
+                    setDependent(t, false);
                     return true;
                 }
                 return false;
@@ -417,6 +527,7 @@ public class TransactionPool implements Iterable<Transaction> {
         for (Transaction transaction : transactions) {
             independentTransactions.removeValue(transaction);
             dependentTransactions.put(transaction);
+            setDependent(transaction, true);
         }
 
         LOGGER.fine(() -> MessageFormat.format(
@@ -439,6 +550,7 @@ public class TransactionPool implements Iterable<Transaction> {
 
         // Remove dependents that depend on dependency
         List<Transaction> removed = dependentTransactions.removeMatchingDependants(dependency, t -> true);
+        removeEntries(removed);
         removed.forEach(t -> {
             orphanTransactions.put(t);
             listeners.forEach(l -> l.onTransactionRemovedFromPool(t));
@@ -448,6 +560,7 @@ public class TransactionPool implements Iterable<Transaction> {
         // Remove dependents that depend on the removed independents
         for (Transaction independent : independents) {
             List<Transaction> dependents = dependentTransactions.removeMatchingDependants(independent.getHash(), t -> true);
+            removeEntries(dependents);
 
             dependents.forEach(t -> {
                 orphanTransactions.put(t);
@@ -456,6 +569,7 @@ public class TransactionPool implements Iterable<Transaction> {
             });
         }
 
+        removeEntries(independents);
         for (Transaction transaction : independents) {
             independentTransactions.removeValue(transaction);
             orphanTransactions.put(transaction);
@@ -546,6 +660,60 @@ public class TransactionPool implements Iterable<Transaction> {
         return independentTransactions.iterator();
     }
 
+    /**
+     * Get the entry of a dependent or independent transaction, containing its fee and package
+     * aggregates.
+     *
+     * @param hash
+     *     The hash of the transaction.
+     * @return The entry, or {@code null} if the transaction is not in the pool.
+     */
+    public synchronized @Nullable TransactionPoolEntry getEntry(@NotNull Hash hash) {
+        return entries.get(hash);
+    }
+
+    /**
+     * Get the entries of all dependent and independent transactions, such that every
+     * transaction comes after all transactions it depends on.
+     *
+     * @return The entries, ordered by the number of ancestors.
+     */
+    public synchronized @NotNull List<TransactionPoolEntry> getEntriesInDependencyOrder() {
+        // An ancestor has strictly fewer ancestors than any of its descendants
+        List<TransactionPoolEntry> result = new ArrayList<>(entries.values());
+        result.sort(
+            Comparator.comparingInt(TransactionPoolEntry::getAncestorCount)
+                .thenComparingLong(TransactionPoolEntry::getSequence)
+        );
+
+        return result;
+    }
+
+    /**
+     * Get all orphan transactions.
+     *
+     * @return A copy of the orphan transactions.
+     */
+    public synchronized @NotNull List<Transaction> getOrphanTransactions() {
+        List<Transaction> result = new ArrayList<>();
+        orphanTransactions.forEach(result::add);
+
+        return result;
+    }
+
+    /**
+     * Get an iterator over the entries of all dependent and independent transactions in
+     * descending order of ancestor fee rate.
+     * <p>
+     * Retrieving the first {@code k} entries takes {@code O(k log n)} time. The iterator is
+     * backed by the pool, so callers must synchronize on the pool while iterating.
+     *
+     * @return An iterator over the entries in descending ancestor fee rate.
+     */
+    public @NotNull Iterator<TransactionPoolEntry> ancestorFeeRateIterator() {
+        return Iterators.unmodifiableIterator(ancestorFeeRateOrder.iterator());
+    }
+
     /**
      * Get the iterator over all transactions in the transaction pool.
      * This includes independent and dependent transactions.
@@ -591,4 +759,241 @@ public class TransactionPool implements Iterable<Transaction> {
     public Iterator<RejectedTransaction> recentRejectsIterator() {
         return recentRejects.iterator();
     }
+
+    private void addEntry(@NotNull Transaction transaction, long fee, long timeReceived,
+                          boolean dependent) {
+        TransactionPoolEntry entry = new TransactionPoolEntry(
+            transaction,
+            fee,
+            nextSequence++,
+            timeReceived,
+            dependent
+        );
+        entries.put(entry.getHash(), entry);
+
+        Set<TransactionPoolEntry> ancestors = findAncestors(entry);
+        Set<TransactionPoolEntry> descendants = findDescendants(entry);
+        if (!descendants.isEmpty()) {
+            // Descendants that are already in the pool (after a reorganization) may only be
+            // linked to the ancestors through the new transaction
+            Set<TransactionPoolEntry> affected = new HashSet<>(ancestors);
+            affected.addAll(descendants);
+            affected.add(entry);
+            recomputeAggregates(affected);
+            return;
+        }
+
+        int ancestorCount = 1;
+        long ancestorSize = entry.getSize();
+        long ancestorFee = entry.getFee();
+        for (TransactionPoolEntry ancestor : ancestors) {
+            ancestorCount++;
+            ancestorSize += ancestor.getSize();
+            ancestorFee += ancestor.getFee();
+        }
+        entry.setAncestorAggregates(ancestorCount, ancestorSize, ancestorFee);
+        ancestorFeeRateOrder.add(entry);
+        descendantFeeRateOrder.add(entry);
+
+        // The new transaction joins the descendant package of all its ancestors
+        for (TransactionPoolEntry ancestor : ancestors) {
+            addDescendantAggregates(ancestor, 1, entry.getSize(), entry.getFee());
+        }
+    }
+
+    /**
+     * Remove the entries of transactions that are removed from the pool, and update the
+     * aggregates of the remaining ancestors and descendants.
+     *
+     * @param transactions
+     *     The removed transactions.
+     */
+    private void removeEntries(@NotNull Collection<Transaction> transactions) {
+        Set<TransactionPoolEntry> removed = new LinkedHashSet<>();
+        for (Transaction transaction : transactions) {
+            TransactionPoolEntry entry = entries.get(transaction.getHash());
+            if (entry != null) {
+                removed.add(entry);
+            }
+        }
+
+        // Find the packages before removing, as the removed entries may link them
+        Map<TransactionPoolEntry, Set<TransactionPoolEntry>> ancestors = new HashMap<>();
+        Map<TransactionPoolEntry, Set<TransactionPoolEntry>> descendants = new HashMap<>();
+        boolean recompute = false;
+        for (TransactionPoolEntry entry : removed) {
+            Set<TransactionPoolEntry> entryAncestors = findAncestors(entry);
+            Set<TransactionPoolEntry> entryDescendants = findDescendants(entry);
+            entryAncestors.removeAll(removed);
+            entryDescendants.removeAll(removed);
+            ancestors.put(entry, entryAncestors);
+            descendants.put(entry, entryDescendants);
+
+            // Removing a transaction in the middle of a package splits the package
+            recompute |= !entryAncestors.isEmpty() && !entryDescendants.isEmpty();
+        }
+
+        for (TransactionPoolEntry entry : removed) {
+            entries.remove(entry.getHash());
+            ancestorFeeRateOrder.remove(entry);
+            descendantFeeRateOrder.remove(entry);
+        }
+
+        if (recompute) {
+            Set<TransactionPoolEntry> affected = new HashSet<>();
+            ancestors.values().forEach(affected::addAll);
+            descendants.values().forEach(affected::addAll);
+            recomputeAggregates(affected);
+            return;
+        }
+
+        for (TransactionPoolEntry entry : removed) {
+            for (TransactionPoolEntry ancestor : ancestors.get(entry)) {
+                addDescendantAggregates(ancestor, -1, -entry.getSize(), -entry.getFee());
+            }
+            for (TransactionPoolEntry descendant : descendants.get(entry)) {
+                addAncestorAggregates(descendant, -1, -entry.getSize(), -entry.getFee());
+            }
+        }
+    }
+
+    private void setDependent(@NotNull Transaction transaction, boolean dependent) {
+        TransactionPoolEntry entry = entries.get(transaction.getHash());
+        if (entry == null || entry.isDependent() == dependent) {
+            return;
+        }
+
+        descendantFeeRateOrder.remove(entry);
+        entry.setDependent(dependent);
+        descendantFeeRateOrder.add(entry);
+    }
+
+    /**
+     * Add the deltas to the ancestor aggregates of the entry and reposition it in the fee rate
+     * orderings.
+     */
+    private void addAncestorAggregates(@NotNull TransactionPoolEntry entry, int count, long size,
+                                       long fee) {
+        // Remove before the aggregates change, as they determine the position in the orderings
+        ancestorFeeRateOrder.remove(entry);
+        descendantFeeRateOrder.remove(entry);
+        entry.setAncestorAggregates(
+            entry.getAncestorCount() + count,
+            entry.getAncestorSize() + size,
+            entry.getAncestorFee() + fee
+        );
+        ancestorFeeRateOrder.add(entry);
+        descendantFeeRateOrder.add(entry);
+    }
+
+    /**
+     * Add the deltas to the descendant aggregates of the entry and reposition it in the
+     * descendant fee rate ordering.
+     */
+    private void addDescendantAggregates(@NotNull TransactionPoolEntry entry, int count,
+                                         long size, long fee) {
+        descendantFeeRateOrder.remove(entry);
+        entry.setDescendantAggregates(
+            entry.getDescendantCount() + count,
+            entry.getDescendantSize() + size,
+            entry.getDescendantFee() + fee
+        );
+        descendantFeeRateOrder.add(entry);
+    }
+
+    /**
+     * Recompute the package aggregates of the entries from scratch and reposition them in the
+     * fee rate orderings.
+     * <p>
+     * Only used when packages are joined or split, otherwise the aggregates are updated
+     * incrementally.
+     *
+     * @param affected
+     *     The entries to update.
+     */
+    private void recomputeAggregates(@NotNull Collection<TransactionPoolEntry> affected) {
+        for (TransactionPoolEntry entry : affected) {
+            // Remove before the aggregates change, as they determine the position in the orderings
+            ancestorFeeRateOrder.remove(entry);
+            descendantFeeRateOrder.remove(entry);
+
+            int count = 1;
+            long size = entry.getSize();
+            long fee = entry.getFee();
+            for (TransactionPoolEntry ancestor : findAncestors(entry)) {
+                count++;
+                size += ancestor.getSize();
+                fee += ancestor.getFee();
+            }
+            entry.setAncestorAggregates(count, size, fee);
+
+            count = 1;
+            size = entry.getSize();
+            fee = entry.getFee();
+            for (TransactionPoolEntry descendant : findDescendants(entry)) {
+                count++;
+                size += descendant.getSize();
+                fee += descendant.getFee();
+            }
+            entry.setDescendantAggregates(count, size, fee);
+
+            ancestorFeeRateOrder.add(entry);
+            descendantFeeRateOrder.add(entry);
+        }
+    }
+
+    /**
+     * Find all transactions in the pool that the transaction (indirectly) spends outputs from.
+     *
+     * @param entry
+     *     The entry of the transaction.
+     * @return The entries of the ancestors, excluding the entry itself.
+     */
+    private @NotNull Set<TransactionPoolEntry> findAncestors(@NotNull TransactionPoolEntry entry) {
+        Set<TransactionPoolEntry> ancestors = new HashSet<>();
+        Queue<TransactionPoolEntry> queue = new ArrayDeque<>();
+        queue.add(entry);
+
+        while (!queue.isEmpty()) {
+            for (Input input : queue.remove().getTransaction().getInputs()) {
+                TransactionPoolEntry parent = entries.get(input.getReferencedTransaction());
+                if (parent != null && parent != entry && ancestors.add(parent)) {
+                    queue.add(parent);
+                }
+            }
+        }
+
+        return ancestors;
+    }
+
+    /**
+     * Find all transactions in the pool that (indirectly) spend outputs of the transaction.
+     *
+     * @param entry
+     *     The entry of the transaction.
+     * @return The entries of the descendants, excluding the entry itself.
+     */
+    private @NotNull Set<TransactionPoolEntry> findDescendants(
+        @NotNull TransactionPoolEntry entry) {
+        Set<TransactionPoolEntry> descendants = new HashSet<>();
+        Queue<TransactionPoolEntry> queue = new ArrayDeque<>();
+        queue.add(entry);
+
+        while (!queue.isEmpty()) {
+            Hash hash = queue.remove().getHash();
+            Iterable<Transaction> children = Iterables.concat(
+                independentTransactions.getFromDependency(hash),
+                dependentTransactions.getFromDependency(hash)
+            );
+
+            for (Transaction child : children) {
+                TransactionPoolEntry childEntry = entries.get(child.getHash());
+                if (childEntry != null && childEntry != entry && descendants.add(childEntry)) {
+                    queue.add(childEntry);
+                }
+            }
+        }
+
+        return descendants;
+    }
 }
@@ -0,0 +1,218 @@
+package org.brabocoin.brabocoin.dal;
+
+import org.brabocoin.brabocoin.model.Hash;
+import org.brabocoin.brabocoin.model.Transaction;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Comparator;
+
+/**
+ * A validated transaction in the transaction pool, together with its fee and the aggregated
+ * fees and sizes of its package of ancestors and descendants in the pool.
+ * <p>
+ * The ancestor package of a transaction consists of the transaction itself and all transactions
+ * in the pool it (indirectly) spends outputs from. The descendant package consists of the
+ * transaction itself and all transactions in the pool that (indirectly) spend its outputs.
+ * The aggregates are maintained by the {@link TransactionPool}.
+ */
+public class TransactionPoolEntry {
+
+    /**
+     * Orders entries by descending ancestor fee rate, such that the package that is most
+     * profitable to mine comes first.
+     */
+    public static final Comparator<TransactionPoolEntry> ANCESTOR_FEE_RATE_DESCENDING =
+        Comparator.comparingDouble(TransactionPoolEntry::getAncestorFeeRate)
+            .reversed()
+            .thenComparingLong(TransactionPoolEntry::getSequence);
+
+    /**
+     * Orders entries by ascending descendant fee rate, such that the package that is least
+     * profitable to keep comes first.
+     * <p>
+     * Among packages with equal fee rates, dependent transactions come first, then transactions
+     * with the most ancestors and then the oldest transactions.
+     */
+    public static final Comparator<TransactionPoolEntry> DESCENDANT_FEE_RATE_ASCENDING =
+        Comparator.comparingDouble(TransactionPoolEntry::getDescendantFeeRate)
+            .thenComparing(TransactionPoolEntry::isDependent, Comparator.reverseOrder())
+            .thenComparing(TransactionPoolEntry::getAncestorCount, Comparator.reverseOrder())
+            .thenComparingLong(TransactionPoolEntry::getSequence);
+
+    private final @NotNull Transaction transaction;
+
+    private final long fee;
+
+    private final int size;
+
+    /**
+     * The order in which the entry is added to the pool.
+     */
+    private final long sequence;
+
+    /**
+     * The time the transaction was received, in seconds since the epoch.
+     */
+    private final long timeReceived;
+
+    private boolean dependent;
+
+    private int ancestorCount;
+    private long ancestorSize;
+    private long ancestorFee;
+
+    private int descendantCount;
+    private long descendantSize;
+    private long descendantFee;
+
+    /**
+     * Create a new entry without any ancestors or descendants.
+     *
+     * @param transaction
+     *     The transaction.
+     * @param fee
+     *     The fee of the transaction.
+     * @param sequence
+     *     The order in which the entry is added to the pool, unique for every entry.
+     * @param timeReceived
+     *     The time the transaction was received, in seconds since the epoch.
+     * @param dependent
+     *     Whether the transaction is dependent.
+     */
+    TransactionPoolEntry(@NotNull Transaction transaction, long fee, long sequence,
+                         long timeReceived, boolean dependent) {
+        this.transaction = transaction;
+        this.fee = fee;
+        this.size = transaction.getSerializedSize();
+        this.sequence = sequence;
+        this.timeReceived = timeReceived;
+        this.dependent = dependent;
+
+        setAncestorAggregates(1, size, fee);
+        setDescendantAggregates(1, size, fee);
+    }
+
+    void setDependent(boolean dependent) {
+        this.dependent = dependent;
+    }
+
+    void setAncestorAggregates(int count, long size, long fee) {
+        this.ancestorCount = count;
+        this.ancestorSize = size;
+        this.ancestorFee = fee;
+    }
+
+    void setDescendantAggregates(int count, long size, long fee) {
+        this.descendantCount = count;
+        this.descendantSize = size;
+        this.descendantFee = fee;
+    }
+
+    private static double feeRate(long fee, long size) {
+        return size == 0 ? 0 : (double)fee / size;
+    }
+
+    public @NotNull Transaction getTransaction() {
+        return transaction;
+    }
+
+    public @NotNull Hash getHash() {
+        return transaction.getHash();
+    }
+
+    public long getFee() {
+        return fee;
+    }
+
+    /**
+     * The size of the serialized transaction.
+     *
+     * @return The size in bytes.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * The time the transaction was received.
+     *
+     * @return The time in seconds since the epoch.
+     */
+    public long getTimeReceived() {
+        return timeReceived;
+    }
+
+    /**
+     * Whether the transaction is dependent on other transactions in the pool.
+     *
+     * @return Whether the transaction is dependent.
+     */
+    public boolean isDependent() {
+        return dependent;
+    }
+
+    /**
+     * The fee of the transaction per byte.
+     *
+     * @return The fee rate.
+     */
+    public double getFeeRate() {
+        return feeRate(fee, size);
+    }
+
+    /**
+     * The number of transactions in the ancestor package, including this transaction.
+     *
+     * @return The number of ancestors plus one.
+     */
+    public int getAncestorCount() {
+        return ancestorCount;
+    }
+
+    public long getAncestorSize() {
+        return ancestorSize;
+    }
+
+    public long getAncestorFee() {
+        return ancestorFee;
+    }
+
+    /**
+     * The fee per byte of the ancestor package.
+     *
+     * @return The ancestor fee rate.
+     */
+    public double getAncestorFeeRate() {
+        return feeRate(ancestorFee, ancestorSize);
+    }
+
+    /**
+     * The number of transactions in the descendant package, including this transaction.
+     *
+     * @return The number of descendants plus one.
+     */
+    public int getDescendantCount() {
+        return descendantCount;
+    }
+
+    public long getDescendantSize() {
+        return descendantSize;
+    }
+
+    public long getDescendantFee() {
+        return descendantFee;
+    }
+
+    /**
+     * The fee per byte of the descendant package.
+     *
+     * @return The descendant fee rate.
+     */
+    public double getDescendantFeeRate() {
+        return feeRate(descendantFee, descendantSize);
+    }
+}
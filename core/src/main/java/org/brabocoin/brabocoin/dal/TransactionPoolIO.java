@@ -0,0 +1,229 @@
+package org.brabocoin.brabocoin.dal;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+import org.brabocoin.brabocoin.crypto.Hashing;
+import org.brabocoin.brabocoin.model.Hash;
+import org.brabocoin.brabocoin.model.Transaction;
+import org.brabocoin.brabocoin.proto.dal.BrabocoinStorageProtos;
+import org.brabocoin.brabocoin.proto.model.BrabocoinProtos;
+import org.brabocoin.brabocoin.util.ProtoConverter;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.MessageFormat;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Reads and writes the contents of the transaction pool to a file, such that the pool does not
+ * need to be retrieved from peers and validated again after a restart.
+ * <p>
+ * The file consists of the SHA-256 checksum of the snapshot, followed by the snapshot itself.
+ * The validated transactions are written in dependency order, followed by the orphan
+ * transactions. When the checksum matches, the validated transactions are marked as verified,
+ * such that only their inputs need to be checked against the current UTXO set when they are
+ * restored.
+ */
+public class TransactionPoolIO {
+
+    private static final Logger LOGGER = Logger.getLogger(TransactionPoolIO.class.getName());
+
+    private static final int CHECKSUM_SIZE = 32;
+
+    /**
+     * Write the transactions in the transaction pool to the file.
+     * <p>
+     * The file is replaced atomically, such that a crash while writing does not corrupt an
+     * earlier snapshot. Concurrent writes are serialized, as they share the temporary file.
+     *
+     * @param transactionPool
+     *     The transaction pool.
+     * @param includeOrphans
+     *     Whether to write the orphan transactions as well.
+     * @param file
+     *     The file to write to.
+     * @throws IOException
+     *     When the file could not be written.
+     */
+    public synchronized void write(@NotNull TransactionPool transactionPool,
+                                   boolean includeOrphans,
+                                   @NotNull File file) throws IOException {
+        BrabocoinStorageProtos.TransactionPoolSnapshot.Builder snapshot =
+            BrabocoinStorageProtos.TransactionPoolSnapshot.newBuilder();
+
+        for (TransactionPoolEntry entry : transactionPool.getEntriesInDependencyOrder()) {
+            snapshot.addRecords(
+                BrabocoinStorageProtos.TransactionPoolRecord.newBuilder()
+                    .setTransaction(entry.getTransaction().getSerializedData())
+                    .setTimeReceived(entry.getTimeReceived())
+            );
+        }
+
+        if (includeOrphans) {
+            long now = Instant.now().getEpochSecond();
+            for (Transaction orphan : transactionPool.getOrphanTransactions()) {
+                snapshot.addRecords(
+                    BrabocoinStorageProtos.TransactionPoolRecord.newBuilder()
+                        .setTransaction(orphan.getSerializedData())
+                        .setTimeReceived(now)
+                        .setOrphan(true)
+                );
+            }
+        }
+
+        ByteString data = snapshot.build().toByteString();
+        Hash checksum = Hashing.digestSHA256(data);
+
+        File directory = file.getAbsoluteFile().getParentFile();
+        if (!directory.exists()) {
+            directory.mkdirs();
+        }
+
+        Path temporary = new File(directory, file.getName() + ".tmp").toPath();
+        Files.write(temporary, checksum.getValue().concat(data).toByteArray());
+        Files.move(
+            temporary,
+            file.toPath(),
+            StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE
+        );
+
+        LOGGER.fine(() -> MessageFormat.format(
+            "Wrote {0} transactions to the transaction pool file.",
+            snapshot.getRecordsCount()
+        ));
+    }
+
+    /**
+     * Read the transactions from the file.
+     * <p>
+     * When the checksum does not match, the transactions that can still be parsed are returned,
+     * but none of them is marked as verified.
+     *
+     * @param file
+     *     The file to read.
+     * @return The records in the order they were written, or an empty list if the file does not
+     * exist or cannot be parsed.
+     * @throws IOException
+     *     When the file could not be read.
+     */
+    public @NotNull List<Record> read(@NotNull File file) throws IOException {
+        if (!file.exists()) {
+            return Collections.emptyList();
+        }
+
+        ByteString contents = ByteString.copyFrom(Files.readAllBytes(file.toPath()));
+        if (contents.size() < CHECKSUM_SIZE) {
+            LOGGER.warning("Transaction pool file is truncated.");
+            return Collections.emptyList();
+        }
+
+        Hash checksum = new Hash(contents.substring(0, CHECKSUM_SIZE));
+        ByteString data = contents.substring(CHECKSUM_SIZE);
+        boolean verified = checksum.equals(Hashing.digestSHA256(data));
+        if (!verified) {
+            LOGGER.warning("Transaction pool file checksum does not match.");
+        }
+
+        BrabocoinStorageProtos.TransactionPoolSnapshot snapshot;
+        try {
+            snapshot = BrabocoinStorageProtos.TransactionPoolSnapshot.parseFrom(data);
+        }
+        catch (InvalidProtocolBufferException e) {
+            LOGGER.warning("Transaction pool file could not be parsed.");
+            return Collections.emptyList();
+        }
+
+        List<Record> records = new ArrayList<>(snapshot.getRecordsCount());
+        for (BrabocoinStorageProtos.TransactionPoolRecord record : snapshot.getRecordsList()) {
+            Transaction transaction;
+            try {
+                transaction = ProtoConverter.toDomain(
+                    BrabocoinProtos.Transaction.parseFrom(record.getTransaction()),
+                    Transaction.Builder.class
+                );
+            }
+            catch (InvalidProtocolBufferException e) {
+                transaction = null;
+            }
+
+            if (transaction == null) {
+                LOGGER.warning("Transaction in transaction pool file could not be parsed.");
+                continue;
+            }
+
+            records.add(new Record(
+                transaction,
+                record.getTimeReceived(),
+                record.getOrphan(),
+                verified && !record.getOrphan()
+            ));
+        }
+
+        LOGGER.fine(() -> MessageFormat.format(
+            "Read {0} transactions from the transaction pool file.",
+            records.size()
+        ));
+
+        return records;
+    }
+
+    /**
+     * A transaction read from the transaction pool file.
+     */
+    public static class Record {
+
+        private final @NotNull Transaction transaction;
+
+        private final long timeReceived;
+
+        private final boolean orphan;
+
+        private final boolean verified;
+
+        /**
+         * Create a new record.
+         *
+         * @param transaction
+         *     The transaction.
+         * @param timeReceived
+         *     The time the transaction was received, in seconds since the epoch.
+         * @param orphan
+         *     Whether the transaction was stored as orphan.
+         * @param verified
+         *     Whether the transaction was validated before it was written, and the file checksum
+         *     matches.
+         */
+        public Record(@NotNull Transaction transaction, long timeReceived, boolean orphan,
+                      boolean verified) {
+            this.transaction = transaction;
+            this.timeReceived = timeReceived;
+            this.orphan = orphan;
+            this.verified = verified;
+        }
+
+        public @NotNull Transaction getTransaction() {
+            return transaction;
+        }
+
+        public long getTimeReceived() {
+            return timeReceived;
+        }
+
+        public boolean isOrphan() {
+            return orphan;
+        }
+
+        public boolean isVerified() {
+            return verified;
+        }
+    }
+}
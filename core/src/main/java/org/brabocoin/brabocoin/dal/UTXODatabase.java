@@ -23,12 +23,14 @@ import org.jetbrains.annotations.Nullable;
 import java.io.IOException;
 import java.text.MessageFormat;
 import java.util.AbstractMap;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -51,6 +53,16 @@ public class UTXODatabase implements ReadonlyUTXOSet {
      */
     private final @NotNull Set<UTXOSetListener> listeners;
 
+    /**
+     * The active write batch, or {@code null} when mutations are written directly.
+     */
+    private @Nullable WriteBatch batch;
+
+    /**
+     * Listener events that are fired when the active write batch is committed.
+     */
+    private final @NotNull List<Consumer<UTXOSetListener>> pendingEvents;
+
     /**
      * Creates a new UTXO set database using the provided key-value store.
      *
@@ -62,6 +74,7 @@ public class UTXODatabase implements ReadonlyUTXOSet {
     public UTXODatabase(@NotNull KeyValueStore storage) throws DatabaseException {
         this.storage = storage;
         this.listeners = new HashSet<>();
+        this.pendingEvents = new ArrayList<>();
 
         try {
             storage.open();
@@ -82,7 +95,7 @@ public class UTXODatabase implements ReadonlyUTXOSet {
                                           int outputIndex) throws DatabaseException {
         LOGGER.fine("Checking whether a transaction hash with given output index is unspent.");
         ByteString key = getOutputKey(transactionHash, outputIndex);
-        boolean has = storage.has(key);
+        boolean has = contains(key);
         LOGGER.log(Level.FINEST, () -> MessageFormat.format(
             "Hash: {0}, output index: {1}, unspent: {2}",
             toHexString(transactionHash.getValue()),
@@ -92,7 +105,7 @@ public class UTXODatabase implements ReadonlyUTXOSet {
         return has;
     }
 
-    private ByteString getOutputKey(@NotNull Hash transactionHash, int outputIndex) {
+    protected ByteString getOutputKey(@NotNull Hash transactionHash, int outputIndex) {
         ByteString outputKey = KEY_PREFIX_OUTPUT
             .concat(transactionHash.getValue())
             .concat(ByteUtil.toByteString(outputIndex));
@@ -146,7 +159,7 @@ public class UTXODatabase implements ReadonlyUTXOSet {
             Level.FINEST,
             () -> MessageFormat.format("Retrieving ByteString from key: {0}", toHexString(key))
         );
-        ByteString bytes = storage.get(key);
+        ByteString bytes = batch != null && batch.contains(key) ? batch.get(key) : storage.get(key);
         LOGGER.log(
             Level.FINEST,
             () -> MessageFormat.format("Got ByteString: {0}", toHexString(bytes))
@@ -154,6 +167,14 @@ public class UTXODatabase implements ReadonlyUTXOSet {
         return bytes;
     }
 
+    protected synchronized boolean contains(ByteString key) throws DatabaseException {
+        if (batch != null && batch.contains(key)) {
+            return batch.get(key) != null;
+        }
+
+        return storage.has(key);
+    }
+
     protected synchronized <D extends ProtoModel<D>, B extends ProtoBuilder<D>,
         P extends Message> @Nullable D parseProtoValue(
         @Nullable ByteString value, @NotNull Class<B> domainClassBuilder,
@@ -258,7 +279,7 @@ public class UTXODatabase implements ReadonlyUTXOSet {
         LOGGER.log(Level.FINE, "Storing key and value for outputIndex: {0}", outputIndex);
         store(key, value);
 
-        this.listeners.forEach(l -> l.onOutputUnspent(transactionHash, outputIndex, info));
+        notifyListeners(l -> l.onOutputUnspent(transactionHash, outputIndex, info));
     }
 
     protected synchronized <D extends ProtoModel<D>, P extends Message> ByteString getRawProtoValue(
@@ -273,7 +294,91 @@ public class UTXODatabase implements ReadonlyUTXOSet {
             toHexString(key),
             toHexString(value)
         ));
-        storage.put(key, value);
+        if (batch != null) {
+            batch.put(key, value);
+        }
+        else {
+            storage.put(key, value);
+        }
+    }
+
+    protected synchronized void remove(ByteString key) throws DatabaseException {
+        LOGGER.log(Level.FINEST, () -> MessageFormat.format(
+            "Removing key: {0}",
+            toHexString(key)
+        ));
+        if (batch != null) {
+            batch.delete(key);
+        }
+        else {
+            storage.delete(key);
+        }
+    }
+
+    protected synchronized void notifyListeners(@NotNull Consumer<UTXOSetListener> event) {
+        if (batch != null) {
+            pendingEvents.add(event);
+        }
+        else {
+            this.listeners.forEach(event);
+        }
+    }
+
+    /**
+     * Start collecting all subsequent mutations in a write batch.
+     * <p>
+     * Until the batch is committed, mutations are not written to the key-value store, but they
+     * are visible to reads on this database. Listeners are notified only after the batch is
+     * committed.
+     *
+     * @throws IllegalStateException
+     *     When a batch is already active.
+     * @see #commitBatch()
+     * @see #discardBatch()
+     */
+    public synchronized void beginBatch() {
+        if (batch != null) {
+            throw new IllegalStateException("A write batch is already active.");
+        }
+
+        LOGGER.fine("Begin UTXO write batch.");
+        batch = new WriteBatch();
+    }
+
+    /**
+     * Atomically write all mutations of the active write batch to the key-value store and notify
+     * the listeners of the changes.
+     *
+     * @throws DatabaseException
+     *     When the batch could not be written. The batch remains active and can be discarded.
+     * @throws IllegalStateException
+     *     When no batch is active.
+     */
+    public synchronized void commitBatch() throws DatabaseException {
+        if (batch == null) {
+            throw new IllegalStateException("No write batch is active.");
+        }
+
+        LOGGER.log(Level.FINE, "Commit UTXO write batch of size: {0}", batch.size());
+        storage.write(batch);
+        batch = null;
+
+        List<Consumer<UTXOSetListener>> events = new ArrayList<>(pendingEvents);
+        pendingEvents.clear();
+        events.forEach(listeners::forEach);
+    }
+
+    /**
+     * Discard the active write batch, if any, without writing its mutations.
+     */
+    public synchronized void discardBatch() {
+        if (batch == null) {
+            return;
+        }
+
+        LOGGER.fine("Discard UTXO write batch.");
+        batch = null;
+        pendingEvents.clear();
     }
 
     /**
@@ -291,9 +396,9 @@ public class UTXODatabase implements ReadonlyUTXOSet {
         LOGGER.log(Level.FINE, "Marking output as spent");
         ByteString key = getOutputKey(transactionHash, outputIndex);
         LOGGER.log(Level.FINEST, () -> MessageFormat.format("key: {0}", toHexString(key)));
-        storage.delete(key);
+        remove(key);
 
-        this.listeners.forEach(l -> l.onOutputSpent(transactionHash, outputIndex));
+        notifyListeners(l -> l.onOutputSpent(transactionHash, outputIndex));
     }
 
     @Override
@@ -0,0 +1,102 @@
+package org.brabocoin.brabocoin.dal;
+
+import com.google.protobuf.ByteString;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A set of mutations that is written to a {@link KeyValueStore} atomically.
+ * <p>
+ * When the same key is mutated multiple times, only the last mutation is retained. A deletion is
+ * represented by a {@code null} value.
+ *
+ * @see KeyValueStore#write(WriteBatch)
+ */
+public class WriteBatch implements Iterable<Map.Entry<ByteString, ByteString>> {
+
+    /**
+     * The pending mutations, in order of first mutation.
+     */
+    private final @NotNull Map<ByteString, ByteString> mutations = new LinkedHashMap<>();
+
+    /**
+     * Add a key-value put to the batch.
+     *
+     * @param key
+     *     The key under which the value is stored.
+     * @param value
+     *     The value corresponding to the key.
+     */
+    public synchronized void put(@NotNull ByteString key, @NotNull ByteString value) {
+        mutations.put(key, value);
+    }
+
+    /**
+     * Add a key deletion to the batch.
+     *
+     * @param key
+     *     The key to delete.
+     */
+    public synchronized void delete(@NotNull ByteString key) {
+        mutations.put(key, null);
+    }
+
+    /**
+     * Checks whether the batch contains a mutation for the given key.
+     *
+     * @param key
+     *     The key to check.
+     * @return Whether the key is mutated by this batch.
+     */
+    public synchronized boolean contains(@NotNull ByteString key) {
+        return mutations.containsKey(key);
+    }
+
+    /**
+     * Get the value that is written for the given key when the batch is applied.
+     *
+     * @param key
+     *     The key.
+     * @return The pending value, or {@code null} when the key is deleted or not mutated by this
+     * batch.
+     * @see #contains(ByteString)
+     */
+    public synchronized @Nullable ByteString get(@NotNull ByteString key) {
+        return mutations.get(key);
+    }
+
+    /**
+     * The number of mutations in the batch.
+     *
+     * @return The number of mutated keys.
+     */
+    public synchronized int size() {
+        return mutations.size();
+    }
+
+    /**
+     * Whether the batch contains no mutations.
+     *
+     * @return Whether the batch is empty.
+     */
+    public synchronized boolean isEmpty() {
+        return mutations.isEmpty();
+    }
+
+    /**
+     * Removes all mutations from the batch.
+     */
+    public synchronized void clear() {
+        mutations.clear();
+    }
+
+    @Override
+    public synchronized @NotNull Iterator<Map.Entry<ByteString, ByteString>> iterator() {
+        return Collections.unmodifiableMap(mutations).entrySet().iterator();
+    }
+}
@@ -1,17 +1,15 @@
 package org.brabocoin.brabocoin.mining;
 
-import com.google.protobuf.ByteString;
 import org.brabocoin.brabocoin.chain.IndexedBlock;
 import org.brabocoin.brabocoin.crypto.MerkleTree;
 import org.brabocoin.brabocoin.dal.ReadonlyUTXOSet;
 import org.brabocoin.brabocoin.dal.TransactionPool;
+import org.brabocoin.brabocoin.dal.TransactionPoolEntry;
 import org.brabocoin.brabocoin.exceptions.DatabaseException;
 import org.brabocoin.brabocoin.model.Block;
 import org.brabocoin.brabocoin.model.Hash;
 import org.brabocoin.brabocoin.model.Output;
 import org.brabocoin.brabocoin.model.Transaction;
-import org.brabocoin.brabocoin.proto.model.BrabocoinProtos;
-import org.brabocoin.brabocoin.util.ProtoConverter;
 import org.brabocoin.brabocoin.validation.consensus.Consensus;
 import org.brabocoin.brabocoin.validation.transaction.TransactionUtil;
 import org.jetbrains.annotations.NotNull;
@@ -30,7 +28,7 @@ import java.util.stream.Collectors;
  * Miner can mine blocks.
  * <p>
  * The transactions that are included in the new block are selected from the transaction pool.
- * Only independent transactions are selected from the pool.
+ * Only independent transactions are selected from the pool, in descending order of fee rate.
  */
 public class Miner {
 
@@ -85,6 +83,26 @@ public class Miner {
      */
     public @Nullable Block mineNewBlock(@NotNull IndexedBlock previousBlock,
                                         @NotNull Hash coinbaseAddress) {
+        return mineNewBlock(previousBlock, coinbaseAddress, 1);
+    }
+
+    /**
+     * Mine a new block op top op {@code previousBlock} using multiple threads.
+     * <p>
+     * This method potentially blocks execution for a long time. The execution can be interrupted
+     * by calling {@link #stop()}.
+     *
+     * @param previousBlock
+     *     The previous block on top of which the new block is mined.
+     * @param coinbaseAddress
+     *     The address to which the coinbase output is paid.
+     * @param threads
+     *     The number of threads to mine with.
+     * @return The mined block, or {@code null} if the mining process was interrupted.
+     * @see MiningBlock#mine(Consensus, int)
+     */
+    public @Nullable Block mineNewBlock(@NotNull IndexedBlock previousBlock,
+                                        @NotNull Hash coinbaseAddress, int threads) {
         isStopped = false;
 
         List<Transaction> transactions = collectTransactions();
@@ -126,7 +144,7 @@ public class Miner {
             return null;
         }
 
-        return block.mine(consensus);
+        return block.mine(consensus, threads);
     }
 
     private @NotNull Transaction createCoinbase(Hash coinbaseAddress,
@@ -163,7 +181,11 @@ public class Miner {
     }
 
     /**
-     * Collect all independent transactions.
+     * Collect independent transactions in descending order of fee rate.
+     * <p>
+     * Transactions are visited in descending order of ancestor fee rate. Dependent transactions
+     * are skipped, as the inputs of all transactions in a block must be confirmed in the main
+     * chain.
      *
      * @return A list of independent transactions such that the maximum block size is not exceeded.
      */
@@ -173,39 +195,37 @@ public class Miner {
         int usedSize = 0;
         List<Transaction> transactions = new ArrayList<>();
 
-        Iterator<Transaction> independent = transactionPool.independentTransactionsIterator();
+        // Hold the pool lock while iterating, as the ordering is modified by other threads
+        synchronized (transactionPool) {
+            Iterator<TransactionPoolEntry> entries = transactionPool.ancestorFeeRateIterator();
 
-        // Add all independent transactions
-        while (independent.hasNext()) {
-            Transaction transaction = independent.next();
+            // Add independent transactions with the highest fee rate first
+            while (entries.hasNext()) {
+                TransactionPoolEntry entry = entries.next();
+                if (entry.isDependent()) {
+                    continue;
+                }
 
-            ByteString serialized = ProtoConverter.toProtoBytes(
-                transaction,
-                BrabocoinProtos.Transaction.class
-            );
-            if (serialized == null) {
-                // TODO: error handling?
-                LOGGER.severe("Transaction could not be serialized.");
-                continue;
-            }
+                Transaction transaction = entry.getTransaction();
 
-            // Protobuf uses separators for repeated fields, these are 3 bytes long for
-            // transactions.
-            int transactionSize = serialized.size() + 3;
-
-            // Skip if the max transactions size is reached
-            if (usedSize + transactionSize > maxTransactionsSize) {
-                LOGGER.finest(() -> MessageFormat.format(
-                    "Transaction with size {0} is skipped.",
-                    transactionSize
-                ));
-                continue;
-            }
+                // Protobuf uses separators for repeated fields, these are 3 bytes long for
+                // transactions.
+                int transactionSize = transaction.getSerializedSize() + 3;
 
-            usedSize += transactionSize;
-            transactions.add(transaction);
+                // Skip if the max transactions size is reached
+                if (usedSize + transactionSize > maxTransactionsSize) {
+                    LOGGER.finest(() -> MessageFormat.format(
+                        "Transaction with size {0} is skipped.",
+                        transactionSize
+                    ));
+                    continue;
+                }
 
-            LOGGER.finest("New transaction is selected to be mined in a block.");
+                usedSize += transactionSize;
+                transactions.add(transaction);
+
+                LOGGER.finest("New transaction is selected to be mined in a block.");
+            }
         }
 
         return transactions;
@@ -2,6 +2,7 @@ package org.brabocoin.brabocoin.mining;
 
 import com.google.protobuf.ByteString;
 import net.badata.protobuf.converter.annotation.ProtoClass;
+import org.brabocoin.brabocoin.Constants;
 import org.brabocoin.brabocoin.crypto.Hashing;
 import org.brabocoin.brabocoin.model.Block;
 import org.brabocoin.brabocoin.model.Hash;
@@ -13,7 +14,11 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.math.BigInteger;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Logger;
 
 /**
@@ -24,13 +29,23 @@ public class MiningBlock extends Block {
 
     private static final Logger LOGGER = Logger.getLogger(MiningBlock.class.getName());
 
+    /**
+     * The number of iterations after which a worker publishes its progress.
+     */
+    private static final int PUBLISH_INTERVAL = 1024;
+
     private volatile boolean stopped;
 
-    private @NotNull BigInteger nonce;
+    private volatile @NotNull BigInteger nonce;
 
-    private @Nullable Hash bestHash;
+    private volatile @Nullable Hash bestHash;
 
-    private long iterations;
+    private volatile long iterations;
+
+    /**
+     * The workers that are currently mining this block.
+     */
+    private volatile @NotNull Worker[] workers = new Worker[0];
 
     /**
      * Create a new mining block block.
@@ -77,15 +92,123 @@ public class MiningBlock extends Block {
      * @return The mined block or {@code null} if the mining was prematurely terminated.
      */
     public @Nullable Block mine(@NotNull Consensus consensus) {
+        return mine(consensus, 1);
+    }
+
+    /**
+     * Mine a block using multiple threads.
+     * <p>
+     * The nonce space is split into equally sized consecutive ranges, one for each thread,
+     * starting from the initial nonce of this block. Each thread writes its nonce directly in a
+     * reused buffer and hashes it starting from the precomputed SHA-256 state of the rest of the
+     * header. The first thread that finds a valid block hash stops all other threads.
+     * <p>
+     * This method is blocking and can potentially take very long. The execution of this method
+     * can be stopped when {@link #stop()} is called or when the calling thread is interrupted.
+     * In that case, {@code null} is returned.
+     *
+     * @param consensus
+     *     The consensus.
+     * @param threads
+     *     The number of threads to mine with.
+     * @return The mined block or {@code null} if the mining was prematurely terminated or the
+     * nonce space is exhausted.
+     */
+    public @Nullable Block mine(@NotNull Consensus consensus, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one mining thread is required.");
+        }
+
+        BigInteger maxNonce = consensus.getMaxNonce();
+        if (maxNonce.bitLength() >= Long.SIZE) {
+            LOGGER.fine("Nonce space does not fit in a long, falling back to sequential mining.");
+            return mineSequential(maxNonce);
+        }
+
+        LOGGER.fine(() -> MessageFormat.format("Start mining the block with {0} threads.", threads));
+
+        long nonceSpace = maxNonce.longValueExact();
+        long startNonce = nonce.mod(maxNonce).longValueExact();
+        int workerCount = (int)Math.min(threads, nonceSpace);
+
+        NonceHasher hasher = createNonceHasher();
+        byte[] target = toDigestSize(getTargetValue());
+        AtomicLong solution = new AtomicLong(-1);
+
+        long rangeSize = nonceSpace / workerCount;
+        Worker[] newWorkers = new Worker[workerCount];
+        for (int i = 0; i < workerCount; i++) {
+            long count = i == workerCount - 1 ? nonceSpace - rangeSize * i : rangeSize;
+            long start = (startNonce + rangeSize * i) % nonceSpace;
+            newWorkers[i] = new Worker(
+                new NonceHasher(hasher), target, start, count, nonceSpace, solution
+            );
+        }
+        workers = newWorkers;
+
+        List<Thread> workerThreads = new ArrayList<>();
+        for (int i = 1; i < workerCount; i++) {
+            Thread thread = new Thread(newWorkers[i], "miner-worker-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            workerThreads.add(thread);
+        }
+
+        // The calling thread is the first worker
+        newWorkers[0].run();
+
+        boolean interrupted = false;
+        for (Thread thread : workerThreads) {
+            // Wait for every worker to finish, even when interrupted, before reading its results
+            while (thread.isAlive()) {
+                try {
+                    thread.join();
+                }
+                catch (InterruptedException e) {
+                    if (!interrupted) {
+                        LOGGER.info("Mining of the block was interrupted.");
+                        stop();
+                        interrupted = true;
+                    }
+                }
+            }
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        collectWorkerStatistics();
+
+        if (Thread.currentThread().isInterrupted()) {
+            LOGGER.info("Mining of the block was interrupted.");
+            return null;
+        }
+
+        long solvedNonce = solution.get();
+        if (solvedNonce < 0) {
+            LOGGER.info(stopped
+                ? "Mining of the block was interrupted."
+                : "Nonce space is exhausted without finding a valid block.");
+            return null;
+        }
+
+        nonce = BigInteger.valueOf(solvedNonce);
+
+        LOGGER.info("New block is mined.");
+        return toBlock();
+    }
+
+    private @Nullable Block mineSequential(@NotNull BigInteger maxNonce) {
         LOGGER.fine("Start mining the block.");
 
-        while (!stopped && !isBlockHashValid()) {
-            nonce = nonce.add(BigInteger.ONE).mod(consensus.getMaxNonce());
+        while (!stopped && !Thread.currentThread().isInterrupted() && !isBlockHashValid()) {
+            nonce = nonce.add(BigInteger.ONE).mod(maxNonce);
             iterations++;
         }
 
         // If forcefully stopped, and the block hash is still not valid, return null
-        if (!isBlockHashValid()) {
+        if (Thread.currentThread().isInterrupted() || !isBlockHashValid()) {
             LOGGER.info("Mining of the block was interrupted.");
             return null;
         }
@@ -105,12 +228,60 @@ public class MiningBlock extends Block {
         return hash.compareTo(getTargetValue()) <= 0;
     }
 
+    /**
+     * Create a hasher with the midstate of the header of this block, excluding the nonce.
+     *
+     * @return The hasher.
+     */
+    @NotNull NonceHasher createNonceHasher() {
+        return new NonceHasher(getRawHeaderWithoutNonce().toByteArray());
+    }
+
+    /**
+     * Move the iterations and best hash of the workers into this block.
+     */
+    private void collectWorkerStatistics() {
+        iterations = getIterations();
+        bestHash = getBestHash();
+        workers = new Worker[0];
+    }
+
+    /**
+     * Convert the hash to a big-endian byte array of the size of a block hash.
+     *
+     * @param hash
+     *     The hash to convert.
+     * @return The hash as array of {@link Constants#BLOCK_HASH_SIZE} bytes, or an array of only
+     * {@code 0xFF} bytes if the hash value is too large.
+     */
+    private static byte[] toDigestSize(@NotNull Hash hash) {
+        byte[] value = new BigInteger(1, hash.getValue().toByteArray()).toByteArray();
+        byte[] result = new byte[Constants.BLOCK_HASH_SIZE];
+
+        // Strip the sign byte that may be added by BigInteger
+        int offset = value.length > 1 && value[0] == 0 ? 1 : 0;
+        int length = value.length - offset;
+        if (length > result.length) {
+            Arrays.fill(result, (byte)0xFF);
+            return result;
+        }
+
+        System.arraycopy(value, offset, result, result.length - length, length);
+        return result;
+    }
+
     @Override
     public @NotNull Hash getHash() {
         ByteString header = getRawHeader();
         return Hashing.digestSHA256(Hashing.digestSHA256(header));
     }
 
+    @Override
+    public int getSerializedSize() {
+        // The nonce changes while mining, so the size cannot be cached
+        return computeSerializedSize();
+    }
+
     @Contract(" -> new")
     private @NotNull Block toBlock() {
         return new Block(
@@ -140,22 +311,143 @@ public class MiningBlock extends Block {
         return stopped;
     }
 
+    /**
+     * Get the nonce of the block.
+     * <p>
+     * While mining with multiple threads, this is the nonce that is currently tried by the first
+     * worker.
+     *
+     * @return The nonce.
+     */
     @Override
     public @NotNull BigInteger getNonce() {
+        Worker[] current = workers;
+        if (current.length > 0) {
+            return BigInteger.valueOf(current[0].currentNonce);
+        }
+
         return nonce;
     }
 
     /**
      * Get the best hash found while mining this block, or {@code null} if this block did not yet
      * start mining.
+     * <p>
+     * While mining with multiple threads, the best hash over all workers is returned.
      *
      * @return The best hash found while mining.
      */
     public @Nullable Hash getBestHash() {
-        return bestHash;
+        Hash best = bestHash;
+        for (Worker worker : workers) {
+            Hash hash = worker.bestHash;
+            if (hash != null && (best == null || hash.compareTo(best) < 0)) {
+                best = hash;
+            }
+        }
+
+        return best;
     }
 
+    /**
+     * Get the number of nonces that are tried while mining this block.
+     * <p>
+     * While mining with multiple threads, the iterations of all workers are summed. The
+     * iterations of the workers are updated periodically.
+     *
+     * @return The number of iterations.
+     */
     public long getIterations() {
-        return iterations;
+        long total = iterations;
+        for (Worker worker : workers) {
+            total += worker.iterations;
+        }
+
+        return total;
+    }
+
+    /**
+     * Mines a consecutive range of the nonce space.
+     */
+    private class Worker implements Runnable {
+
+        private final @NotNull NonceHasher hasher;
+
+        private final @NotNull byte[] target;
+
+        private final long startNonce;
+
+        private final long count;
+
+        private final long nonceSpace;
+
+        private final @NotNull AtomicLong solution;
+
+        private final @NotNull byte[] hash = new byte[Constants.BLOCK_HASH_SIZE];
+
+        private @Nullable byte[] best;
+
+        private volatile long currentNonce;
+
+        private volatile long iterations;
+
+        private volatile @Nullable Hash bestHash;
+
+        private Worker(@NotNull NonceHasher hasher, @NotNull byte[] target, long startNonce,
+                       long count, long nonceSpace, @NotNull AtomicLong solution) {
+            this.hasher = hasher;
+            this.target = target;
+            this.startNonce = startNonce;
+            this.count = count;
+            this.nonceSpace = nonceSpace;
+            this.solution = solution;
+            this.currentNonce = startNonce;
+        }
+
+        @Override
+        public void run() {
+            long nonce = startNonce;
+            long tried = 0;
+
+            while (tried < count && !stopped && solution.get() < 0) {
+                hasher.hash(nonce, hash);
+                tried++;
+
+                if (best == null || compareUnsigned(hash, best) < 0) {
+                    best = hash.clone();
+                    bestHash = new Hash(ByteString.copyFrom(best));
+                }
+
+                if (compareUnsigned(hash, target) <= 0) {
+                    solution.compareAndSet(-1, nonce);
+                    break;
+                }
+
+                nonce = nonce + 1 == nonceSpace ? 0 : nonce + 1;
+
+                if ((tried & (PUBLISH_INTERVAL - 1)) == 0) {
+                    currentNonce = nonce;
+                    iterations = tried;
+
+                    if (Thread.currentThread().isInterrupted()) {
+                        stop();
+                    }
+                }
+            }
+
+            currentNonce = nonce;
+            iterations = tried;
+        }
+    }
+
+    private static int compareUnsigned(@NotNull byte[] a, @NotNull byte[] b) {
+        for (int i = 0; i < a.length; i++) {
+            int difference = (a[i] & 0xFF) - (b[i] & 0xFF);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+
+        return 0;
     }
 }
@@ -0,0 +1,96 @@
+package org.brabocoin.brabocoin.mining;
+
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Computes the block hash of a block header for different nonces.
+ * <p>
+ * All fields of the header except the nonce are constant while mining a block. The internal
+ * state of SHA-256 after absorbing this constant prefix (the midstate) is computed once, such
+ * that each nonce only requires absorbing the nonce bytes and finishing both hash rounds.
+ * <p>
+ * The midstate is never modified after construction and can be shared by multiple hashers. A
+ * single hasher is not thread-safe.
+ */
+class NonceHasher {
+
+    /**
+     * The maximum number of bytes of a nonce that fits in a long, including the sign byte.
+     */
+    private static final int MAX_NONCE_BYTES = Long.BYTES + 1;
+
+    private final @NotNull SHA256Digest midstate;
+
+    private final @NotNull SHA256Digest digest;
+
+    private final @NotNull byte[] nonceBuffer = new byte[MAX_NONCE_BYTES];
+
+    /**
+     * Create a new hasher for the header prefix.
+     *
+     * @param prefix
+     *     The serialized header up to the nonce.
+     */
+    NonceHasher(@NotNull byte[] prefix) {
+        this(createMidstate(prefix));
+    }
+
+    /**
+     * Create a new hasher that shares the midstate with another hasher.
+     *
+     * @param other
+     *     The hasher to share the midstate with.
+     */
+    NonceHasher(@NotNull NonceHasher other) {
+        this(other.midstate);
+    }
+
+    private NonceHasher(@NotNull SHA256Digest midstate) {
+        this.midstate = midstate;
+        this.digest = new SHA256Digest(midstate);
+    }
+
+    private static @NotNull SHA256Digest createMidstate(@NotNull byte[] prefix) {
+        SHA256Digest midstate = new SHA256Digest();
+        midstate.update(prefix, 0, prefix.length);
+        return midstate;
+    }
+
+    /**
+     * Compute the double SHA-256 hash of the header with the given nonce.
+     *
+     * @param nonce
+     *     The non-negative nonce.
+     * @param output
+     *     The array of at least 32 bytes to write the hash to.
+     */
+    void hash(long nonce, @NotNull byte[] output) {
+        int length = writeNonce(nonce);
+
+        digest.reset(midstate);
+        digest.update(nonceBuffer, 0, length);
+        digest.doFinal(output, 0);
+
+        // doFinal resets the digest to the initial state
+        digest.update(output, 0, digest.getDigestSize());
+        digest.doFinal(output, 0);
+    }
+
+    /**
+     * Write the nonce into the nonce buffer, using the same encoding as
+     * {@link java.math.BigInteger#toByteArray()}.
+     *
+     * @param nonce
+     *     The non-negative nonce.
+     * @return The number of bytes written.
+     */
+    private int writeNonce(long nonce) {
+        int length = (Long.SIZE - Long.numberOfLeadingZeros(nonce)) / Byte.SIZE + 1;
+        for (int i = 0; i < length; i++) {
+            nonceBuffer[length - 1 - i] = (byte)(nonce >>> (i * Byte.SIZE));
+        }
+
+        return length;
+    }
+}
@@ -1,6 +1,7 @@
 package org.brabocoin.brabocoin.model;
 
 import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedOutputStream;
 import net.badata.protobuf.converter.annotation.ProtoClass;
 import net.badata.protobuf.converter.annotation.ProtoField;
 import org.brabocoin.brabocoin.crypto.Hashing;
@@ -9,6 +10,7 @@ import org.brabocoin.brabocoin.model.proto.ProtoBuilder;
 import org.brabocoin.brabocoin.model.proto.ProtoModel;
 import org.brabocoin.brabocoin.proto.model.BrabocoinProtos;
 import org.brabocoin.brabocoin.util.ByteUtil;
+import org.brabocoin.brabocoin.util.ProtoConverter;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -69,7 +71,12 @@ public class Block implements ProtoModel<Block> {
     /**
      * The cached hash of this block.
      */
-    protected Hash hash;
+    protected volatile Hash hash;
+
+    /**
+     * The cached size of the serialized block, or {@code -1} if not yet computed.
+     */
+    private volatile int serializedSize = -1;
 
     /**
      * Create a new block.
@@ -121,22 +128,86 @@ public class Block implements ProtoModel<Block> {
      *
      * @return The block hash.
      */
-    public synchronized @NotNull Hash getHash() {
-        if (hash == null) {
+    public @NotNull Hash getHash() {
+        Hash result = hash;
+        if (result == null) {
             ByteString header = getRawHeader();
-            hash = Hashing.digestSHA256(Hashing.digestSHA256(header));
+            result = Hashing.digestSHA256(Hashing.digestSHA256(header));
+            hash = result;
         }
-        return hash;
+        return result;
+    }
+
+    /**
+     * Gets the size of the serialized block using lazy computation if not available.
+     * <p>
+     * The size is derived from the cached serialized sizes of the transactions, such that the
+     * transactions are not serialized again.
+     *
+     * @return The size of the serialized block in bytes.
+     */
+    public int getSerializedSize() {
+        int result = serializedSize;
+        if (result < 0) {
+            result = computeSerializedSize();
+            serializedSize = result;
+        }
+        return result;
+    }
+
+    /**
+     * Computes the size of the serialized block.
+     *
+     * @return The size of the serialized block in bytes.
+     */
+    protected int computeSerializedSize() {
+        BrabocoinProtos.Block header = ProtoConverter.toProto(
+            new Block(
+                getPreviousBlockHash(),
+                getMerkleRoot(),
+                getTargetValue(),
+                getNonce(),
+                getBlockHeight(),
+                Collections.emptyList(),
+                getNetworkId()
+            ),
+            BrabocoinProtos.Block.class
+        );
+
+        int size = header.getSerializedSize();
+        int tagSize = CodedOutputStream.computeTagSize(
+            BrabocoinProtos.Block.TRANSACTIONS_FIELD_NUMBER
+        );
+
+        for (Transaction transaction : transactions) {
+            int transactionSize = transaction.getSerializedSize();
+            size += tagSize
+                + CodedOutputStream.computeUInt32SizeNoTag(transactionSize)
+                + transactionSize;
+        }
+
+        return size;
     }
 
     @NotNull
     protected ByteString getRawHeader() {
+        return getRawHeaderWithoutNonce()
+            .concat(ByteString.copyFrom(getNonce().toByteArray()));
+    }
+
+    /**
+     * Get the serialized block header up to the nonce, which is always the last field of the
+     * header.
+     *
+     * @return The serialized block header without the nonce.
+     */
+    @NotNull
+    protected ByteString getRawHeaderWithoutNonce() {
         return ByteUtil.toByteString(getNetworkId())
             .concat(getPreviousBlockHash().getValue())
             .concat(getMerkleRoot().getValue())
             .concat(getTargetValue().getValue())
-            .concat(ByteUtil.toByteString(getBlockHeight()))
-            .concat(ByteString.copyFrom(getNonce().toByteArray()));
+            .concat(ByteUtil.toByteString(getBlockHeight()));
     }
 
     public int getNetworkId() {
@@ -3,13 +3,14 @@ package org.brabocoin.brabocoin.model;
 import com.google.protobuf.ByteString;
 import net.badata.protobuf.converter.annotation.ProtoClass;
 import net.badata.protobuf.converter.annotation.ProtoField;
-import org.bouncycastle.util.Arrays;
 import org.brabocoin.brabocoin.model.proto.ProtoBuilder;
 import org.brabocoin.brabocoin.model.proto.ProtoModel;
 import org.brabocoin.brabocoin.proto.model.BrabocoinProtos;
 import org.brabocoin.brabocoin.util.ByteUtil;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Arrays;
+
 /**
  * Represents a hash value.
  */
@@ -22,6 +23,22 @@ public class Hash implements ProtoModel<Hash>, Comparable<Hash> {
     @ProtoField
     private final @NotNull ByteString value;
 
+    /**
+     * The number of bytes of the value after the leading zero bytes.
+     */
+    private final int significantSize;
+
+    /**
+     * The significant bytes of the value as big-endian words, right-aligned such that the last
+     * word holds the last eight bytes of the value.
+     */
+    private final @NotNull long[] words;
+
+    /**
+     * Cached hash code, derived from the significant bytes.
+     */
+    private final int hashCode;
+
     /**
      * Creates a new Hash.
      *
@@ -30,6 +47,28 @@ public class Hash implements ProtoModel<Hash>, Comparable<Hash> {
      */
     public Hash(@NotNull ByteString value) {
         this.value = value;
+
+        int size = value.size();
+        int start = 0;
+        while (start < size && value.byteAt(start) == 0) {
+            start++;
+        }
+
+        this.significantSize = size - start;
+        this.words = new long[(significantSize + Long.BYTES - 1) / Long.BYTES];
+
+        int word = words.length - 1;
+        int shift = 0;
+        for (int i = size - 1; i >= start; i--) {
+            words[word] |= (value.byteAt(i) & 0xFFL) << shift;
+            shift += Byte.SIZE;
+            if (shift == Long.SIZE) {
+                word--;
+                shift = 0;
+            }
+        }
+
+        this.hashCode = 31 * Arrays.hashCode(words) + significantSize;
     }
 
     /**
@@ -53,6 +92,9 @@ public class Hash implements ProtoModel<Hash>, Comparable<Hash> {
         return Builder.class;
     }
 
+    /**
+     * Two hashes are equal when their values are equal after removing leading zero bytes.
+     */
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -64,39 +106,33 @@ public class Hash implements ProtoModel<Hash>, Comparable<Hash> {
 
         Hash hash = (Hash)o;
 
-        return this.compareTo(hash) == 0;
+        return hashCode == hash.hashCode
+            && significantSize == hash.significantSize
+            && Arrays.equals(words, hash.words);
     }
 
     @Override
     public int hashCode() {
-        return value.hashCode();
+        return hashCode;
     }
 
+    /**
+     * Compares the values of the hashes as unsigned big-endian numbers, such that values of
+     * different size are compared as if the shorter value is padded with leading zero bytes.
+     */
     @Override
     public int compareTo(@NotNull Hash o) {
-        int lengthDifference = value.size() - o.value.size();
-
-        byte[] thisArray;
-        byte[] otherArray;
-
-        if (lengthDifference > 0) {
-            thisArray = value.toByteArray();
-            otherArray = ByteString.copyFrom(new byte[lengthDifference])
-                .concat(o.value)
-                .toByteArray();
+        if (significantSize != o.significantSize) {
+            return Integer.compare(significantSize, o.significantSize);
         }
-        else if (lengthDifference < 0) {
-            thisArray = ByteString.copyFrom(new byte[-lengthDifference])
-                .concat(value)
-                .toByteArray();
-            otherArray = o.value.toByteArray();
-        }
-        else {
-            thisArray = value.toByteArray();
-            otherArray = o.value.toByteArray();
+
+        for (int i = 0; i < words.length; i++) {
+            if (words[i] != o.words[i]) {
+                return Long.compareUnsigned(words[i], o.words[i]);
+            }
         }
 
-        return Arrays.compareUnsigned(thisArray, otherArray);
+        return 0;
     }
 
     @ProtoClass(BrabocoinProtos.Hash.class)
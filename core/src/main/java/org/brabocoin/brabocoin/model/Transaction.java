@@ -24,6 +24,11 @@ public class Transaction extends UnsignedTransaction {
     @ProtoField
     private final @NotNull List<Signature> signatures;
 
+    /**
+     * Cached serialized data of the transaction, including the signatures.
+     */
+    private volatile ByteString serializedData;
+
     /**
      * Create a transaction from an unsigned transaction.
      *
@@ -101,16 +106,39 @@ public class Transaction extends UnsignedTransaction {
     }
 
     @Override
-    public @NotNull
-    synchronized Hash getHash() {
-        if (hash == null) {
-            ByteString data = ProtoConverter.toProto(
-                this,
-                BrabocoinProtos.Transaction.class
-            ).toByteString();
-            hash = Hashing.digestSHA256(Hashing.digestSHA256(data));
+    public @NotNull Hash getHash() {
+        Hash result = hash;
+        if (result == null) {
+            result = Hashing.digestSHA256(Hashing.digestSHA256(getSerializedData()));
+            hash = result;
+        }
+        return result;
+    }
+
+    /**
+     * Gets the serialized data of the transaction, including the signatures, using lazy
+     * computation if not available.
+     *
+     * @return The serialized transaction.
+     */
+    public @NotNull ByteString getSerializedData() {
+        ByteString result = serializedData;
+        if (result == null) {
+            result = ProtoConverter.toProto(this, BrabocoinProtos.Transaction.class)
+                .toByteString();
+            serializedData = result;
         }
-        return hash;
+        return result;
+    }
+
+    /**
+     * Gets the size of the serialized transaction.
+     *
+     * @return The size of the serialized transaction in bytes.
+     * @see #getSerializedData()
+     */
+    public int getSerializedSize() {
+        return getSerializedData().size();
     }
 
     /**
@@ -41,7 +41,17 @@ public class UnsignedTransaction implements ProtoModel<UnsignedTransaction> {
     /**
      * Cached hash of this transaction.
      */
-    protected Hash hash;
+    protected volatile Hash hash;
+
+    /**
+     * Cached serialized data of the unsigned transaction.
+     */
+    private volatile ByteString rawData;
+
+    /**
+     * Cached hashed transaction data that is to be signed.
+     */
+    private volatile ByteString signableTransactionData;
 
     /**
      * Create a new unsigned transaction.
@@ -93,19 +103,32 @@ public class UnsignedTransaction implements ProtoModel<UnsignedTransaction> {
      *
      * @return The transaction hash.
      */
-    public synchronized @NotNull Hash getHash() {
-        if (hash == null) {
+    public @NotNull Hash getHash() {
+        Hash result = hash;
+        if (result == null) {
             ByteString data = getRawData();
-            hash = Hashing.digestSHA256(Hashing.digestSHA256(data));
+            result = Hashing.digestSHA256(Hashing.digestSHA256(data));
+            hash = result;
         }
-        return hash;
+        return result;
     }
 
+    /**
+     * Gets the serialized data of the unsigned transaction, excluding any signatures, using lazy
+     * computation if not available.
+     *
+     * @return The serialized unsigned transaction.
+     */
     public @NotNull ByteString getRawData() {
-        return ProtoConverter.toProto(
-            new UnsignedTransaction(this),
-            BrabocoinProtos.UnsignedTransaction.class
-        ).toByteString();
+        ByteString result = rawData;
+        if (result == null) {
+            result = ProtoConverter.toProto(
+                new UnsignedTransaction(this),
+                BrabocoinProtos.UnsignedTransaction.class
+            ).toByteString();
+            rawData = result;
+        }
+        return result;
     }
 
     public Class<? extends ProtoBuilder> getBuilder() {
@@ -113,12 +136,18 @@ public class UnsignedTransaction implements ProtoModel<UnsignedTransaction> {
     }
 
     /**
-     * Get the hashed transaction data that is to be signed.
+     * Get the hashed transaction data that is to be signed, using lazy computation if not
+     * available.
      *
      * @return The hashed transaction data that is to be signed.
      */
     public @NotNull ByteString getSignableTransactionData() {
-        return Hashing.digestSHA256(Hashing.digestSHA256(getRawData())).getValue();
+        ByteString result = signableTransactionData;
+        if (result == null) {
+            result = Hashing.digestSHA256(Hashing.digestSHA256(getRawData())).getValue();
+            signableTransactionData = result;
+        }
+        return result;
     }
 
     public @NotNull Transaction sign(List<Signature> signatures) {
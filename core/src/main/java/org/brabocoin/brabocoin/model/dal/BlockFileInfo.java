@@ -41,6 +41,12 @@ public class BlockFileInfo implements ProtoModel<BlockFileInfo> {
     @ProtoField
     private int highestBlockHeight;
 
+    /**
+     * Size of the undo data in the corresponding undo file in bytes.
+     */
+    @ProtoField
+    private int undoSize;
+
     /**
      * Creates a new block file information holder.
      *
@@ -52,13 +58,16 @@ public class BlockFileInfo implements ProtoModel<BlockFileInfo> {
      *     Minimum block height of all the blocks stored in the file.
      * @param highestBlockHeight
      *     Maximum block height of all the blocks stored in the file.
+     * @param undoSize
+     *     Size of the undo data in the corresponding undo file in bytes.
      */
     public BlockFileInfo(int numberOfBlocks, int size, int lowestBlockHeight,
-                         int highestBlockHeight) {
+                         int highestBlockHeight, int undoSize) {
         this.numberOfBlocks = numberOfBlocks;
         this.size = size;
         this.lowestBlockHeight = lowestBlockHeight;
         this.highestBlockHeight = highestBlockHeight;
+        this.undoSize = undoSize;
     }
 
     /**
@@ -76,6 +85,7 @@ public class BlockFileInfo implements ProtoModel<BlockFileInfo> {
             .setSize(0)
             .setLowestBlockHeight(Integer.MAX_VALUE)
             .setHighestBlockHeight(0)
+            .setUndoSize(0)
             .build();
     }
 
@@ -95,6 +105,10 @@ public class BlockFileInfo implements ProtoModel<BlockFileInfo> {
         return highestBlockHeight;
     }
 
+    public int getUndoSize() {
+        return undoSize;
+    }
+
     @Override
     public Class<? extends ProtoBuilder> getBuilder() {
         return Builder.class;
@@ -115,6 +129,9 @@ public class BlockFileInfo implements ProtoModel<BlockFileInfo> {
         @ProtoField
         private int highestBlockHeight;
 
+        @ProtoField
+        private int undoSize;
+
         public Builder setNumberOfBlocks(int numberOfBlocks) {
             this.numberOfBlocks = numberOfBlocks;
             return this;
@@ -135,9 +152,20 @@ public class BlockFileInfo implements ProtoModel<BlockFileInfo> {
             return this;
         }
 
+        public Builder setUndoSize(int undoSize) {
+            this.undoSize = undoSize;
+            return this;
+        }
+
         @Override
         public BlockFileInfo build() {
-            return new BlockFileInfo(numberOfBlocks, size, lowestBlockHeight, highestBlockHeight);
+            return new BlockFileInfo(
+                numberOfBlocks,
+                size,
+                lowestBlockHeight,
+                highestBlockHeight,
+                undoSize
+            );
         }
     }
 }
@@ -0,0 +1,204 @@
+package org.brabocoin.brabocoin.model.messages;
+
+import net.badata.protobuf.converter.annotation.ProtoClass;
+import net.badata.protobuf.converter.annotation.ProtoField;
+import org.brabocoin.brabocoin.model.Block;
+import org.brabocoin.brabocoin.model.Hash;
+import org.brabocoin.brabocoin.model.dal.BlockInfo;
+import org.brabocoin.brabocoin.model.proto.BigIntegerByteStringConverter;
+import org.brabocoin.brabocoin.model.proto.ProtoBuilder;
+import org.brabocoin.brabocoin.model.proto.ProtoModel;
+import org.brabocoin.brabocoin.proto.model.BrabocoinProtos;
+import org.jetbrains.annotations.NotNull;
+
+import java.math.BigInteger;
+import java.util.Collections;
+
+/**
+ * The header of a block, used to synchronize the header chain before the block bodies are
+ * downloaded.
+ */
+@ProtoClass(BrabocoinProtos.BlockHeader.class)
+public class BlockHeader implements ProtoModel<BlockHeader> {
+
+    @ProtoField
+    private final int networkId;
+
+    @ProtoField
+    private final @NotNull Hash previousBlockHash;
+
+    @ProtoField
+    private final @NotNull Hash merkleRoot;
+
+    @ProtoField
+    private final @NotNull Hash targetValue;
+
+    @ProtoField(converter = BigIntegerByteStringConverter.class)
+    private final @NotNull BigInteger nonce;
+
+    @ProtoField
+    private final int blockHeight;
+
+    /**
+     * The block without transactions, which has the same hash as the full block.
+     */
+    private final @NotNull Block block;
+
+    /**
+     * Create a new block header.
+     *
+     * @param previousBlockHash
+     *     Hash of the previous block in the blockchain.
+     * @param merkleRoot
+     *     Hash of the Merkle root.
+     * @param targetValue
+     *     Target value for the proof-of-work.
+     * @param nonce
+     *     Nonce for the proof-of-work.
+     * @param blockHeight
+     *     Height of the block in the blockchain.
+     * @param networkId
+     *     Number indicating the network this block belongs to.
+     */
+    public BlockHeader(@NotNull Hash previousBlockHash, @NotNull Hash merkleRoot,
+                       @NotNull Hash targetValue, @NotNull BigInteger nonce, int blockHeight,
+                       int networkId) {
+        this.previousBlockHash = previousBlockHash;
+        this.merkleRoot = merkleRoot;
+        this.targetValue = targetValue;
+        this.nonce = nonce;
+        this.blockHeight = blockHeight;
+        this.networkId = networkId;
+        this.block = new Block(
+            previousBlockHash,
+            merkleRoot,
+            targetValue,
+            nonce,
+            blockHeight,
+            Collections.emptyList(),
+            networkId
+        );
+    }
+
+    /**
+     * Create the header of a stored block.
+     *
+     * @param blockInfo
+     *     The block information of the stored block.
+     * @return The block header.
+     */
+    public static @NotNull BlockHeader fromBlockInfo(@NotNull BlockInfo blockInfo) {
+        return new BlockHeader(
+            blockInfo.getPreviousBlockHash(),
+            blockInfo.getMerkleRoot(),
+            blockInfo.getTargetValue(),
+            blockInfo.getNonce(),
+            blockInfo.getBlockHeight(),
+            blockInfo.getNetworkId()
+        );
+    }
+
+    /**
+     * Get the header as a block without transactions.
+     * <p>
+     * The block has the same hash as the full block, and can be validated against the rules
+     * that only inspect the header.
+     *
+     * @return The block without transactions.
+     */
+    public @NotNull Block asBlock() {
+        return block;
+    }
+
+    public @NotNull Hash getHash() {
+        return block.getHash();
+    }
+
+    public int getNetworkId() {
+        return networkId;
+    }
+
+    public @NotNull Hash getPreviousBlockHash() {
+        return previousBlockHash;
+    }
+
+    public @NotNull Hash getMerkleRoot() {
+        return merkleRoot;
+    }
+
+    public @NotNull Hash getTargetValue() {
+        return targetValue;
+    }
+
+    public @NotNull BigInteger getNonce() {
+        return nonce;
+    }
+
+    public int getBlockHeight() {
+        return blockHeight;
+    }
+
+    @Override
+    public Class<? extends ProtoBuilder> getBuilder() {
+        return Builder.class;
+    }
+
+    @ProtoClass(BrabocoinProtos.BlockHeader.class)
+    public static class Builder implements ProtoBuilder<BlockHeader> {
+
+        @ProtoField
+        private int networkId;
+        @ProtoField
+        private Hash.Builder previousBlockHash;
+        @ProtoField
+        private Hash.Builder merkleRoot;
+        @ProtoField
+        private Hash.Builder targetValue;
+        @ProtoField(converter = BigIntegerByteStringConverter.class)
+        private BigInteger nonce;
+        @ProtoField
+        private int blockHeight;
+
+        public Builder setNetworkId(int networkId) {
+            this.networkId = networkId;
+            return this;
+        }
+
+        public Builder setPreviousBlockHash(Hash.Builder previousBlockHash) {
+            this.previousBlockHash = previousBlockHash;
+            return this;
+        }
+
+        public Builder setMerkleRoot(Hash.Builder merkleRoot) {
+            this.merkleRoot = merkleRoot;
+            return this;
+        }
+
+        public Builder setTargetValue(Hash.Builder targetValue) {
+            this.targetValue = targetValue;
+            return this;
+        }
+
+        public Builder setNonce(BigInteger nonce) {
+            this.nonce = nonce;
+            return this;
+        }
+
+        public Builder setBlockHeight(int blockHeight) {
+            this.blockHeight = blockHeight;
+            return this;
+        }
+
+        @Override
+        public BlockHeader build() {
+            return new BlockHeader(
+                previousBlockHash.build(),
+                merkleRoot.build(),
+                targetValue.build(),
+                nonce,
+                blockHeight,
+                networkId
+            );
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package org.brabocoin.brabocoin.model.messages;
+
+import net.badata.protobuf.converter.annotation.ProtoClass;
+import net.badata.protobuf.converter.annotation.ProtoField;
+import org.brabocoin.brabocoin.model.Hash;
+import org.brabocoin.brabocoin.model.proto.ProtoBuilder;
+import org.brabocoin.brabocoin.model.proto.ProtoModel;
+import org.brabocoin.brabocoin.proto.model.BrabocoinProtos;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Request for the transactions of a block that could not be reconstructed from a
+ * {@link CompactBlock}.
+ */
+@ProtoClass(BrabocoinProtos.BlockTransactionsRequest.class)
+public class BlockTransactionsRequest implements ProtoModel<BlockTransactionsRequest> {
+
+    @ProtoField
+    private final @NotNull Hash blockHash;
+
+    /**
+     * The indices of the requested transactions in the block, in strictly ascending order.
+     */
+    @ProtoField
+    private final @NotNull List<Integer> indices;
+
+    public BlockTransactionsRequest(@NotNull Hash blockHash, @NotNull List<Integer> indices) {
+        this.blockHash = blockHash;
+        this.indices = new ArrayList<>(indices);
+    }
+
+    public @NotNull Hash getBlockHash() {
+        return blockHash;
+    }
+
+    public @NotNull List<Integer> getIndices() {
+        return Collections.unmodifiableList(indices);
+    }
+
+    @Override
+    public Class<? extends ProtoBuilder> getBuilder() {
+        return Builder.class;
+    }
+
+    @ProtoClass(BrabocoinProtos.BlockTransactionsRequest.class)
+    public static class Builder implements ProtoBuilder<BlockTransactionsRequest> {
+
+        @ProtoField
+        private Hash.Builder blockHash;
+
+        @ProtoField
+        private List<Integer> indices;
+
+        public Builder setBlockHash(Hash.Builder blockHash) {
+            this.blockHash = blockHash;
+            return this;
+        }
+
+        public Builder setIndices(List<Integer> indices) {
+            this.indices = indices;
+            return this;
+        }
+
+        @Override
+        public BlockTransactionsRequest build() {
+            return new BlockTransactionsRequest(blockHash.build(), indices);
+        }
+    }
+}
@@ -0,0 +1,484 @@
+package org.brabocoin.brabocoin.model.messages;
+
+import com.google.protobuf.ByteString;
+import net.badata.protobuf.converter.annotation.ProtoClass;
+import net.badata.protobuf.converter.annotation.ProtoField;
+import org.bouncycastle.crypto.macs.SipHash;
+import org.bouncycastle.crypto.params.KeyParameter;
+import org.brabocoin.brabocoin.crypto.Hashing;
+import org.brabocoin.brabocoin.model.Block;
+import org.brabocoin.brabocoin.model.Hash;
+import org.brabocoin.brabocoin.model.Transaction;
+import org.brabocoin.brabocoin.model.proto.BigIntegerByteStringConverter;
+import org.brabocoin.brabocoin.model.proto.ProtoBuilder;
+import org.brabocoin.brabocoin.model.proto.ProtoModel;
+import org.brabocoin.brabocoin.proto.model.BrabocoinProtos;
+import org.brabocoin.brabocoin.util.ByteUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * A block header together with short identifiers of its transactions.
+ * <p>
+ * A peer that already has most transactions of the block in its transaction pool can
+ * reconstruct the block from the short ids, and only needs to request the missing transactions.
+ * The short id of a transaction is the SipHash-2-4 of its hash, truncated to
+ * {@value #SHORT_ID_SIZE} bytes. The SipHash key is derived from the block hash and a nonce
+ * chosen by the sender, such that collisions cannot be constructed in advance.
+ * <p>
+ * The coinbase transaction is never in a transaction pool, and is always sent in full as a
+ * prefilled transaction.
+ */
+@ProtoClass(BrabocoinProtos.CompactBlock.class)
+public class CompactBlock implements ProtoModel<CompactBlock> {
+
+    /**
+     * The size of a short transaction id in bytes.
+     */
+    public static final int SHORT_ID_SIZE = 6;
+
+    private static final long SHORT_ID_MASK = (1L << (SHORT_ID_SIZE * Byte.SIZE)) - 1;
+
+    private static final int SIP_HASH_KEY_SIZE = 16;
+
+    @ProtoField
+    private final int networkId;
+
+    @ProtoField
+    private final @NotNull Hash previousBlockHash;
+
+    @ProtoField
+    private final @NotNull Hash merkleRoot;
+
+    @ProtoField
+    private final @NotNull Hash targetValue;
+
+    @ProtoField(converter = BigIntegerByteStringConverter.class)
+    private final @NotNull BigInteger nonce;
+
+    @ProtoField
+    private final int blockHeight;
+
+    /**
+     * Nonce used to derive the SipHash key of the short ids.
+     */
+    @ProtoField
+    private final long shortIdNonce;
+
+    /**
+     * The concatenated short ids of all transactions that are not prefilled, in block order.
+     */
+    @ProtoField
+    private final @NotNull ByteString shortTransactionIds;
+
+    /**
+     * The transactions that are sent in full, in ascending order of index.
+     */
+    @ProtoField
+    private final @NotNull List<PrefilledTransaction> prefilledTransactions;
+
+    /**
+     * The block without transactions, which has the same hash as the full block.
+     */
+    private final @NotNull Block header;
+
+    private final @NotNull byte[] shortIdKey;
+
+    /**
+     * Create a new compact block.
+     *
+     * @param previousBlockHash
+     *     Hash of the previous block in the blockchain.
+     * @param merkleRoot
+     *     Hash of the Merkle root.
+     * @param targetValue
+     *     Target value for the proof-of-work.
+     * @param nonce
+     *     Nonce for the proof-of-work.
+     * @param blockHeight
+     *     Height of the block in the blockchain.
+     * @param networkId
+     *     Number indicating the network this block belongs to.
+     * @param shortIdNonce
+     *     Nonce used to derive the SipHash key of the short ids.
+     * @param shortTransactionIds
+     *     The concatenated short ids of all transactions that are not prefilled.
+     * @param prefilledTransactions
+     *     The transactions that are sent in full, in ascending order of index.
+     */
+    public CompactBlock(@NotNull Hash previousBlockHash, @NotNull Hash merkleRoot,
+                        @NotNull Hash targetValue, @NotNull BigInteger nonce, int blockHeight,
+                        int networkId, long shortIdNonce, @NotNull ByteString shortTransactionIds,
+                        @NotNull List<PrefilledTransaction> prefilledTransactions) {
+        if (shortTransactionIds.size() % SHORT_ID_SIZE != 0) {
+            throw new IllegalArgumentException("Short transaction ids are not a whole number of ids.");
+        }
+
+        this.previousBlockHash = previousBlockHash;
+        this.merkleRoot = merkleRoot;
+        this.targetValue = targetValue;
+        this.nonce = nonce;
+        this.blockHeight = blockHeight;
+        this.networkId = networkId;
+        this.shortIdNonce = shortIdNonce;
+        this.shortTransactionIds = shortTransactionIds;
+        this.prefilledTransactions = new ArrayList<>(prefilledTransactions);
+
+        this.header = new Block(
+            previousBlockHash,
+            merkleRoot,
+            targetValue,
+            nonce,
+            blockHeight,
+            Collections.emptyList(),
+            networkId
+        );
+        this.shortIdKey = Arrays.copyOf(
+            Hashing.digestSHA256(
+                header.getHash().getValue().concat(ByteUtil.toByteString(shortIdNonce))
+            ).getValue().toByteArray(),
+            SIP_HASH_KEY_SIZE
+        );
+    }
+
+    /**
+     * Create the compact block of a full block, prefilling only the coinbase transaction.
+     *
+     * @param block
+     *     The block.
+     * @param shortIdNonce
+     *     Nonce used to derive the SipHash key of the short ids.
+     * @return The compact block.
+     */
+    public static @NotNull CompactBlock fromBlock(@NotNull Block block, long shortIdNonce) {
+        List<Transaction> transactions = block.getTransactions();
+        List<PrefilledTransaction> prefilled = new ArrayList<>();
+        if (!transactions.isEmpty()) {
+            prefilled.add(new PrefilledTransaction(0, transactions.get(0)));
+        }
+
+        CompactBlock withoutIds = new CompactBlock(
+            block.getPreviousBlockHash(),
+            block.getMerkleRoot(),
+            block.getTargetValue(),
+            block.getNonce(),
+            block.getBlockHeight(),
+            block.getNetworkId(),
+            shortIdNonce,
+            ByteString.EMPTY,
+            prefilled
+        );
+
+        SipHash sipHash = withoutIds.createSipHash();
+        byte[] shortIds = new byte[Math.max(0, transactions.size() - 1) * SHORT_ID_SIZE];
+        for (int i = 1; i < transactions.size(); i++) {
+            long shortId = computeShortId(sipHash, transactions.get(i).getHash());
+            for (int j = 0; j < SHORT_ID_SIZE; j++) {
+                shortIds[(i - 1) * SHORT_ID_SIZE + j] =
+                    (byte)(shortId >>> ((SHORT_ID_SIZE - 1 - j) * Byte.SIZE));
+            }
+        }
+
+        return new CompactBlock(
+            block.getPreviousBlockHash(),
+            block.getMerkleRoot(),
+            block.getTargetValue(),
+            block.getNonce(),
+            block.getBlockHeight(),
+            block.getNetworkId(),
+            shortIdNonce,
+            ByteString.copyFrom(shortIds),
+            prefilled
+        );
+    }
+
+    private @NotNull SipHash createSipHash() {
+        SipHash sipHash = new SipHash(2, 4);
+        sipHash.init(new KeyParameter(shortIdKey));
+        return sipHash;
+    }
+
+    private static long computeShortId(@NotNull SipHash sipHash, @NotNull Hash transactionHash) {
+        byte[] hash = transactionHash.getValue().toByteArray();
+        sipHash.update(hash, 0, hash.length);
+        return sipHash.doFinal() & SHORT_ID_MASK;
+    }
+
+    /**
+     * Compute the short id of a transaction for this block.
+     *
+     * @param transactionHash
+     *     The hash of the transaction.
+     * @return The short id.
+     */
+    public long computeShortId(@NotNull Hash transactionHash) {
+        return computeShortId(createSipHash(), transactionHash);
+    }
+
+    private long getShortId(int position) {
+        long shortId = 0;
+        int offset = position * SHORT_ID_SIZE;
+        for (int j = 0; j < SHORT_ID_SIZE; j++) {
+            shortId = (shortId << Byte.SIZE) | (shortTransactionIds.byteAt(offset + j) & 0xFF);
+        }
+
+        return shortId;
+    }
+
+    /**
+     * The number of transactions in the block.
+     *
+     * @return The number of transactions.
+     */
+    public int getTransactionCount() {
+        return shortTransactionIds.size() / SHORT_ID_SIZE + prefilledTransactions.size();
+    }
+
+    /**
+     * Match the transactions of the block with the given candidate transactions.
+     * <p>
+     * Prefilled transactions are always present in the result. Transactions whose short id does
+     * not match any candidate, or matches multiple candidates, are {@code null}.
+     *
+     * @param candidates
+     *     The candidate transactions, usually the transactions in the transaction pool.
+     * @return The transactions of the block in block order, where missing transactions are
+     * {@code null}.
+     * @throws IllegalStateException
+     *     When the prefilled transactions have invalid indices.
+     */
+    public @NotNull List<Transaction> matchTransactions(
+        @NotNull Iterable<Transaction> candidates) {
+        int count = getTransactionCount();
+        List<Transaction> result = new ArrayList<>(Collections.nCopies(count, null));
+        for (PrefilledTransaction prefilled : prefilledTransactions) {
+            if (prefilled.getIndex() < 0 || prefilled.getIndex() >= count
+                || result.get(prefilled.getIndex()) != null) {
+                throw new IllegalStateException("Invalid prefilled transaction index.");
+            }
+
+            result.set(prefilled.getIndex(), prefilled.getTransaction());
+        }
+
+        // Positions of the short ids in the block
+        Map<Long, Integer> positions = new HashMap<>();
+        Set<Long> duplicates = new HashSet<>();
+        int shortIdPosition = 0;
+        for (int i = 0; i < count; i++) {
+            if (result.get(i) != null) {
+                continue;
+            }
+
+            long shortId = getShortId(shortIdPosition++);
+            if (positions.put(shortId, i) != null) {
+                duplicates.add(shortId);
+            }
+        }
+
+        SipHash sipHash = createSipHash();
+        Map<Long, Transaction> matches = new HashMap<>();
+        for (Transaction candidate : candidates) {
+            long shortId = computeShortId(sipHash, candidate.getHash());
+            if (!positions.containsKey(shortId) || duplicates.contains(shortId)) {
+                continue;
+            }
+
+            Transaction previous = matches.put(shortId, candidate);
+            if (previous != null && !previous.getHash().equals(candidate.getHash())) {
+                duplicates.add(shortId);
+            }
+        }
+
+        for (Map.Entry<Long, Transaction> match : matches.entrySet()) {
+            if (!duplicates.contains(match.getKey())) {
+                result.set(positions.get(match.getKey()), match.getValue());
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Get the indices of the transactions that are missing from the matched transactions.
+     *
+     * @param transactions
+     *     The transactions as returned by {@link #matchTransactions(Iterable)}.
+     * @return The indices of the missing transactions in ascending order.
+     */
+    public static @NotNull List<Integer> findMissingIndices(
+        @NotNull List<Transaction> transactions) {
+        List<Integer> missing = new ArrayList<>();
+        for (int i = 0; i < transactions.size(); i++) {
+            if (transactions.get(i) == null) {
+                missing.add(i);
+            }
+        }
+
+        return missing;
+    }
+
+    /**
+     * Create the full block from the header of this compact block and the given transactions.
+     *
+     * @param transactions
+     *     All transactions of the block in block order.
+     * @return The full block.
+     */
+    public @NotNull Block toBlock(@NotNull List<Transaction> transactions) {
+        return new Block(
+            previousBlockHash,
+            merkleRoot,
+            targetValue,
+            nonce,
+            blockHeight,
+            transactions,
+            networkId
+        );
+    }
+
+    /**
+     * Get the hash of the block.
+     *
+     * @return The block hash.
+     */
+    public @NotNull Hash getHash() {
+        return header.getHash();
+    }
+
+    public int getNetworkId() {
+        return networkId;
+    }
+
+    public @NotNull Hash getPreviousBlockHash() {
+        return previousBlockHash;
+    }
+
+    public @NotNull Hash getMerkleRoot() {
+        return merkleRoot;
+    }
+
+    public @NotNull Hash getTargetValue() {
+        return targetValue;
+    }
+
+    public @NotNull BigInteger getNonce() {
+        return nonce;
+    }
+
+    public int getBlockHeight() {
+        return blockHeight;
+    }
+
+    public long getShortIdNonce() {
+        return shortIdNonce;
+    }
+
+    public @NotNull ByteString getShortTransactionIds() {
+        return shortTransactionIds;
+    }
+
+    public @NotNull List<PrefilledTransaction> getPrefilledTransactions() {
+        return Collections.unmodifiableList(prefilledTransactions);
+    }
+
+    @Override
+    public Class<? extends ProtoBuilder> getBuilder() {
+        return Builder.class;
+    }
+
+    @ProtoClass(BrabocoinProtos.CompactBlock.class)
+    public static class Builder implements ProtoBuilder<CompactBlock> {
+
+        @ProtoField
+        private int networkId;
+        @ProtoField
+        private Hash.Builder previousBlockHash;
+        @ProtoField
+        private Hash.Builder merkleRoot;
+        @ProtoField
+        private Hash.Builder targetValue;
+        @ProtoField(converter = BigIntegerByteStringConverter.class)
+        private BigInteger nonce;
+        @ProtoField
+        private int blockHeight;
+        @ProtoField
+        private long shortIdNonce;
+        @ProtoField
+        private ByteString shortTransactionIds;
+        @ProtoField
+        private List<PrefilledTransaction.Builder> prefilledTransactions;
+
+        public Builder setNetworkId(int networkId) {
+            this.networkId = networkId;
+            return this;
+        }
+
+        public Builder setPreviousBlockHash(Hash.Builder previousBlockHash) {
+            this.previousBlockHash = previousBlockHash;
+            return this;
+        }
+
+        public Builder setMerkleRoot(Hash.Builder merkleRoot) {
+            this.merkleRoot = merkleRoot;
+            return this;
+        }
+
+        public Builder setTargetValue(Hash.Builder targetValue) {
+            this.targetValue = targetValue;
+            return this;
+        }
+
+        public Builder setNonce(BigInteger nonce) {
+            this.nonce = nonce;
+            return this;
+        }
+
+        public Builder setBlockHeight(int blockHeight) {
+            this.blockHeight = blockHeight;
+            return this;
+        }
+
+        public Builder setShortIdNonce(long shortIdNonce) {
+            this.shortIdNonce = shortIdNonce;
+            return this;
+        }
+
+        public Builder setShortTransactionIds(ByteString shortTransactionIds) {
+            this.shortTransactionIds = shortTransactionIds;
+            return this;
+        }
+
+        @SuppressWarnings("AssignmentOrReturnOfFieldWithMutableType")
+        public void setPrefilledTransactions(
+            List<PrefilledTransaction.Builder> prefilledTransactions) {
+            this.prefilledTransactions = prefilledTransactions;
+        }
+
+        @Override
+        public CompactBlock build() {
+            return new CompactBlock(
+                previousBlockHash.build(),
+                merkleRoot.build(),
+                targetValue.build(),
+                nonce,
+                blockHeight,
+                networkId,
+                shortIdNonce,
+                shortTransactionIds,
+                prefilledTransactions.stream()
+                    .map(PrefilledTransaction.Builder::build)
+                    .collect(Collectors.toList())
+            );
+        }
+    }
+}
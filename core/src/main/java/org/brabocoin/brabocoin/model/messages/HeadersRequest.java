@@ -0,0 +1,60 @@
+package org.brabocoin.brabocoin.model.messages;
+
+import net.badata.protobuf.converter.annotation.ProtoClass;
+import net.badata.protobuf.converter.annotation.ProtoField;
+import org.brabocoin.brabocoin.model.Hash;
+import org.brabocoin.brabocoin.model.proto.ProtoBuilder;
+import org.brabocoin.brabocoin.model.proto.ProtoModel;
+import org.brabocoin.brabocoin.proto.model.BrabocoinProtos;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Request for the headers of the blocks on the main chain of the peer, above the most recent
+ * block in the locator that is on that main chain.
+ */
+@ProtoClass(BrabocoinProtos.HeadersRequest.class)
+public class HeadersRequest implements ProtoModel<HeadersRequest> {
+
+    /**
+     * Block hashes from the top of the main chain of the requesting node down to the genesis
+     * block, with exponentially increasing gaps.
+     */
+    @ProtoField
+    private final @NotNull List<Hash> locator;
+
+    public HeadersRequest(@NotNull List<Hash> locator) {
+        this.locator = new ArrayList<>(locator);
+    }
+
+    public @NotNull List<Hash> getLocator() {
+        return Collections.unmodifiableList(locator);
+    }
+
+    @Override
+    public Class<? extends ProtoBuilder> getBuilder() {
+        return Builder.class;
+    }
+
+    @ProtoClass(BrabocoinProtos.HeadersRequest.class)
+    public static class Builder implements ProtoBuilder<HeadersRequest> {
+
+        @ProtoField
+        private List<Hash.Builder> locator;
+
+        public void setLocator(List<Hash.Builder> locator) {
+            this.locator = locator;
+        }
+
+        @Override
+        public HeadersRequest build() {
+            return new HeadersRequest(
+                locator.stream().map(Hash.Builder::build).collect(Collectors.toList())
+            );
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package org.brabocoin.brabocoin.model.messages;
+
+import net.badata.protobuf.converter.annotation.ProtoClass;
+import net.badata.protobuf.converter.annotation.ProtoField;
+import org.brabocoin.brabocoin.model.Hash;
+import org.brabocoin.brabocoin.model.proto.ProtoBuilder;
+import org.brabocoin.brabocoin.model.proto.ProtoModel;
+import org.brabocoin.brabocoin.proto.model.BrabocoinProtos;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Announcement of multiple block and transaction hashes in a single message.
+ */
+@ProtoClass(BrabocoinProtos.Inventory.class)
+public class Inventory implements ProtoModel<Inventory> {
+
+    @ProtoField
+    private final @NotNull List<Hash> blockHashes;
+
+    @ProtoField
+    private final @NotNull List<Hash> transactionHashes;
+
+    public Inventory(@NotNull List<Hash> blockHashes, @NotNull List<Hash> transactionHashes) {
+        this.blockHashes = new ArrayList<>(blockHashes);
+        this.transactionHashes = new ArrayList<>(transactionHashes);
+    }
+
+    public @NotNull List<Hash> getBlockHashes() {
+        return Collections.unmodifiableList(blockHashes);
+    }
+
+    public @NotNull List<Hash> getTransactionHashes() {
+        return Collections.unmodifiableList(transactionHashes);
+    }
+
+    @Override
+    public Class<? extends ProtoBuilder> getBuilder() {
+        return Builder.class;
+    }
+
+    @ProtoClass(BrabocoinProtos.Inventory.class)
+    public static class Builder implements ProtoBuilder<Inventory> {
+
+        @ProtoField
+        private List<Hash.Builder> blockHashes;
+
+        @ProtoField
+        private List<Hash.Builder> transactionHashes;
+
+        public void setBlockHashes(List<Hash.Builder> blockHashes) {
+            this.blockHashes = blockHashes;
+        }
+
+        public void setTransactionHashes(List<Hash.Builder> transactionHashes) {
+            this.transactionHashes = transactionHashes;
+        }
+
+        @Override
+        public Inventory build() {
+            return new Inventory(
+                blockHashes.stream().map(Hash.Builder::build).collect(Collectors.toList()),
+                transactionHashes.stream().map(Hash.Builder::build).collect(Collectors.toList())
+            );
+        }
+    }
+}
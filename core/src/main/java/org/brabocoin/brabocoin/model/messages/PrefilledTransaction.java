@@ -0,0 +1,68 @@
+package org.brabocoin.brabocoin.model.messages;
+
+import net.badata.protobuf.converter.annotation.ProtoClass;
+import net.badata.protobuf.converter.annotation.ProtoField;
+import org.brabocoin.brabocoin.model.Transaction;
+import org.brabocoin.brabocoin.model.proto.ProtoBuilder;
+import org.brabocoin.brabocoin.model.proto.ProtoModel;
+import org.brabocoin.brabocoin.proto.model.BrabocoinProtos;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A transaction that is sent in full as part of a {@link CompactBlock}.
+ */
+@ProtoClass(BrabocoinProtos.PrefilledTransaction.class)
+public class PrefilledTransaction implements ProtoModel<PrefilledTransaction> {
+
+    /**
+     * The index of the transaction in the block.
+     */
+    @ProtoField
+    private final int index;
+
+    @ProtoField
+    private final @NotNull Transaction transaction;
+
+    public PrefilledTransaction(int index, @NotNull Transaction transaction) {
+        this.index = index;
+        this.transaction = transaction;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public @NotNull Transaction getTransaction() {
+        return transaction;
+    }
+
+    @Override
+    public Class<? extends ProtoBuilder> getBuilder() {
+        return Builder.class;
+    }
+
+    @ProtoClass(BrabocoinProtos.PrefilledTransaction.class)
+    public static class Builder implements ProtoBuilder<PrefilledTransaction> {
+
+        @ProtoField
+        private int index;
+
+        @ProtoField
+        private Transaction.Builder transaction;
+
+        public Builder setIndex(int index) {
+            this.index = index;
+            return this;
+        }
+
+        public Builder setTransaction(Transaction.Builder transaction) {
+            this.transaction = transaction;
+            return this;
+        }
+
+        @Override
+        public PrefilledTransaction build() {
+            return new PrefilledTransaction(index, transaction.build());
+        }
+    }
+}
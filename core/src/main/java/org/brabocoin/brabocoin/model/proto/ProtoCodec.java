@@ -0,0 +1,90 @@
+package org.brabocoin.brabocoin.model.proto;
+
+import com.google.protobuf.Message;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.Function;
+
+/**
+ * Direct conversion between a {@link ProtoModel} class and its generated proto class.
+ * <p>
+ * A codec converts the fields explicitly instead of by reflection, and is used by
+ * {@link org.brabocoin.brabocoin.util.ProtoConverter} whenever one is available.
+ *
+ * @param <D>
+ *     The proto model class.
+ * @param <P>
+ *     The generated proto class.
+ * @see ProtoCodecs
+ */
+public class ProtoCodec<D extends ProtoModel<?>, P extends Message> {
+
+    private final @NotNull Class<D> domainClass;
+
+    private final @NotNull Class<? extends ProtoBuilder> builderClass;
+
+    private final @NotNull Class<P> protoClass;
+
+    private final @NotNull Function<P, D> decoder;
+
+    private final @NotNull Function<D, P> encoder;
+
+    /**
+     * Create a new codec.
+     *
+     * @param domainClass
+     *     The proto model class.
+     * @param builderClass
+     *     The builder class of the proto model.
+     * @param protoClass
+     *     The generated proto class.
+     * @param decoder
+     *     Function converting a proto object to a domain object.
+     * @param encoder
+     *     Function converting a domain object to a proto object.
+     */
+    public ProtoCodec(@NotNull Class<D> domainClass,
+                      @NotNull Class<? extends ProtoBuilder> builderClass,
+                      @NotNull Class<P> protoClass, @NotNull Function<P, D> decoder,
+                      @NotNull Function<D, P> encoder) {
+        this.domainClass = domainClass;
+        this.builderClass = builderClass;
+        this.protoClass = protoClass;
+        this.decoder = decoder;
+        this.encoder = encoder;
+    }
+
+    /**
+     * Convert a proto object to a domain object.
+     *
+     * @param proto
+     *     The proto object.
+     * @return The domain object.
+     */
+    public @NotNull D toDomain(@NotNull P proto) {
+        return decoder.apply(proto);
+    }
+
+    /**
+     * Convert a domain object to a proto object.
+     *
+     * @param domainObject
+     *     The domain object.
+     * @return The proto object.
+     */
+    public @NotNull P toProto(@NotNull D domainObject) {
+        return encoder.apply(domainObject);
+    }
+
+    public @NotNull Class<D> getDomainClass() {
+        return domainClass;
+    }
+
+    public @NotNull Class<? extends ProtoBuilder> getBuilderClass() {
+        return builderClass;
+    }
+
+    public @NotNull Class<P> getProtoClass() {
+        return protoClass;
+    }
+}
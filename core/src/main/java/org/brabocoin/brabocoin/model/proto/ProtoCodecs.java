@@ -0,0 +1,498 @@
+package org.brabocoin.brabocoin.model.proto;
+
+import com.google.protobuf.ByteString;
+import org.brabocoin.brabocoin.crypto.EllipticCurve;
+import org.brabocoin.brabocoin.crypto.PublicKey;
+import org.brabocoin.brabocoin.model.Block;
+import org.brabocoin.brabocoin.model.Hash;
+import org.brabocoin.brabocoin.model.Input;
+import org.brabocoin.brabocoin.model.Output;
+import org.brabocoin.brabocoin.model.Transaction;
+import org.brabocoin.brabocoin.model.UnsignedTransaction;
+import org.brabocoin.brabocoin.model.crypto.Signature;
+import org.brabocoin.brabocoin.model.dal.BlockInfo;
+import org.brabocoin.brabocoin.model.dal.BlockUndo;
+import org.brabocoin.brabocoin.model.dal.TransactionUndo;
+import org.brabocoin.brabocoin.model.dal.UnspentOutputInfo;
+import org.brabocoin.brabocoin.proto.dal.BrabocoinStorageProtos;
+import org.brabocoin.brabocoin.proto.model.BrabocoinProtos;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Direct codecs for the proto models that are converted on hot paths.
+ * <p>
+ * The codecs produce the same proto objects as the reflective converter, with the field
+ * conversions of {@link BigIntegerByteStringConverter} and
+ * {@link Secp256k1PublicKeyByteStringConverter} applied explicitly.
+ */
+public final class ProtoCodecs {
+
+    private static final @NotNull EllipticCurve CURVE = EllipticCurve.secp256k1();
+
+    public static final ProtoCodec<Hash, BrabocoinProtos.Hash> HASH = new ProtoCodec<>(
+        Hash.class,
+        Hash.Builder.class,
+        BrabocoinProtos.Hash.class,
+        ProtoCodecs::decodeHash,
+        ProtoCodecs::encodeHash
+    );
+
+    public static final ProtoCodec<Input, BrabocoinProtos.Input> INPUT = new ProtoCodec<>(
+        Input.class,
+        Input.Builder.class,
+        BrabocoinProtos.Input.class,
+        ProtoCodecs::decodeInput,
+        ProtoCodecs::encodeInput
+    );
+
+    public static final ProtoCodec<Output, BrabocoinProtos.Output> OUTPUT = new ProtoCodec<>(
+        Output.class,
+        Output.Builder.class,
+        BrabocoinProtos.Output.class,
+        ProtoCodecs::decodeOutput,
+        ProtoCodecs::encodeOutput
+    );
+
+    public static final ProtoCodec<Signature, BrabocoinProtos.Signature> SIGNATURE =
+        new ProtoCodec<>(
+            Signature.class,
+            Signature.Builder.class,
+            BrabocoinProtos.Signature.class,
+            ProtoCodecs::decodeSignature,
+            ProtoCodecs::encodeSignature
+        );
+
+    public static final ProtoCodec<UnsignedTransaction, BrabocoinProtos.UnsignedTransaction>
+        UNSIGNED_TRANSACTION = new ProtoCodec<>(
+        UnsignedTransaction.class,
+        UnsignedTransaction.Builder.class,
+        BrabocoinProtos.UnsignedTransaction.class,
+        ProtoCodecs::decodeUnsignedTransaction,
+        ProtoCodecs::encodeUnsignedTransaction
+    );
+
+    public static final ProtoCodec<Transaction, BrabocoinProtos.Transaction> TRANSACTION =
+        new ProtoCodec<>(
+            Transaction.class,
+            Transaction.Builder.class,
+            BrabocoinProtos.Transaction.class,
+            ProtoCodecs::decodeTransaction,
+            ProtoCodecs::encodeTransaction
+        );
+
+    public static final ProtoCodec<Block, BrabocoinProtos.Block> BLOCK = new ProtoCodec<>(
+        Block.class,
+        Block.Builder.class,
+        BrabocoinProtos.Block.class,
+        ProtoCodecs::decodeBlock,
+        ProtoCodecs::encodeBlock
+    );
+
+    public static final ProtoCodec<BlockInfo, BrabocoinStorageProtos.BlockInfo> BLOCK_INFO =
+        new ProtoCodec<>(
+            BlockInfo.class,
+            BlockInfo.Builder.class,
+            BrabocoinStorageProtos.BlockInfo.class,
+            ProtoCodecs::decodeBlockInfo,
+            ProtoCodecs::encodeBlockInfo
+        );
+
+    public static final ProtoCodec<UnspentOutputInfo, BrabocoinStorageProtos.UnspentOutputInfo>
+        UNSPENT_OUTPUT_INFO = new ProtoCodec<>(
+        UnspentOutputInfo.class,
+        UnspentOutputInfo.Builder.class,
+        BrabocoinStorageProtos.UnspentOutputInfo.class,
+        ProtoCodecs::decodeUnspentOutputInfo,
+        ProtoCodecs::encodeUnspentOutputInfo
+    );
+
+    public static final ProtoCodec<TransactionUndo, BrabocoinStorageProtos.TransactionUndo>
+        TRANSACTION_UNDO = new ProtoCodec<>(
+        TransactionUndo.class,
+        TransactionUndo.Builder.class,
+        BrabocoinStorageProtos.TransactionUndo.class,
+        ProtoCodecs::decodeTransactionUndo,
+        ProtoCodecs::encodeTransactionUndo
+    );
+
+    public static final ProtoCodec<BlockUndo, BrabocoinStorageProtos.BlockUndo> BLOCK_UNDO =
+        new ProtoCodec<>(
+            BlockUndo.class,
+            BlockUndo.Builder.class,
+            BrabocoinStorageProtos.BlockUndo.class,
+            ProtoCodecs::decodeBlockUndo,
+            ProtoCodecs::encodeBlockUndo
+        );
+
+    /**
+     * Codecs by the proto model class.
+     */
+    private static final Map<Class<?>, ProtoCodec<?, ?>> BY_DOMAIN_CLASS = new HashMap<>();
+
+    /**
+     * Codecs by the builder class of the proto model.
+     */
+    private static final Map<Class<?>, ProtoCodec<?, ?>> BY_BUILDER_CLASS = new HashMap<>();
+
+    static {
+        register(HASH);
+        register(INPUT);
+        register(OUTPUT);
+        register(SIGNATURE);
+        register(UNSIGNED_TRANSACTION);
+        register(TRANSACTION);
+        register(BLOCK);
+        register(BLOCK_INFO);
+        register(UNSPENT_OUTPUT_INFO);
+        register(TRANSACTION_UNDO);
+        register(BLOCK_UNDO);
+    }
+
+    private ProtoCodecs() {
+    }
+
+    private static void register(@NotNull ProtoCodec<?, ?> codec) {
+        BY_DOMAIN_CLASS.put(codec.getDomainClass(), codec);
+        BY_BUILDER_CLASS.put(codec.getBuilderClass(), codec);
+    }
+
+    /**
+     * Find the codec for the given proto model class.
+     * <p>
+     * Only exact class matches are returned, as subclasses may hold state that a codec of the
+     * superclass does not know about.
+     *
+     * @param domainClass
+     *     The proto model class.
+     * @return The codec, or {@code null} if no direct codec exists for the class.
+     */
+    public static @Nullable ProtoCodec<?, ?> forDomainClass(@NotNull Class<?> domainClass) {
+        return BY_DOMAIN_CLASS.get(domainClass);
+    }
+
+    /**
+     * Find the codec for the given builder class.
+     *
+     * @param builderClass
+     *     The builder class of the proto model.
+     * @return The codec, or {@code null} if no direct codec exists for the builder class.
+     */
+    public static @Nullable ProtoCodec<?, ?> forBuilderClass(@NotNull Class<?> builderClass) {
+        return BY_BUILDER_CLASS.get(builderClass);
+    }
+
+    private static @NotNull Hash decodeHash(@NotNull BrabocoinProtos.Hash proto) {
+        return new Hash(proto.getValue());
+    }
+
+    /**
+     * Decodes a required hash sub-message.
+     * <p>
+     * An unset field is rejected, as the builders of the reflective converter do not accept a
+     * missing hash either.
+     *
+     * @throws NullPointerException
+     *     When the field is not set.
+     */
+    private static @NotNull Hash decodeHash(boolean present,
+                                            @NotNull BrabocoinProtos.Hash proto,
+                                            @NotNull String field) {
+        if (!present) {
+            throw new NullPointerException("Required hash field " + field + " is not set.");
+        }
+
+        return decodeHash(proto);
+    }
+
+    private static @NotNull BrabocoinProtos.Hash encodeHash(@NotNull Hash hash) {
+        return BrabocoinProtos.Hash.newBuilder().setValue(hash.getValue()).build();
+    }
+
+    private static @NotNull BigInteger decodeBigInteger(@NotNull ByteString value) {
+        return new BigInteger(value.toByteArray());
+    }
+
+    private static @NotNull ByteString encodeBigInteger(@NotNull BigInteger value) {
+        return ByteString.copyFrom(value.toByteArray());
+    }
+
+    private static @NotNull Input decodeInput(@NotNull BrabocoinProtos.Input proto) {
+        return new Input(
+            decodeHash(
+                proto.hasReferencedTransaction(),
+                proto.getReferencedTransaction(),
+                "referencedTransaction"
+            ),
+            proto.getReferencedOutputIndex()
+        );
+    }
+
+    private static @NotNull BrabocoinProtos.Input encodeInput(@NotNull Input input) {
+        return BrabocoinProtos.Input.newBuilder()
+            .setReferencedTransaction(encodeHash(input.getReferencedTransaction()))
+            .setReferencedOutputIndex(input.getReferencedOutputIndex())
+            .build();
+    }
+
+    private static @NotNull Output decodeOutput(@NotNull BrabocoinProtos.Output proto) {
+        return new Output(
+            decodeHash(proto.hasAddress(), proto.getAddress(), "address"),
+            proto.getAmount()
+        );
+    }
+
+    private static @NotNull BrabocoinProtos.Output encodeOutput(@NotNull Output output) {
+        return BrabocoinProtos.Output.newBuilder()
+            .setAddress(encodeHash(output.getAddress()))
+            .setAmount(output.getAmount())
+            .build();
+    }
+
+    private static @NotNull Signature decodeSignature(@NotNull BrabocoinProtos.Signature proto) {
+        return new Signature(
+            decodeBigInteger(proto.getR()),
+            decodeBigInteger(proto.getS()),
+            PublicKey.fromCompressed(proto.getPublicKey(), CURVE)
+        );
+    }
+
+    private static @NotNull BrabocoinProtos.Signature encodeSignature(
+        @NotNull Signature signature) {
+        return BrabocoinProtos.Signature.newBuilder()
+            .setR(encodeBigInteger(signature.getR()))
+            .setS(encodeBigInteger(signature.getS()))
+            .setPublicKey(signature.getPublicKey().toCompressed())
+            .build();
+    }
+
+    private static @NotNull List<Input> decodeInputs(
+        @NotNull List<BrabocoinProtos.Input> protos) {
+        List<Input> inputs = new ArrayList<>(protos.size());
+        for (BrabocoinProtos.Input proto : protos) {
+            inputs.add(decodeInput(proto));
+        }
+        return inputs;
+    }
+
+    private static @NotNull List<Output> decodeOutputs(
+        @NotNull List<BrabocoinProtos.Output> protos) {
+        List<Output> outputs = new ArrayList<>(protos.size());
+        for (BrabocoinProtos.Output proto : protos) {
+            outputs.add(decodeOutput(proto));
+        }
+        return outputs;
+    }
+
+    private static @NotNull UnsignedTransaction decodeUnsignedTransaction(
+        @NotNull BrabocoinProtos.UnsignedTransaction proto) {
+        return new UnsignedTransaction(
+            decodeInputs(proto.getInputsList()),
+            decodeOutputs(proto.getOutputsList())
+        );
+    }
+
+    private static @NotNull BrabocoinProtos.UnsignedTransaction encodeUnsignedTransaction(
+        @NotNull UnsignedTransaction transaction) {
+        BrabocoinProtos.UnsignedTransaction.Builder builder =
+            BrabocoinProtos.UnsignedTransaction.newBuilder();
+
+        for (Input input : transaction.getInputs()) {
+            builder.addInputs(encodeInput(input));
+        }
+
+        for (Output output : transaction.getOutputs()) {
+            builder.addOutputs(encodeOutput(output));
+        }
+
+        return builder.build();
+    }
+
+    private static @NotNull Transaction decodeTransaction(
+        @NotNull BrabocoinProtos.Transaction proto) {
+        List<Signature> signatures = new ArrayList<>(proto.getSignaturesCount());
+        for (BrabocoinProtos.Signature signature : proto.getSignaturesList()) {
+            signatures.add(decodeSignature(signature));
+        }
+
+        return new Transaction(
+            decodeInputs(proto.getInputsList()),
+            decodeOutputs(proto.getOutputsList()),
+            signatures
+        );
+    }
+
+    private static @NotNull BrabocoinProtos.Transaction encodeTransaction(
+        @NotNull Transaction transaction) {
+        BrabocoinProtos.Transaction.Builder builder = BrabocoinProtos.Transaction.newBuilder();
+
+        for (Input input : transaction.getInputs()) {
+            builder.addInputs(encodeInput(input));
+        }
+
+        for (Output output : transaction.getOutputs()) {
+            builder.addOutputs(encodeOutput(output));
+        }
+
+        for (Signature signature : transaction.getSignatures()) {
+            builder.addSignatures(encodeSignature(signature));
+        }
+
+        return builder.build();
+    }
+
+    private static @NotNull Block decodeBlock(@NotNull BrabocoinProtos.Block proto) {
+        List<Transaction> transactions = new ArrayList<>(proto.getTransactionsCount());
+        for (BrabocoinProtos.Transaction transaction : proto.getTransactionsList()) {
+            transactions.add(decodeTransaction(transaction));
+        }
+
+        return new Block(
+            decodeHash(
+                proto.hasPreviousBlockHash(),
+                proto.getPreviousBlockHash(),
+                "previousBlockHash"
+            ),
+            decodeHash(proto.hasMerkleRoot(), proto.getMerkleRoot(), "merkleRoot"),
+            decodeHash(proto.hasTargetValue(), proto.getTargetValue(), "targetValue"),
+            decodeBigInteger(proto.getNonce()),
+            proto.getBlockHeight(),
+            transactions,
+            proto.getNetworkId()
+        );
+    }
+
+    private static @NotNull BrabocoinProtos.Block encodeBlock(@NotNull Block block) {
+        BrabocoinProtos.Block.Builder builder = BrabocoinProtos.Block.newBuilder()
+            .setNetworkId(block.getNetworkId())
+            .setPreviousBlockHash(encodeHash(block.getPreviousBlockHash()))
+            .setMerkleRoot(encodeHash(block.getMerkleRoot()))
+            .setTargetValue(encodeHash(block.getTargetValue()))
+            .setNonce(encodeBigInteger(block.getNonce()))
+            .setBlockHeight(block.getBlockHeight());
+
+        for (Transaction transaction : block.getTransactions()) {
+            builder.addTransactions(encodeTransaction(transaction));
+        }
+
+        return builder.build();
+    }
+
+    private static @NotNull BlockInfo decodeBlockInfo(
+        @NotNull BrabocoinStorageProtos.BlockInfo proto) {
+        return new BlockInfo(
+            decodeHash(
+                proto.hasPreviousBlockHash(),
+                proto.getPreviousBlockHash(),
+                "previousBlockHash"
+            ),
+            decodeHash(proto.hasMerkleRoot(), proto.getMerkleRoot(), "merkleRoot"),
+            decodeHash(proto.hasTargetValue(), proto.getTargetValue(), "targetValue"),
+            decodeBigInteger(proto.getNonce()),
+            proto.getBlockHeight(),
+            proto.getTransactionCount(),
+            proto.getNetworkId(),
+            proto.getValid(),
+            proto.getTimeReceived(),
+            proto.getFileNumber(),
+            proto.getOffsetInFile(),
+            proto.getSizeInFile(),
+            proto.getOffsetInUndoFile(),
+            proto.getSizeInUndoFile(),
+            proto.getMinedByMe()
+        );
+    }
+
+    private static @NotNull BrabocoinStorageProtos.BlockInfo encodeBlockInfo(
+        @NotNull BlockInfo info) {
+        return BrabocoinStorageProtos.BlockInfo.newBuilder()
+            .setNetworkId(info.getNetworkId())
+            .setPreviousBlockHash(encodeHash(info.getPreviousBlockHash()))
+            .setMerkleRoot(encodeHash(info.getMerkleRoot()))
+            .setTargetValue(encodeHash(info.getTargetValue()))
+            .setNonce(encodeBigInteger(info.getNonce()))
+            .setBlockHeight(info.getBlockHeight())
+            .setTransactionCount(info.getTransactionCount())
+            .setValid(info.isValid())
+            .setTimeReceived(info.getTimeReceived())
+            .setFileNumber(info.getFileNumber())
+            .setOffsetInFile(info.getOffsetInFile())
+            .setSizeInFile(info.getSizeInFile())
+            .setOffsetInUndoFile(info.getOffsetInUndoFile())
+            .setSizeInUndoFile(info.getSizeInUndoFile())
+            .setMinedByMe(info.isMinedByMe())
+            .build();
+    }
+
+    private static @NotNull UnspentOutputInfo decodeUnspentOutputInfo(
+        @NotNull BrabocoinStorageProtos.UnspentOutputInfo proto) {
+        return new UnspentOutputInfo(
+            proto.getCoinbase(),
+            proto.getBlockHeight(),
+            proto.getAmount(),
+            decodeHash(proto.hasAddress(), proto.getAddress(), "address")
+        );
+    }
+
+    private static @NotNull BrabocoinStorageProtos.UnspentOutputInfo encodeUnspentOutputInfo(
+        @NotNull UnspentOutputInfo info) {
+        return BrabocoinStorageProtos.UnspentOutputInfo.newBuilder()
+            .setCoinbase(info.isCoinbase())
+            .setBlockHeight(info.getBlockHeight())
+            .setAmount(info.getAmount())
+            .setAddress(encodeHash(info.getAddress()))
+            .build();
+    }
+
+    private static @NotNull TransactionUndo decodeTransactionUndo(
+        @NotNull BrabocoinStorageProtos.TransactionUndo proto) {
+        List<UnspentOutputInfo> outputInfoList = new ArrayList<>(proto.getOutputInfoListCount());
+        for (BrabocoinStorageProtos.UnspentOutputInfo info : proto.getOutputInfoListList()) {
+            outputInfoList.add(decodeUnspentOutputInfo(info));
+        }
+
+        return new TransactionUndo(outputInfoList);
+    }
+
+    private static @NotNull BrabocoinStorageProtos.TransactionUndo encodeTransactionUndo(
+        @NotNull TransactionUndo undo) {
+        BrabocoinStorageProtos.TransactionUndo.Builder builder =
+            BrabocoinStorageProtos.TransactionUndo.newBuilder();
+
+        for (UnspentOutputInfo info : undo.getOutputInfoList()) {
+            builder.addOutputInfoList(encodeUnspentOutputInfo(info));
+        }
+
+        return builder.build();
+    }
+
+    private static @NotNull BlockUndo decodeBlockUndo(
+        @NotNull BrabocoinStorageProtos.BlockUndo proto) {
+        List<TransactionUndo> transactionUndos = new ArrayList<>(
+            proto.getTransactionUndosCount()
+        );
+        for (BrabocoinStorageProtos.TransactionUndo undo : proto.getTransactionUndosList()) {
+            transactionUndos.add(decodeTransactionUndo(undo));
+        }
+
+        return new BlockUndo(transactionUndos);
+    }
+
+    private static @NotNull BrabocoinStorageProtos.BlockUndo encodeBlockUndo(
+        @NotNull BlockUndo undo) {
+        BrabocoinStorageProtos.BlockUndo.Builder builder =
+            BrabocoinStorageProtos.BlockUndo.newBuilder();
+
+        for (TransactionUndo transactionUndo : undo.getTransactionUndos()) {
+            builder.addTransactionUndos(encodeTransactionUndo(transactionUndo));
+        }
+
+        return builder.build();
+    }
+}
@@ -0,0 +1,522 @@
+package org.brabocoin.brabocoin.node;
+
+import com.google.protobuf.Empty;
+import io.grpc.Context;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import org.brabocoin.brabocoin.Constants;
+import org.brabocoin.brabocoin.model.Hash;
+import org.brabocoin.brabocoin.model.messages.Inventory;
+import org.brabocoin.brabocoin.proto.model.BrabocoinProtos;
+import org.brabocoin.brabocoin.proto.services.NodeGrpc;
+import org.brabocoin.brabocoin.util.ProtoConverter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Announces block and transaction hashes to peers asynchronously.
+ * <p>
+ * Every peer has its own outbound queue of announcements. Transaction announcements are
+ * collected for a randomized trickle interval, after which all queued announcements are sent
+ * to the peer in a single {@code announceInventory} message. A block announcement is sent
+ * without delay, together with the transactions queued before it. Peers that do not support
+ * inventory messages receive every announcement in a separate message.
+ * <p>
+ * At most one message per peer is in flight at a time, such that a slow peer only delays its
+ * own announcements. The total number of messages in flight over all peers is bounded, and
+ * every message has a deadline after which it is cancelled. When the queue of a peer is full,
+ * the oldest announcement in the queue is dropped.
+ * <p>
+ * Hashes that are in the known inventory of a peer are not announced to that peer. Queued
+ * hashes are added to the known inventory of the peer, and removed again when they are dropped
+ * from the queue or when the message is not delivered, such that they are announced again later.
+ */
+public class AnnouncementPropagator {
+
+    private static final Logger LOGGER = Logger.getLogger(AnnouncementPropagator.class.getName());
+
+    /**
+     * Sends announcements to a peer.
+     */
+    @FunctionalInterface
+    interface Announcer {
+
+        /**
+         * Send the announcements to the peer.
+         *
+         * @param peer
+         *     The peer to send the announcements to.
+         * @param announcements
+         *     The announcements.
+         * @param inventory
+         *     Whether to send the announcements in a single inventory message. Otherwise, a
+         *     single announcement is sent using the {@code announceBlock} or {@code
+         *     announceTransaction} message.
+         * @param deadline
+         *     The time in milliseconds in which the message must be completed.
+         * @param observer
+         *     The observer receiving the completion or error of the message.
+         */
+        void announce(@NotNull Peer peer, @NotNull List<Announcement> announcements,
+                      boolean inventory, long deadline, @NotNull StreamObserver<Empty> observer);
+    }
+
+    /**
+     * Schedules a task after a delay.
+     */
+    @FunctionalInterface
+    interface Scheduler {
+
+        /**
+         * Run the task after the given delay.
+         *
+         * @param task
+         *     The task.
+         * @param delay
+         *     The delay in milliseconds.
+         */
+        void schedule(@NotNull Runnable task, long delay);
+    }
+
+    private final int maxConcurrent;
+
+    private final int queueSize;
+
+    private final long deadline;
+
+    private final long trickleInterval;
+
+    private final @NotNull Announcer announcer;
+
+    private final @NotNull Scheduler scheduler;
+
+    private final @NotNull Map<Peer, PeerQueue> queues = new HashMap<>();
+
+    /**
+     * The peers whose queue is ready to be sent, waiting for a free slot, in order of arrival.
+     */
+    private final @NotNull Set<Peer> readyPeers = new LinkedHashSet<>();
+
+    private int inFlight;
+
+    private final AtomicLong suppressedAnnouncementCount = new AtomicLong();
+
+    /**
+     * Create a new announcement propagator that sends the announcements over the network.
+     *
+     * @param maxConcurrent
+     *     The maximum number of messages in flight over all peers.
+     * @param queueSize
+     *     The maximum number of queued announcements per peer.
+     * @param deadline
+     *     The time in milliseconds in which a message must be completed.
+     * @param trickleInterval
+     *     The mean time in milliseconds for which transaction announcements are collected
+     *     before they are sent, or 0 to send them without delay.
+     */
+    public AnnouncementPropagator(int maxConcurrent, int queueSize, long deadline,
+                                  long trickleInterval) {
+        this(
+            maxConcurrent,
+            queueSize,
+            deadline,
+            trickleInterval,
+            AnnouncementPropagator::sendAnnouncements,
+            createScheduler()
+        );
+    }
+
+    AnnouncementPropagator(int maxConcurrent, int queueSize, long deadline,
+                           long trickleInterval, @NotNull Announcer announcer,
+                           @NotNull Scheduler scheduler) {
+        if (maxConcurrent < 1 || queueSize < 1) {
+            throw new IllegalArgumentException(
+                "Concurrency and queue size must be positive."
+            );
+        }
+
+        this.maxConcurrent = maxConcurrent;
+        this.queueSize = queueSize;
+        this.deadline = deadline;
+        this.trickleInterval = trickleInterval;
+        this.announcer = announcer;
+        this.scheduler = scheduler;
+    }
+
+    private static @NotNull Scheduler createScheduler() {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "announcement-trickle");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        return (task, delay) -> executor.schedule(task, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Announce the block hash to the given peers without delay.
+     *
+     * @param hash
+     *     The hash of the block.
+     * @param peers
+     *     The peers to announce the block to.
+     */
+    public void announceBlock(@NotNull Hash hash, @NotNull Collection<Peer> peers) {
+        announce(new Announcement(Announcement.Type.BLOCK, hash), peers);
+    }
+
+    /**
+     * Announce the transaction hash to the given peers after the trickle interval.
+     *
+     * @param hash
+     *     The hash of the transaction.
+     * @param peers
+     *     The peers to announce the transaction to.
+     */
+    public void announceTransaction(@NotNull Hash hash, @NotNull Collection<Peer> peers) {
+        announce(new Announcement(Announcement.Type.TRANSACTION, hash), peers);
+    }
+
+    /**
+     * Discard the queued announcements of the peer.
+     * <p>
+     * A message to the peer that is already in flight is not cancelled.
+     *
+     * @param peer
+     *     The peer.
+     */
+    public synchronized void removePeer(@NotNull Peer peer) {
+        PeerQueue queue = queues.remove(peer);
+        if (queue != null) {
+            queue.announcements.clear();
+        }
+        readyPeers.remove(peer);
+    }
+
+    /**
+     * Get the number of announcements that were not sent, because the peer already knew the
+     * hash.
+     *
+     * @return The number of suppressed announcements.
+     */
+    public long getSuppressedAnnouncementCount() {
+        return suppressedAnnouncementCount.get();
+    }
+
+    private void announce(@NotNull Announcement announcement, @NotNull Collection<Peer> peers) {
+        List<Runnable> calls;
+        synchronized (this) {
+            for (Peer peer : peers) {
+                if (!peer.getKnownInventory().add(announcement.getHash())) {
+                    suppressedAnnouncementCount.incrementAndGet();
+                    continue;
+                }
+
+                PeerQueue queue = queues.computeIfAbsent(peer, p -> new PeerQueue());
+                if (queue.announcements.size() >= queueSize) {
+                    // The dropped hash is not announced, so the peer may not have it
+                    Announcement dropped = queue.announcements.poll();
+                    peer.getKnownInventory().remove(dropped.getHash());
+                    LOGGER.log(
+                        Level.FINE,
+                        "Announcement queue of peer {0} is full, dropped oldest announcement.",
+                        peer
+                    );
+                }
+                queue.announcements.add(announcement);
+
+                if (!queue.busy) {
+                    flush(peer, queue);
+                }
+            }
+
+            calls = startCalls();
+        }
+
+        // Start the calls outside the lock, as a call may complete on the current thread
+        calls.forEach(Runnable::run);
+    }
+
+    /**
+     * Mark the queue of the peer as ready to be sent, either immediately when it contains a
+     * block announcement, or after the trickle interval.
+     * <p>
+     * Must be called while holding the lock.
+     */
+    private void flush(@NotNull Peer peer, @NotNull PeerQueue queue) {
+        boolean containsBlock = queue.announcements.stream()
+            .anyMatch(a -> a.getType() == Announcement.Type.BLOCK);
+
+        if (containsBlock || trickleInterval <= 0) {
+            readyPeers.add(peer);
+            return;
+        }
+
+        if (queue.trickleScheduled || readyPeers.contains(peer)) {
+            return;
+        }
+
+        queue.trickleScheduled = true;
+        scheduler.schedule(() -> trickle(peer, queue), randomTrickleDelay());
+    }
+
+    /**
+     * Get a random delay with an exponential distribution around the trickle interval, such
+     * that the time an announcement is sent does not reveal when it was received.
+     */
+    private long randomTrickleDelay() {
+        double uniform = ThreadLocalRandom.current().nextDouble();
+        return (long)(-Math.log(1.0 - uniform) * trickleInterval);
+    }
+
+    private void trickle(@NotNull Peer peer, @NotNull PeerQueue queue) {
+        List<Runnable> calls;
+        synchronized (this) {
+            queue.trickleScheduled = false;
+            if (queues.get(peer) != queue || queue.busy || queue.announcements.isEmpty()) {
+                return;
+            }
+
+            readyPeers.add(peer);
+            calls = startCalls();
+        }
+
+        calls.forEach(Runnable::run);
+    }
+
+    /**
+     * Take the next batch of announcements of the ready peers, as long as there are free slots.
+     * <p>
+     * Must be called while holding the lock.
+     *
+     * @return The calls that must be started.
+     */
+    private @NotNull List<Runnable> startCalls() {
+        List<Runnable> calls = new ArrayList<>();
+        Iterator<Peer> iterator = readyPeers.iterator();
+        while (inFlight < maxConcurrent && iterator.hasNext()) {
+            Peer peer = iterator.next();
+            iterator.remove();
+
+            PeerQueue queue = queues.get(peer);
+            if (queue == null || queue.announcements.isEmpty()) {
+                continue;
+            }
+
+            int batchSize = queue.legacy ? 1 : Constants.MAX_INVENTORY_SIZE;
+            List<Announcement> batch = new ArrayList<>();
+            while (batch.size() < batchSize && !queue.announcements.isEmpty()) {
+                batch.add(queue.announcements.poll());
+            }
+
+            queue.busy = true;
+            inFlight++;
+            boolean inventory = !queue.legacy;
+            calls.add(() -> send(peer, queue, batch, inventory));
+        }
+
+        return calls;
+    }
+
+    private void send(@NotNull Peer peer, @NotNull PeerQueue queue,
+                      @NotNull List<Announcement> batch, boolean inventory) {
+        try {
+            announcer.announce(peer, batch, inventory, deadline, new StreamObserver<Empty>() {
+                @Override
+                public void onNext(Empty value) {
+                    LOGGER.log(Level.FINEST, "Received announce response from peer.");
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    if (inventory && Status.fromThrowable(t).getCode()
+                        == Status.Code.UNIMPLEMENTED) {
+                        LOGGER.log(
+                            Level.FINE,
+                            "Peer {0} does not support inventory messages, sending separately.",
+                            peer
+                        );
+                        finish(peer, queue, batch);
+                        return;
+                    }
+
+                    LOGGER.log(
+                        Level.WARNING,
+                        "Received announce error from peer {0}: {1}",
+                        new Object[] {peer, t.getMessage()}
+                    );
+                    forget(peer, batch);
+                    finish(peer, queue, null);
+                }
+
+                @Override
+                public void onCompleted() {
+                    LOGGER.log(Level.FINEST, "Received announce completion from peer.");
+                    finish(peer, queue, null);
+                }
+            });
+        }
+        catch (RuntimeException e) {
+            LOGGER.log(
+                Level.WARNING,
+                "Could not send announcement to peer {0}: {1}",
+                new Object[] {peer, e.getMessage()}
+            );
+            forget(peer, batch);
+            finish(peer, queue, null);
+        }
+    }
+
+    /**
+     * Remove the hashes of the announcements that were not delivered from the known inventory of
+     * the peer.
+     */
+    private static void forget(@NotNull Peer peer, @NotNull List<Announcement> announcements) {
+        announcements.forEach(a -> peer.getKnownInventory().remove(a.getHash()));
+    }
+
+    /**
+     * Finish a message to the peer, and send the next queued announcements.
+     *
+     * @param unsupported
+     *     The announcements of an inventory message that the peer does not support, which are
+     *     queued again to be sent separately, or {@code null}.
+     */
+    private void finish(@NotNull Peer peer, @NotNull PeerQueue queue,
+                        @Nullable List<Announcement> unsupported) {
+        List<Runnable> calls;
+        synchronized (this) {
+            inFlight--;
+            queue.busy = false;
+
+            if (unsupported != null && queues.get(peer) == queue) {
+                queue.legacy = true;
+                for (int i = unsupported.size() - 1; i >= 0; i--) {
+                    queue.announcements.addFirst(unsupported.get(i));
+                }
+                readyPeers.add(peer);
+            }
+            else if (queues.get(peer) == queue && !queue.announcements.isEmpty()) {
+                flush(peer, queue);
+            }
+
+            calls = startCalls();
+        }
+
+        calls.forEach(Runnable::run);
+    }
+
+    private static void sendAnnouncements(@NotNull Peer peer,
+                                          @NotNull List<Announcement> announcements,
+                                          boolean inventory, long deadline,
+                                          @NotNull StreamObserver<Empty> observer) {
+        NodeGrpc.NodeStub stub = peer.getAsyncStub()
+            .withDeadlineAfter(deadline, TimeUnit.MILLISECONDS);
+
+        // Detach from the current context, such that the announcement is not cancelled when an
+        // incoming call that triggered it completes.
+        Context.current().fork().run(() -> {
+            if (inventory) {
+                Inventory message = new Inventory(
+                    hashesOfType(announcements, Announcement.Type.BLOCK),
+                    hashesOfType(announcements, Announcement.Type.TRANSACTION)
+                );
+                stub.announceInventory(
+                    ProtoConverter.toProto(message, BrabocoinProtos.Inventory.class),
+                    observer
+                );
+                return;
+            }
+
+            Announcement announcement = announcements.get(0);
+            BrabocoinProtos.Hash protoHash = ProtoConverter.toProto(
+                announcement.getHash(),
+                BrabocoinProtos.Hash.class
+            );
+            if (announcement.getType() == Announcement.Type.BLOCK) {
+                stub.announceBlock(protoHash, observer);
+            }
+            else {
+                stub.announceTransaction(protoHash, observer);
+            }
+        });
+    }
+
+    private static @NotNull List<Hash> hashesOfType(@NotNull List<Announcement> announcements,
+                                                    @NotNull Announcement.Type type) {
+        return announcements.stream()
+            .filter(a -> a.getType() == type)
+            .map(Announcement::getHash)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * The outbound announcements of a single peer.
+     */
+    private static class PeerQueue {
+
+        private final @NotNull Deque<Announcement> announcements = new ArrayDeque<>();
+
+        /**
+         * Whether a message to the peer is in flight.
+         */
+        private boolean busy;
+
+        /**
+         * Whether the queue is scheduled to be sent after the trickle interval.
+         */
+        private boolean trickleScheduled;
+
+        /**
+         * Whether the peer does not support inventory messages.
+         */
+        private boolean legacy;
+    }
+
+    /**
+     * An announcement of a block or transaction hash.
+     */
+    static class Announcement {
+
+        enum Type {
+            BLOCK,
+            TRANSACTION
+        }
+
+        private final @NotNull Type type;
+
+        private final @NotNull Hash hash;
+
+        Announcement(@NotNull Type type, @NotNull Hash hash) {
+            this.type = type;
+            this.hash = hash;
+        }
+
+        @NotNull Type getType() {
+            return type;
+        }
+
+        @NotNull Hash getHash() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,421 @@
+package org.brabocoin.brabocoin.node;
+
+import io.grpc.Context;
+import io.grpc.stub.StreamObserver;
+import org.brabocoin.brabocoin.model.Block;
+import org.brabocoin.brabocoin.model.Hash;
+import org.brabocoin.brabocoin.proto.model.BrabocoinProtos;
+import org.brabocoin.brabocoin.util.ProtoConverter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Downloads a range of blocks from multiple peers in parallel.
+ * <p>
+ * The blocks are split into chunks of consecutive blocks. Every peer has a bounded number of
+ * chunk requests in flight, and only chunks within a sliding window above the first block that
+ * is not yet processed are requested. A chunk that is not completely received before the
+ * deadline, or for which the peer returns an error, is assigned to another peer, and the peer is
+ * not used for the rest of the download.
+ * <p>
+ * Received blocks are kept in a reorder buffer, and are passed to the block processor in the
+ * order of the requested hashes on the thread that started the download.
+ */
+public class BlockDownloader {
+
+    private static final Logger LOGGER = Logger.getLogger(BlockDownloader.class.getName());
+
+    /**
+     * Requests blocks from a peer.
+     */
+    @FunctionalInterface
+    interface BlockRequester {
+
+        /**
+         * Request the blocks with the given hashes from the peer.
+         *
+         * @param peer
+         *     The peer to request the blocks from.
+         * @param hashes
+         *     The hashes of the blocks.
+         * @param observer
+         *     The observer receiving the blocks, and the completion or error of the request.
+         * @return A handle that cancels the request when run.
+         */
+        @NotNull Runnable request(@NotNull Peer peer, @NotNull List<Hash> hashes,
+                                  @NotNull StreamObserver<Block> observer);
+    }
+
+    private final int chunkSize;
+
+    private final int window;
+
+    private final long timeout;
+
+    private final @NotNull BlockRequester requester;
+
+    /**
+     * Create a new block downloader that requests the blocks using the {@code getBlocks}
+     * message.
+     *
+     * @param chunkSize
+     *     The number of blocks in a single request.
+     * @param window
+     *     The maximum number of requests in flight per peer.
+     * @param timeout
+     *     The time in milliseconds in which a request must be completed.
+     */
+    public BlockDownloader(int chunkSize, int window, long timeout) {
+        this(chunkSize, window, timeout, BlockDownloader::requestBlocks);
+    }
+
+    BlockDownloader(int chunkSize, int window, long timeout,
+                    @NotNull BlockRequester requester) {
+        if (chunkSize < 1 || window < 1) {
+            throw new IllegalArgumentException("Chunk size and window must be positive.");
+        }
+
+        this.chunkSize = chunkSize;
+        this.window = window;
+        this.timeout = timeout;
+        this.requester = requester;
+    }
+
+    /**
+     * Download the blocks with the given hashes from the peers.
+     * <p>
+     * Blocks are passed to the processor in the order of the hashes. The download stops when
+     * the processor rejects a block, or when no peer is left to request the remaining blocks
+     * from.
+     *
+     * @param hashes
+     *     The hashes of the blocks to download, in the order they must be processed.
+     * @param peers
+     *     The peers to download the blocks from.
+     * @param processor
+     *     Processes a downloaded block, and returns whether the download should continue.
+     * @return The number of blocks that were passed to the processor.
+     * @throws InterruptedException
+     *     When the thread is interrupted while waiting for blocks.
+     */
+    public int download(@NotNull List<Hash> hashes, @NotNull List<Peer> peers,
+                        @NotNull Predicate<Block> processor) throws InterruptedException {
+        return new Download(hashes, peers, processor).run();
+    }
+
+    private static @NotNull Runnable requestBlocks(@NotNull Peer peer,
+                                                   @NotNull List<Hash> hashes,
+                                                   @NotNull StreamObserver<Block> observer) {
+        Context.CancellableContext context = Context.current().withCancellation();
+
+        context.run(() -> {
+            StreamObserver<BrabocoinProtos.Hash> hashStreamObserver = peer.getAsyncStub()
+                .getBlocks(new StreamObserver<BrabocoinProtos.Block>() {
+                    @Override
+                    public void onNext(BrabocoinProtos.Block value) {
+                        Block block = ProtoConverter.toDomain(value, Block.Builder.class);
+                        if (block == null) {
+                            LOGGER.log(Level.SEVERE, "Protobuf parsing of received block failed.");
+                            return;
+                        }
+
+                        observer.onNext(block);
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        observer.onError(t);
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        observer.onCompleted();
+                    }
+                });
+
+            for (Hash hash : hashes) {
+                hashStreamObserver.onNext(ProtoConverter.toProto(hash, BrabocoinProtos.Hash.class));
+            }
+            hashStreamObserver.onCompleted();
+        });
+
+        return () -> context.cancel(null);
+    }
+
+    /**
+     * The state of a single download, which is only accessed from the downloading thread.
+     */
+    private class Download {
+
+        private final @NotNull List<Hash> hashes;
+
+        private final @NotNull Predicate<Block> processor;
+
+        /**
+         * Chunks that are not yet requested, as lists of indices into the hashes, ordered by
+         * their first index.
+         */
+        private final @NotNull Queue<List<Integer>> pending =
+            new PriorityQueue<>(Comparator.comparingInt(c -> c.get(0)));
+
+        private final @NotNull Set<Peer> activePeers;
+
+        private final @NotNull Map<Peer, Integer> inFlight = new HashMap<>();
+
+        private final @NotNull Set<Request> requests = new HashSet<>();
+
+        private final @NotNull BlockingQueue<Event> events = new LinkedBlockingQueue<>();
+
+        /**
+         * Received blocks that cannot be processed yet, by index.
+         */
+        private final @NotNull Map<Integer, Block> reorderBuffer = new HashMap<>();
+
+        /**
+         * The index of the next block to process.
+         */
+        private int next;
+
+        Download(@NotNull List<Hash> hashes, @NotNull List<Peer> peers,
+                 @NotNull Predicate<Block> processor) {
+            this.hashes = hashes;
+            this.processor = processor;
+            this.activePeers = new LinkedHashSet<>(peers);
+
+            for (int start = 0; start < hashes.size(); start += chunkSize) {
+                List<Integer> chunk = new ArrayList<>();
+                for (int i = start; i < Math.min(start + chunkSize, hashes.size()); i++) {
+                    chunk.add(i);
+                }
+                pending.add(chunk);
+            }
+        }
+
+        int run() throws InterruptedException {
+            try {
+                while (next < hashes.size()) {
+                    dispatch();
+
+                    if (requests.isEmpty()) {
+                        LOGGER.warning("No peers left to download the remaining blocks from.");
+                        break;
+                    }
+
+                    long now = System.currentTimeMillis();
+                    long earliestDeadline = requests.stream()
+                        .mapToLong(r -> r.deadline)
+                        .min()
+                        .orElse(now);
+                    Event event = events.poll(
+                        Math.max(0, earliestDeadline - now),
+                        TimeUnit.MILLISECONDS
+                    );
+
+                    if (event == null) {
+                        expireRequests();
+                    }
+                    else if (!requests.contains(event.request)) {
+                        // Late event of a request that already failed
+                        continue;
+                    }
+                    else if (event.block != null) {
+                        if (!receiveBlock(event.request, event.block)) {
+                            break;
+                        }
+                    }
+                    else {
+                        finishRequest(event.request, event.error);
+                    }
+                }
+            }
+            finally {
+                requests.forEach(r -> r.cancel.run());
+            }
+
+            return next;
+        }
+
+        /**
+         * Request pending chunks within the sliding window from the peers with free capacity.
+         */
+        private void dispatch() {
+            int windowEnd = next + Math.max(1, activePeers.size()) * window * chunkSize;
+
+            boolean assigned = true;
+            while (assigned) {
+                assigned = false;
+                for (Peer peer : activePeers) {
+                    List<Integer> chunk = pending.peek();
+                    if (chunk == null || chunk.get(0) >= windowEnd) {
+                        return;
+                    }
+
+                    if (inFlight.getOrDefault(peer, 0) < window) {
+                        startRequest(peer, pending.poll());
+                        assigned = true;
+                    }
+                }
+            }
+        }
+
+        private void startRequest(@NotNull Peer peer, @NotNull List<Integer> chunk) {
+            Request request = new Request(peer, System.currentTimeMillis() + timeout);
+            List<Hash> chunkHashes = new ArrayList<>();
+            for (int index : chunk) {
+                request.remaining.put(hashes.get(index), index);
+                chunkHashes.add(hashes.get(index));
+            }
+
+            requests.add(request);
+            inFlight.merge(peer, 1, Integer::sum);
+
+            LOGGER.log(
+                Level.FINEST,
+                () -> MessageFormat.format(
+                    "Requesting {0} blocks from index {1} from peer {2}.",
+                    chunk.size(),
+                    chunk.get(0),
+                    peer
+                )
+            );
+
+            request.cancel = requester.request(peer, chunkHashes, new StreamObserver<Block>() {
+                @Override
+                public void onNext(Block value) {
+                    events.add(new Event(request, value, null));
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    events.add(new Event(request, null, t));
+                }
+
+                @Override
+                public void onCompleted() {
+                    events.add(new Event(request, null, null));
+                }
+            });
+        }
+
+        private boolean receiveBlock(@NotNull Request request, @NotNull Block block) {
+            Integer index = request.remaining.remove(block.getHash());
+            if (index == null) {
+                LOGGER.log(Level.WARNING, "Peer sent block that was not requested");
+                return true;
+            }
+
+            reorderBuffer.put(index, block);
+
+            while (reorderBuffer.containsKey(next)) {
+                if (!processor.test(reorderBuffer.remove(next))) {
+                    LOGGER.warning("Downloaded block was rejected, stopping download.");
+                    return false;
+                }
+
+                next++;
+            }
+
+            return true;
+        }
+
+        private void expireRequests() {
+            long now = System.currentTimeMillis();
+            List<Request> expired = new ArrayList<>();
+            for (Request request : requests) {
+                if (request.deadline <= now) {
+                    expired.add(request);
+                }
+            }
+
+            for (Request request : expired) {
+                request.cancel.run();
+                finishRequest(request, new IllegalStateException("Deadline exceeded."));
+            }
+        }
+
+        private void finishRequest(@NotNull Request request, @Nullable Throwable error) {
+            requests.remove(request);
+            inFlight.merge(request.peer, -1, Integer::sum);
+
+            if (request.remaining.isEmpty() && error == null) {
+                return;
+            }
+
+            List<Integer> missing = new ArrayList<>(request.remaining.values());
+            missing.sort(Integer::compare);
+            if (!missing.isEmpty()) {
+                pending.add(missing);
+            }
+
+            activePeers.remove(request.peer);
+            LOGGER.log(
+                Level.WARNING,
+                "Peer {0} failed to deliver {1} blocks, reassigning: {2}",
+                new Object[] {
+                    request.peer,
+                    missing.size(),
+                    error == null ? "incomplete response" : error.getMessage()
+                }
+            );
+        }
+    }
+
+    /**
+     * A chunk request in flight.
+     */
+    private static class Request {
+
+        private final @NotNull Peer peer;
+
+        private final long deadline;
+
+        /**
+         * The indices of the blocks that are not yet received, by hash.
+         */
+        private final @NotNull Map<Hash, Integer> remaining = new HashMap<>();
+
+        private @NotNull Runnable cancel = () -> {
+        };
+
+        Request(@NotNull Peer peer, long deadline) {
+            this.peer = peer;
+            this.deadline = deadline;
+        }
+    }
+
+    /**
+     * A received block, or the completion or error of a request.
+     */
+    private static class Event {
+
+        private final @NotNull Request request;
+
+        private final @Nullable Block block;
+
+        private final @Nullable Throwable error;
+
+        Event(@NotNull Request request, @Nullable Block block, @Nullable Throwable error) {
+            this.request = request;
+            this.block = block;
+            this.error = error;
+        }
+    }
+}
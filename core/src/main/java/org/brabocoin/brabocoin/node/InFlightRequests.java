@@ -0,0 +1,342 @@
+package org.brabocoin.brabocoin.node;
+
+import org.brabocoin.brabocoin.model.Hash;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Table of the block and transaction requests that are in flight over all peers.
+ * <p>
+ * Every hash is requested from a single peer at a time, preferring a peer that is known to
+ * have the hash. When the hash is requested again while a request is in flight, the peers are
+ * added as alternatives instead of sending another request. When a peer does not deliver the
+ * hash, or does not deliver it before the deadline, the hash is reassigned to the next
+ * alternative peer. Without alternative peers, the hash is requested once more from the same
+ * peer after the deadline, as the peer may have been temporarily unavailable.
+ */
+public class InFlightRequests {
+
+    private static final Logger LOGGER = Logger.getLogger(InFlightRequests.class.getName());
+
+    /**
+     * The type of the requested data.
+     */
+    public enum Type {
+        BLOCK,
+        TRANSACTION
+    }
+
+    private final long timeout;
+
+    private final @NotNull Map<Hash, Request> requests = new HashMap<>();
+
+    private final AtomicLong avoidedRequestCount = new AtomicLong();
+
+    private final AtomicLong retryCount = new AtomicLong();
+
+    private final AtomicLong timeoutCount = new AtomicLong();
+
+    /**
+     * Create a new empty request table.
+     *
+     * @param timeout
+     *     The time in milliseconds in which a peer must deliver a requested hash.
+     */
+    public InFlightRequests(long timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * Assign the hashes that are not yet in flight to one of the peers.
+     * <p>
+     * For the hashes that are already in flight, the peers are added as alternatives, including
+     * peers that failed to deliver the hash before.
+     *
+     * @param type
+     *     The type of the requested data.
+     * @param hashes
+     *     The hashes to request.
+     * @param peers
+     *     The peers that may deliver the hashes.
+     * @param propagate
+     *     Whether the received data must be propagated.
+     * @return The hashes that must be requested, by peer.
+     */
+    public synchronized @NotNull Map<Peer, List<Hash>> assign(@NotNull Type type,
+                                                             @NotNull List<Hash> hashes,
+                                                             @NotNull List<Peer> peers,
+                                                             boolean propagate) {
+        Map<Peer, List<Hash>> assigned = new LinkedHashMap<>();
+        if (peers.isEmpty()) {
+            return assigned;
+        }
+
+        long deadline = System.currentTimeMillis() + timeout;
+        for (Hash hash : hashes) {
+            Request request = requests.get(hash);
+            if (request != null) {
+                avoidedRequestCount.addAndGet(request.addPeers(peers));
+                continue;
+            }
+
+            Peer peer = peers.stream()
+                .filter(p -> p.getKnownInventory().contains(hash))
+                .findFirst()
+                .orElse(peers.get(0));
+
+            request = new Request(type, hash, propagate, peer, deadline);
+            requests.put(hash, request);
+            avoidedRequestCount.addAndGet(request.addPeers(peers));
+
+            assigned.computeIfAbsent(peer, p -> new ArrayList<>()).add(hash);
+        }
+
+        return assigned;
+    }
+
+    /**
+     * Mark the hash as received.
+     *
+     * @param hash
+     *     The received hash.
+     * @return Whether the hash was in flight.
+     */
+    public synchronized boolean complete(@NotNull Hash hash) {
+        return requests.remove(hash) != null;
+    }
+
+    /**
+     * Check whether the hash is in flight.
+     *
+     * @param hash
+     *     The hash.
+     * @return Whether the hash is in flight.
+     */
+    public synchronized boolean contains(@NotNull Hash hash) {
+        return requests.containsKey(hash);
+    }
+
+    /**
+     * Reassign the hashes that the peer did not deliver to the next alternative peer.
+     * <p>
+     * Hashes that are already received, or that are assigned to another peer, are ignored.
+     * Hashes without alternative peers are kept in the table until their deadline expires.
+     *
+     * @param peer
+     *     The peer that finished or failed the request.
+     * @param hashes
+     *     The hashes that were requested from the peer.
+     * @return The reassigned requests.
+     */
+    public synchronized @NotNull List<Request> reassign(@NotNull Peer peer,
+                                                        @NotNull Collection<Hash> hashes) {
+        long now = System.currentTimeMillis();
+        List<Request> reassigned = new ArrayList<>();
+        for (Hash hash : hashes) {
+            Request request = requests.get(hash);
+            if (request == null || !request.peer.equals(peer)) {
+                continue;
+            }
+
+            if (request.moveToNextPeer(now + timeout)) {
+                retryCount.incrementAndGet();
+                reassigned.add(request);
+            }
+        }
+
+        return reassigned;
+    }
+
+    /**
+     * Reassign the hashes that are not delivered before the deadline to the next alternative
+     * peer.
+     * <p>
+     * Hashes without alternative peers are requested once more from the same peer, and are
+     * removed from the table afterwards.
+     *
+     * @return The reassigned requests.
+     */
+    public synchronized @NotNull List<Request> expire() {
+        long now = System.currentTimeMillis();
+        List<Request> reassigned = new ArrayList<>();
+        Iterator<Request> iterator = requests.values().iterator();
+        while (iterator.hasNext()) {
+            Request request = iterator.next();
+            if (request.deadline > now) {
+                continue;
+            }
+
+            timeoutCount.incrementAndGet();
+            if (request.moveToNextPeer(now + timeout) || request.retrySamePeer(now + timeout)) {
+                retryCount.incrementAndGet();
+                reassigned.add(request);
+            }
+            else {
+                LOGGER.log(
+                    Level.FINE,
+                    "No peer left to request {0} from, giving up.",
+                    request.type
+                );
+                iterator.remove();
+            }
+        }
+
+        return reassigned;
+    }
+
+    public synchronized int size() {
+        return requests.size();
+    }
+
+    /**
+     * Get the number of requests for a hash that were not sent to a peer, because the hash was
+     * already requested from another peer.
+     *
+     * @return The number of avoided requests.
+     */
+    public long getAvoidedRequestCount() {
+        return avoidedRequestCount.get();
+    }
+
+    /**
+     * Get the number of times a hash was requested from another peer after a failed request.
+     *
+     * @return The number of retries.
+     */
+    public long getRetryCount() {
+        return retryCount.get();
+    }
+
+    /**
+     * Get the number of requests that were not answered before the deadline.
+     *
+     * @return The number of timed out requests.
+     */
+    public long getTimeoutCount() {
+        return timeoutCount.get();
+    }
+
+    /**
+     * A request for a single hash.
+     */
+    public static class Request {
+
+        private final @NotNull Type type;
+
+        private final @NotNull Hash hash;
+
+        private final boolean propagate;
+
+        /**
+         * All peers that may deliver the hash.
+         */
+        private final @NotNull Set<Peer> peers = new LinkedHashSet<>();
+
+        /**
+         * The peers to try next, in order.
+         */
+        private final @NotNull Deque<Peer> alternatives = new ArrayDeque<>();
+
+        private volatile @NotNull Peer peer;
+
+        private volatile long deadline;
+
+        private boolean retriedSamePeer;
+
+        private Request(@NotNull Type type, @NotNull Hash hash, boolean propagate,
+                        @NotNull Peer peer, long deadline) {
+            this.type = type;
+            this.hash = hash;
+            this.propagate = propagate;
+            this.peer = peer;
+            this.deadline = deadline;
+            this.peers.add(peer);
+        }
+
+        /**
+         * Add the peers as alternatives. Peers that were tried before are tried again, as they
+         * may have received the hash in the meantime.
+         *
+         * @return The number of peers that were added as new alternatives.
+         */
+        private synchronized int addPeers(@NotNull List<Peer> candidates) {
+            int added = 0;
+            for (Peer candidate : candidates) {
+                peers.add(candidate);
+                if (!candidate.equals(peer) && !alternatives.contains(candidate)) {
+                    alternatives.add(candidate);
+                    added++;
+                }
+            }
+
+            return added;
+        }
+
+        private synchronized boolean moveToNextPeer(long newDeadline) {
+            Peer next = alternatives.poll();
+            if (next == null) {
+                return false;
+            }
+
+            peer = next;
+            deadline = newDeadline;
+            retriedSamePeer = false;
+            return true;
+        }
+
+        private synchronized boolean retrySamePeer(long newDeadline) {
+            if (retriedSamePeer) {
+                return false;
+            }
+
+            retriedSamePeer = true;
+            deadline = newDeadline;
+            return true;
+        }
+
+        public @NotNull Type getType() {
+            return type;
+        }
+
+        public @NotNull Hash getHash() {
+            return hash;
+        }
+
+        public boolean isPropagate() {
+            return propagate;
+        }
+
+        /**
+         * Get the peer the hash is currently requested from.
+         *
+         * @return The peer.
+         */
+        public @NotNull Peer getPeer() {
+            return peer;
+        }
+
+        /**
+         * Get all peers that may deliver the hash.
+         *
+         * @return The peers.
+         */
+        public synchronized @NotNull List<Peer> getPeers() {
+            return Collections.unmodifiableList(new ArrayList<>(peers));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package org.brabocoin.brabocoin.node;
+
+import org.brabocoin.brabocoin.model.Hash;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Rolling set of block and transaction hashes that a peer is known to have.
+ * <p>
+ * The set is bounded, and forgets the least recently added hashes when it is full.
+ */
+public class KnownInventory {
+
+    private final @NotNull Map<Hash, Boolean> hashes;
+
+    /**
+     * Create a new empty known inventory.
+     *
+     * @param capacity
+     *     The maximum number of hashes to remember.
+     */
+    public KnownInventory(int capacity) {
+        this.hashes = new LinkedHashMap<Hash, Boolean>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Hash, Boolean> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Remember that the peer has the hash.
+     *
+     * @param hash
+     *     The block or transaction hash.
+     * @return Whether the hash was not yet known.
+     */
+    public synchronized boolean add(@NotNull Hash hash) {
+        // Remove first, such that the hash becomes the most recently added
+        boolean known = hashes.remove(hash) != null;
+        hashes.put(hash, Boolean.TRUE);
+        return !known;
+    }
+
+    /**
+     * Forget that the peer has the hash.
+     *
+     * @param hash
+     *     The block or transaction hash.
+     */
+    public synchronized void remove(@NotNull Hash hash) {
+        hashes.remove(hash);
+    }
+
+    /**
+     * Check whether the peer is known to have the hash.
+     *
+     * @param hash
+     *     The block or transaction hash.
+     * @return Whether the hash is known.
+     */
+    public synchronized boolean contains(@NotNull Hash hash) {
+        return hashes.containsKey(hash);
+    }
+
+    public synchronized int size() {
+        return hashes.size();
+    }
+}
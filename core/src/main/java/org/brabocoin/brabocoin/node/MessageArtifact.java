@@ -1,24 +1,59 @@
 package org.brabocoin.brabocoin.node;
 
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
 import com.google.protobuf.Message;
+import com.google.protobuf.Parser;
 import org.jetbrains.annotations.NotNull;
 
 import java.time.LocalDateTime;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 public class MessageArtifact implements Comparable<MessageArtifact> {
 
-    private final Message message;
+    private static final Logger LOGGER = Logger.getLogger(MessageArtifact.class.getName());
+
+    private Message message;
+    private ByteString serializedMessage;
+    private Parser<? extends Message> parser;
     private final LocalDateTime time;
 
     public MessageArtifact(Message message) {
         this.message = message;
         this.time = LocalDateTime.now();
     }
+
+    /**
+     * Create an artifact of a serialized message, which is only parsed when it is requested.
+     *
+     * @param serializedMessage
+     *     The serialized message.
+     * @param parser
+     *     The parser of the message type.
+     */
+    public MessageArtifact(@NotNull ByteString serializedMessage,
+                           @NotNull Parser<? extends Message> parser) {
+        this.serializedMessage = serializedMessage;
+        this.parser = parser;
+        this.time = LocalDateTime.now();
+    }
+
     public LocalDateTime getTime() {
         return time;
     }
 
-    public Message getMessage() {
+    public synchronized Message getMessage() {
+        if (message == null && serializedMessage != null) {
+            try {
+                message = parser.parseFrom(serializedMessage);
+                serializedMessage = null;
+            }
+            catch (InvalidProtocolBufferException e) {
+                LOGGER.log(Level.WARNING, "Could not parse message artifact: {0}", e.getMessage());
+            }
+        }
+
         return message;
     }
 
@@ -1,5 +1,6 @@
 package org.brabocoin.brabocoin.node;
 
+import com.google.protobuf.ByteString;
 import com.google.protobuf.Empty;
 import com.google.protobuf.InvalidProtocolBufferException;
 import com.google.protobuf.util.JsonFormat;
@@ -10,6 +11,7 @@ import io.grpc.stub.StreamObserver;
 import org.brabocoin.brabocoin.chain.Blockchain;
 import org.brabocoin.brabocoin.chain.IndexedBlock;
 import org.brabocoin.brabocoin.config.BraboConfig;
+import org.brabocoin.brabocoin.crypto.MerkleTree;
 import org.brabocoin.brabocoin.dal.ChainUTXODatabase;
 import org.brabocoin.brabocoin.dal.TransactionPool;
 import org.brabocoin.brabocoin.exceptions.DatabaseException;
@@ -22,20 +24,26 @@ import org.brabocoin.brabocoin.model.Hash;
 import org.brabocoin.brabocoin.model.RejectedBlock;
 import org.brabocoin.brabocoin.model.RejectedTransaction;
 import org.brabocoin.brabocoin.model.Transaction;
+import org.brabocoin.brabocoin.model.messages.BlockHeader;
+import org.brabocoin.brabocoin.model.messages.BlockTransactionsRequest;
+import org.brabocoin.brabocoin.model.messages.CompactBlock;
+import org.brabocoin.brabocoin.model.messages.HeadersRequest;
 import org.brabocoin.brabocoin.node.state.State;
 import org.brabocoin.brabocoin.processor.BlockProcessor;
 import org.brabocoin.brabocoin.processor.PeerProcessor;
 import org.brabocoin.brabocoin.processor.ProcessedTransactionResult;
 import org.brabocoin.brabocoin.processor.TransactionProcessor;
 import org.brabocoin.brabocoin.proto.model.BrabocoinProtos;
-import org.brabocoin.brabocoin.proto.services.NodeGrpc;
 import org.brabocoin.brabocoin.util.ByteUtil;
 import org.brabocoin.brabocoin.util.ProtoConverter;
 import org.brabocoin.brabocoin.validation.ValidationStatus;
 import org.brabocoin.brabocoin.validation.block.BlockValidationResult;
+import org.brabocoin.brabocoin.validation.block.BlockValidator;
 import org.brabocoin.brabocoin.validation.block.rules.DuplicateStorageBlkRule;
+import org.brabocoin.brabocoin.validation.consensus.Consensus;
 import org.brabocoin.brabocoin.validation.rule.RuleBookFailMarker;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.net.InetAddress;
 import java.text.MessageFormat;
@@ -88,6 +96,7 @@ public class NodeEnvironment implements NetworkMessageListener, PeerSetChangedLi
     private Blockchain blockchain;
     private ChainUTXODatabase chainUTXODatabase;
     private TransactionPool transactionPool;
+    private Consensus consensus;
     private Queue<Runnable> messageQueue;
     private final List<NotificationListener> notificationListeners;
     private final List<NetworkMessageListener> networkMessageListeners;
@@ -101,6 +110,10 @@ public class NodeEnvironment implements NetworkMessageListener, PeerSetChangedLi
      * Processors
      */
     private BlockProcessor blockProcessor;
+    private BlockValidator blockValidator;
+    private BlockDownloader blockDownloader;
+    private AnnouncementPropagator announcementPropagator;
+    private InFlightRequests inFlightRequests;
     private PeerProcessor peerProcessor;
     private TransactionProcessor transactionProcessor;
 
@@ -117,8 +130,22 @@ public class NodeEnvironment implements NetworkMessageListener, PeerSetChangedLi
         this.blockchain = state.getBlockchain();
         this.chainUTXODatabase = state.getChainUTXODatabase();
         this.blockProcessor = state.getBlockProcessor();
+        this.blockValidator = state.getBlockValidator();
+        this.blockDownloader = new BlockDownloader(
+            state.getConfig().getBlockDownloadChunkSize(),
+            state.getConfig().getBlockDownloadWindow(),
+            state.getConfig().getBlockDownloadTimeout()
+        );
+        this.announcementPropagator = new AnnouncementPropagator(
+            state.getConfig().getAnnounceConcurrency(),
+            state.getConfig().getAnnounceQueueSize(),
+            state.getConfig().getAnnounceDeadline(),
+            state.getConfig().getAnnounceTrickleInterval()
+        );
+        this.inFlightRequests = new InFlightRequests(state.getConfig().getRequestTimeout());
         this.peerProcessor = state.getPeerProcessor();
         this.transactionPool = state.getTransactionPool();
+        this.consensus = state.getConsensus();
         this.transactionProcessor = state.getTransactionProcessor();
         this.messageQueue = new LinkedBlockingQueue<>();
         this.maxSequentialOrphanBlocks = state.getConfig().getMaxSequentialOrphanBlocks();
@@ -173,6 +200,17 @@ public class NodeEnvironment implements NetworkMessageListener, PeerSetChangedLi
     public void stop() {
         mainLoopTimer.cancel();
 
+        LOGGER.log(
+            Level.INFO,
+            "Avoided {0} duplicate requests and {1} redundant announcements, retried {2} "
+                + "requests.",
+            new Object[] {
+                inFlightRequests.getAvoidedRequestCount(),
+                announcementPropagator.getSuppressedAnnouncementCount(),
+                inFlightRequests.getRetryCount()
+            }
+        );
+
         peerProcessor.shutdownPeers();
     }
 
@@ -181,6 +219,8 @@ public class NodeEnvironment implements NetworkMessageListener, PeerSetChangedLi
      * Timer {@link #mainLoopTimer}.
      */
     private void main() {
+        retryRequests(inFlightRequests.expire());
+
         while (!messageQueue.isEmpty()) {
             try {
                 messageQueue.remove().run();
@@ -243,15 +283,76 @@ public class NodeEnvironment implements NetworkMessageListener, PeerSetChangedLi
             reorganizeChainListeners.forEach(ReorganizeChainListener::onStartOrganization);
 
             // Peer has a longer chain, need to update.
-            Hash matchingBlockHash = checkChainCompatibleRequest(maxHeightPeer);
-
-            seekBlockchainRequest(maxHeightPeer, matchingBlockHash);
+            syncHeadersFirst(topBlockHeights);
 
             reorganizeChainListeners.forEach(ReorganizeChainListener::onFinishOrganization);
             isUpdatingBlockchain.set(false);
         }
     }
 
+    /**
+     * Synchronize the blockchain by first downloading and validating the header chain, and
+     * only then downloading the block bodies.
+     * <p>
+     * The peers with a longer chain are tried in order of descending height. The first peer
+     * whose validated header chain is longer than the current main chain is used as the best
+     * header chain. The block bodies on that chain are then downloaded from all peers that
+     * reported a sufficient height.
+     * <p>
+     * Peers that do not support the {@code getHeaders} message are synchronized using
+     * {@link #checkChainCompatibleRequest(Peer)} and {@link #seekBlockchainRequest(Peer, Hash)}.
+     *
+     * @param topBlockHeights
+     *     The top block heights reported by the peers.
+     */
+    private void syncHeadersFirst(@NotNull Map<Peer, Integer> topBlockHeights) {
+        List<Peer> candidates = topBlockHeights.entrySet()
+            .stream()
+            .filter(e -> e.getValue() > blockchain.getMainChain().getHeight())
+            .sorted(Map.Entry.<Peer, Integer>comparingByValue().reversed())
+            .map(Map.Entry::getKey)
+            .collect(Collectors.toList());
+
+        for (Peer peer : candidates) {
+            List<BlockHeader> headers;
+            try {
+                headers = getHeadersRequest(peer);
+            }
+            catch (StatusRuntimeException e) {
+                if (e.getStatus().getCode() == Status.Code.UNIMPLEMENTED) {
+                    LOGGER.fine("Peer does not support headers, seeking blockchain instead.");
+                    seekBlockchainRequest(peer, checkChainCompatibleRequest(peer));
+                    return;
+                }
+
+                LOGGER.log(
+                    Level.WARNING,
+                    "Peer returned an error while getting headers: {0}",
+                    e.getMessage()
+                );
+                continue;
+            }
+
+            if (headers.isEmpty() || headers.get(headers.size() - 1).getBlockHeight()
+                <= blockchain.getMainChain().getHeight()) {
+                LOGGER.fine("Validated header chain of peer is not longer than the main chain.");
+                continue;
+            }
+
+            int headerChainHeight = headers.get(headers.size() - 1).getBlockHeight();
+            List<Peer> bodyPeers = new ArrayList<>();
+            bodyPeers.add(peer);
+            topBlockHeights.forEach((p, height) -> {
+                if (p != peer && height >= headerChainHeight) {
+                    bodyPeers.add(p);
+                }
+            });
+
+            downloadBlockBodies(headers, bodyPeers);
+            return;
+        }
+    }
+
 
     //================================================================================
     // Peer management
@@ -295,29 +396,6 @@ public class NodeEnvironment implements NetworkMessageListener, PeerSetChangedLi
         return peerProcessor.findClientPeers(clientAddress);
     }
 
-    /**
-     * Propagate a blocking stub consuming lambda expression to all known peers.
-     *
-     * @param blockingStubConsumer
-     *     The lambda expression evaluated on all peer's blocking stubs.
-     */
-    private void propagateMessageBlocking(
-        Consumer<NodeGrpc.NodeBlockingStub> blockingStubConsumer) {
-        for (NodeGrpc.NodeBlockingStub stub : getPeerStubs()) {
-            try {
-                blockingStubConsumer.accept(stub);
-            }
-            catch (StatusRuntimeException e) {
-                LOGGER.log(
-                    Level.SEVERE,
-                    MessageFormat.format("Exception while propagating message: {0}", e.getMessage())
-                );
-            }
-        }
-
-        LOGGER.info("Message propagated to all peers.");
-    }
-
     public void addNetworkMessageListener(NetworkMessageListener listener) {
         networkMessageListeners.add(listener);
     }
@@ -366,6 +444,7 @@ public class NodeEnvironment implements NetworkMessageListener, PeerSetChangedLi
     @Override
     public void onPeerRemoved(Peer peer) {
         peer.removeNetworkMessageListeners(this);
+        announcementPropagator.removePeer(peer);
     }
 
     //================================================================================
@@ -420,15 +499,7 @@ public class NodeEnvironment implements NetworkMessageListener, PeerSetChangedLi
                     // Fall-through intended
                 case VALID:
                     if (propagate) {
-                        final BrabocoinProtos.Hash protoBlockHash = ProtoConverter.toProto(
-                            block.getHash(),
-                            BrabocoinProtos.Hash.class
-                        );
-                        // TODO: We actually want to use async stub here, but that went wrong
-                        // before (Cancelled exception by GRPC).
-                        messageQueue.add(() -> propagateMessageBlocking(
-                            s -> s.announceBlock(protoBlockHash))
-                        );
+                        announcementPropagator.announceBlock(block.getHash(), getPeers());
                     }
                     return true;
                 case INVALID:
@@ -468,17 +539,15 @@ public class NodeEnvironment implements NetworkMessageListener, PeerSetChangedLi
             () -> MessageFormat.format("Hash: {0}", ByteUtil.toHexString(blockHash.getValue()))
         );
 
+        markAnnouncedBy(blockHash, peers);
+
         try {
             if (blockchain.isBlockStored(blockHash)) {
                 LOGGER.log(Level.FINE, "Block was already stored, ignoring.");
                 return;
             }
 
-            messageQueue.add(() -> getBlocksRequest(
-                Collections.singletonList(blockHash),
-                peers,
-                true
-            ));
+            messageQueue.add(() -> getCompactBlockRequest(blockHash, peers));
         }
         catch (DatabaseException e) {
             LOGGER.log(
@@ -489,6 +558,23 @@ public class NodeEnvironment implements NetworkMessageListener, PeerSetChangedLi
         }
     }
 
+    /**
+     * Add the announced hash to the known inventory of the announcing peer.
+     * <p>
+     * The announcing peer is found by its address only, so the hash is only added when a single
+     * peer matches.
+     *
+     * @param hash
+     *     The announced hash.
+     * @param peers
+     *     The peers matching the address of the announcing client.
+     */
+    private void markAnnouncedBy(@NotNull Hash hash, @NotNull List<Peer> peers) {
+        if (peers.size() == 1) {
+            peers.get(0).getKnownInventory().add(hash);
+        }
+    }
+
     /**
      * Handles the receival of a new transaction.
      * Checks whether the transaction is already processed, and if not requests the transaction
@@ -501,25 +587,46 @@ public class NodeEnvironment implements NetworkMessageListener, PeerSetChangedLi
      */
     public void onReceiveTransactionHash(@NotNull Hash transactionHash,
                                          List<Peer> peers) {
-        LOGGER.fine("Transaction hash received.");
-        LOGGER.log(
-            Level.FINEST,
-            () -> MessageFormat.format(
-                "Hash: {0}",
-                ByteUtil.toHexString(transactionHash.getValue())
-            )
-        );
+        onReceiveTransactionHashes(Collections.singletonList(transactionHash), peers);
+    }
+
+    /**
+     * Handles the receival of new transactions in a single announcement.
+     * Requests the transactions that are not yet processed from the peers in a single request.
+     *
+     * @param transactionHashes
+     *     Hashes of the new transactions.
+     * @param peers
+     *     The peers to request the transactions from.
+     */
+    public void onReceiveTransactionHashes(@NotNull List<Hash> transactionHashes,
+                                           List<Peer> peers) {
+        List<Hash> unknownHashes = new ArrayList<>();
+        for (Hash transactionHash : transactionHashes) {
+            LOGGER.fine("Transaction hash received.");
+            LOGGER.log(
+                Level.FINEST,
+                () -> MessageFormat.format(
+                    "Hash: {0}",
+                    ByteUtil.toHexString(transactionHash.getValue())
+                )
+            );
+
+            markAnnouncedBy(transactionHash, peers);
+
+            if (transactionPool.contains(transactionHash)) {
+                LOGGER.log(Level.FINE, "Transaction was already processed, ignoring.");
+                continue;
+            }
+
+            unknownHashes.add(transactionHash);
+        }
 
-        if (transactionPool.contains(transactionHash)) {
-            LOGGER.log(Level.FINE, "Transaction was already processed, ignoring.");
+        if (unknownHashes.isEmpty()) {
             return;
         }
 
-        messageQueue.add(() -> getTransactionRequest(
-            Collections.singletonList(transactionHash),
-            peers,
-            true
-        ));
+        messageQueue.add(() -> getTransactionRequest(unknownHashes, peers, true));
     }
 
     /**
@@ -543,14 +650,10 @@ public class NodeEnvironment implements NetworkMessageListener, PeerSetChangedLi
             switch (result.getStatus()) {
                 case VALID:
                     if (propagate) {
-                        final BrabocoinProtos.Hash protoTransactionHash = ProtoConverter.toProto(
+                        announcementPropagator.announceTransaction(
                             transaction.getHash(),
-                            BrabocoinProtos.Hash.class
+                            getPeers()
                         );
-                        // TODO: We actually want to use async stub here, but that went wrong
-                        // before (Cancelled exception by GRPC).
-                        messageQueue.add(() -> propagateMessageBlocking(s -> s.announceTransaction(
-                            protoTransactionHash)));
                     }
                     break;
 
@@ -563,13 +666,7 @@ public class NodeEnvironment implements NetworkMessageListener, PeerSetChangedLi
             if (propagate) {
                 // Propagate any remaining transactions that became valid.
                 for (Transaction t : result.getValidatedOrphans()) {
-                    final BrabocoinProtos.Hash protoTransactionHash = ProtoConverter.toProto(
-                        t.getHash(),
-                        BrabocoinProtos.Hash.class
-                    );
-                    messageQueue.add(() -> propagateMessageBlocking(
-                        s -> s.announceTransaction(protoTransactionHash))
-                    );
+                    announcementPropagator.announceTransaction(t.getHash(), getPeers());
                 }
             }
         }
@@ -586,6 +683,10 @@ public class NodeEnvironment implements NetworkMessageListener, PeerSetChangedLi
 
     /**
      * Default non blocking request for blocks.
+     * <p>
+     * Every block is requested from a single peer, and blocks that are already requested are
+     * not requested again. When a peer does not deliver a block in time, the block is
+     * requested from the next peer.
      *
      * @param hashes
      *     The list of block hashes to fetch.
@@ -593,16 +694,20 @@ public class NodeEnvironment implements NetworkMessageListener, PeerSetChangedLi
      *     The list of peers used to request the blocks.
      * @param propagate
      *     Whether or not to propagate an announce message to all peers.
+     * @see InFlightRequests
      */
     public void getBlocksRequest(List<Hash> hashes, List<Peer> peers,
                                  boolean propagate) {
-        try {
-            getBlocksRequest(hashes, peers, propagate, false);
-        }
-        catch (InterruptedException e) {
-            e.printStackTrace();
-            LOGGER.severe("Interrupted exception while calling a non-blocking request for blocks");
-        }
+        LOGGER.info("Getting a list of blocks from peers.");
+
+        inFlightRequests.assign(InFlightRequests.Type.BLOCK, hashes, peers, propagate)
+            .forEach((peer, peerHashes) -> requestBlocks(
+                peer,
+                peerHashes,
+                peers,
+                propagate,
+                null
+            ));
     }
 
     /**
@@ -627,131 +732,316 @@ public class NodeEnvironment implements NetworkMessageListener, PeerSetChangedLi
         final CountDownLatch latch = new CountDownLatch(peers.size());
 
         for (Peer peer : peers) {
-            Context.CancellableContext cancellableContext = Context.current().withCancellation();
-
-            StreamObserver<BrabocoinProtos.Block> blockStreamObserver =
-                new StreamObserver<BrabocoinProtos.Block>() {
-                    @Override
-                    public void onNext(BrabocoinProtos.Block value) {
-                        LOGGER.log(Level.FINEST, () -> {
-                            try {
-                                return MessageFormat.format(
-                                    "Received peer block: {0}",
-                                    JsonFormat.printer().print(value)
-                                );
-                            }
-                            catch (InvalidProtocolBufferException e) {
-                                LOGGER.log(
-                                    Level.WARNING,
-                                    "Could not log the JSON format of the response message.",
-                                    e
-                                );
-                            }
-
-                            return "";
-                        });
-                        Block receivedBlock = ProtoConverter.toDomain(
-                            value,
-                            Block.Builder.class
-                        );
-                        if (receivedBlock == null) {
-                            LOGGER.log(
-                                Level.SEVERE,
-                                "Protobuf parsing of received block failed."
+            requestBlocks(peer, hashes, peers, propagate, latch);
+
+            if (blocking) {
+                latch.await();
+            }
+        }
+    }
+
+    /**
+     * Request the blocks from the peer using the {@code getBlocks} message.
+     * <p>
+     * Blocks that the peer did not deliver are requested from another peer, when they are in
+     * the {@link InFlightRequests} table.
+     *
+     * @param peer
+     *     The peer to request the blocks from.
+     * @param hashes
+     *     The list of block hashes to fetch.
+     * @param peers
+     *     The list of peers used to request parent blocks of orphans.
+     * @param propagate
+     *     Whether or not to propagate an announce message to all peers.
+     * @param latch
+     *     Latch that is counted down when the request finished, or {@code null}.
+     */
+    private void requestBlocks(@NotNull Peer peer, @NotNull List<Hash> hashes,
+                               @NotNull List<Peer> peers, boolean propagate,
+                               @Nullable CountDownLatch latch) {
+        Context.CancellableContext cancellableContext = Context.current().withCancellation();
+
+        StreamObserver<BrabocoinProtos.Block> blockStreamObserver =
+            new StreamObserver<BrabocoinProtos.Block>() {
+                @Override
+                public void onNext(BrabocoinProtos.Block value) {
+                    LOGGER.log(Level.FINEST, () -> {
+                        try {
+                            return MessageFormat.format(
+                                "Received peer block: {0}",
+                                JsonFormat.printer().print(value)
                             );
-                            return;
-                        }
-                        if (hashes.contains(receivedBlock.getHash())) {
-                            if (!onReceiveBlock(receivedBlock, peers, propagate)) {
-                                cancellableContext.cancel(new Throwable(
-                                    "Invalid block received, cancelling context."));
-                            }
                         }
-                        else {
+                        catch (InvalidProtocolBufferException e) {
                             LOGGER.log(
                                 Level.WARNING,
-                                "Peer sent block that was not requested"
+                                "Could not log the JSON format of the response message.",
+                                e
                             );
                         }
-                    }
 
-                    @Override
-                    public void onError(Throwable t) {
+                        return "";
+                    });
+                    Block receivedBlock = ProtoConverter.toDomain(
+                        value,
+                        Block.Builder.class
+                    );
+                    if (receivedBlock == null) {
+                        LOGGER.log(
+                            Level.SEVERE,
+                            "Protobuf parsing of received block failed."
+                        );
+                        return;
+                    }
+                    if (hashes.contains(receivedBlock.getHash())) {
+                        peer.getKnownInventory().add(receivedBlock.getHash());
+                        inFlightRequests.complete(receivedBlock.getHash());
+                        if (!onReceiveBlock(receivedBlock, peers, propagate)) {
+                            cancellableContext.cancel(new Throwable(
+                                "Invalid block received, cancelling context."));
+                        }
+                    }
+                    else {
                         LOGGER.log(
                             Level.WARNING,
-                            "Peer returned an error while getting block: {0}",
-                            t.getMessage()
+                            "Peer sent block that was not requested"
                         );
-                        latch.countDown();
-                        cancellableContext.close();
                     }
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    LOGGER.log(
+                        Level.WARNING,
+                        "Peer returned an error while getting block: {0}",
+                        t.getMessage()
+                    );
+                    finish();
+                }
+
+                @Override
+                public void onCompleted() {
+                    LOGGER.log(Level.FINE, "Peer block stream completed.");
+                    finish();
+                }
 
-                    @Override
-                    public void onCompleted() {
-                        LOGGER.log(Level.FINE, "Peer block stream completed.");
+                private void finish() {
+                    if (latch != null) {
                         latch.countDown();
-                        cancellableContext.close();
                     }
-                };
+                    cancellableContext.close();
+                    messageQueue.add(() -> retryRequests(inFlightRequests.reassign(peer, hashes)));
+                }
+            };
 
 
-            cancellableContext.run(() -> {
-                StreamObserver<BrabocoinProtos.Hash> hashStreamObserver = peer.getAsyncStub()
-                    .getBlocks(blockStreamObserver);
+        cancellableContext.run(() -> {
+            StreamObserver<BrabocoinProtos.Hash> hashStreamObserver = peer.getAsyncStub()
+                .getBlocks(blockStreamObserver);
 
-                for (Hash hash : hashes) {
-                    BrabocoinProtos.Hash protoBlockHash = ProtoConverter.toProto(
-                        hash,
-                        BrabocoinProtos.Hash.class
-                    );
-                    hashStreamObserver.onNext(protoBlockHash);
-                }
-                hashStreamObserver.onCompleted();
+            for (Hash hash : hashes) {
+                BrabocoinProtos.Hash protoBlockHash = ProtoConverter.toProto(
+                    hash,
+                    BrabocoinProtos.Hash.class
+                );
+                hashStreamObserver.onNext(protoBlockHash);
+            }
+            hashStreamObserver.onCompleted();
+        });
+    }
+
+    /**
+     * Request the hashes of the requests that are reassigned to another peer.
+     *
+     * @param requests
+     *     The reassigned requests.
+     */
+    private void retryRequests(@NotNull List<InFlightRequests.Request> requests) {
+        for (InFlightRequests.Request request : requests) {
+            Peer peer = request.getPeer();
+            List<Hash> hashes = Collections.singletonList(request.getHash());
+            LOGGER.log(Level.FINE, "Retrying {0} request at peer {1}.", new Object[] {
+                request.getType(),
+                peer
             });
 
-            if (blocking) {
-                latch.await();
+            if (request.getType() == InFlightRequests.Type.BLOCK) {
+                requestBlocks(peer, hashes, request.getPeers(), request.isPropagate(), null);
+            }
+            else {
+                requestTransactions(peer, hashes, request.isPropagate());
             }
         }
     }
 
     /**
-     * Announce the block's hash to all known peers.
+     * Tries to reconstruct a new block from the transaction pool using the
+     * {@code getCompactBlock} message, and propagates the block when it is received.
+     * <p>
+     * The peers are asked for the compact block in order. Transactions that are not found in
+     * the transaction pool are requested from the same peer using the
+     * {@code getBlockTransactions} message. When no peer provides a compact block that can be
+     * reconstructed, the full block is requested using {@link #getBlocksRequest(List, List,
+     * boolean)}.
      *
-     * @param block
-     *     The block to announce.
+     * @param blockHash
+     *     The hash of the block to fetch.
+     * @param peers
+     *     The list of peers used to request the block.
      */
-    public void announceBlockRequest(Block block) {
-        LOGGER.info("Announcing block to peers.");
-        Hash blockHash = block.getHash();
-        LOGGER.log(Level.FINEST, "Hash: {0}", ByteUtil.toHexString(blockHash.getValue()));
+    public void getCompactBlockRequest(@NotNull Hash blockHash, @NotNull List<Peer> peers) {
+        LOGGER.info("Getting a compact block from peers.");
+
+        if (inFlightRequests.contains(blockHash)) {
+            LOGGER.fine("Full block is already requested.");
+            getBlocksRequest(Collections.singletonList(blockHash), peers, true);
+            return;
+        }
+
+        try {
+            if (blockchain.isBlockStored(blockHash)) {
+                LOGGER.fine("Block was received in the meantime, ignoring.");
+                return;
+            }
+        }
+        catch (DatabaseException e) {
+            LOGGER.log(
+                Level.SEVERE,
+                "Could not check if block was already stored: {0}",
+                e.getMessage()
+            );
+        }
         BrabocoinProtos.Hash protoBlockHash = ProtoConverter.toProto(
             blockHash,
             BrabocoinProtos.Hash.class
         );
 
-        for (Peer peer : getPeers()) {
-            peer.getAsyncStub().announceBlock(protoBlockHash, new StreamObserver<Empty>() {
-                @Override
-                public void onNext(Empty value) {
-                    LOGGER.log(Level.FINEST, "Received block announce response from peer.");
-                }
+        for (Peer peer : peers) {
+            Block block;
+            try {
+                block = reconstructCompactBlock(blockHash, protoBlockHash, peer);
+            }
+            catch (StatusRuntimeException e) {
+                LOGGER.log(
+                    Level.WARNING,
+                    "Peer returned an error while getting compact block: {0}",
+                    e.getMessage()
+                );
+                continue;
+            }
+            catch (RuntimeException e) {
+                // The compact block is controlled by the peer, so any decoding failure only
+                // fails the reconstruction from this peer
+                LOGGER.log(
+                    Level.WARNING,
+                    "Peer sent compact block that could not be reconstructed: {0}",
+                    e.toString()
+                );
+                continue;
+            }
 
-                @Override
-                public void onError(Throwable t) {
-                    LOGGER.log(
-                        Level.WARNING,
-                        "Received block announce error from peer: {0}",
-                        t.getMessage()
-                    );
+            if (block != null) {
+                peer.getKnownInventory().add(blockHash);
+                onReceiveBlock(block, peers, true);
+                return;
+            }
+        }
+
+        LOGGER.fine("Compact block could not be reconstructed, requesting full block.");
+        getBlocksRequest(Collections.singletonList(blockHash), peers, true);
+    }
+
+    private @Nullable Block reconstructCompactBlock(@NotNull Hash blockHash,
+                                                    @NotNull BrabocoinProtos.Hash protoBlockHash,
+                                                    @NotNull Peer peer) {
+        CompactBlock compactBlock = ProtoConverter.toDomain(
+            peer.getBlockingStub().getCompactBlock(protoBlockHash),
+            CompactBlock.Builder.class
+        );
+        if (compactBlock == null || !compactBlock.getHash().equals(blockHash)) {
+            LOGGER.log(Level.WARNING, "Peer sent compact block that was not requested.");
+            return null;
+        }
+
+        List<Transaction> candidates = new ArrayList<>();
+        synchronized (transactionPool) {
+            transactionPool.forEach(candidates::add);
+            candidates.addAll(transactionPool.getOrphanTransactions());
+        }
+
+        List<Transaction> transactions;
+        try {
+            transactions = compactBlock.matchTransactions(candidates);
+        }
+        catch (IllegalStateException e) {
+            LOGGER.log(Level.WARNING, "Peer sent malformed compact block: {0}", e.getMessage());
+            return null;
+        }
+
+        List<Integer> missing = CompactBlock.findMissingIndices(transactions);
+        LOGGER.log(
+            Level.FINE,
+            () -> MessageFormat.format(
+                "Reconstructed {0} of {1} transactions from the transaction pool.",
+                transactions.size() - missing.size(),
+                transactions.size()
+            )
+        );
+
+        if (!missing.isEmpty()) {
+            Iterator<BrabocoinProtos.Transaction> received = peer.getBlockingStub()
+                .getBlockTransactions(ProtoConverter.toProto(
+                    new BlockTransactionsRequest(blockHash, missing),
+                    BrabocoinProtos.BlockTransactionsRequest.class
+                ));
+
+            for (int index : missing) {
+                if (!received.hasNext()) {
+                    LOGGER.log(Level.WARNING, "Peer did not send all missing transactions.");
+                    return null;
                 }
 
-                @Override
-                public void onCompleted() {
-                    LOGGER.log(Level.FINEST, "Received block announce completion from peer.");
+                Transaction transaction = ProtoConverter.toDomain(
+                    received.next(),
+                    Transaction.Builder.class
+                );
+                if (transaction == null) {
+                    LOGGER.log(Level.SEVERE, "Protobuf parsing of received transaction failed.");
+                    return null;
                 }
-            });
+
+                transactions.set(index, transaction);
+            }
+        }
+
+        // Short id matches are not guaranteed to be correct, so verify the Merkle root
+        List<Hash> transactionHashes = transactions.stream()
+            .map(Transaction::getHash)
+            .collect(Collectors.toList());
+        Hash merkleRoot = new MerkleTree(
+            consensus.getMerkleTreeHashFunction(),
+            transactionHashes
+        ).getRoot();
+        if (!merkleRoot.equals(compactBlock.getMerkleRoot())) {
+            LOGGER.log(Level.WARNING, "Reconstructed compact block has invalid Merkle root.");
+            return null;
         }
+
+        return compactBlock.toBlock(transactions);
+    }
+
+    /**
+     * Announce the block's hash to all known peers.
+     *
+     * @param block
+     *     The block to announce.
+     */
+    public void announceBlockRequest(Block block) {
+        LOGGER.info("Announcing block to peers.");
+        Hash blockHash = block.getHash();
+        LOGGER.log(Level.FINEST, "Hash: {0}", ByteUtil.toHexString(blockHash.getValue()));
+        announcementPropagator.announceBlock(blockHash, getPeers());
     }
 
     /**
@@ -764,40 +1054,7 @@ public class NodeEnvironment implements NetworkMessageListener, PeerSetChangedLi
         LOGGER.info("Announcing transaction to peers.");
         Hash transactionHash = transaction.getHash();
         LOGGER.log(Level.FINEST, "Hash: {0}", ByteUtil.toHexString(transactionHash.getValue()));
-        BrabocoinProtos.Hash protoTransactionHash = ProtoConverter.toProto(
-            transactionHash,
-            BrabocoinProtos.Hash.class
-        );
-
-        for (Peer peer : getPeers()) {
-            peer.getAsyncStub()
-                .announceTransaction(protoTransactionHash, new StreamObserver<Empty>() {
-                    @Override
-                    public void onNext(Empty value) {
-                        LOGGER.log(
-                            Level.FINEST,
-                            "Received transaction announce response from peer."
-                        );
-                    }
-
-                    @Override
-                    public void onError(Throwable t) {
-                        LOGGER.log(
-                            Level.WARNING,
-                            "Received transaction announce error from peer: {0}",
-                            t.getMessage()
-                        );
-                    }
-
-                    @Override
-                    public void onCompleted() {
-                        LOGGER.log(
-                            Level.FINEST,
-                            "Received transaction announce completion from peer."
-                        );
-                    }
-                });
-        }
+        announcementPropagator.announceTransaction(transactionHash, getPeers());
     }
 
     /**
@@ -840,6 +1097,172 @@ public class NodeEnvironment implements NetworkMessageListener, PeerSetChangedLi
         }
     }
 
+    /**
+     * Requests the headers of the blocks on the main chain of the peer that are not on our
+     * main chain, and validates the header chain.
+     * <p>
+     * The headers are validated against the header rules in
+     * {@link BlockValidator#HEADER}, and must form a chain of increasing height on top of a
+     * stored block. The headers are returned up to the first invalid header, such that an
+     * invalid fork is rejected before any block body is downloaded.
+     *
+     * @param peer
+     *     The peer to request the headers from.
+     * @return The validated headers in order of height.
+     * @throws StatusRuntimeException
+     *     When the peer returns an error.
+     */
+    public List<BlockHeader> getHeadersRequest(Peer peer) {
+        LOGGER.info("Getting block headers from peer.");
+        Iterator<BrabocoinProtos.BlockHeaders> batches = peer.getBlockingStub()
+            .getHeaders(ProtoConverter.toProto(
+                new HeadersRequest(createBlockLocator()),
+                BrabocoinProtos.HeadersRequest.class
+            ));
+
+        List<BlockHeader> headers = new ArrayList<>();
+        Hash previousHash = null;
+        int previousHeight = 0;
+        while (batches.hasNext()) {
+            for (BrabocoinProtos.BlockHeader protoHeader : batches.next().getHeadersList()) {
+                BlockHeader header = ProtoConverter.toDomain(
+                    protoHeader,
+                    BlockHeader.Builder.class
+                );
+                if (header == null) {
+                    LOGGER.log(Level.SEVERE, "Protobuf parsing of received header failed.");
+                    return headers;
+                }
+
+                if (previousHash == null) {
+                    // The first header must connect to a stored block
+                    IndexedBlock parent;
+                    try {
+                        parent = blockchain.getIndexedBlock(header.getPreviousBlockHash());
+                    }
+                    catch (DatabaseException e) {
+                        LOGGER.log(Level.SEVERE, "Indexed block not available: {0}", e.getMessage());
+                        return headers;
+                    }
+
+                    if (parent == null || !parent.getBlockInfo().isValid()) {
+                        LOGGER.warning("Peer sent headers that do not connect to a valid block.");
+                        return headers;
+                    }
+
+                    previousHash = parent.getHash();
+                    previousHeight = parent.getBlockInfo().getBlockHeight();
+                }
+
+                if (!header.getPreviousBlockHash().equals(previousHash)
+                    || header.getBlockHeight() != previousHeight + 1) {
+                    LOGGER.warning("Peer sent headers that do not form a chain.");
+                    return headers;
+                }
+
+                BlockValidationResult result = blockValidator.validate(
+                    header.asBlock(),
+                    BlockValidator.HEADER
+                );
+                if (!result.isPassed()) {
+                    LOGGER.log(
+                        Level.WARNING,
+                        "Peer sent invalid header at height {0}.",
+                        header.getBlockHeight()
+                    );
+                    return headers;
+                }
+
+                headers.add(header);
+                previousHash = header.getHash();
+                previousHeight = header.getBlockHeight();
+            }
+        }
+
+        LOGGER.log(Level.FINE, "Received {0} valid headers from peer.", headers.size());
+        return headers;
+    }
+
+    /**
+     * Create a block locator for the main chain.
+     * <p>
+     * The locator contains the hashes of the main chain from the top block down to the genesis
+     * block, where the gap between consecutive hashes doubles after each step.
+     *
+     * @return The block locator.
+     */
+    private List<Hash> createBlockLocator() {
+        List<Hash> locator = new ArrayList<>();
+        int height = blockchain.getMainChain().getHeight();
+        int step = 1;
+        while (height > 0) {
+            IndexedBlock block = blockchain.getMainChain().getBlockAtHeight(height);
+            if (block != null) {
+                locator.add(block.getHash());
+            }
+
+            height -= step;
+            if (locator.size() > 1) {
+                step *= 2;
+            }
+        }
+
+        locator.add(blockchain.getMainChain().getGenesisBlock().getHash());
+        return locator;
+    }
+
+    /**
+     * Download the block bodies for the given headers that are not yet stored.
+     * <p>
+     * The bodies are downloaded from all given peers in parallel using the
+     * {@link BlockDownloader}, and are processed in order of height.
+     *
+     * @param headers
+     *     The validated headers in order of height.
+     * @param peers
+     *     The peers to download the bodies from.
+     */
+    private void downloadBlockBodies(@NotNull List<BlockHeader> headers,
+                                     @NotNull List<Peer> peers) {
+        List<Hash> hashes = new ArrayList<>();
+        try {
+            for (BlockHeader header : headers) {
+                if (!blockchain.isBlockStored(header.getHash())) {
+                    hashes.add(header.getHash());
+                }
+            }
+        }
+        catch (DatabaseException e) {
+            LOGGER.log(Level.SEVERE, "Could not check if block was stored: {0}", e.getMessage());
+            return;
+        }
+
+        LOGGER.log(
+            Level.FINE,
+            () -> MessageFormat.format(
+                "Downloading {0} block bodies from {1} peers.",
+                hashes.size(),
+                peers.size()
+            )
+        );
+
+        try {
+            int processed = blockDownloader.download(
+                hashes,
+                peers,
+                block -> onReceiveBlock(block, peers, false)
+            );
+            LOGGER.log(
+                Level.FINE,
+                () -> MessageFormat.format("Processed {0} downloaded blocks.", processed)
+            );
+        }
+        catch (InterruptedException e) {
+            LOGGER.severe("Interrupted while downloading block bodies.");
+            Thread.currentThread().interrupt();
+        }
+    }
+
     /**
      * Request peers for the top block height.
      *
@@ -933,6 +1356,10 @@ public class NodeEnvironment implements NetworkMessageListener, PeerSetChangedLi
     /**
      * Requests transactions from (a given list of) peers, given the transaction hashes.
      * Also determine whether or not to propagate when transactions are received.
+     * <p>
+     * Every transaction is requested from a single peer, and transactions that are already
+     * requested are not requested again. When a peer does not deliver a transaction in time,
+     * the transaction is requested from the next peer.
      *
      * @param hashes
      *     The hashes to request.
@@ -940,87 +1367,105 @@ public class NodeEnvironment implements NetworkMessageListener, PeerSetChangedLi
      *     The peers to request transactions from.
      * @param propagate
      *     Whether or not to propagate.
+     * @see InFlightRequests
      */
     public void getTransactionRequest(List<Hash> hashes, List<Peer> peers,
                                       boolean propagate) {
         LOGGER.info("Getting a list of transactions from peers.");
 
-        for (Peer peer : peers) {
-            // TODO: Check if async processing is done correctly.
-            StreamObserver<BrabocoinProtos.Hash> hashStreamObserver = peer.getAsyncStub()
-                .getTransactions(new StreamObserver<BrabocoinProtos.Transaction>() {
-                    @Override
-                    public void onNext(BrabocoinProtos.Transaction value) {
-                        LOGGER.log(Level.FINEST, () -> {
-                            try {
-                                return MessageFormat.format(
-                                    "Received peer transaction: {0}",
-                                    JsonFormat.printer().print(value)
-                                );
-                            }
-                            catch (InvalidProtocolBufferException e) {
-                                LOGGER.log(
-                                    Level.WARNING,
-                                    "Could not log the JSON format of the response message.",
-                                    e
-                                );
-                            }
-
-                            return "";
-                        });
-                        Transaction transaction = ProtoConverter.toDomain(
-                            value,
-                            Transaction.Builder.class
-                        );
-                        if (transaction == null) {
-                            LOGGER.log(
-                                Level.SEVERE,
-                                "Protobuf parsing of received transaction failed."
+        inFlightRequests.assign(InFlightRequests.Type.TRANSACTION, hashes, peers, propagate)
+            .forEach((peer, peerHashes) -> requestTransactions(peer, peerHashes, propagate));
+    }
+
+    /**
+     * Request the transactions from the peer using the {@code getTransactions} message.
+     *
+     * @param peer
+     *     The peer to request the transactions from.
+     * @param hashes
+     *     The hashes to request.
+     * @param propagate
+     *     Whether or not to propagate.
+     */
+    private void requestTransactions(@NotNull Peer peer, @NotNull List<Hash> hashes,
+                                     boolean propagate) {
+        StreamObserver<BrabocoinProtos.Hash> hashStreamObserver = peer.getAsyncStub()
+            .getTransactions(new StreamObserver<BrabocoinProtos.Transaction>() {
+                @Override
+                public void onNext(BrabocoinProtos.Transaction value) {
+                    LOGGER.log(Level.FINEST, () -> {
+                        try {
+                            return MessageFormat.format(
+                                "Received peer transaction: {0}",
+                                JsonFormat.printer().print(value)
                             );
-                            return;
-                        }
-                        if (hashes.contains(transaction.getHash())) {
-                            onReceiveTransaction(transaction, propagate);
                         }
-                        else {
+                        catch (InvalidProtocolBufferException e) {
                             LOGGER.log(
                                 Level.WARNING,
-                                "Peer sent transaction that was not requested"
+                                "Could not log the JSON format of the response message.",
+                                e
                             );
                         }
-                    }
 
-                    @Override
-                    public void onError(Throwable t) {
+                        return "";
+                    });
+                    Transaction transaction = ProtoConverter.toDomain(
+                        value,
+                        Transaction.Builder.class
+                    );
+                    if (transaction == null) {
+                        LOGGER.log(
+                            Level.SEVERE,
+                            "Protobuf parsing of received transaction failed."
+                        );
+                        return;
+                    }
+                    if (hashes.contains(transaction.getHash())) {
+                        peer.getKnownInventory().add(transaction.getHash());
+                        inFlightRequests.complete(transaction.getHash());
+                        onReceiveTransaction(transaction, propagate);
+                    }
+                    else {
                         LOGGER.log(
                             Level.WARNING,
-                            "Peer returned an error while getting transaction: {0}",
-                            t.getMessage()
+                            "Peer sent transaction that was not requested"
                         );
-                        t.getCause().printStackTrace();
                     }
+                }
 
-                    @Override
-                    public void onCompleted() {
-                        LOGGER.log(Level.FINE, "Peer transaction stream completed.");
-                    }
-                });
+                @Override
+                public void onError(Throwable t) {
+                    LOGGER.log(
+                        Level.WARNING,
+                        "Peer returned an error while getting transaction: {0}",
+                        t.getMessage()
+                    );
+                    messageQueue.add(() -> retryRequests(inFlightRequests.reassign(peer, hashes)));
+                }
 
-            for (Hash hash : hashes) {
-                BrabocoinProtos.Hash protoBlockHash = ProtoConverter.toProto(
-                    hash,
-                    BrabocoinProtos.Hash.class
-                );
-                hashStreamObserver.onNext(protoBlockHash);
-            }
-            hashStreamObserver.onCompleted();
+                @Override
+                public void onCompleted() {
+                    LOGGER.log(Level.FINE, "Peer transaction stream completed.");
+                    messageQueue.add(() -> retryRequests(inFlightRequests.reassign(peer, hashes)));
+                }
+            });
+
+        for (Hash hash : hashes) {
+            BrabocoinProtos.Hash protoBlockHash = ProtoConverter.toProto(
+                hash,
+                BrabocoinProtos.Hash.class
+            );
+            hashStreamObserver.onNext(protoBlockHash);
         }
+        hashStreamObserver.onCompleted();
     }
 
 
     /**
      * Requests the transaction pool hashes on each peer.
-     * Also calls {@link #getTransactionRequest} for all gathered hashes to all peers.
+     * Also calls {@link #getTransactionRequest} for all gathered hashes that are not yet known to
+     * all peers.
      */
     public void seekTransactionPoolRequest() {
         LOGGER.info("Seek transaction pool request.");
@@ -1030,9 +1475,14 @@ public class NodeEnvironment implements NetworkMessageListener, PeerSetChangedLi
                 .getBlockingStub()
                 .seekTransactionPool(Empty.newBuilder().build());
 
-            transactionHashes.forEachRemaining(
-                h -> hashes.add(ProtoConverter.toDomain(h, Hash.Builder.class))
-            );
+            transactionHashes.forEachRemaining(h -> {
+                Hash hash = ProtoConverter.toDomain(h, Hash.Builder.class);
+
+                // Transactions restored from the transaction pool file are already known
+                if (hash != null && !transactionPool.contains(hash)) {
+                    hashes.add(hash);
+                }
+            });
         }
         if (hashes.size() > 0) {
             messageQueue.add(() -> getTransactionRequest(
@@ -1147,6 +1597,41 @@ public class NodeEnvironment implements NetworkMessageListener, PeerSetChangedLi
         }
     }
 
+    /**
+     * Handles the request for a serialized block.
+     * <p>
+     * Blocks stored in the block database are returned as stored on disk, without parsing.
+     * Other blocks known to {@link #getBlock(Hash)} are serialized.
+     *
+     * @param blockHash
+     *     Hash of the block to get.
+     * @return The serialized {@link BrabocoinProtos.Block} or null if not found.
+     */
+    public ByteString getRawBlock(@NotNull Hash blockHash) {
+        LOGGER.fine("Raw block requested by hash.");
+        try {
+            ByteString rawBlock = blockchain.getRawBlock(blockHash);
+            if (rawBlock != null) {
+                return rawBlock;
+            }
+        }
+        catch (DatabaseException e) {
+            LOGGER.log(
+                Level.SEVERE,
+                "Database error while trying to acquire raw block, error: {0}",
+                e.getMessage()
+            );
+            return null;
+        }
+
+        Block block = getBlock(blockHash);
+        if (block == null) {
+            return null;
+        }
+
+        return ProtoConverter.toProto(block, BrabocoinProtos.Block.class).toByteString();
+    }
+
     /**
      * Gets the block hashes above a given block hash.
      *
@@ -1193,6 +1678,46 @@ public class NodeEnvironment implements NetworkMessageListener, PeerSetChangedLi
         return Collections.emptyList();
     }
 
+    /**
+     * Handles the request for the headers above a block locator.
+     * <p>
+     * Finds the first hash in the locator that is contained in the main chain, and returns the
+     * headers of all blocks on the main chain above that block. When no hash in the locator
+     * is on the main chain, the headers above the genesis block are returned.
+     *
+     * @param locator
+     *     Block hashes from the top of the main chain of the requesting node down to its
+     *     genesis block.
+     * @return The headers of the blocks above the matched block, in order of height.
+     */
+    public List<BlockHeader> getHeadersAbove(@NotNull List<Hash> locator) {
+        LOGGER.fine("Block headers requested above a block locator.");
+
+        IndexedBlock matched = blockchain.getMainChain().getGenesisBlock();
+        try {
+            for (Hash hash : locator) {
+                IndexedBlock indexedBlock = blockchain.getIndexedBlock(hash);
+                if (indexedBlock != null && blockchain.getMainChain().contains(indexedBlock)) {
+                    matched = indexedBlock;
+                    break;
+                }
+            }
+        }
+        catch (DatabaseException e) {
+            LOGGER.log(Level.SEVERE, "Indexed block not available: {0}", e.getMessage());
+            return Collections.emptyList();
+        }
+
+        List<BlockHeader> headers = new ArrayList<>();
+        IndexedBlock indexedBlock = blockchain.getMainChain().getNextBlock(matched);
+        while (indexedBlock != null) {
+            headers.add(BlockHeader.fromBlockInfo(indexedBlock.getBlockInfo()));
+            indexedBlock = blockchain.getMainChain().getNextBlock(indexedBlock);
+        }
+
+        return headers;
+    }
+
     /**
      * Gets the height of the top block.
      *
@@ -1286,13 +1811,12 @@ public class NodeEnvironment implements NetworkMessageListener, PeerSetChangedLi
         return contains;
     }
 
-    /**
-     * Get the blocking stubs of all peers.
-     *
-     * @return List of blocking stubs.
-     */
-    private List<NodeGrpc.NodeBlockingStub> getPeerStubs() {
-        return getPeers().stream().map(Peer::getBlockingStub).collect(Collectors.toList());
+    public AnnouncementPropagator getAnnouncementPropagator() {
+        return announcementPropagator;
+    }
+
+    public InFlightRequests getInFlightRequests() {
+        return inFlightRequests;
     }
 
     public void addNotificationListener(NotificationListener notificationListener) {
@@ -46,6 +46,12 @@ public class Peer implements NetworkMessageListener {
 
     private final List<NetworkMessageListener> networkMessageListeners = new ArrayList<>();
 
+    /**
+     * The block and transaction hashes that the peer is known to have.
+     */
+    private final KnownInventory knownInventory =
+        new KnownInventory(Constants.MAX_KNOWN_INVENTORY_PER_PEER);
+
     /**
      * Creates a peer from an address and port.
      *
@@ -170,6 +176,16 @@ public class Peer implements NetworkMessageListener {
         networkMessageListeners.forEach(l -> l.onOutgoingMessage(message, isUpdate));
     }
 
+    /**
+     * Get the block and transaction hashes that the peer is known to have, because the peer
+     * announced or sent them to us, or because we announced them to the peer.
+     *
+     * @return The known inventory of the peer.
+     */
+    public KnownInventory getKnownInventory() {
+        return knownInventory;
+    }
+
     public synchronized Collection<NetworkMessage> getOutgoingMessageQueue() {
         return Collections.unmodifiableCollection(outgoingMessageQueue);
     }
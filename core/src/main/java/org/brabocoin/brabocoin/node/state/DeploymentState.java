@@ -2,16 +2,21 @@ package org.brabocoin.brabocoin.node.state;
 
 import org.brabocoin.brabocoin.chain.Blockchain;
 import org.brabocoin.brabocoin.config.BraboConfig;
+import org.brabocoin.brabocoin.crypto.SignatureCache;
 import org.brabocoin.brabocoin.crypto.Signer;
 import org.brabocoin.brabocoin.crypto.cipher.BouncyCastleAES;
 import org.brabocoin.brabocoin.crypto.cipher.Cipher;
+import org.brabocoin.brabocoin.dal.BlockCache;
 import org.brabocoin.brabocoin.dal.BlockDatabase;
+import org.brabocoin.brabocoin.dal.BlockFileWriter;
+import org.brabocoin.brabocoin.dal.CachedChainUTXODatabase;
 import org.brabocoin.brabocoin.dal.ChainUTXODatabase;
 import org.brabocoin.brabocoin.dal.CompositeReadonlyUTXOSet;
 import org.brabocoin.brabocoin.dal.HashMapDB;
 import org.brabocoin.brabocoin.dal.KeyValueStore;
 import org.brabocoin.brabocoin.dal.LevelDB;
 import org.brabocoin.brabocoin.dal.TransactionPool;
+import org.brabocoin.brabocoin.dal.TransactionPoolIO;
 import org.brabocoin.brabocoin.dal.UTXODatabase;
 import org.brabocoin.brabocoin.exceptions.CipherException;
 import org.brabocoin.brabocoin.exceptions.DatabaseException;
@@ -63,6 +68,7 @@ public class DeploymentState implements State {
     protected final @NotNull UTXODatabase walletPoolUtxoDatabase;
     protected final @NotNull Blockchain blockchain;
     protected final @NotNull TransactionPool transactionPool;
+    protected final @NotNull TransactionPoolIO transactionPoolIO;
     protected final @NotNull BlockProcessor blockProcessor;
     protected final @NotNull UTXOProcessor utxoProcessor;
     protected final @NotNull TransactionProcessor transactionProcessor;
@@ -99,6 +105,7 @@ public class DeploymentState implements State {
         blockchain = createBlockchain();
 
         transactionPool = createTransactionPool();
+        transactionPoolIO = createTransactionPoolIO();
 
         transactionValidator = createTransactionValidator();
         transactionProcessor = createTransactionProcessor();
@@ -156,6 +163,15 @@ public class DeploymentState implements State {
         ).toFile();
     }
 
+    @NotNull
+    public File getTransactionPoolFile() {
+        return Paths.get(
+            config.getDataDirectory(),
+            Integer.toString(config.getNetworkId()),
+            config.getTransactionPoolFile()
+        ).toFile();
+    }
+
     private Wallet createWallet(
         Unlocker<Wallet> walletUnlocker) throws CipherException, IOException, DestructionException {
         Cipher privateKeyCipher = new BouncyCastleAES();
@@ -242,7 +258,10 @@ public class DeploymentState implements State {
     }
 
     protected Signer createSigner() {
-        return new Signer(consensus.getCurve());
+        return new Signer(
+            consensus.getCurve(),
+            new SignatureCache(config.getSignatureCacheSize())
+        );
     }
 
     protected KeyValueStore createBlockStorage() {
@@ -284,11 +303,27 @@ public class DeploymentState implements State {
                 Integer.toString(config.getNetworkId()),
                 config.getBlockStoreDirectory()
             ).toFile(),
-            config.getMaxBlockFileSize()
+            config.getMaxBlockFileSize(),
+            new BlockFileWriter(
+                BlockFileWriter.SyncPolicy.fromName(config.getBlockFileSyncPolicy()),
+                config.getBlockFileSyncInterval(),
+                config.getBlockFileSyncBytes(),
+                config.getBlockFilePreallocationSize(),
+                config.getMaxBlockFileSize()
+            ),
+            new BlockCache(config.getMaxBlockCacheSize())
         );
     }
 
     protected ChainUTXODatabase createChainUTXODatabase() throws DatabaseException {
+        if (config.getMaxUtxoCacheSize() > 0) {
+            return new CachedChainUTXODatabase(
+                utxoStorage,
+                consensus,
+                config.getMaxUtxoCacheSize()
+            );
+        }
+
         return new ChainUTXODatabase(utxoStorage, consensus);
     }
 
@@ -323,6 +358,10 @@ public class DeploymentState implements State {
         );
     }
 
+    protected TransactionPoolIO createTransactionPoolIO() {
+        return new TransactionPoolIO();
+    }
+
     protected BlockProcessor createBlockProcessor() {
         return new BlockProcessor(
             blockchain,
@@ -369,7 +408,12 @@ public class DeploymentState implements State {
     }
 
     protected Node createNode() {
-        return new Node(environment, config.getServicePort(), config.getNetworkId());
+        return new Node(
+            environment,
+            config.getServicePort(),
+            config.getNetworkId(),
+            config.getServiceThreads()
+        );
     }
 
     @NotNull
@@ -519,4 +563,9 @@ public class DeploymentState implements State {
     public @NotNull WalletIO getWalletIO() {
         return walletIO;
     }
+
+    @Override
+    public @NotNull TransactionPoolIO getTransactionPoolIO() {
+        return transactionPoolIO;
+    }
 }
@@ -6,6 +6,7 @@ import org.brabocoin.brabocoin.dal.BlockDatabase;
 import org.brabocoin.brabocoin.dal.ChainUTXODatabase;
 import org.brabocoin.brabocoin.dal.KeyValueStore;
 import org.brabocoin.brabocoin.dal.TransactionPool;
+import org.brabocoin.brabocoin.dal.TransactionPoolIO;
 import org.brabocoin.brabocoin.dal.UTXODatabase;
 import org.brabocoin.brabocoin.mining.Miner;
 import org.brabocoin.brabocoin.node.NodeEnvironment;
@@ -82,4 +83,8 @@ public interface State {
     @NotNull File getWalletFile();
 
     @NotNull File getTxHistoryFile();
+
+    @NotNull TransactionPoolIO getTransactionPoolIO();
+
+    @NotNull File getTransactionPoolFile();
 }
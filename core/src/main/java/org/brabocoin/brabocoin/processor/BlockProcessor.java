@@ -423,7 +423,7 @@ public class BlockProcessor {
      * chain. The given block, all intermediate parent blocks and the first block present on the
      * main chain are recorded in-order and returned.
      * <p>
-     * Note that these blocks are not indexed in memory and are first retrieved from the database.
+     * The blocks are looked up in the in-memory block index of the block database.
      * <p>
      * When a block on the fork path is invalid, {@code null} is returned as no valid fork path
      * exists.
@@ -442,7 +442,7 @@ public class BlockProcessor {
         Deque<IndexedBlock> fork = new ArrayDeque<>();
         IndexedBlock parent = block;
 
-        // Backtrack to the main chain, loading previous blocks from the database
+        // Backtrack to the main chain, loading previous blocks from the block index
         while (parent != null && !blockchain.getMainChain().contains(parent)) {
             // If parent is known to be invalid, discard this fork
             if (!parent.getBlockInfo().isValid()) {
@@ -2,6 +2,7 @@ package org.brabocoin.brabocoin.processor;
 
 import org.brabocoin.brabocoin.Constants;
 import org.brabocoin.brabocoin.dal.TransactionPool;
+import org.brabocoin.brabocoin.dal.TransactionPoolIO;
 import org.brabocoin.brabocoin.dal.TransactionPoolListener;
 import org.brabocoin.brabocoin.dal.UTXODatabase;
 import org.brabocoin.brabocoin.exceptions.DatabaseException;
@@ -15,6 +16,7 @@ import org.brabocoin.brabocoin.validation.transaction.TransactionValidator;
 import org.jetbrains.annotations.NotNull;
 
 import java.text.MessageFormat;
+import java.time.Instant;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -135,6 +137,12 @@ public class TransactionProcessor implements TransactionPoolListener {
 
     private void processTransactionWithoutValidation(@NotNull Transaction transaction,
                                                      TransactionValidationResult result) throws DatabaseException {
+        processTransactionWithoutValidation(transaction, result, Instant.now().getEpochSecond());
+    }
+
+    private void processTransactionWithoutValidation(@NotNull Transaction transaction,
+                                                     TransactionValidationResult result,
+                                                     long timeReceived) throws DatabaseException {
 
         ValidationStatus status = result.getStatus();
         if (status == ValidationStatus.INVALID) {
@@ -153,13 +161,85 @@ public class TransactionProcessor implements TransactionPoolListener {
             return;
         }
 
+        long fee = computeFee(transaction);
+
         if (transactionValidator.validate(transaction, TransactionValidator.ORPHAN, false).isPassed()) {
             LOGGER.info("New transaction is added as independent.");
-            transactionPool.addIndependentTransaction(transaction);
+            transactionPool.addIndependentTransaction(transaction, fee, timeReceived);
         }
         else {
             LOGGER.info("New transaction is added as dependent.");
-            transactionPool.addDependentTransaction(transaction);
+            transactionPool.addDependentTransaction(transaction, fee, timeReceived);
+        }
+    }
+
+    /**
+     * Restore transactions that were read from the transaction pool file.
+     * <p>
+     * Verified transactions were fully validated before they were written, so they are only
+     * checked against the current UTXO set and transaction pool using
+     * {@link TransactionValidator#RESTORED}. Verified transactions whose inputs are no longer
+     * available are dropped, since they were most likely included in a block or double-spent.
+     * All other transactions are processed as new transactions.
+     *
+     * @param records
+     *     The records from the transaction pool file, in the order they were written.
+     * @return The number of transactions that are added to the transaction pool.
+     * @throws DatabaseException
+     *     When either of the UTXO databases is not available.
+     */
+    public int restoreTransactions(
+        @NotNull List<TransactionPoolIO.Record> records) throws DatabaseException {
+        LOGGER.fine("Restoring transactions from the transaction pool file.");
+        int restored = 0;
+
+        for (TransactionPoolIO.Record record : records) {
+            Transaction transaction = record.getTransaction();
+            if (transactionPool.contains(transaction.getHash())) {
+                continue;
+            }
+
+            ValidationStatus status;
+            if (record.isVerified()) {
+                TransactionValidationResult result = transactionValidator.validate(
+                    transaction, TransactionValidator.RESTORED, true
+                );
+                status = result.getStatus();
+
+                if (status == ValidationStatus.VALID) {
+                    processTransactionWithoutValidation(
+                        transaction,
+                        result,
+                        record.getTimeReceived()
+                    );
+                }
+            }
+            else {
+                status = processNewTransaction(transaction).getStatus();
+            }
+
+            if (status == ValidationStatus.VALID) {
+                restored++;
+            }
+        }
+
+        int count = restored;
+        LOGGER.info(() -> MessageFormat.format(
+            "Restored {0} of {1} transactions from the transaction pool file.",
+            count,
+            records.size()
+        ));
+
+        return count;
+    }
+
+    private long computeFee(@NotNull Transaction transaction) throws DatabaseException {
+        try {
+            return transactionValidator.computeFee(transaction);
+        }
+        catch (IllegalStateException e) {
+            LOGGER.log(Level.WARNING, "Fee of transaction could not be computed.", e);
+            return 0;
         }
     }
 
@@ -42,7 +42,8 @@ public class UTXOProcessor {
      * Process the inputs and outputs of all transactions in a newly connected block.
      * <p>
      * The referenced outputs of the inputs of the new transactions are marked as spent, and the
-     * outputs of the new transactions are marked as unspent.
+     * outputs of the new transactions are marked as unspent. All changes, including the new
+     * last processed block, are written to the database in a single atomic batch.
      *
      * @param block
      *     The newly connected block.
@@ -58,32 +59,40 @@ public class UTXOProcessor {
 
         List<TransactionUndo> undos = new ArrayList<>();
 
-        for (Transaction transaction : block.getTransactions()) {
-            // Set all outputs as unspent
-            database.setOutputsUnspent(transaction, block.getBlockHeight());
+        database.beginBatch();
+        try {
+            for (Transaction transaction : block.getTransactions()) {
+                // Set all outputs as unspent
+                database.setOutputsUnspent(transaction, block.getBlockHeight());
 
-            if (transaction.isCoinbase()) {
-                continue;
-            }
+                if (transaction.isCoinbase()) {
+                    continue;
+                }
+
+                List<UnspentOutputInfo> outputInfos = new ArrayList<>();
 
-            List<UnspentOutputInfo> outputInfos = new ArrayList<>();
+                // Set all inputs as spent
+                for (Input input : transaction.getInputs()) {
+                    outputInfos.add(database.findUnspentOutputInfo(input));
 
-            // Set all inputs as spent
-            for (Input input : transaction.getInputs()) {
-                outputInfos.add(database.findUnspentOutputInfo(input));
+                    database.setOutputSpent(
+                        input.getReferencedTransaction(),
+                        input.getReferencedOutputIndex()
+                    );
+                }
 
-                database.setOutputSpent(
-                    input.getReferencedTransaction(),
-                    input.getReferencedOutputIndex()
-                );
+                // Add to transaction undo
+                undos.add(new TransactionUndo(outputInfos));
             }
 
-            // Add to transaction undo
-            undos.add(new TransactionUndo(outputInfos));
-        }
+            // Move block pointer
+            database.setLastProcessedBlockHash(block.getHash());
 
-        // Move block pointer
-        database.setLastProcessedBlockHash(block.getHash());
+            database.commitBatch();
+        }
+        finally {
+            database.discardBatch();
+        }
 
         return new BlockUndo(undos);
     }
@@ -92,7 +101,8 @@ public class UTXOProcessor {
      * Process the inputs and outputs of all transactions in a disconnected block.
      * <p>
      * All outputs of the transactions in the block are marked as spent, and the inputs are
-     * marked as unspent by applying the block undo file.
+     * marked as unspent by applying the block undo file. All changes, including the new last
+     * processed block, are written to the database in a single atomic batch.
      *
      * @param block
      *     The disconnected block.
@@ -108,41 +118,49 @@ public class UTXOProcessor {
         List<Transaction> transactions = block.getTransactions();
         List<TransactionUndo> undos = blockUndo.getTransactionUndos();
 
-        // TODO: validate everything!
-        // Undo transactions in reverse order
-        for (int i = transactions.size() - 1; i >= 0; i--) {
-            Transaction transaction = transactions.get(i);
-
-            Hash hash = transaction.getHash();
-            // Set all outputs as spent
-            List<Output> outputs = transaction.getOutputs();
-            for (int outputIndex = 0; outputIndex < outputs.size(); outputIndex++) {
-                database.setOutputSpent(hash, outputIndex);
+        database.beginBatch();
+        try {
+            // TODO: validate everything!
+            // Undo transactions in reverse order
+            for (int i = transactions.size() - 1; i >= 0; i--) {
+                Transaction transaction = transactions.get(i);
+
+                Hash hash = transaction.getHash();
+                // Set all outputs as spent
+                List<Output> outputs = transaction.getOutputs();
+                for (int outputIndex = 0; outputIndex < outputs.size(); outputIndex++) {
+                    database.setOutputSpent(hash, outputIndex);
+                }
+
+                if (transaction.isCoinbase()) {
+                    continue;
+                }
+
+                // Unspent output info is not present for the coinbase transaction
+                // The first tx is the coinbase tx. Hence, we can skip using -1.
+                List<UnspentOutputInfo> inputInfos = undos.get(i - 1).getOutputInfoList();
+                // Apply undo for the inputs
+                List<Input> inputs = transaction.getInputs();
+                for (int inputIndex = 0; inputIndex < inputs.size(); inputIndex++) {
+                    Input input = inputs.get(inputIndex);
+                    UnspentOutputInfo info = inputInfos.get(inputIndex);
+
+                    database.addUnspentOutputInfo(
+                        input.getReferencedTransaction(),
+                        input.getReferencedOutputIndex(),
+                        info
+                    );
+                }
             }
 
-            if (transaction.isCoinbase()) {
-                continue;
-            }
+            // Move block pointer
+            database.setLastProcessedBlockHash(block.getPreviousBlockHash());
 
-            // Unspent output info is not present for the coinbase transaction
-            // The first tx is the coinbase tx. Hence, we can skip using -1.
-            List<UnspentOutputInfo> inputInfos = undos.get(i - 1).getOutputInfoList();
-            // Apply undo for the inputs
-            List<Input> inputs = transaction.getInputs();
-            for (int inputIndex = 0; inputIndex < inputs.size(); inputIndex++) {
-                Input input = inputs.get(inputIndex);
-                UnspentOutputInfo info = inputInfos.get(inputIndex);
-
-                database.addUnspentOutputInfo(
-                    input.getReferencedTransaction(),
-                    input.getReferencedOutputIndex(),
-                    info
-                );
-            }
+            database.commitBatch();
+        }
+        finally {
+            database.discardBatch();
         }
-
-        // Move block pointer
-        database.setLastProcessedBlockHash(block.getPreviousBlockHash());
     }
 
     public @NotNull Hash getLastProcessedBlockHash() throws DatabaseException {
@@ -1,29 +1,43 @@
 package org.brabocoin.brabocoin.services;
 
 import com.dosse.upnp.UPnP;
+import com.google.protobuf.ByteString;
 import com.google.protobuf.Empty;
 import com.google.protobuf.InvalidProtocolBufferException;
 import com.google.protobuf.Message;
 import com.google.protobuf.MessageOrBuilder;
 import com.google.protobuf.util.JsonFormat;
+import io.grpc.Context;
+import io.grpc.Contexts;
 import io.grpc.ForwardingServerCall;
 import io.grpc.ForwardingServerCallListener;
 import io.grpc.Grpc;
 import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
 import io.grpc.Server;
 import io.grpc.ServerBuilder;
 import io.grpc.ServerCall;
 import io.grpc.ServerCallHandler;
 import io.grpc.ServerInterceptor;
 import io.grpc.ServerInterceptors;
+import io.grpc.ServerMethodDefinition;
+import io.grpc.ServerServiceDefinition;
+import io.grpc.Status;
+import io.grpc.stub.ServerCalls;
 import io.grpc.stub.StreamObserver;
+import org.brabocoin.brabocoin.Constants;
 import org.brabocoin.brabocoin.exceptions.MalformedSocketException;
 import org.brabocoin.brabocoin.model.Block;
 import org.brabocoin.brabocoin.model.Hash;
 import org.brabocoin.brabocoin.model.Transaction;
+import org.brabocoin.brabocoin.model.messages.BlockHeader;
 import org.brabocoin.brabocoin.model.messages.BlockHeight;
+import org.brabocoin.brabocoin.model.messages.BlockTransactionsRequest;
 import org.brabocoin.brabocoin.model.messages.ChainCompatibility;
+import org.brabocoin.brabocoin.model.messages.CompactBlock;
 import org.brabocoin.brabocoin.model.messages.HandshakeResponse;
+import org.brabocoin.brabocoin.model.messages.HeadersRequest;
+import org.brabocoin.brabocoin.model.messages.Inventory;
 import org.brabocoin.brabocoin.node.MessageArtifact;
 import org.brabocoin.brabocoin.node.NetworkMessage;
 import org.brabocoin.brabocoin.node.NetworkMessageListener;
@@ -40,8 +54,9 @@ import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -52,9 +67,23 @@ import java.util.stream.Collectors;
 public class Node {
 
     private final static Logger LOGGER = Logger.getLogger(Node.class.getName());
+
+    /**
+     * The maximum number of headers in a single {@code getHeaders} response message.
+     */
+    private static final int HEADERS_BATCH_SIZE = 500;
+
+    /**
+     * The remote address of the client of the call that is currently handled.
+     * <p>
+     * The address is attached to the context of every incoming call, such that concurrent calls
+     * each see their own client.
+     */
+    private static final Context.Key<InetSocketAddress> REMOTE_ADDRESS = Context.key(
+        "remoteAddress"
+    );
+
     private final List<NetworkMessageListener> networkMessageListeners = new ArrayList<>();
-    private final AtomicReference<ServerCall<?, ?>> serverCallCapture =
-        new AtomicReference<>();
 
     private final int servicePort;
     /**
@@ -69,7 +98,8 @@ public class Node {
     @NotNull private NodeEnvironment environment;
 
     /**
-     * Captures the request attributes. Useful for testing ServerCalls.
+     * Records the incoming network messages, and attaches the remote address of the client to
+     * the context of the call.
      * {@link ServerCall#getAttributes()}
      */
     private ServerInterceptor recordServerCallInterceptor() {
@@ -79,7 +109,6 @@ public class Node {
                 ServerCall<ReqT, RespT> call,
                 Metadata requestHeaders,
                 ServerCallHandler<ReqT, RespT> next) {
-                serverCallCapture.set(call);
                 InetSocketAddress clientAddress = (InetSocketAddress)call.getAttributes()
                     .get(Grpc.TRANSPORT_ATTR_REMOTE_ADDR);
                 Peer peer = null;
@@ -91,13 +120,15 @@ public class Node {
                 }
                 NetworkMessage networkMessage = new NetworkMessage(peer, true);
                 networkMessage.setMethodDescriptor(call.getMethodDescriptor());
-                return createCallListener(next.startCall(
+                Context context = Context.current().withValue(REMOTE_ADDRESS, clientAddress);
+                return createCallListener(Contexts.interceptCall(
+                    context,
                     new ForwardingServerCall.SimpleForwardingServerCall<ReqT, RespT>(call) {
                         @Override
                         public void sendMessage(RespT message) {
                             super.sendMessage(message);
                             networkMessage.addResponseMessage(
-                                new MessageArtifact((Message)message)
+                                createArtifact(call.getMethodDescriptor(), message)
                             );
                             networkMessageListeners.forEach(l ->
                                 l.onIncomingMessage(
@@ -105,12 +136,59 @@ public class Node {
                                     true
                                 ));
                         }
-                    }, requestHeaders), networkMessage);
+                    },
+                    requestHeaders,
+                    next
+                ), networkMessage);
             }
         };
     }
 
 
+    private static MessageArtifact createArtifact(MethodDescriptor<?, ?> method, Object message) {
+        if (message instanceof ByteString
+            && method.getResponseMarshaller() instanceof RawMessageMarshaller) {
+            return new MessageArtifact(
+                (ByteString)message,
+                ((RawMessageMarshaller<?>)method.getResponseMarshaller()).getParser()
+            );
+        }
+
+        return new MessageArtifact((Message)message);
+    }
+
+    /**
+     * Create the service definition, where the {@code getBlocks} method sends the blocks as
+     * stored on disk using a {@link RawMessageMarshaller}.
+     */
+    private ServerServiceDefinition createServiceDefinition() {
+        NodeService service = new NodeService();
+        ServerServiceDefinition generated = service.bindService();
+        MethodDescriptor<BrabocoinProtos.Hash, BrabocoinProtos.Block> getBlocks =
+            NodeGrpc.getGetBlocksMethod();
+
+        ServerServiceDefinition.Builder builder = ServerServiceDefinition.builder(
+            generated.getServiceDescriptor().getName()
+        );
+        for (ServerMethodDefinition<?, ?> method : generated.getMethods()) {
+            if (!method.getMethodDescriptor()
+                .getFullMethodName()
+                .equals(getBlocks.getFullMethodName())) {
+                builder.addMethod(method);
+            }
+        }
+
+        builder.addMethod(
+            getBlocks.toBuilder(
+                getBlocks.getRequestMarshaller(),
+                new RawMessageMarshaller<>(BrabocoinProtos.Block.parser())
+            ).build(),
+            ServerCalls.asyncBidiStreamingCall(service::getRawBlocks)
+        );
+
+        return builder.build();
+    }
+
     private <ReqT> ForwardingServerCallListener.SimpleForwardingServerCallListener<ReqT> createCallListener(
         ServerCall.Listener<ReqT> listener,
         NetworkMessage networkMessage) {
@@ -135,12 +213,28 @@ public class Node {
         };
     }
 
-    public Node(NodeEnvironment environment, int servicePort, int networkId) {
+    /**
+     * Create a new node.
+     *
+     * @param environment
+     *     The node environment.
+     * @param servicePort
+     *     The port on which the node service listens.
+     * @param networkId
+     *     The network ID of the node.
+     * @param serviceThreads
+     *     The number of threads handling incoming calls, or 0 to create threads as needed.
+     */
+    public Node(NodeEnvironment environment, int servicePort, int networkId,
+                int serviceThreads) {
+        ExecutorService executor = serviceThreads > 0
+            ? Executors.newFixedThreadPool(serviceThreads)
+            : Executors.newCachedThreadPool();
         this.server = ServerBuilder.forPort(servicePort)
-            .executor(Executors.newFixedThreadPool(4))
+            .executor(executor)
             .addService(
                 ServerInterceptors.intercept(
-                    new NodeService(),
+                    createServiceDefinition(),
                     recordServerCallInterceptor()
                 )
             )
@@ -269,9 +363,7 @@ public class Node {
             }
 
             // Add the client as a valid peer.
-            InetSocketAddress clientAddress = (InetSocketAddress)serverCallCapture.get()
-                .getAttributes()
-                .get(Grpc.TRANSPORT_ATTR_REMOTE_ADDR);
+            InetSocketAddress clientAddress = REMOTE_ADDRESS.get();
             if (clientAddress != null) {
                 environment.addClientPeer(clientAddress.getAddress(), request.getServicePort());
             }
@@ -286,9 +378,7 @@ public class Node {
             responseObserver.onNext(Empty.newBuilder().build());
             responseObserver.onCompleted();
 
-            InetSocketAddress clientAddress = (InetSocketAddress)serverCallCapture.get()
-                .getAttributes()
-                .get(Grpc.TRANSPORT_ATTR_REMOTE_ADDR);
+            InetSocketAddress clientAddress = REMOTE_ADDRESS.get();
             if (clientAddress != null) {
                 List<Peer> peers = environment.findClientPeers(clientAddress.getAddress());
                 environment.onReceiveBlockHash(hash, peers);
@@ -310,9 +400,7 @@ public class Node {
             responseObserver.onNext(Empty.newBuilder().build());
             responseObserver.onCompleted();
 
-            InetSocketAddress clientAddress = (InetSocketAddress)serverCallCapture.get()
-                .getAttributes()
-                .get(Grpc.TRANSPORT_ATTR_REMOTE_ADDR);
+            InetSocketAddress clientAddress = REMOTE_ADDRESS.get();
             if (clientAddress != null) {
                 List<Peer> peers = environment.findClientPeers(clientAddress.getAddress());
                 environment.onReceiveTransactionHash(hash, peers);
@@ -326,27 +414,69 @@ public class Node {
         }
 
         @Override
-        public StreamObserver<BrabocoinProtos.Hash> getBlocks(
-            StreamObserver<BrabocoinProtos.Block> responseObserver) {
+        public void announceInventory(BrabocoinProtos.Inventory request,
+                                      StreamObserver<Empty> responseObserver) {
+            logIncomingCall("announceInventory", request, Level.FINE);
+
+            if (request.getBlockHashesCount() + request.getTransactionHashesCount()
+                > Constants.MAX_INVENTORY_SIZE) {
+                LOGGER.log(Level.WARNING, "Inventory is too large, ignoring.");
+                responseObserver.onError(
+                    Status.INVALID_ARGUMENT.withDescription("Inventory is too large.")
+                        .asRuntimeException()
+                );
+                return;
+            }
+
+            Inventory inventory = ProtoConverter.toDomain(request, Inventory.Builder.class);
+            responseObserver.onNext(Empty.newBuilder().build());
+            responseObserver.onCompleted();
+
+            if (inventory == null) {
+                LOGGER.log(Level.WARNING, "Could not parse inventory, ignoring.");
+                return;
+            }
+
+            InetSocketAddress clientAddress = REMOTE_ADDRESS.get();
+            if (clientAddress == null) {
+                LOGGER.log(
+                    Level.WARNING,
+                    "Could not find the client peer announcing the inventory, ignoring."
+                );
+                return;
+            }
+
+            List<Peer> peers = environment.findClientPeers(clientAddress.getAddress());
+            for (Hash hash : inventory.getBlockHashes()) {
+                environment.onReceiveBlockHash(hash, peers);
+            }
+            environment.onReceiveTransactionHashes(inventory.getTransactionHashes(), peers);
+        }
+
+        /**
+         * Implementation of the {@code getBlocks} method, which sends the blocks as stored on
+         * disk instead of converting them to protobuf messages.
+         */
+        StreamObserver<BrabocoinProtos.Hash> getRawBlocks(
+            StreamObserver<ByteString> responseObserver) {
             LOGGER.log(Level.INFO, "getBlocks message received.");
             return new StreamObserver<BrabocoinProtos.Hash>() {
                 @Override
                 public void onNext(BrabocoinProtos.Hash value) {
                     logIncomingCall("getBlocks.onNext", value, Level.FINE);
                     Hash hash = ProtoConverter.toDomain(value, Hash.Builder.class);
-                    Block block = environment.getBlock(hash);
-                    if (block == null) {
+                    ByteString rawBlock = environment.getRawBlock(hash);
+                    if (rawBlock == null) {
                         return;
                     }
 
-                    BrabocoinProtos.Block protoBlock = ProtoConverter.toProto(
-                        block,
-                        BrabocoinProtos.Block.class
+                    LOGGER.log(
+                        Level.FINEST,
+                        "Responding with raw block of {0} bytes.",
+                        rawBlock.size()
                     );
 
-                    logOutgoingResponse(protoBlock);
-
-                    responseObserver.onNext(protoBlock);
+                    responseObserver.onNext(rawBlock);
                 }
 
                 @Override
@@ -409,6 +539,116 @@ public class Node {
             };
         }
 
+        @Override
+        public void getCompactBlock(BrabocoinProtos.Hash request,
+                                    StreamObserver<BrabocoinProtos.CompactBlock> responseObserver) {
+            logIncomingCall("getCompactBlock", request);
+            Hash hash = ProtoConverter.toDomain(request, Hash.Builder.class);
+            Block block = environment.getBlock(hash);
+            if (block == null) {
+                responseObserver.onError(
+                    Status.NOT_FOUND.withDescription("Block not found.").asRuntimeException()
+                );
+                return;
+            }
+
+            CompactBlock compactBlock = CompactBlock.fromBlock(
+                block,
+                ThreadLocalRandom.current().nextLong()
+            );
+            BrabocoinProtos.CompactBlock protoCompactBlock = ProtoConverter.toProto(
+                compactBlock,
+                BrabocoinProtos.CompactBlock.class
+            );
+
+            logOutgoingResponse(protoCompactBlock);
+            responseObserver.onNext(protoCompactBlock);
+            responseObserver.onCompleted();
+        }
+
+        @Override
+        public void getBlockTransactions(BrabocoinProtos.BlockTransactionsRequest request,
+                                         StreamObserver<BrabocoinProtos.Transaction> responseObserver) {
+            logIncomingCall("getBlockTransactions", request);
+            BlockTransactionsRequest transactionsRequest = ProtoConverter.toDomain(
+                request,
+                BlockTransactionsRequest.Builder.class
+            );
+            Block block = environment.getBlock(transactionsRequest.getBlockHash());
+            if (block == null) {
+                responseObserver.onError(
+                    Status.NOT_FOUND.withDescription("Block not found.").asRuntimeException()
+                );
+                return;
+            }
+
+            List<Transaction> transactions = block.getTransactions();
+            int previousIndex = -1;
+            for (int index : transactionsRequest.getIndices()) {
+                if (index < 0 || index >= transactions.size()) {
+                    responseObserver.onError(
+                        Status.OUT_OF_RANGE.withDescription("Invalid transaction index.")
+                            .asRuntimeException()
+                    );
+                    return;
+                }
+
+                // Reject duplicate indices, such that a response is never larger than the block
+                if (index <= previousIndex) {
+                    responseObserver.onError(
+                        Status.INVALID_ARGUMENT.withDescription(
+                            "Transaction indices are not strictly increasing."
+                        ).asRuntimeException()
+                    );
+                    return;
+                }
+                previousIndex = index;
+            }
+
+            for (int index : transactionsRequest.getIndices()) {
+                BrabocoinProtos.Transaction protoTransaction = ProtoConverter.toProto(
+                    transactions.get(index),
+                    BrabocoinProtos.Transaction.class
+                );
+
+                logOutgoingResponse(protoTransaction);
+                responseObserver.onNext(protoTransaction);
+            }
+
+            responseObserver.onCompleted();
+        }
+
+        @Override
+        public void getHeaders(BrabocoinProtos.HeadersRequest request,
+                               StreamObserver<BrabocoinProtos.BlockHeaders> responseObserver) {
+            logIncomingCall("getHeaders", request);
+            HeadersRequest headersRequest = ProtoConverter.toDomain(
+                request,
+                HeadersRequest.Builder.class
+            );
+            List<BlockHeader> headers = environment.getHeadersAbove(headersRequest.getLocator());
+
+            for (int i = 0; i < headers.size(); i += HEADERS_BATCH_SIZE) {
+                BrabocoinProtos.BlockHeaders.Builder batch =
+                    BrabocoinProtos.BlockHeaders.newBuilder();
+                for (BlockHeader header : headers.subList(
+                    i,
+                    Math.min(i + HEADERS_BATCH_SIZE, headers.size())
+                )) {
+                    batch.addHeaders(ProtoConverter.toProto(
+                        header,
+                        BrabocoinProtos.BlockHeader.class
+                    ));
+                }
+
+                BrabocoinProtos.BlockHeaders protoBatch = batch.build();
+                logOutgoingResponse(protoBatch);
+                responseObserver.onNext(protoBatch);
+            }
+
+            responseObserver.onCompleted();
+        }
+
         @Override
         public void seekTransactionPool(Empty request,
                                         StreamObserver<BrabocoinProtos.Hash> responseObserver) {
@@ -0,0 +1,62 @@
+package org.brabocoin.brabocoin.services;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Message;
+import com.google.protobuf.Parser;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Marshals protobuf messages that are already serialized, such that they can be sent without
+ * parsing and serializing them again.
+ * <p>
+ * The serialized data is written to the wire as is, so the receiver parses it as a regular
+ * message of type {@code T}.
+ *
+ * @param <T>
+ *     The type of the serialized message.
+ */
+public class RawMessageMarshaller<T extends Message> implements MethodDescriptor.Marshaller<ByteString> {
+
+    private final @NotNull Parser<T> parser;
+
+    /**
+     * Create a new marshaller for serialized messages.
+     *
+     * @param parser
+     *     The parser of the serialized message type.
+     */
+    public RawMessageMarshaller(@NotNull Parser<T> parser) {
+        this.parser = parser;
+    }
+
+    /**
+     * Get the parser of the serialized message type.
+     *
+     * @return The parser.
+     */
+    public @NotNull Parser<T> getParser() {
+        return parser;
+    }
+
+    @Override
+    public InputStream stream(ByteString value) {
+        return value.newInput();
+    }
+
+    @Override
+    public ByteString parse(InputStream stream) {
+        try {
+            return ByteString.readFrom(stream);
+        }
+        catch (IOException e) {
+            throw Status.INTERNAL.withDescription("Could not read message.")
+                .withCause(e)
+                .asRuntimeException();
+        }
+    }
+}
@@ -75,10 +75,8 @@ public class ConfigUtil {
         for (Field field : MutableBraboConfig.class.getDeclaredFields()) {
             field.setAccessible(true);
             if (!configMap.containsKey(field.getName())) {
-                throw new IllegalArgumentException(String.format(
-                    "Could not find value for key '%s'",
-                    field.getName()
-                ));
+                // Keep the default value for settings not present in older config files
+                continue;
             }
             Property configProperty = (Property)field.get(config);
             Object value = configMap.get(field.getName());
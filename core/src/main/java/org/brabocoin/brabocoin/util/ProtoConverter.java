@@ -7,6 +7,8 @@ import com.google.protobuf.Parser;
 import net.badata.protobuf.converter.Configuration;
 import net.badata.protobuf.converter.Converter;
 import org.brabocoin.brabocoin.model.proto.ProtoBuilder;
+import org.brabocoin.brabocoin.model.proto.ProtoCodec;
+import org.brabocoin.brabocoin.model.proto.ProtoCodecs;
 import org.brabocoin.brabocoin.model.proto.ProtoModel;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
@@ -35,9 +37,43 @@ public class ProtoConverter {
     }
 
 
+    /**
+     * Convert a proto object to a domain object.
+     * <p>
+     * Uses the direct codec from {@link ProtoCodecs} when one exists for the builder class, and
+     * the reflective converter otherwise.
+     *
+     * @param protoObject
+     *     The proto object.
+     * @param domainClassBuilder
+     *     The builder class of the proto model.
+     * @return The domain object, or {@code null} if the object could not be converted.
+     */
+    @SuppressWarnings("unchecked")
     public static <M extends D, D extends ProtoModel<D>, B extends ProtoBuilder<D>,
         P extends Message> @Nullable M toDomain(
         P protoObject, Class<B> domainClassBuilder) {
+        ProtoCodec codec = ProtoCodecs.forBuilderClass(domainClassBuilder);
+        if (codec != null && codec.getProtoClass().isInstance(protoObject)) {
+            return (M)codec.toDomain(protoObject);
+        }
+
+        return reflectiveToDomain(protoObject, domainClassBuilder);
+    }
+
+    /**
+     * Convert a proto object to a domain object using the reflective converter only.
+     *
+     * @param protoObject
+     *     The proto object.
+     * @param domainClassBuilder
+     *     The builder class of the proto model.
+     * @return The domain object, or {@code null} if the object could not be converted.
+     * @see #toDomain(Message, Class)
+     */
+    public static <M extends D, D extends ProtoModel<D>, B extends ProtoBuilder<D>,
+        P extends Message> @Nullable M reflectiveToDomain(
+        P protoObject, Class<B> domainClassBuilder) {
         B builder = CONVERTER.toDomain(domainClassBuilder, protoObject);
 
         if (builder == null) {
@@ -47,9 +83,45 @@ public class ProtoConverter {
         return builder.build();
     }
 
+    /**
+     * Convert a domain object to a proto object.
+     * <p>
+     * Uses the direct codec from {@link ProtoCodecs} when one exists for the exact class of the
+     * domain object and the requested proto class, and the reflective converter otherwise.
+     *
+     * @param domainObject
+     *     The domain object.
+     * @param protoClass
+     *     The generated proto class.
+     * @return The proto object, or {@code null} if the object could not be converted.
+     */
     @Contract("null, _ -> null")
+    @SuppressWarnings("unchecked")
     public static <D extends ProtoModel<D>, P extends Message> P toProto(D domainObject,
                                                                          Class<P> protoClass) {
+        if (domainObject != null) {
+            ProtoCodec codec = ProtoCodecs.forDomainClass(domainObject.getClass());
+            if (codec != null && codec.getProtoClass() == protoClass) {
+                return (P)codec.toProto(domainObject);
+            }
+        }
+
+        return reflectiveToProto(domainObject, protoClass);
+    }
+
+    /**
+     * Convert a domain object to a proto object using the reflective converter only.
+     *
+     * @param domainObject
+     *     The domain object.
+     * @param protoClass
+     *     The generated proto class.
+     * @return The proto object, or {@code null} if the object could not be converted.
+     * @see #toProto(ProtoModel, Class)
+     */
+    @Contract("null, _ -> null")
+    public static <D extends ProtoModel<D>, P extends Message> P reflectiveToProto(
+        D domainObject, Class<P> protoClass) {
         return CONVERTER.toProtobuf(protoClass, domainObject);
     }
 
@@ -19,6 +19,10 @@ import java.util.function.Function;
  * <p>
  * A primary key index is maintained for every value, as well as an dependence index for every
  * dependency.
+ * <p>
+ * The keys are additionally stored in a dense list, such that a key can be retrieved by its
+ * position in constant time. When a key is removed, the last key in the list takes its position.
+ * Storing, retrieving and removing values all take constant time.
  *
  * @param <K>
  *     The key for the primary index.
@@ -35,10 +39,15 @@ public class MultiDependenceIndex<K, V, D> implements Iterable<V> {
     protected final Map<K, V> primaryIndex;
 
     /**
-     * Queue of keys maintaining the order in which keys were added to the index.
+     * Dense list of all keys in the index.
      */
     protected final List<K> keyList;
 
+    /**
+     * Position of every key in {@link #keyList}.
+     */
+    protected final Map<K, Integer> keyPositions;
+
     /**
      * Dependency index.
      */
@@ -67,6 +76,7 @@ public class MultiDependenceIndex<K, V, D> implements Iterable<V> {
         this.primaryIndex = new HashMap<>();
         this.dependenceIndex = HashMultimap.create();
         this.keyList = new ArrayList<>();
+        this.keyPositions = new HashMap<>();
         this.keySupplier = keySupplier;
         this.multiDependency = multiDependency;
     }
@@ -90,6 +100,7 @@ public class MultiDependenceIndex<K, V, D> implements Iterable<V> {
         }
 
         primaryIndex.put(key, value);
+        keyPositions.put(key, keyList.size());
         keyList.add(key);
 
         for (D dependency : multiDependency.apply(value)) {
@@ -157,7 +168,7 @@ public class MultiDependenceIndex<K, V, D> implements Iterable<V> {
             return null;
         }
 
-        keyList.remove(key);
+        removeFromKeyList(key);
 
         for (D dependency : multiDependency.apply(value)) {
             dependenceIndex.remove(dependency, value);
@@ -166,6 +177,22 @@ public class MultiDependenceIndex<K, V, D> implements Iterable<V> {
         return value;
     }
 
+    /**
+     * Remove the key from the key list by moving the last key into its position.
+     *
+     * @param key
+     *     The key to remove.
+     */
+    private void removeFromKeyList(K key) {
+        int position = keyPositions.remove(key);
+        K last = keyList.remove(keyList.size() - 1);
+
+        if (position < keyList.size()) {
+            keyList.set(position, last);
+            keyPositions.put(last, position);
+        }
+    }
+
     /**
      * The number of values stored in the index.
      *
@@ -177,6 +204,8 @@ public class MultiDependenceIndex<K, V, D> implements Iterable<V> {
 
     /**
      * Get the key at the given index.
+     * <p>
+     * The position of a key may change when other keys are removed.
      *
      * @param index
      *     The index.
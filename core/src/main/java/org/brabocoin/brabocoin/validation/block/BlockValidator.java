@@ -65,6 +65,13 @@ public class BlockValidator implements Validator {
         ValidCoinbaseBlockHeightBlkRule.class
     );
 
+    public static final RuleList HEADER = new RuleList(
+        MaxNonceBlkRule.class,
+        ValidNetworkIdBlkRule.class,
+        SatisfiesTargetValueBlkRule.class,
+        CorrectTargetValueBlkRule.class
+    );
+
     public static final RuleList AFTER_ORPHAN = new RuleList(
         KnownParentBlkRule.class,
         ValidParentBlkRule.class,
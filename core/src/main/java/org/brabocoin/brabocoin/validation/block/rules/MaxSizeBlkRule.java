@@ -1,7 +1,5 @@
 package org.brabocoin.brabocoin.validation.block.rules;
 
-import org.brabocoin.brabocoin.proto.model.BrabocoinProtos;
-import org.brabocoin.brabocoin.util.ProtoConverter;
 import org.brabocoin.brabocoin.validation.annotation.DescriptionField;
 import org.brabocoin.brabocoin.validation.annotation.ValidationRule;
 import org.brabocoin.brabocoin.validation.block.BlockRule;
@@ -15,8 +13,7 @@ public class MaxSizeBlkRule extends BlockRule {
 
     @Override
     public boolean isValid() {
-        blockSize = ProtoConverter.toProto(block, BrabocoinProtos.Block.class)
-            .getSerializedSize();
+        blockSize = block.getSerializedSize();
         consensusBlockSize = consensus.getMaxBlockSize();
         return blockSize <= consensusBlockSize;
     }
@@ -5,10 +5,15 @@ import org.brabocoin.brabocoin.validation.annotation.CompositeRuleList;
 import org.brabocoin.brabocoin.validation.annotation.ValidationRule;
 import org.brabocoin.brabocoin.validation.block.BlockRule;
 import org.brabocoin.brabocoin.validation.fact.CompositeRuleFailMarker;
+import org.brabocoin.brabocoin.validation.fact.FactMap;
 import org.brabocoin.brabocoin.validation.rule.RuleBookFailMarker;
 import org.brabocoin.brabocoin.validation.rule.RuleList;
+import org.brabocoin.brabocoin.validation.transaction.ParallelSignatureVerifier;
 import org.brabocoin.brabocoin.validation.transaction.TransactionValidationResult;
 import org.brabocoin.brabocoin.validation.transaction.TransactionValidator;
+import org.brabocoin.brabocoin.validation.transaction.rules.ParallelSignatureTxRule;
+
+import java.util.Optional;
 
 @ValidationRule(name="Non-contextual transaction validation", composite = true)
 public class NonContextualTransactionCheckBlkRule extends BlockRule {
@@ -23,9 +28,13 @@ public class NonContextualTransactionCheckBlkRule extends BlockRule {
 
     @Override
     public boolean isValid() {
+        // Check the cheap rules of all transactions before verifying any signature
         for (Transaction t : block.getTransactions()) {
-            TransactionValidationResult result =
-                transactionValidator.validate(t, compositeRuleList, false);
+            TransactionValidationResult result = transactionValidator.validate(
+                t,
+                TransactionValidator.BLOCK_NONCONTEXTUAL_WITHOUT_SIGNATURES,
+                false
+            );
 
             if (!result.isPassed()) {
                 childFailMarker = result.getFailMarker();
@@ -33,6 +42,32 @@ public class NonContextualTransactionCheckBlkRule extends BlockRule {
             }
         }
 
+        ParallelSignatureVerifier.InvalidSignature invalidSignature =
+            transactionValidator.verifySignatures(block.getTransactions());
+
+        FactMap signatureFacts = new FactMap();
+        signatureFacts.put("invalidSignature", Optional.ofNullable(invalidSignature));
+
+        for (Transaction t : block.getTransactions()) {
+            TransactionValidationResult result = transactionValidator.validate(
+                t,
+                TransactionValidator.BLOCK_SIGNATURES,
+                false,
+                signatureFacts
+            );
+
+            if (!result.isPassed()) {
+                childFailMarker = new RuleBookFailMarker(
+                    ParallelSignatureTxRule.class,
+                    null,
+                    t.getHash(),
+                    invalidSignature.getInputIndex()
+                );
+
+                return false;
+            }
+        }
+
         return true;
     }
 }
@@ -1,5 +1,6 @@
 package org.brabocoin.brabocoin.validation.rule;
 
+import org.brabocoin.brabocoin.model.Hash;
 import org.jetbrains.annotations.Nullable;
 
 public class RuleBookFailMarker {
@@ -9,15 +10,45 @@ public class RuleBookFailMarker {
     @Nullable
     private final RuleBookFailMarker child;
 
+    /**
+     * The hash of the transaction that failed the rule, if known.
+     */
+    @Nullable
+    private final Hash failedTransaction;
+
+    /**
+     * The index of the input that failed the rule, or {@code -1} if not known.
+     */
+    private final int failedInputIndex;
+
     public RuleBookFailMarker(Class<? extends Rule> failedRule) {
-        this.failedRule = failedRule;
-        this.child = null;
+        this(failedRule, null);
     }
 
     public RuleBookFailMarker(Class<? extends Rule> failedRule,
                               @Nullable RuleBookFailMarker child) {
+        this(failedRule, child, null, -1);
+    }
+
+    /**
+     * Create a fail marker that points to the transaction input that failed the rule.
+     *
+     * @param failedRule
+     *     The rule that failed.
+     * @param child
+     *     The fail marker of the composite rule list, if any.
+     * @param failedTransaction
+     *     The hash of the transaction that failed the rule.
+     * @param failedInputIndex
+     *     The index of the input that failed the rule, or {@code -1} if not known.
+     */
+    public RuleBookFailMarker(Class<? extends Rule> failedRule,
+                              @Nullable RuleBookFailMarker child,
+                              @Nullable Hash failedTransaction, int failedInputIndex) {
         this.failedRule = failedRule;
         this.child = child;
+        this.failedTransaction = failedTransaction;
+        this.failedInputIndex = failedInputIndex;
     }
 
     public boolean hasChild() {
@@ -32,10 +63,27 @@ public class RuleBookFailMarker {
         return failedRule;
     }
 
+    public @Nullable Hash getFailedTransaction() {
+        return failedTransaction;
+    }
+
+    public int getFailedInputIndex() {
+        return failedInputIndex;
+    }
+
     @Override
     public String toString() {
-        return child != null ?
-            String.format("'%s' -> (%s)", failedRule, child) :
+        String rule = failedTransaction != null ?
+            String.format(
+                "'%s' [transaction %s, input %d]",
+                failedRule,
+                failedTransaction,
+                failedInputIndex
+            ) :
             String.format("'%s'", failedRule);
+
+        return child != null ?
+            String.format("%s -> (%s)", rule, child) :
+            rule;
     }
 }
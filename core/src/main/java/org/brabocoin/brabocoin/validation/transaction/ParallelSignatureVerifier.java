@@ -0,0 +1,239 @@
+package org.brabocoin.brabocoin.validation.transaction;
+
+import com.google.protobuf.ByteString;
+import org.brabocoin.brabocoin.crypto.Signer;
+import org.brabocoin.brabocoin.model.Transaction;
+import org.brabocoin.brabocoin.model.crypto.Signature;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Verifies the signatures of multiple transactions in parallel.
+ * <p>
+ * All signatures of the transactions are gathered and verified on a fork/join pool. As soon as an
+ * invalid signature is found, only the signatures that precede it are still verified, such that
+ * the reported invalid signature does not depend on thread scheduling.
+ */
+public class ParallelSignatureVerifier {
+
+    private static final Logger LOGGER = Logger.getLogger(ParallelSignatureVerifier.class.getName());
+
+    /**
+     * The number of signatures below which a task is no longer split.
+     */
+    private static final int SPLIT_THRESHOLD = 4;
+
+    private final @NotNull Signer signer;
+
+    private final @NotNull ForkJoinPool pool;
+
+    /**
+     * Creates a new verifier.
+     *
+     * @param signer
+     *     The signer used to verify the signatures.
+     * @param pool
+     *     The pool on which the signatures are verified.
+     */
+    public ParallelSignatureVerifier(@NotNull Signer signer, @NotNull ForkJoinPool pool) {
+        this.signer = signer;
+        this.pool = pool;
+    }
+
+    /**
+     * Creates a new verifier with a dedicated pool.
+     *
+     * @param signer
+     *     The signer used to verify the signatures.
+     * @param parallelism
+     *     The number of threads of the pool, or {@code 0} to use the number of available
+     *     processors.
+     */
+    public ParallelSignatureVerifier(@NotNull Signer signer, int parallelism) {
+        this(signer, new ForkJoinPool(
+            parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors()
+        ));
+    }
+
+    /**
+     * Verify the signatures of all inputs of the given transactions.
+     * <p>
+     * Coinbase transactions are skipped. A missing signature is considered invalid.
+     *
+     * @param transactions
+     *     The transactions to verify.
+     * @return The invalid signature with the lowest transaction and input index that was found,
+     * or {@code null} if all signatures are valid.
+     */
+    public @Nullable InvalidSignature verify(@NotNull List<Transaction> transactions) {
+        List<SignatureCheck> checks = new ArrayList<>();
+
+        for (int i = 0; i < transactions.size(); i++) {
+            Transaction transaction = transactions.get(i);
+            if (transaction.isCoinbase()) {
+                continue;
+            }
+
+            ByteString message = transaction.getSignableTransactionData();
+            List<Signature> signatures = transaction.getSignatures();
+
+            for (int j = 0; j < transaction.getInputs().size(); j++) {
+                Signature signature = j < signatures.size() ? signatures.get(j) : null;
+                checks.add(new SignatureCheck(i, j, signature, message));
+            }
+        }
+
+        if (checks.isEmpty()) {
+            return null;
+        }
+
+        AtomicInteger failedCheck = new AtomicInteger(Integer.MAX_VALUE);
+        pool.invoke(new VerifyTask(checks, 0, checks.size(), failedCheck));
+
+        if (failedCheck.get() == Integer.MAX_VALUE) {
+            return null;
+        }
+
+        SignatureCheck check = checks.get(failedCheck.get());
+        LOGGER.log(Level.FINE, () -> MessageFormat.format(
+            "Invalid signature for input {0} of transaction {1}.",
+            check.inputIndex,
+            check.transactionIndex
+        ));
+
+        return new InvalidSignature(
+            transactions.get(check.transactionIndex),
+            check.transactionIndex,
+            check.inputIndex
+        );
+    }
+
+    private boolean isValid(@NotNull SignatureCheck check) {
+        if (check.signature == null) {
+            return false;
+        }
+
+        try {
+            return signer.verifySignature(check.signature, check.message);
+        }
+        catch (IllegalArgumentException e) {
+            LOGGER.log(Level.FINE, "Signature could not be verified: {0}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Signature of a single input to verify.
+     */
+    private static class SignatureCheck {
+
+        private final int transactionIndex;
+
+        private final int inputIndex;
+
+        private final @Nullable Signature signature;
+
+        private final @NotNull ByteString message;
+
+        private SignatureCheck(int transactionIndex, int inputIndex,
+                               @Nullable Signature signature, @NotNull ByteString message) {
+            this.transactionIndex = transactionIndex;
+            this.inputIndex = inputIndex;
+            this.signature = signature;
+            this.message = message;
+        }
+    }
+
+    /**
+     * Verifies a range of signature checks, splitting the range when it is large.
+     */
+    private class VerifyTask extends RecursiveAction {
+
+        private final @NotNull List<SignatureCheck> checks;
+
+        private final int start;
+
+        private final int end;
+
+        /**
+         * The lowest index of a failed check, or {@link Integer#MAX_VALUE} if none failed.
+         */
+        private final @NotNull AtomicInteger failedCheck;
+
+        private VerifyTask(@NotNull List<SignatureCheck> checks, int start, int end,
+                           @NotNull AtomicInteger failedCheck) {
+            this.checks = checks;
+            this.start = start;
+            this.end = end;
+            this.failedCheck = failedCheck;
+        }
+
+        @Override
+        protected void compute() {
+            if (start >= failedCheck.get()) {
+                return;
+            }
+
+            if (end - start > SPLIT_THRESHOLD) {
+                int middle = (start + end) >>> 1;
+                invokeAll(
+                    new VerifyTask(checks, start, middle, failedCheck),
+                    new VerifyTask(checks, middle, end, failedCheck)
+                );
+                return;
+            }
+
+            for (int i = start; i < end; i++) {
+                // Checks before a known failure must still be verified to find the lowest index
+                if (i >= failedCheck.get()) {
+                    return;
+                }
+
+                if (!isValid(checks.get(i))) {
+                    failedCheck.accumulateAndGet(i, Math::min);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * An invalid signature of a transaction input.
+     */
+    public static class InvalidSignature {
+
+        private final @NotNull Transaction transaction;
+
+        private final int transactionIndex;
+
+        private final int inputIndex;
+
+        private InvalidSignature(@NotNull Transaction transaction, int transactionIndex,
+                                 int inputIndex) {
+            this.transaction = transaction;
+            this.transactionIndex = transactionIndex;
+            this.inputIndex = inputIndex;
+        }
+
+        public @NotNull Transaction getTransaction() {
+            return transaction;
+        }
+
+        public int getTransactionIndex() {
+            return transactionIndex;
+        }
+
+        public int getInputIndex() {
+            return inputIndex;
+        }
+    }
+}
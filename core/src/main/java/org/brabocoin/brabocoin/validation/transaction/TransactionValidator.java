@@ -6,6 +6,7 @@ import org.brabocoin.brabocoin.dal.CompositeReadonlyUTXOSet;
 import org.brabocoin.brabocoin.dal.ReadonlyUTXOSet;
 import org.brabocoin.brabocoin.dal.TransactionPool;
 import org.brabocoin.brabocoin.dal.UTXODatabase;
+import org.brabocoin.brabocoin.exceptions.DatabaseException;
 import org.brabocoin.brabocoin.model.Transaction;
 import org.brabocoin.brabocoin.node.state.State;
 import org.brabocoin.brabocoin.validation.consensus.Consensus;
@@ -23,6 +24,7 @@ import org.brabocoin.brabocoin.validation.transaction.rules.InputOutputNotEmptyT
 import org.brabocoin.brabocoin.validation.transaction.rules.InputValueRangeTxRule;
 import org.brabocoin.brabocoin.validation.transaction.rules.MaxSizeTxRule;
 import org.brabocoin.brabocoin.validation.transaction.rules.OutputValueTxRule;
+import org.brabocoin.brabocoin.validation.transaction.rules.ParallelSignatureTxRule;
 import org.brabocoin.brabocoin.validation.transaction.rules.PoolDoubleSpendingTxRule;
 import org.brabocoin.brabocoin.validation.transaction.rules.SignatureCountTxRule;
 import org.brabocoin.brabocoin.validation.transaction.rules.SignaturePublicKeyTxRule;
@@ -30,7 +32,10 @@ import org.brabocoin.brabocoin.validation.transaction.rules.SignatureTxRule;
 import org.brabocoin.brabocoin.validation.transaction.rules.SufficientInputTxRule;
 import org.brabocoin.brabocoin.validation.transaction.rules.ValidInputUTXOTxRule;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import java.util.logging.Logger;
 
 /**
@@ -69,11 +74,35 @@ public class TransactionValidator implements Validator {
         SignatureTxRule.class
     );
 
-    public static final RuleList BLOCK_NONCONTEXTUAL = new RuleList(
+    /**
+     * Non-contextual rules for transactions in a block that do not verify signatures.
+     * <p>
+     * These rules are cheap, and are checked for all transactions of a block before any
+     * signature is verified.
+     */
+    public static final RuleList BLOCK_NONCONTEXTUAL_WITHOUT_SIGNATURES = new RuleList(
         SignatureCountTxRule.class,
         InputOutputNotEmptyTxRule.class,
-        OutputValueTxRule.class,
-        SignatureTxRule.class
+        OutputValueTxRule.class
+    );
+
+    /**
+     * Signature rules for transactions in a block.
+     * <p>
+     * The signatures of the transactions in a block are not verified per transaction, but for the
+     * whole block at once using {@link #verifySignatures(List)}. The outcome is checked by
+     * {@link ParallelSignatureTxRule}, which requires the {@code invalidSignature} fact.
+     */
+    public static final RuleList BLOCK_SIGNATURES = new RuleList(
+        ParallelSignatureTxRule.class
+    );
+
+    /**
+     * Non-contextual rules for transactions in a block.
+     */
+    public static final RuleList BLOCK_NONCONTEXTUAL = new RuleList(
+        BLOCK_NONCONTEXTUAL_WITHOUT_SIGNATURES,
+        BLOCK_SIGNATURES
     );
 
     public static final RuleList BLOCK_CONTEXTUAL = new RuleList(
@@ -84,6 +113,21 @@ public class TransactionValidator implements Validator {
         SignaturePublicKeyTxRule.class
     );
 
+    /**
+     * Rules for transactions restored from the transaction pool file.
+     * <p>
+     * The transactions were fully validated before they were written, so only the rules that
+     * depend on the current UTXO set and transaction pool are checked again.
+     */
+    public static final RuleList RESTORED = new RuleList(
+        DuplicatePoolTxRule.class,
+        PoolDoubleSpendingTxRule.class,
+        ValidInputUTXOTxRule.class,
+        CoinbaseMaturityTxRule.class,
+        InputValueRangeTxRule.class,
+        SufficientInputTxRule.class
+    );
+
     public static final RuleList ORPHAN = new RuleList(
         ValidInputUTXOTxRule.class
     );
@@ -95,6 +139,7 @@ public class TransactionValidator implements Validator {
     private UTXODatabase poolUTXODatabase;
     private ReadonlyUTXOSet compositeUTXO;
     private Signer signer;
+    private ParallelSignatureVerifier signatureVerifier;
 
     /**
      * Construct transaction validator.
@@ -109,7 +154,11 @@ public class TransactionValidator implements Validator {
             state.getTransactionPool(),
             state.getChainUTXODatabase(),
             state.getPoolUTXODatabase(),
-            state.getSigner()
+            state.getSigner(),
+            new ParallelSignatureVerifier(
+                state.getSigner(),
+                state.getConfig().getSignatureVerificationThreads()
+            )
         );
     }
 
@@ -119,12 +168,31 @@ public class TransactionValidator implements Validator {
                                 ReadonlyUTXOSet chainUTXODatabase,
                                 UTXODatabase poolUTXODatabase,
                                 Signer signer) {
+        this(
+            consensus,
+            mainChain,
+            transactionPool,
+            chainUTXODatabase,
+            poolUTXODatabase,
+            signer,
+            new ParallelSignatureVerifier(signer, ForkJoinPool.commonPool())
+        );
+    }
+
+    public TransactionValidator(Consensus consensus,
+                                IndexedChain mainChain,
+                                TransactionPool transactionPool,
+                                ReadonlyUTXOSet chainUTXODatabase,
+                                UTXODatabase poolUTXODatabase,
+                                Signer signer,
+                                ParallelSignatureVerifier signatureVerifier) {
         this.consensus = consensus;
         this.mainChain = mainChain;
         this.transactionPool = transactionPool;
         this.chainUTXODatabase = chainUTXODatabase;
         this.poolUTXODatabase = poolUTXODatabase;
         this.signer = signer;
+        this.signatureVerifier = signatureVerifier;
         this.compositeUTXO = new CompositeReadonlyUTXOSet(chainUTXODatabase, poolUTXODatabase);
     }
 
@@ -135,10 +203,27 @@ public class TransactionValidator implements Validator {
             this.transactionPool,
             chainUTXOSet,
             this.poolUTXODatabase,
-            this.signer
+            this.signer,
+            this.signatureVerifier
         );
     }
 
+    /**
+     * Compute the fee of the transaction, using both the UTXO set of the main chain and the
+     * transaction pool.
+     *
+     * @param transaction
+     *     The transaction.
+     * @return The fee of the transaction.
+     * @throws DatabaseException
+     *     When the UTXO set is not available.
+     * @throws IllegalStateException
+     *     When an input references an unknown output.
+     */
+    public long computeFee(@NotNull Transaction transaction) throws DatabaseException {
+        return TransactionUtil.computeFee(transaction, compositeUTXO);
+    }
+
     private FactMap createFactMap(@NotNull Transaction transaction, ReadonlyUTXOSet utxoSet) {
         FactMap facts = new FactMap();
         facts.put("transaction", transaction);
@@ -154,6 +239,26 @@ public class TransactionValidator implements Validator {
     public TransactionValidationResult validate(@NotNull Transaction transaction,
                                                 @NotNull RuleList ruleList,
                                                 boolean useCompositeUTXO) {
+        return validate(transaction, ruleList, useCompositeUTXO, new FactMap());
+    }
+
+    /**
+     * Validate the transaction with facts in addition to the default facts.
+     *
+     * @param transaction
+     *     The transaction to validate.
+     * @param ruleList
+     *     The rules to validate against.
+     * @param useCompositeUTXO
+     *     Whether to use the composite UTXO set instead of the main chain UTXO set.
+     * @param additionalFacts
+     *     The facts that are added to the default facts.
+     * @return The validation result.
+     */
+    public TransactionValidationResult validate(@NotNull Transaction transaction,
+                                                @NotNull RuleList ruleList,
+                                                boolean useCompositeUTXO,
+                                                @NotNull FactMap additionalFacts) {
         RuleBook ruleBook = new RuleBook(ruleList);
 
         ruleBook.addListener(this);
@@ -162,12 +267,27 @@ public class TransactionValidator implements Validator {
             transaction,
             useCompositeUTXO ? compositeUTXO : chainUTXODatabase
         );
+        factMap.putAll(additionalFacts);
 
         validationListeners.forEach(l -> l.onValidationStarted(factMap));
 
         return TransactionValidationResult.from(ruleBook.run(factMap));
     }
 
+    /**
+     * Verify the signatures of all inputs of the given transactions in parallel.
+     *
+     * @param transactions
+     *     The transactions to verify.
+     * @return The first invalid signature that was found, or {@code null} if all signatures are
+     * valid.
+     * @see ParallelSignatureVerifier
+     */
+    public @Nullable ParallelSignatureVerifier.InvalidSignature verifySignatures(
+        @NotNull List<Transaction> transactions) {
+        return signatureVerifier.verify(transactions);
+    }
+
     @Override
     public void onRuleValidation(Rule rule, RuleBookResult result, RuleBook ruleBook) {
         validationListeners.forEach(l -> l.onRuleValidation(rule, result, ruleBook));
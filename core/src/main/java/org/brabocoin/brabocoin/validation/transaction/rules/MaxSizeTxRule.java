@@ -1,7 +1,5 @@
 package org.brabocoin.brabocoin.validation.transaction.rules;
 
-import org.brabocoin.brabocoin.proto.model.BrabocoinProtos;
-import org.brabocoin.brabocoin.util.ProtoConverter;
 import org.brabocoin.brabocoin.validation.annotation.DescriptionField;
 import org.brabocoin.brabocoin.validation.annotation.ValidationRule;
 import org.brabocoin.brabocoin.validation.transaction.TransactionRule;
@@ -20,8 +18,7 @@ public class MaxSizeTxRule extends TransactionRule {
     private int consensusSize;
 
     public boolean isValid() {
-        size = ProtoConverter.toProto(transaction, BrabocoinProtos.Transaction.class)
-            .getSerializedSize();
+        size = transaction.getSerializedSize();
         consensusSize = consensus.getMaxTransactionSize();
 
         return size < consensusSize;
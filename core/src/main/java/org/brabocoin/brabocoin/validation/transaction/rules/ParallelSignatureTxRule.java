@@ -0,0 +1,40 @@
+package org.brabocoin.brabocoin.validation.transaction.rules;
+
+import org.brabocoin.brabocoin.validation.annotation.DescriptionField;
+import org.brabocoin.brabocoin.validation.annotation.ValidationRule;
+import org.brabocoin.brabocoin.validation.transaction.ParallelSignatureVerifier;
+import org.brabocoin.brabocoin.validation.transaction.TransactionRule;
+
+import java.util.Optional;
+
+/**
+ * Transaction rule
+ * <p>
+ * All signatures of the input must be valid.
+ * <p>
+ * The signatures of all transactions in a block are verified at once by the
+ * {@link ParallelSignatureVerifier}, this rule reports the outcome for the transaction.
+ */
+@ValidationRule(name = "Valid signatures", failedName = "Transaction contains invalid signature",
+                description = "All signatures of the transaction are valid, verified in parallel "
+                    + "for the whole block.")
+public class ParallelSignatureTxRule extends TransactionRule {
+
+    private Optional<ParallelSignatureVerifier.InvalidSignature> invalidSignature;
+
+    @DescriptionField
+    private boolean sigValid;
+
+    @DescriptionField
+    private int invalidSignatureIndex;
+
+    public boolean isValid() {
+        sigValid = !invalidSignature
+            .filter(s -> s.getTransaction().getHash().equals(transaction.getHash()))
+            .isPresent();
+
+        invalidSignatureIndex = sigValid ? -1 : invalidSignature.get().getInputIndex();
+
+        return sigValid;
+    }
+}
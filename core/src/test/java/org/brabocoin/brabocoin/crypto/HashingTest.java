@@ -5,9 +5,17 @@ import org.brabocoin.brabocoin.model.Hash;
 import org.junit.jupiter.api.Test;
 
 import javax.xml.bind.DatatypeConverter;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Test calculating hashes with the SHA-256 algorithm.
@@ -45,4 +53,51 @@ class HashingTest {
         assertNotEquals(testExpected, test2Actual);
         assertNotEquals(test2Expected, longInputActualWithHash);
     }
+
+    @Test
+    void overloadsMatch() {
+        ByteString message = ByteString.copyFromUtf8("test");
+        Hash expected = Hashing.digestSHA256(message);
+
+        assertEquals(expected, Hashing.digestSHA256(message.toByteArray()));
+        assertEquals(expected, Hashing.digestSHA256(message.asReadOnlyByteBuffer()));
+        assertEquals(expected, Hashing.digestSHA256(ByteString.copyFromUtf8("te").concat(
+            ByteString.copyFromUtf8("st")
+        )));
+
+        Hash expectedRIPEMD160 = Hashing.digestRIPEMD160(message);
+        assertEquals(expectedRIPEMD160, Hashing.digestRIPEMD160(message.toByteArray()));
+        assertEquals(
+            expectedRIPEMD160,
+            Hashing.digestRIPEMD160(ByteBuffer.wrap(message.toByteArray()))
+        );
+    }
+
+    @Test
+    void concurrentHashing() throws InterruptedException, ExecutionException {
+        ByteString message = ByteString.copyFromUtf8("test");
+        Hash expected = Hashing.digestSHA256(Hashing.digestSHA256(message));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> {
+                    for (int j = 0; j < 1000; j++) {
+                        if (!expected.equals(Hashing.digestSHA256(Hashing.digestSHA256(message)))) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
 }
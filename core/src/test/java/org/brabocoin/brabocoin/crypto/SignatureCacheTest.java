@@ -0,0 +1,66 @@
+package org.brabocoin.brabocoin.crypto;
+
+import org.brabocoin.brabocoin.model.Hash;
+import org.brabocoin.brabocoin.model.crypto.Signature;
+import org.brabocoin.brabocoin.testutil.Simulation;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SignatureCacheTest {
+
+    @Test
+    void containsSameSignature() {
+        SignatureCache cache = new SignatureCache(10);
+        Signature signature = Simulation.randomSignature();
+        Hash messageHash = Simulation.randomHash();
+
+        cache.put(signature, messageHash);
+
+        Signature copy = new Signature(signature.getR(), signature.getS(), signature.getPublicKey());
+        assertTrue(cache.contains(copy, messageHash));
+        assertFalse(cache.contains(signature, Simulation.randomHash()));
+        assertFalse(cache.contains(
+            new Signature(signature.getR(), signature.getS().add(BigInteger.ONE), signature.getPublicKey()),
+            messageHash
+        ));
+
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(1.0 / 3, cache.getHitRate(), 1e-9);
+    }
+
+    @Test
+    void evictOldest() {
+        SignatureCache cache = new SignatureCache(2);
+        Signature first = Simulation.randomSignature();
+        Signature second = Simulation.randomSignature();
+        Signature third = Simulation.randomSignature();
+        Hash messageHash = Simulation.randomHash();
+
+        cache.put(first, messageHash);
+        cache.put(second, messageHash);
+        cache.put(third, messageHash);
+
+        assertEquals(2, cache.getCount());
+        assertFalse(cache.contains(first, messageHash));
+        assertTrue(cache.contains(second, messageHash));
+        assertTrue(cache.contains(third, messageHash));
+    }
+
+    @Test
+    void disabled() {
+        SignatureCache cache = new SignatureCache(0);
+        Signature signature = Simulation.randomSignature();
+        Hash messageHash = Simulation.randomHash();
+
+        cache.put(signature, messageHash);
+
+        assertFalse(cache.contains(signature, messageHash));
+        assertEquals(0, cache.getCount());
+    }
+}
@@ -9,6 +9,7 @@ import org.junit.jupiter.api.Test;
 import java.math.BigInteger;
 import java.util.Random;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -172,4 +173,25 @@ class SignerTest {
 
         assertFalse(signer.verifySignaturePublicKey(corruptedSignature, signature.getPublicKey().getHash()));
     }
+
+    @Test
+    void verifyCachedSignature() {
+        Signer cachedSigner = new Signer(CURVE, new SignatureCache(10));
+        BigInteger privateKey = new BigInteger(140, new Random());
+        ByteString message = ByteString.copyFromUtf8("Houtjes en touwtjes");
+        ByteString corruptedMessage = ByteString.copyFromUtf8("Little woods, little ropes");
+
+        Signature signature = cachedSigner.signMessage(message, privateKey);
+
+        assertTrue(cachedSigner.verifySignature(signature, message));
+        assertEquals(0, cachedSigner.getSignatureCache().getHitCount());
+        assertEquals(1, cachedSigner.getSignatureCache().getCount());
+
+        assertTrue(cachedSigner.verifySignature(signature, message));
+        assertEquals(1, cachedSigner.getSignatureCache().getHitCount());
+
+        assertFalse(cachedSigner.verifySignature(signature, corruptedMessage));
+        assertFalse(cachedSigner.verifySignature(signature, corruptedMessage));
+        assertEquals(1, cachedSigner.getSignatureCache().getCount());
+    }
 }
@@ -0,0 +1,59 @@
+package org.brabocoin.brabocoin.dal;
+
+import org.brabocoin.brabocoin.model.Block;
+import org.brabocoin.brabocoin.testutil.Simulation;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Test the block cache.
+ */
+class BlockCacheTest {
+
+    @Test
+    void hitAndMiss() {
+        BlockCache cache = new BlockCache(1000);
+        Block block = Simulation.randomBlockChainGenerator(1).get(0);
+
+        assertNull(cache.get(block.getHash()));
+        cache.put(block, 100);
+        assertSame(block, cache.get(block.getHash()));
+
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(100, cache.getSize());
+    }
+
+    @Test
+    void evictLeastRecentlyUsed() {
+        BlockCache cache = new BlockCache(250);
+        List<Block> blocks = Simulation.randomBlockChainGenerator(3);
+
+        cache.put(blocks.get(0), 100);
+        cache.put(blocks.get(1), 100);
+        cache.get(blocks.get(0).getHash());
+        cache.put(blocks.get(2), 100);
+
+        assertSame(blocks.get(0), cache.get(blocks.get(0).getHash()));
+        assertNull(cache.get(blocks.get(1).getHash()));
+        assertSame(blocks.get(2), cache.get(blocks.get(2).getHash()));
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(200, cache.getSize());
+    }
+
+    @Test
+    void disabled() {
+        BlockCache cache = new BlockCache(0);
+        Block block = Simulation.randomBlockChainGenerator(1).get(0);
+
+        cache.put(block, 100);
+
+        assertNull(cache.get(block.getHash()));
+        assertEquals(0, cache.getCount());
+    }
+}
@@ -1,5 +1,6 @@
 package org.brabocoin.brabocoin.dal;
 
+import com.google.protobuf.ByteString;
 import org.brabocoin.brabocoin.chain.IndexedBlock;
 import org.brabocoin.brabocoin.config.BraboConfig;
 import org.brabocoin.brabocoin.config.MutableBraboConfig;
@@ -9,9 +10,11 @@ import org.brabocoin.brabocoin.model.Hash;
 import org.brabocoin.brabocoin.model.dal.BlockFileInfo;
 import org.brabocoin.brabocoin.model.dal.BlockInfo;
 import org.brabocoin.brabocoin.model.dal.BlockUndo;
+import org.brabocoin.brabocoin.proto.model.BrabocoinProtos;
 import org.brabocoin.brabocoin.testutil.LegacyBraboConfig;
 import org.brabocoin.brabocoin.testutil.MockLegacyConfig;
 import org.brabocoin.brabocoin.testutil.Simulation;
+import org.brabocoin.brabocoin.util.ProtoConverter;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
@@ -19,6 +22,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -26,6 +31,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -61,7 +67,9 @@ class BlockDatabaseTest {
     }
 
     @AfterEach
-    void tearDown() {
+    void tearDown() throws DatabaseException {
+        database.close();
+
         // Remove block files
         for (File f : blocksDirectory.listFiles()) {
             f.delete();
@@ -93,6 +101,58 @@ class BlockDatabaseTest {
         }
     }
 
+    @Test
+    void findBlockAfterFileGrows() throws DatabaseException {
+        List<Block> blocks = Simulation.randomBlockChainGenerator(2);
+
+        database.storeBlock(blocks.get(0), false);
+        assertBlock(blocks.get(0).getHash(), database.findBlock(blocks.get(0).getHash()));
+
+        database.storeBlock(blocks.get(1), false);
+        assertBlock(blocks.get(1).getHash(), database.findBlock(blocks.get(1).getHash()));
+        assertBlock(blocks.get(0).getHash(), database.findBlock(blocks.get(0).getHash()));
+    }
+
+    @Test
+    void findCachedBlock() throws DatabaseException {
+        database = new BlockDatabase(
+            storage,
+            blocksDirectory,
+            config.maxBlockFileSize(),
+            new BlockFileWriter(),
+            new BlockCache(config.maxBlockFileSize())
+        );
+
+        List<Block> blocks = Simulation.randomBlockChainGenerator(2);
+        database.storeBlock(blocks.get(0), false);
+
+        assertSame(blocks.get(0), database.findBlock(blocks.get(0).getHash()));
+        assertEquals(1, database.getBlockCache().getHitCount());
+
+        database.getBlockCache().clear();
+        Block retrievedBlock = database.findBlock(blocks.get(0).getHash());
+        assertBlock(blocks.get(0).getHash(), retrievedBlock);
+        assertSame(retrievedBlock, database.findBlock(blocks.get(0).getHash()));
+        assertEquals(1, database.getBlockCache().getMissCount());
+    }
+
+    @Test
+    void loadBlockIndex() throws DatabaseException {
+        Block block = Simulation.randomBlockChainGenerator(1).get(0);
+        Hash hash = block.getHash();
+        BlockInfo info = database.storeBlock(block, false);
+        database.setBlockInvalid(hash);
+
+        BlockDatabase reopened = new BlockDatabase(storage, blocksDirectory, config.maxBlockFileSize());
+        BlockInfo reopenedInfo = reopened.findBlockInfo(hash);
+
+        assertTrue(reopened.hasBlock(hash));
+        assertNotNull(reopenedInfo);
+        assertEquals(info.getOffsetInFile(), reopenedInfo.getOffsetInFile());
+        assertFalse(reopenedInfo.isValid());
+        reopened.close();
+    }
+
     @Test
     void storeBlockTwice() throws DatabaseException {
         Block block = Simulation.randomBlockChainGenerator(1).get(0);
@@ -171,6 +231,24 @@ class BlockDatabaseTest {
         assertNull(nonExistent);
     }
 
+    @Test
+    void findRawBlock() throws DatabaseException {
+        Block block = Simulation.randomBlockChainGenerator(1).get(0);
+        database.storeBlock(block, false);
+
+        ByteString rawBlock = database.findRawBlock(block.getHash());
+
+        assertEquals(
+            ProtoConverter.toProto(block, BrabocoinProtos.Block.class).toByteString(),
+            rawBlock
+        );
+    }
+
+    @Test
+    void findNonExistingRawBlock() throws DatabaseException {
+        assertNull(database.findRawBlock(Simulation.randomHash()));
+    }
+
     @Test
     void storeAndFindBlockInfo() throws DatabaseException {
         Block block = Simulation.randomBlockChainGenerator(1).get(0);
@@ -260,6 +338,62 @@ class BlockDatabaseTest {
         assertTrue(fileInfo.getSize() > 0);
     }
 
+    @Test
+    void appendAfterReopenWithPreallocation() throws DatabaseException {
+        int preallocationSize = 1024 * 1024;
+        database = new BlockDatabase(
+            storage,
+            blocksDirectory,
+            config.maxBlockFileSize(),
+            new BlockFileWriter(BlockFileWriter.SyncPolicy.BLOCK, 0, 0, preallocationSize,
+                config.maxBlockFileSize()
+            ),
+            new BlockCache(0)
+        );
+
+        List<Block> blocks = Simulation.randomBlockChainGenerator(2);
+        database.storeBlock(blocks.get(0), false);
+        database.close();
+
+        assertEquals(preallocationSize, new File(blocksDirectory, "blk0.dat").length());
+
+        database = new BlockDatabase(
+            storage,
+            blocksDirectory,
+            config.maxBlockFileSize(),
+            new BlockFileWriter(BlockFileWriter.SyncPolicy.BLOCK, 0, 0, preallocationSize,
+                config.maxBlockFileSize()
+            ),
+            new BlockCache(0)
+        );
+        BlockInfo info = database.storeBlock(blocks.get(1), false);
+
+        assertEquals(database.findBlockInfo(blocks.get(0).getHash()).getSizeInFile(),
+            info.getOffsetInFile()
+        );
+        assertBlock(blocks.get(0).getHash(), database.findBlock(blocks.get(0).getHash()));
+        assertBlock(blocks.get(1).getHash(), database.findBlock(blocks.get(1).getHash()));
+        assertEquals(1, database.getFileWriter().getSyncCount());
+    }
+
+    @Test
+    void groupSyncCountsBytesOverAllFiles() throws IOException {
+        try (BlockFileWriter writer = new BlockFileWriter(BlockFileWriter.SyncPolicy.GROUP,
+            Integer.MAX_VALUE, 100, 0, config.maxBlockFileSize()
+        )) {
+            String blockFile = new File(blocksDirectory, "blk0.dat").getPath();
+            String undoFile = new File(blocksDirectory, "rev0.dat").getPath();
+
+            writer.append(blockFile, 0, ByteBuffer.wrap(new byte[60]));
+            assertEquals(0, writer.getSyncCount());
+            assertEquals(60, writer.getUnsyncedBytes());
+
+            writer.append(undoFile, 0, ByteBuffer.wrap(new byte[60]));
+            assertEquals(2, writer.getSyncCount());
+            assertEquals(0, writer.getUnsyncedBytes());
+        }
+    }
+
     @Test
     void storeAndFindBlockUndo() throws DatabaseException {
         Block block = Simulation.randomBlockChainGenerator(1).get(0);
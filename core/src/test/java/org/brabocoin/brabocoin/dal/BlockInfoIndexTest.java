@@ -0,0 +1,197 @@
+package org.brabocoin.brabocoin.dal;
+
+import com.google.protobuf.ByteString;
+import org.brabocoin.brabocoin.model.Hash;
+import org.brabocoin.brabocoin.model.dal.BlockInfo;
+import org.brabocoin.brabocoin.testutil.Simulation;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test the in-memory block information index.
+ */
+class BlockInfoIndexTest {
+
+    private Hash randomHash() {
+        return new Hash(Simulation.randomByteString().substring(0, BlockInfoIndex.SLOT_SIZE));
+    }
+
+    private BlockInfo randomInfo(Hash previousBlockHash, int height, boolean valid) {
+        return new BlockInfo(
+            previousBlockHash,
+            randomHash(),
+            randomHash(),
+            BigInteger.valueOf(height * 7),
+            height,
+            height + 1,
+            1,
+            valid,
+            height * 1000L,
+            height / 10,
+            height * 100,
+            100,
+            -1,
+            -1,
+            height % 2 == 0
+        );
+    }
+
+    private void assertInfo(BlockInfo expected, BlockInfo actual) {
+        assertNotNull(actual);
+        assertEquals(expected.getPreviousBlockHash(), actual.getPreviousBlockHash());
+        assertEquals(expected.getMerkleRoot(), actual.getMerkleRoot());
+        assertEquals(expected.getTargetValue(), actual.getTargetValue());
+        assertEquals(expected.getNonce(), actual.getNonce());
+        assertEquals(expected.getBlockHeight(), actual.getBlockHeight());
+        assertEquals(expected.getTransactionCount(), actual.getTransactionCount());
+        assertEquals(expected.getNetworkId(), actual.getNetworkId());
+        assertEquals(expected.isValid(), actual.isValid());
+        assertEquals(expected.getTimeReceived(), actual.getTimeReceived());
+        assertEquals(expected.getFileNumber(), actual.getFileNumber());
+        assertEquals(expected.getOffsetInFile(), actual.getOffsetInFile());
+        assertEquals(expected.getSizeInFile(), actual.getSizeInFile());
+        assertEquals(expected.getOffsetInUndoFile(), actual.getOffsetInUndoFile());
+        assertEquals(expected.getSizeInUndoFile(), actual.getSizeInUndoFile());
+        assertEquals(expected.isMinedByMe(), actual.isMinedByMe());
+    }
+
+    @Test
+    void putAndGetBeyondInitialCapacity() {
+        BlockInfoIndex index = new BlockInfoIndex();
+        List<Hash> hashes = new ArrayList<>();
+        List<BlockInfo> infos = new ArrayList<>();
+
+        Hash previous = randomHash();
+        for (int i = 0; i < 3000; i++) {
+            Hash hash = randomHash();
+            BlockInfo info = randomInfo(previous, i, i % 3 != 0);
+            index.put(hash, info);
+
+            hashes.add(hash);
+            infos.add(info);
+            previous = hash;
+        }
+
+        assertEquals(3000, index.size());
+        for (int i = 0; i < hashes.size(); i++) {
+            assertTrue(index.contains(hashes.get(i)));
+            assertInfo(infos.get(i), index.get(hashes.get(i)));
+        }
+    }
+
+    @Test
+    void replaceRecord() {
+        BlockInfoIndex index = new BlockInfoIndex();
+        Hash hash = randomHash();
+        index.put(hash, randomInfo(randomHash(), 1, true));
+
+        BlockInfo updated = randomInfo(randomHash(), 2, false);
+        index.put(hash, updated);
+
+        assertEquals(1, index.size());
+        assertInfo(updated, index.get(hash));
+    }
+
+    @Test
+    void preserveHashSize() {
+        BlockInfoIndex index = new BlockInfoIndex();
+        Hash hash = randomHash();
+        Hash shortTarget = new Hash(ByteString.copyFrom(new byte[] {0, 0, 1, 2}));
+        BlockInfo info = new BlockInfo(
+            randomHash(),
+            randomHash(),
+            shortTarget,
+            BigInteger.valueOf(-5),
+            1,
+            1,
+            1,
+            true,
+            0,
+            0,
+            0,
+            100,
+            -1,
+            -1,
+            false
+        );
+        index.put(hash, info);
+
+        BlockInfo retrieved = index.get(hash);
+        assertInfo(info, retrieved);
+        assertEquals(shortTarget.getValue(), retrieved.getTargetValue().getValue());
+    }
+
+    @Test
+    void findIgnoresLeadingZeros() {
+        BlockInfoIndex index = new BlockInfoIndex();
+        Hash hash = new Hash(ByteString.copyFrom(new byte[] {0, 0, 1, 2}));
+        index.put(hash, randomInfo(randomHash(), 3, true));
+
+        int id = index.find(new Hash(ByteString.copyFrom(new byte[] {1, 2})));
+        assertNotEquals(BlockInfoIndex.NOT_FOUND, id);
+        assertEquals(3, index.getBlockHeight(id));
+        assertEquals(300, index.getOffsetInFile(id));
+        assertEquals(100, index.getSizeInFile(id));
+
+        assertEquals(
+            BlockInfoIndex.NOT_FOUND,
+            index.find(new Hash(ByteString.copyFrom(new byte[] {1})))
+        );
+    }
+
+    @Test
+    void irregularRecord() {
+        BlockInfoIndex index = new BlockInfoIndex();
+        Hash hash = randomHash();
+        BlockInfo info = randomInfo(
+            new Hash(ByteString.copyFrom(new byte[BlockInfoIndex.SLOT_SIZE + 1])),
+            1,
+            true
+        );
+        index.put(hash, info);
+
+        assertSame(info, index.get(hash));
+
+        BlockInfo regular = randomInfo(randomHash(), 2, false);
+        index.put(hash, regular);
+
+        assertEquals(1, index.size());
+        assertInfo(regular, index.get(hash));
+    }
+
+    @Test
+    void wideBlockHash() {
+        BlockInfoIndex index = new BlockInfoIndex();
+        Hash hash = Simulation.randomHash();
+        BlockInfo info = randomInfo(randomHash(), 1, true);
+        index.put(hash, info);
+
+        assertTrue(index.contains(new Hash(hash.getValue())));
+        assertInfo(info, index.get(hash));
+
+        BlockInfo updated = randomInfo(randomHash(), 2, false);
+        index.put(hash, updated);
+
+        assertEquals(1, index.size());
+        assertInfo(updated, index.get(hash));
+    }
+
+    @Test
+    void unknownBlock() {
+        BlockInfoIndex index = new BlockInfoIndex();
+
+        assertFalse(index.contains(randomHash()));
+        assertNull(index.get(randomHash()));
+    }
+}
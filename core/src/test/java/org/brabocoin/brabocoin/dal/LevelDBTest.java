@@ -10,6 +10,8 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.*;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.NoSuchElementException;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -83,4 +85,61 @@ class LevelDBTest {
             fail(e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void writeBatch() throws DatabaseException {
+        final ByteString deletedKey = ByteString.copyFromUtf8("batchdeleted");
+        final ByteString keptKey = ByteString.copyFromUtf8("batchkept");
+        final ByteString value = ByteString.copyFromUtf8("batchvalue");
+        database.put(deletedKey, value);
+
+        WriteBatch batch = new WriteBatch();
+        batch.put(keptKey, value);
+        batch.delete(deletedKey);
+
+        assertNull(database.get(keptKey));
+
+        database.write(batch);
+
+        assertEquals(value, database.get(keptKey));
+        assertNull(database.get(deletedKey));
+    }
+
+    @Test
+    void prefixIterator() throws DatabaseException {
+        final ByteString prefix = ByteString.copyFromUtf8("prefixed");
+        final ByteString value = ByteString.copyFromUtf8("prefixvalue");
+        database.put(prefix.concat(ByteString.copyFromUtf8("a")), value);
+        database.put(prefix.concat(ByteString.copyFromUtf8("b")), value);
+        database.put(ByteString.copyFromUtf8("prefixes"), value);
+
+        int count = 0;
+        try (CloseableIterator<Map.Entry<ByteString, ByteString>> iterator = database.iterator(
+            prefix)) {
+            while (iterator.hasNext()) {
+                Map.Entry<ByteString, ByteString> entry = iterator.next();
+                assertTrue(entry.getKey().startsWith(prefix));
+                assertEquals(value, entry.getValue());
+                count++;
+            }
+        }
+
+        assertEquals(2, count);
+    }
+
+    @Test
+    void prefixIteratorClosedWhenExhausted() throws DatabaseException {
+        final ByteString prefix = ByteString.copyFromUtf8("prefixed");
+        database.put(prefix.concat(ByteString.copyFromUtf8("a")), ByteString.EMPTY);
+
+        CloseableIterator<Map.Entry<ByteString, ByteString>> iterator = database.iterator(prefix);
+        assertTrue(iterator.hasNext());
+        iterator.next();
+        assertFalse(iterator.hasNext());
+        assertThrows(NoSuchElementException.class, iterator::next);
+
+        // Closing an exhausted iterator has no effect
+        iterator.close();
+        assertFalse(iterator.hasNext());
+    }
+}
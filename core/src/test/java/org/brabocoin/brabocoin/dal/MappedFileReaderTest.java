@@ -0,0 +1,83 @@
+package org.brabocoin.brabocoin.dal;
+
+import com.google.protobuf.ByteString;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Test the memory mapped file reader.
+ */
+class MappedFileReaderTest {
+
+    private File file;
+
+    private MappedFileReader reader;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = File.createTempFile("mapped", ".dat");
+        reader = new MappedFileReader();
+    }
+
+    @AfterEach
+    void tearDown() {
+        file.delete();
+    }
+
+    @Test
+    void readGrowingFile() throws IOException {
+        append(range(0, 100));
+        assertEquals(range(10, 50), reader.read(file.getPath(), 10, 50));
+
+        // Read beyond the mapping before the file has doubled in size
+        append(range(100, 50));
+        assertEquals(range(100, 50), reader.read(file.getPath(), 100, 50));
+
+        // Read beyond the mapping after the file has doubled in size
+        append(range(150, 100));
+        assertEquals(range(120, 130), reader.read(file.getPath(), 120, 130));
+        assertEquals(range(0, 250), reader.read(file.getPath(), 0, 250));
+    }
+
+    @Test
+    void readAfterRelease() throws IOException {
+        append(range(0, 100));
+        assertEquals(range(0, 100), reader.read(file.getPath(), 0, 100));
+
+        append(range(100, 20));
+        reader.release(file.getPath());
+        assertEquals(range(90, 30), reader.read(file.getPath(), 90, 30));
+    }
+
+    @Test
+    void rangeExceedsFile() throws IOException {
+        append(range(0, 100));
+        assertEquals(range(0, 100), reader.read(file.getPath(), 0, 100));
+
+        assertThrows(IOException.class, () -> reader.read(file.getPath(), 90, 20));
+        assertThrows(IOException.class, () -> reader.read(file.getPath(), -1, 20));
+    }
+
+    private void append(ByteString data) throws IOException {
+        try (FileOutputStream stream = new FileOutputStream(file, true)) {
+            data.writeTo(stream);
+        }
+    }
+
+    private static ByteString range(int start, int size) {
+        byte[] bytes = new byte[size];
+        for (int i = 0; i < size; i++) {
+            bytes[i] = (byte)(start + i);
+        }
+
+        return ByteString.copyFrom(bytes);
+    }
+}
@@ -0,0 +1,140 @@
+package org.brabocoin.brabocoin.dal;
+
+import org.brabocoin.brabocoin.model.Hash;
+import org.brabocoin.brabocoin.model.Input;
+import org.brabocoin.brabocoin.model.Transaction;
+import org.brabocoin.brabocoin.testutil.Simulation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test {@link TransactionPoolIO}.
+ */
+class TransactionPoolIOTest {
+
+    private static final File file = new File("data/mempool.dat");
+
+    private TransactionPool pool;
+
+    private TransactionPoolIO io;
+
+    @BeforeEach
+    void setUp() {
+        file.delete();
+        pool = new TransactionPool(100, 100, new Random(), 0);
+        io = new TransactionPoolIO();
+    }
+
+    @AfterEach
+    void tearDown() {
+        file.delete();
+    }
+
+    private Transaction spending(Transaction parent) {
+        return new Transaction(
+            Collections.singletonList(new Input(parent.getHash(), 0)),
+            Collections.singletonList(Simulation.randomOutput()),
+            Collections.emptyList()
+        );
+    }
+
+    @Test
+    void writeRead() throws IOException {
+        Transaction parent = Simulation.randomTransaction(2, 2);
+        Transaction child = spending(parent);
+        Transaction orphan = Simulation.randomTransaction(2, 2);
+
+        // Add the child first, such that insertion order differs from dependency order
+        pool.addDependentTransaction(child, 10, 1000);
+        pool.addIndependentTransaction(parent, 20, 2000);
+        pool.addOrphanTransaction(orphan);
+
+        io.write(pool, true, file);
+        List<TransactionPoolIO.Record> records = io.read(file);
+
+        assertEquals(3, records.size());
+
+        assertEquals(parent.getHash(), records.get(0).getTransaction().getHash());
+        assertEquals(2000, records.get(0).getTimeReceived());
+        assertTrue(records.get(0).isVerified());
+        assertFalse(records.get(0).isOrphan());
+
+        assertEquals(child.getHash(), records.get(1).getTransaction().getHash());
+        assertEquals(1000, records.get(1).getTimeReceived());
+        assertTrue(records.get(1).isVerified());
+
+        assertEquals(orphan.getHash(), records.get(2).getTransaction().getHash());
+        assertTrue(records.get(2).isOrphan());
+        assertFalse(records.get(2).isVerified());
+    }
+
+    @Test
+    void writeWithoutOrphans() throws IOException {
+        Transaction transaction = Simulation.randomTransaction(2, 2);
+        pool.addIndependentTransaction(transaction);
+        pool.addOrphanTransaction(Simulation.randomTransaction(2, 2));
+
+        io.write(pool, false, file);
+        List<TransactionPoolIO.Record> records = io.read(file);
+
+        assertEquals(1, records.size());
+        assertEquals(transaction.getHash(), records.get(0).getTransaction().getHash());
+    }
+
+    @Test
+    void readChecksumMismatch() throws IOException {
+        Transaction transaction = Simulation.randomTransaction(2, 2);
+        pool.addIndependentTransaction(transaction);
+        io.write(pool, false, file);
+
+        byte[] contents = Files.readAllBytes(file.toPath());
+        contents[0] ^= 1;
+        Files.write(file.toPath(), contents);
+
+        List<TransactionPoolIO.Record> records = io.read(file);
+        assertEquals(1, records.size());
+        assertEquals(transaction.getHash(), records.get(0).getTransaction().getHash());
+        assertFalse(records.get(0).isVerified());
+    }
+
+    @Test
+    void readTruncated() throws IOException {
+        pool.addIndependentTransaction(Simulation.randomTransaction(2, 2));
+        io.write(pool, false, file);
+
+        byte[] contents = Files.readAllBytes(file.toPath());
+        Files.write(file.toPath(), Arrays.copyOf(contents, contents.length - 10));
+
+        assertTrue(io.read(file).isEmpty());
+    }
+
+    @Test
+    void readMissing() throws IOException {
+        assertTrue(io.read(file).isEmpty());
+    }
+
+    @Test
+    void writeReplaces() throws IOException {
+        pool.addIndependentTransaction(Simulation.randomTransaction(2, 2));
+        io.write(pool, false, file);
+
+        Hash hash = pool.iterator().next().getHash();
+        pool.removeValidatedTransaction(hash);
+        io.write(pool, false, file);
+
+        assertTrue(io.read(file).isEmpty());
+    }
+}
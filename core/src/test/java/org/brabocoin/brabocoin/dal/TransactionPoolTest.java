@@ -653,4 +653,167 @@ class TransactionPoolTest {
         assertNotNull(notifiedTx[0]);
         assertEquals(notifiedTx[0].getHash(), transaction.getHash());
     }
+
+    @Test
+    void packageAggregates() {
+        Transaction transactionA = Simulation.randomTransaction(5, 5);
+        Hash hashA = transactionA.getHash();
+        pool.addIndependentTransaction(transactionA, 100);
+
+        Transaction transactionB = new Transaction(
+            Collections.singletonList(new Input(hashA, 0)),
+            Collections.singletonList(Simulation.randomOutput()), Collections.emptyList()
+        );
+        Hash hashB = transactionB.getHash();
+        pool.addDependentTransaction(transactionB, 300);
+
+        Transaction transactionC = new Transaction(
+            Collections.singletonList(new Input(hashB, 0)),
+            Collections.singletonList(Simulation.randomOutput()), Collections.emptyList()
+        );
+        Hash hashC = transactionC.getHash();
+        pool.addDependentTransaction(transactionC, 50);
+
+        int sizeA = transactionA.getSerializedSize();
+        int sizeB = transactionB.getSerializedSize();
+        int sizeC = transactionC.getSerializedSize();
+
+        TransactionPoolEntry entryA = pool.getEntry(hashA);
+        assertEquals(1, entryA.getAncestorCount());
+        assertEquals(3, entryA.getDescendantCount());
+        assertEquals(450, entryA.getDescendantFee());
+        assertEquals(sizeA + sizeB + sizeC, entryA.getDescendantSize());
+
+        TransactionPoolEntry entryC = pool.getEntry(hashC);
+        assertEquals(3, entryC.getAncestorCount());
+        assertEquals(450, entryC.getAncestorFee());
+        assertEquals(sizeA + sizeB + sizeC, entryC.getAncestorSize());
+        assertEquals(1, entryC.getDescendantCount());
+
+        // Confirm A, which removes it from the ancestor packages
+        pool.removeValidatedTransaction(hashA);
+
+        TransactionPoolEntry entryB = pool.getEntry(hashB);
+        assertEquals(1, entryB.getAncestorCount());
+        assertEquals(300, entryB.getAncestorFee());
+        assertEquals(2, entryB.getDescendantCount());
+        assertEquals(350, entryB.getDescendantFee());
+
+        assertEquals(2, entryC.getAncestorCount());
+        assertEquals(350, entryC.getAncestorFee());
+        assertEquals(sizeB + sizeC, entryC.getAncestorSize());
+    }
+
+    @Test
+    void packageAggregatesAfterRemovingDescendant() {
+        Transaction transactionA = Simulation.randomTransaction(5, 5);
+        Hash hashA = transactionA.getHash();
+        pool.addIndependentTransaction(transactionA, 100);
+
+        Transaction transactionB = new Transaction(
+            Collections.singletonList(new Input(hashA, 0)),
+            Collections.singletonList(Simulation.randomOutput()), Collections.emptyList()
+        );
+        pool.addDependentTransaction(transactionB, 300);
+
+        Transaction transactionC = new Transaction(
+            Collections.singletonList(new Input(hashA, 1)),
+            Collections.singletonList(Simulation.randomOutput()), Collections.emptyList()
+        );
+        pool.addDependentTransaction(transactionC, 50);
+
+        pool.removeValidatedTransaction(transactionB.getHash());
+
+        TransactionPoolEntry entryA = pool.getEntry(hashA);
+        assertEquals(2, entryA.getDescendantCount());
+        assertEquals(150, entryA.getDescendantFee());
+        assertEquals(
+            transactionA.getSerializedSize() + transactionC.getSerializedSize(),
+            entryA.getDescendantSize()
+        );
+
+        TransactionPoolEntry entryC = pool.getEntry(transactionC.getHash());
+        assertEquals(2, entryC.getAncestorCount());
+        assertEquals(150, entryC.getAncestorFee());
+    }
+
+    @Test
+    void ancestorFeeRateIterator() {
+        Transaction low = Simulation.randomTransaction(1, 1);
+        Transaction high = Simulation.randomTransaction(1, 1);
+        pool.addIndependentTransaction(low, 1);
+        pool.addIndependentTransaction(high, 100_000);
+
+        // The child pays for its parent
+        Transaction child = new Transaction(
+            Collections.singletonList(new Input(low.getHash(), 0)),
+            Collections.singletonList(Simulation.randomOutput()), Collections.emptyList()
+        );
+        pool.addDependentTransaction(child, 1_000_000);
+
+        List<Hash> order = new ArrayList<>();
+        pool.ancestorFeeRateIterator().forEachRemaining(e -> order.add(e.getHash()));
+
+        assertEquals(3, order.size());
+        assertEquals(child.getHash(), order.get(0));
+        assertEquals(high.getHash(), order.get(1));
+        assertEquals(low.getHash(), order.get(2));
+    }
+
+    @Test
+    void limitTransactionPoolSizeLowestFeeRate() {
+        MockLegacyConfig newConfig = new MockLegacyConfig(config) {
+            @Override
+            public Integer maxTransactionPoolSize() {
+                return 2;
+            }
+        };
+
+        pool = new TransactionPool(newConfig.maxTransactionPoolSize(), newConfig.maxOrphanTransactions(), new Random(),
+            657989
+        );
+
+        Transaction transactionA = Simulation.randomTransaction(5, 5);
+        Transaction transactionB = Simulation.randomTransaction(5, 5);
+        Transaction transactionC = Simulation.randomTransaction(5, 5);
+
+        pool.addIndependentTransaction(transactionA, 100_000);
+        pool.addIndependentTransaction(transactionB, 1);
+        pool.addIndependentTransaction(transactionC, 50_000);
+
+        assertTrue(pool.isIndependent(transactionA.getHash()));
+        assertFalse(pool.isIndependent(transactionB.getHash()));
+        assertNull(pool.getEntry(transactionB.getHash()));
+        assertTrue(pool.isIndependent(transactionC.getHash()));
+    }
+
+    @Test
+    void limitTransactionPoolSizeLowestPackage() {
+        MockLegacyConfig newConfig = new MockLegacyConfig(config) {
+            @Override
+            public Integer maxTransactionPoolSize() {
+                return 2;
+            }
+        };
+
+        pool = new TransactionPool(newConfig.maxTransactionPoolSize(), newConfig.maxOrphanTransactions(), new Random(),
+            657989
+        );
+
+        Transaction parent = Simulation.randomTransaction(5, 5);
+        Transaction child = new Transaction(
+            Collections.singletonList(new Input(parent.getHash(), 0)),
+            Collections.singletonList(Simulation.randomOutput()), Collections.emptyList()
+        );
+        Transaction other = Simulation.randomTransaction(5, 5);
+
+        pool.addIndependentTransaction(parent, 10);
+        pool.addDependentTransaction(child, 20);
+        pool.addIndependentTransaction(other, 100_000);
+
+        // The parent has the lowest descendant fee rate, so it is removed with its child
+        assertFalse(pool.hasValidTransaction(parent.getHash()));
+        assertFalse(pool.hasValidTransaction(child.getHash()));
+        assertTrue(pool.isIndependent(other.getHash()));
+    }
 }
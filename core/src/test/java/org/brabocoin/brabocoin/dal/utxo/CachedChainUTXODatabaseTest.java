@@ -0,0 +1,134 @@
+package org.brabocoin.brabocoin.dal.utxo;
+
+import org.brabocoin.brabocoin.dal.CachedChainUTXODatabase;
+import org.brabocoin.brabocoin.dal.ChainUTXODatabase;
+import org.brabocoin.brabocoin.dal.HashMapDB;
+import org.brabocoin.brabocoin.dal.KeyValueStore;
+import org.brabocoin.brabocoin.exceptions.DatabaseException;
+import org.brabocoin.brabocoin.model.Hash;
+import org.brabocoin.brabocoin.model.dal.UnspentOutputInfo;
+import org.brabocoin.brabocoin.testutil.Simulation;
+import org.brabocoin.brabocoin.validation.consensus.Consensus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Cached UTXO database tests.
+ */
+class CachedChainUTXODatabaseTest {
+
+    private KeyValueStore storage;
+    private Consensus consensus;
+    private CachedChainUTXODatabase database;
+
+    @BeforeEach
+    void setUp() throws DatabaseException {
+        storage = new HashMapDB();
+        consensus = new Consensus();
+        database = new CachedChainUTXODatabase(storage, consensus, 1000000);
+    }
+
+    private UnspentOutputInfo randomInfo() {
+        return new UnspentOutputInfo(false, 1, 10, Simulation.randomHash());
+    }
+
+    private boolean isStored(Hash hash, int outputIndex) throws DatabaseException {
+        return new ChainUTXODatabase(storage, consensus).isUnspent(hash, outputIndex);
+    }
+
+    @Test
+    void writeBack() throws DatabaseException {
+        Hash hash = Simulation.randomHash();
+        database.addUnspentOutputInfo(hash, 0, randomInfo());
+
+        assertTrue(database.isUnspent(hash, 0));
+        assertFalse(isStored(hash, 0));
+
+        database.flush();
+
+        assertTrue(database.isUnspent(hash, 0));
+        assertTrue(isStored(hash, 0));
+    }
+
+    @Test
+    void createdAndSpentNeverWritten() throws DatabaseException {
+        Hash hash = Simulation.randomHash();
+        database.addUnspentOutputInfo(hash, 0, randomInfo());
+        database.setOutputSpent(hash, 0);
+
+        assertFalse(database.isUnspent(hash, 0));
+        assertEquals(0, database.getCacheSize());
+
+        database.flush();
+
+        assertFalse(isStored(hash, 0));
+    }
+
+    @Test
+    void spendStoredOutput() throws DatabaseException {
+        Hash hash = Simulation.randomHash();
+        database.addUnspentOutputInfo(hash, 0, randomInfo());
+        database.flush();
+
+        database.setOutputSpent(hash, 0);
+        assertFalse(database.isUnspent(hash, 0));
+        assertTrue(isStored(hash, 0));
+
+        database.flush();
+        assertFalse(isStored(hash, 0));
+    }
+
+    @Test
+    void hitAndMissCount() throws DatabaseException {
+        Hash hash = Simulation.randomHash();
+        new ChainUTXODatabase(storage, consensus).addUnspentOutputInfo(hash, 0, randomInfo());
+
+        assertTrue(database.isUnspent(hash, 0));
+        assertTrue(database.isUnspent(hash, 0));
+
+        assertEquals(1, database.getMissCount());
+        assertEquals(1, database.getHitCount());
+    }
+
+    @Test
+    void discardBatch() throws DatabaseException {
+        Hash hash = Simulation.randomHash();
+        Hash blockHash = Simulation.randomHash();
+
+        database.beginBatch();
+        database.addUnspentOutputInfo(hash, 0, randomInfo());
+        database.setLastProcessedBlockHash(blockHash);
+
+        assertTrue(database.isUnspent(hash, 0));
+        assertEquals(blockHash, database.getLastProcessedBlockHash());
+
+        database.discardBatch();
+
+        assertFalse(database.isUnspent(hash, 0));
+        assertEquals(consensus.getGenesisBlock().getHash(), database.getLastProcessedBlockHash());
+    }
+
+    @Test
+    void flushWhenBudgetExceeded() throws DatabaseException {
+        database = new CachedChainUTXODatabase(storage, consensus, 0);
+        Hash hash = Simulation.randomHash();
+        Hash blockHash = Simulation.randomHash();
+
+        database.beginBatch();
+        database.addUnspentOutputInfo(hash, 0, randomInfo());
+        database.setLastProcessedBlockHash(blockHash);
+        assertFalse(isStored(hash, 0));
+        database.commitBatch();
+
+        assertTrue(isStored(hash, 0));
+        assertEquals(
+            blockHash,
+            new ChainUTXODatabase(storage, consensus).getLastProcessedBlockHash()
+        );
+        assertEquals(1, database.getFlushCount());
+    }
+}
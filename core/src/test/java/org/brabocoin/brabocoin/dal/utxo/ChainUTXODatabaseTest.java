@@ -5,12 +5,15 @@ import org.brabocoin.brabocoin.dal.HashMapDB;
 import org.brabocoin.brabocoin.dal.KeyValueStore;
 import org.brabocoin.brabocoin.exceptions.DatabaseException;
 import org.brabocoin.brabocoin.model.Hash;
+import org.brabocoin.brabocoin.model.dal.UnspentOutputInfo;
 import org.brabocoin.brabocoin.testutil.Simulation;
 import org.brabocoin.brabocoin.validation.consensus.Consensus;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * UTXO Database tests.
@@ -42,4 +45,38 @@ class ChainUTXODatabaseTest {
 
         assertEquals(hash, storedHash);
     }
+
+    @Test
+    void batchVisibleBeforeCommit() throws DatabaseException {
+        Hash hash = Simulation.randomHash();
+        UnspentOutputInfo info = new UnspentOutputInfo(false, 1, 10, Simulation.randomHash());
+
+        database.beginBatch();
+        database.addUnspentOutputInfo(hash, 0, info);
+        database.setLastProcessedBlockHash(hash);
+
+        assertTrue(database.isUnspent(hash, 0));
+        assertEquals(hash, database.getLastProcessedBlockHash());
+        assertFalse(new ChainUTXODatabase(storage, consensus).isUnspent(hash, 0));
+
+        database.commitBatch();
+
+        ChainUTXODatabase reopened = new ChainUTXODatabase(storage, consensus);
+        assertTrue(reopened.isUnspent(hash, 0));
+        assertEquals(hash, reopened.getLastProcessedBlockHash());
+    }
+
+    @Test
+    void discardBatch() throws DatabaseException {
+        Hash hash = Simulation.randomHash();
+        UnspentOutputInfo info = new UnspentOutputInfo(false, 1, 10, Simulation.randomHash());
+
+        database.beginBatch();
+        database.addUnspentOutputInfo(hash, 0, info);
+        database.setLastProcessedBlockHash(hash);
+        database.discardBatch();
+
+        assertFalse(database.isUnspent(hash, 0));
+        assertEquals(consensus.getGenesisBlock().getHash(), database.getLastProcessedBlockHash());
+    }
 }
@@ -19,6 +19,7 @@ import org.brabocoin.brabocoin.validation.consensus.Consensus;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.Comparator;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicReference;
@@ -335,4 +336,51 @@ class MinerTest {
 
         assertNull(minedBlock.get());
     }
+
+    @Test
+    void mineNewBlockHighestFeeRateFirst() {
+        IndexedBlock genesis = new IndexedBlock(
+            consensus.getGenesisBlock().getHash(),
+            new BlockInfo(
+                consensus.getGenesisBlock().getPreviousBlockHash(),
+                consensus.getGenesisBlock().getMerkleRoot(),
+                consensus.getGenesisBlock().getTargetValue(),
+                consensus.getGenesisBlock().getNonce(),
+                consensus.getGenesisBlock().getBlockHeight(),
+                consensus.getGenesisBlock().getTransactions().size(), consensus.getGenesisBlock().getNetworkId(), true,
+                0,
+                0,
+                0,
+                0,
+                0,
+                0,
+                false
+            )
+        );
+
+        Hash address = Hashing.digestRIPEMD160(ByteString.copyFromUtf8("Neerkant"));
+
+        List<Transaction> transactions = Simulation.repeatedBuilder(() -> Simulation.randomTransaction(1, 50), 20);
+
+        for (int i = 0; i < transactions.size(); i++) {
+            transactionPool.addIndependentTransaction(transactions.get(i), 1000L * (i + 1));
+        }
+
+        Transaction best = transactions.stream()
+            .max(Comparator.comparingDouble(t -> transactionPool.getEntry(t.getHash()).getFeeRate()))
+            .orElseThrow(IllegalStateException::new);
+
+        Block block = miner.mineNewBlock(genesis, address);
+
+        assertNotNull(block);
+        assertTrue(block.getTransactions().size() < transactions.size());
+        assertEquals(best.getHash(), block.getTransactions().get(1).getHash());
+
+        double previousFeeRate = Double.MAX_VALUE;
+        for (Transaction transaction : block.getTransactions().subList(1, block.getTransactions().size())) {
+            double feeRate = transactionPool.getEntry(transaction.getHash()).getFeeRate();
+            assertTrue(feeRate <= previousFeeRate);
+            previousFeeRate = feeRate;
+        }
+    }
 }
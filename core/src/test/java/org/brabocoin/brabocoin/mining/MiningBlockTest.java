@@ -5,6 +5,7 @@ import org.brabocoin.brabocoin.model.Block;
 import org.brabocoin.brabocoin.model.Hash;
 import org.brabocoin.brabocoin.testutil.Simulation;
 import org.brabocoin.brabocoin.validation.consensus.Consensus;
+import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -12,6 +13,8 @@ import java.math.BigInteger;
 import java.util.Collections;
 import java.util.concurrent.atomic.AtomicReference;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -85,4 +88,87 @@ class MiningBlockTest {
         assertNull(minedBlock.get());
         assertTrue(block.isStopped());
     }
+
+    @Test
+    void mineMultipleThreads() {
+        Block minedBlock = block.mine(new Consensus(), 4);
+
+        assertNotNull(minedBlock);
+        assertTrue(minedBlock.getHash().compareTo(minedBlock.getTargetValue()) <= 0);
+        assertTrue(block.getIterations() > 0);
+        assertNotNull(block.getBestHash());
+        assertTrue(block.getBestHash().compareTo(minedBlock.getTargetValue()) <= 0);
+    }
+
+    @Test
+    void nonceSpaceExhausted() {
+        Consensus consensus = new Consensus() {
+            @Override
+            public @NotNull BigInteger getMaxNonce() {
+                return BigInteger.valueOf(256);
+            }
+        };
+
+        MiningBlock block = new MiningBlock(Simulation.randomHash(),
+            Simulation.randomHash(),
+            new Hash(ByteString.copyFrom(new byte[1])),
+            BigInteger.valueOf(100),
+            0,
+            Collections.emptyList(),
+            0);
+
+        assertNull(block.mine(consensus, 3));
+        assertEquals(256, block.getIterations());
+        assertNotNull(block.getBestHash());
+    }
+
+    @Test
+    void stopMultipleThreads() throws InterruptedException {
+        MiningBlock block = new MiningBlock(Simulation.randomHash(),
+            Simulation.randomHash(),
+            new Hash(ByteString.copyFrom(new byte[1])),
+            BigInteger.ZERO,
+            0,
+            Collections.emptyList(),
+            0);
+
+        AtomicReference<Block> minedBlock = new AtomicReference<>(block);
+        Thread thread = new Thread(() -> minedBlock.set(block.mine(new Consensus(), 4)));
+
+        thread.start();
+        Thread.sleep(100);
+        block.stop();
+        thread.join();
+
+        assertNull(minedBlock.get());
+        assertTrue(block.isStopped());
+        assertTrue(block.getIterations() > 0);
+    }
+
+    @Test
+    void interruptMultipleThreads() throws InterruptedException {
+        MiningBlock block = new MiningBlock(Simulation.randomHash(),
+            Simulation.randomHash(),
+            new Hash(ByteString.copyFrom(new byte[1])),
+            BigInteger.ZERO,
+            0,
+            Collections.emptyList(),
+            0);
+
+        AtomicReference<Block> minedBlock = new AtomicReference<>(block);
+        Thread thread = new Thread(() -> minedBlock.set(block.mine(new Consensus(), 4)));
+
+        thread.start();
+        Thread.sleep(100);
+        thread.interrupt();
+        thread.join();
+
+        assertNull(minedBlock.get());
+        assertTrue(block.isStopped());
+        assertTrue(block.getIterations() > 0);
+
+        // All workers have finished before the statistics were collected
+        assertFalse(Thread.getAllStackTraces().keySet().stream()
+            .anyMatch(t -> t.getName().startsWith("miner-worker-") && t.isAlive()));
+    }
 }
@@ -0,0 +1,65 @@
+package org.brabocoin.brabocoin.mining;
+
+import org.brabocoin.brabocoin.Constants;
+import org.brabocoin.brabocoin.model.Block;
+import org.brabocoin.brabocoin.testutil.Simulation;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class NonceHasherTest {
+
+    private static Block blockWithNonce(Block block, long nonce) {
+        return new Block(
+            block.getPreviousBlockHash(),
+            block.getMerkleRoot(),
+            block.getTargetValue(),
+            BigInteger.valueOf(nonce),
+            block.getBlockHeight(),
+            block.getTransactions(),
+            block.getNetworkId()
+        );
+    }
+
+    @Test
+    void hashMatchesBlockHash() {
+        MiningBlock block = new MiningBlock(
+            Simulation.randomHash(),
+            Simulation.randomHash(),
+            Simulation.randomHash(),
+            BigInteger.ZERO,
+            42,
+            Collections.emptyList(),
+            3
+        );
+
+        NonceHasher hasher = block.createNonceHasher();
+        NonceHasher shared = new NonceHasher(hasher);
+        byte[] hash = new byte[Constants.BLOCK_HASH_SIZE];
+
+        Random random = new Random(0);
+        long[] nonces = {0, 1, 127, 128, 255, 256, 65535, (1L << 40) - 1, Long.MAX_VALUE};
+
+        for (long nonce : nonces) {
+            byte[] expected = blockWithNonce(block, nonce).getHash().getValue().toByteArray();
+
+            hasher.hash(nonce, hash);
+            assertEquals(new BigInteger(1, expected), new BigInteger(1, hash));
+
+            shared.hash(nonce, hash);
+            assertEquals(new BigInteger(1, expected), new BigInteger(1, hash));
+        }
+
+        for (int i = 0; i < 100; i++) {
+            long nonce = random.nextLong() >>> 24;
+            byte[] expected = blockWithNonce(block, nonce).getHash().getValue().toByteArray();
+
+            hasher.hash(nonce, hash);
+            assertEquals(new BigInteger(1, expected), new BigInteger(1, hash));
+        }
+    }
+}
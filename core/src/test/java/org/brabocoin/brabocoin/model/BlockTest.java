@@ -1,7 +1,9 @@
 package org.brabocoin.brabocoin.model;
 
 import com.google.protobuf.ByteString;
+import org.brabocoin.brabocoin.proto.model.BrabocoinProtos;
 import org.brabocoin.brabocoin.testutil.Simulation;
+import org.brabocoin.brabocoin.util.ProtoConverter;
 import org.junit.jupiter.api.*;
 
 import java.util.ArrayList;
@@ -34,4 +36,23 @@ class BlockTest{
         Hash blockHash = block.getHash();
         assertNotNull(blockHash);
     }
+
+    @Test
+    void serializedSizeMatchesProto() {
+        Block block = Simulation.randomBlock(Simulation.randomHash(), 12, 5, 5, 30, true);
+        int expected = ProtoConverter.toProto(block, BrabocoinProtos.Block.class)
+            .getSerializedSize();
+
+        assertEquals(expected, block.getSerializedSize());
+        assertEquals(expected, block.getSerializedSize());
+    }
+
+    @Test
+    void serializedSizeEmptyBlock() {
+        Block block = new Block(Simulation.randomHash(), Simulation.randomHash(), Simulation.randomHash(), Simulation.randomBigInteger(), 0, Collections.emptyList(), 0);
+        int expected = ProtoConverter.toProto(block, BrabocoinProtos.Block.class)
+            .getSerializedSize();
+
+        assertEquals(expected, block.getSerializedSize());
+    }
 }
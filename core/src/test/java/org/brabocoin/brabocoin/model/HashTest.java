@@ -0,0 +1,76 @@
+package org.brabocoin.brabocoin.model;
+
+import com.google.protobuf.ByteString;
+import org.bouncycastle.util.Arrays;
+import org.brabocoin.brabocoin.testutil.Simulation;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HashTest {
+
+    @Test
+    void equalValues() {
+        Hash hash = Simulation.randomHash();
+        Hash copy = new Hash(ByteString.copyFrom(hash.getValue().toByteArray()));
+
+        assertEquals(hash, copy);
+        assertEquals(hash.hashCode(), copy.hashCode());
+        assertEquals(0, hash.compareTo(copy));
+    }
+
+    @Test
+    void leadingZerosIgnored() {
+        Hash hash = new Hash(ByteString.copyFrom(new byte[] {1, 2, 3}));
+        Hash padded = new Hash(ByteString.copyFrom(new byte[] {0, 0, 0, 0, 0, 0, 0, 0, 1, 2, 3}));
+
+        assertEquals(hash, padded);
+        assertEquals(hash.hashCode(), padded.hashCode());
+        assertEquals(0, hash.compareTo(padded));
+        assertEquals(new Hash(ByteString.EMPTY), new Hash(ByteString.copyFrom(new byte[] {0})));
+    }
+
+    @Test
+    void differentValues() {
+        Hash hash = new Hash(ByteString.copyFrom(new byte[] {1, 2, 3}));
+        Hash other = new Hash(ByteString.copyFrom(new byte[] {1, 2, 4}));
+
+        assertNotEquals(hash, other);
+        assertTrue(hash.compareTo(other) < 0);
+        assertTrue(other.compareTo(hash) > 0);
+    }
+
+    @Test
+    void compareMatchesUnsignedByteOrder() {
+        Random random = new Random(0);
+
+        for (int i = 0; i < 1000; i++) {
+            byte[] first = new byte[32];
+            byte[] second = new byte[32];
+            random.nextBytes(first);
+            random.nextBytes(second);
+            first[random.nextInt(8)] = 0;
+            first[0] = 0;
+
+            int expected = Integer.signum(Arrays.compareUnsigned(first, second));
+            int actual = Integer.signum(new Hash(ByteString.copyFrom(first)).compareTo(
+                new Hash(ByteString.copyFrom(second))
+            ));
+
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    void compareDifferentSizes() {
+        Hash shortHash = new Hash(ByteString.copyFrom(new byte[] {(byte)0xFF}));
+        Hash longHash = new Hash(ByteString.copyFrom(new byte[] {1, 0}));
+
+        assertTrue(shortHash.compareTo(longHash) < 0);
+        assertTrue(longHash.compareTo(shortHash) > 0);
+    }
+}
@@ -2,6 +2,7 @@ package org.brabocoin.brabocoin.model;
 
 import com.google.protobuf.ByteString;
 import org.brabocoin.brabocoin.proto.model.BrabocoinProtos;
+import org.brabocoin.brabocoin.crypto.Hashing;
 import org.brabocoin.brabocoin.testutil.Simulation;
 import org.brabocoin.brabocoin.util.ProtoConverter;
 import org.junit.jupiter.api.BeforeAll;
@@ -13,6 +14,7 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 class TransactionTest {
     static Hash transactionHash = new Hash(ByteString.copyFromUtf8("test"));
@@ -58,4 +60,23 @@ class TransactionTest {
         Hash hash = transaction.getHash();
         assertNotNull(hash);
     }
+
+    @Test
+    void serializedDataMatchesProto() {
+        Transaction transaction = Simulation.randomTransaction(5, 5);
+        BrabocoinProtos.Transaction protoTransaction = ProtoConverter.toProto(transaction, BrabocoinProtos.Transaction.class);
+
+        assertEquals(protoTransaction.toByteString(), transaction.getSerializedData());
+        assertSame(transaction.getSerializedData(), transaction.getSerializedData());
+        assertEquals(protoTransaction.getSerializedSize(), transaction.getSerializedSize());
+    }
+
+    @Test
+    void signableTransactionData() {
+        Transaction transaction = Simulation.randomTransaction(5, 5);
+        ByteString expected = Hashing.digestSHA256(Hashing.digestSHA256(transaction.getRawData())).getValue();
+
+        assertEquals(expected, transaction.getSignableTransactionData());
+        assertSame(transaction.getSignableTransactionData(), transaction.getSignableTransactionData());
+    }
 }
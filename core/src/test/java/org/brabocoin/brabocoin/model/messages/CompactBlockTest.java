@@ -0,0 +1,143 @@
+package org.brabocoin.brabocoin.model.messages;
+
+import org.brabocoin.brabocoin.model.Block;
+import org.brabocoin.brabocoin.model.Transaction;
+import org.brabocoin.brabocoin.proto.model.BrabocoinProtos;
+import org.brabocoin.brabocoin.testutil.Simulation;
+import org.brabocoin.brabocoin.util.ProtoConverter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test {@link CompactBlock}.
+ */
+class CompactBlockTest {
+
+    private Block block;
+
+    private CompactBlock compactBlock;
+
+    @BeforeEach
+    void setUp() {
+        block = Simulation.randomBlock(Simulation.randomHash(), 12, 3, 3, 20, true);
+        compactBlock = CompactBlock.fromBlock(block, 42);
+    }
+
+    @Test
+    void fromBlock() {
+        assertEquals(block.getHash(), compactBlock.getHash());
+        assertEquals(block.getTransactions().size(), compactBlock.getTransactionCount());
+        assertEquals(
+            (block.getTransactions().size() - 1) * CompactBlock.SHORT_ID_SIZE,
+            compactBlock.getShortTransactionIds().size()
+        );
+
+        assertEquals(1, compactBlock.getPrefilledTransactions().size());
+        PrefilledTransaction coinbase = compactBlock.getPrefilledTransactions().get(0);
+        assertEquals(0, coinbase.getIndex());
+        assertEquals(block.getTransactions().get(0).getHash(), coinbase.getTransaction().getHash());
+    }
+
+    @Test
+    void protoRoundTrip() {
+        BrabocoinProtos.CompactBlock proto = ProtoConverter.toProto(
+            compactBlock,
+            BrabocoinProtos.CompactBlock.class
+        );
+        CompactBlock parsed = ProtoConverter.toDomain(proto, CompactBlock.Builder.class);
+
+        assertEquals(compactBlock.getHash(), parsed.getHash());
+        assertEquals(compactBlock.getShortIdNonce(), parsed.getShortIdNonce());
+        assertEquals(compactBlock.getShortTransactionIds(), parsed.getShortTransactionIds());
+        assertEquals(
+            compactBlock.getPrefilledTransactions().get(0).getTransaction().getHash(),
+            parsed.getPrefilledTransactions().get(0).getTransaction().getHash()
+        );
+    }
+
+    @Test
+    void shortIdDependsOnNonce() {
+        CompactBlock other = CompactBlock.fromBlock(block, 43);
+        Transaction transaction = block.getTransactions().get(1);
+
+        assertNotEquals(
+            compactBlock.computeShortId(transaction.getHash()),
+            other.computeShortId(transaction.getHash())
+        );
+        assertTrue(compactBlock.computeShortId(transaction.getHash())
+            < (1L << (CompactBlock.SHORT_ID_SIZE * Byte.SIZE)));
+    }
+
+    @Test
+    void matchAllTransactions() {
+        List<Transaction> candidates = new ArrayList<>(block.getTransactions().subList(1, 21));
+        Collections.shuffle(candidates);
+        candidates.add(Simulation.randomTransaction(2, 2));
+
+        List<Transaction> matched = compactBlock.matchTransactions(candidates);
+
+        assertTrue(CompactBlock.findMissingIndices(matched).isEmpty());
+        Block reconstructed = compactBlock.toBlock(matched);
+        assertEquals(block.getHash(), reconstructed.getHash());
+        for (int i = 0; i < block.getTransactions().size(); i++) {
+            assertEquals(
+                block.getTransactions().get(i).getHash(),
+                reconstructed.getTransactions().get(i).getHash()
+            );
+        }
+    }
+
+    @Test
+    void matchMissingTransactions() {
+        List<Transaction> candidates = new ArrayList<>(block.getTransactions());
+        candidates.remove(15);
+        candidates.remove(3);
+
+        List<Transaction> matched = compactBlock.matchTransactions(candidates);
+
+        assertEquals(Arrays.asList(3, 15), CompactBlock.findMissingIndices(matched));
+        assertNull(matched.get(3));
+        assertEquals(block.getTransactions().get(4).getHash(), matched.get(4).getHash());
+    }
+
+    @Test
+    void matchNoCandidates() {
+        List<Transaction> matched = compactBlock.matchTransactions(Collections.emptyList());
+
+        assertEquals(block.getTransactions().get(0).getHash(), matched.get(0).getHash());
+        assertEquals(20, CompactBlock.findMissingIndices(matched).size());
+    }
+
+    @Test
+    void invalidPrefilledIndex() {
+        CompactBlock invalid = new CompactBlock(
+            block.getPreviousBlockHash(),
+            block.getMerkleRoot(),
+            block.getTargetValue(),
+            block.getNonce(),
+            block.getBlockHeight(),
+            block.getNetworkId(),
+            42,
+            compactBlock.getShortTransactionIds(),
+            Collections.singletonList(
+                new PrefilledTransaction(21, block.getTransactions().get(0))
+            )
+        );
+
+        assertThrows(
+            IllegalStateException.class,
+            () -> invalid.matchTransactions(Collections.emptyList())
+        );
+    }
+}
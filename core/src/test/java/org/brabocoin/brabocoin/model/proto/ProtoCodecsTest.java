@@ -0,0 +1,197 @@
+package org.brabocoin.brabocoin.model.proto;
+
+import com.google.protobuf.ByteString;
+import org.brabocoin.brabocoin.model.Block;
+import org.brabocoin.brabocoin.model.Hash;
+import org.brabocoin.brabocoin.model.Input;
+import org.brabocoin.brabocoin.model.Transaction;
+import org.brabocoin.brabocoin.model.crypto.Signature;
+import org.brabocoin.brabocoin.model.dal.BlockInfo;
+import org.brabocoin.brabocoin.model.dal.BlockUndo;
+import org.brabocoin.brabocoin.model.dal.TransactionUndo;
+import org.brabocoin.brabocoin.model.dal.UnspentOutputInfo;
+import org.brabocoin.brabocoin.proto.dal.BrabocoinStorageProtos;
+import org.brabocoin.brabocoin.proto.model.BrabocoinProtos;
+import org.brabocoin.brabocoin.testutil.Simulation;
+import org.brabocoin.brabocoin.util.ProtoConverter;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ProtoCodecsTest {
+
+    @Test
+    void blockMatchesReflectiveConversion() {
+        Block block = Simulation.randomBlock(Simulation.randomHash(), 12, 5, 5, 20, true);
+
+        BrabocoinProtos.Block proto = ProtoConverter.toProto(block, BrabocoinProtos.Block.class);
+        BrabocoinProtos.Block reflective = ProtoConverter.reflectiveToProto(
+            block,
+            BrabocoinProtos.Block.class
+        );
+
+        assertEquals(reflective.toByteString(), proto.toByteString());
+
+        Block decoded = ProtoConverter.toDomain(proto, Block.Builder.class);
+        Block decodedReflective = ProtoConverter.reflectiveToDomain(proto, Block.Builder.class);
+
+        assertEquals(block.getHash(), decoded.getHash());
+        assertEquals(decodedReflective.getHash(), decoded.getHash());
+        assertEquals(block.getTransactions().size(), decoded.getTransactions().size());
+        for (int i = 0; i < block.getTransactions().size(); i++) {
+            Transaction transaction = block.getTransactions().get(i);
+            Transaction decodedTransaction = decoded.getTransactions().get(i);
+
+            assertEquals(transaction.getHash(), decodedTransaction.getHash());
+            assertSignaturesEqual(transaction, decodedTransaction);
+        }
+    }
+
+    @Test
+    void transactionMatchesReflectiveConversion() {
+        Transaction transaction = Simulation.randomTransaction(5, 5);
+
+        BrabocoinProtos.Transaction proto = ProtoConverter.toProto(
+            transaction,
+            BrabocoinProtos.Transaction.class
+        );
+        BrabocoinProtos.Transaction reflective = ProtoConverter.reflectiveToProto(
+            transaction,
+            BrabocoinProtos.Transaction.class
+        );
+
+        assertEquals(reflective.toByteString(), proto.toByteString());
+
+        Transaction decoded = ProtoConverter.toDomain(proto, Transaction.Builder.class);
+        assertEquals(transaction.getHash(), decoded.getHash());
+        assertSignaturesEqual(transaction, decoded);
+    }
+
+    private static void assertSignaturesEqual(Transaction expected, Transaction actual) {
+        assertEquals(expected.getSignatures().size(), actual.getSignatures().size());
+        for (int i = 0; i < expected.getSignatures().size(); i++) {
+            Signature expectedSignature = expected.getSignatures().get(i);
+            Signature actualSignature = actual.getSignatures().get(i);
+
+            assertEquals(expectedSignature.getR(), actualSignature.getR());
+            assertEquals(expectedSignature.getS(), actualSignature.getS());
+            assertEquals(expectedSignature.getPublicKey(), actualSignature.getPublicKey());
+        }
+    }
+
+    @Test
+    void blockInfoMatchesReflectiveConversion() {
+        BlockInfo info = new BlockInfo(
+            Simulation.randomHash(),
+            Simulation.randomHash(),
+            Simulation.randomHash(),
+            BigInteger.valueOf(-123456789),
+            42,
+            7,
+            3,
+            true,
+            1540000000000L,
+            5,
+            1024,
+            2048,
+            4096,
+            512,
+            true
+        );
+
+        BrabocoinStorageProtos.BlockInfo proto = ProtoConverter.toProto(
+            info,
+            BrabocoinStorageProtos.BlockInfo.class
+        );
+        BrabocoinStorageProtos.BlockInfo reflective = ProtoConverter.reflectiveToProto(
+            info,
+            BrabocoinStorageProtos.BlockInfo.class
+        );
+
+        assertEquals(reflective.toByteString(), proto.toByteString());
+
+        BlockInfo decoded = ProtoConverter.toDomain(proto, BlockInfo.Builder.class);
+        assertEquals(info.getPreviousBlockHash(), decoded.getPreviousBlockHash());
+        assertEquals(info.getNonce(), decoded.getNonce());
+        assertEquals(info.getTimeReceived(), decoded.getTimeReceived());
+        assertEquals(info.getOffsetInUndoFile(), decoded.getOffsetInUndoFile());
+        assertEquals(info.getSizeInUndoFile(), decoded.getSizeInUndoFile());
+        assertEquals(info.isMinedByMe(), decoded.isMinedByMe());
+    }
+
+    @Test
+    void unsetSubMessagesRejectedLikeReflectiveConversion() {
+        BrabocoinStorageProtos.BlockInfo proto = BrabocoinStorageProtos.BlockInfo.newBuilder()
+            .setNonce(ByteString.copyFrom(BigInteger.TEN.toByteArray()))
+            .setBlockHeight(3)
+            .build();
+
+        assertThrows(
+            NullPointerException.class,
+            () -> ProtoConverter.reflectiveToDomain(proto, BlockInfo.Builder.class)
+        );
+        assertThrows(
+            NullPointerException.class,
+            () -> ProtoConverter.toDomain(proto, BlockInfo.Builder.class)
+        );
+
+        BrabocoinProtos.Input inputProto = BrabocoinProtos.Input.newBuilder()
+            .setReferencedOutputIndex(2)
+            .build();
+
+        assertThrows(
+            NullPointerException.class,
+            () -> ProtoConverter.reflectiveToDomain(inputProto, Input.Builder.class)
+        );
+        assertThrows(
+            NullPointerException.class,
+            () -> ProtoConverter.toDomain(inputProto, Input.Builder.class)
+        );
+    }
+
+    @Test
+    void blockUndoMatchesReflectiveConversion() {
+        List<TransactionUndo> transactionUndos = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            transactionUndos.add(new TransactionUndo(Simulation.repeatedBuilder(
+                () -> new UnspentOutputInfo(false, 10, 250, Simulation.randomHash()),
+                3
+            )));
+        }
+        transactionUndos.add(new TransactionUndo(Collections.emptyList()));
+        BlockUndo undo = new BlockUndo(transactionUndos);
+
+        BrabocoinStorageProtos.BlockUndo proto = ProtoConverter.toProto(
+            undo,
+            BrabocoinStorageProtos.BlockUndo.class
+        );
+        BrabocoinStorageProtos.BlockUndo reflective = ProtoConverter.reflectiveToProto(
+            undo,
+            BrabocoinStorageProtos.BlockUndo.class
+        );
+
+        assertEquals(reflective.toByteString(), proto.toByteString());
+
+        BlockUndo decoded = ProtoConverter.toDomain(proto, BlockUndo.Builder.class);
+        assertEquals(undo.getTransactionUndos().size(), decoded.getTransactionUndos().size());
+        UnspentOutputInfo expected = undo.getTransactionUndos().get(0).getOutputInfoList().get(0);
+        UnspentOutputInfo actual = decoded.getTransactionUndos().get(0).getOutputInfoList().get(0);
+        assertEquals(expected.getAddress(), actual.getAddress());
+        assertEquals(expected.getAmount(), actual.getAmount());
+    }
+
+    @Test
+    void lookupUsesExactClass() {
+        assertSame(ProtoCodecs.BLOCK, ProtoCodecs.forDomainClass(Block.class));
+        assertSame(ProtoCodecs.HASH, ProtoCodecs.forBuilderClass(Hash.Builder.class));
+        assertNull(ProtoCodecs.forDomainClass(Object.class));
+    }
+}
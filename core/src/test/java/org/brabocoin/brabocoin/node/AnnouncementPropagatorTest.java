@@ -0,0 +1,402 @@
+package org.brabocoin.brabocoin.node;
+
+import com.google.protobuf.Empty;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import org.brabocoin.brabocoin.exceptions.MalformedSocketException;
+import org.brabocoin.brabocoin.model.Hash;
+import org.brabocoin.brabocoin.testutil.Simulation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test {@link AnnouncementPropagator}.
+ */
+class AnnouncementPropagatorTest {
+
+    private List<Peer> peers;
+
+    private Map<Peer, List<Hash>> received;
+
+    private Map<Peer, AtomicInteger> messageCounts;
+
+    private List<StreamObserver<Empty>> pendingCalls;
+
+    private List<Runnable> scheduledTasks;
+
+    @BeforeEach
+    void setUp() throws MalformedSocketException {
+        peers = Arrays.asList(
+            new Peer("localhost:9001"),
+            new Peer("localhost:9002"),
+            new Peer("localhost:9003")
+        );
+        received = new ConcurrentHashMap<>();
+        messageCounts = new ConcurrentHashMap<>();
+        pendingCalls = new CopyOnWriteArrayList<>();
+        scheduledTasks = new CopyOnWriteArrayList<>();
+    }
+
+    @AfterEach
+    void tearDown() {
+        peers.forEach(Peer::shutdown);
+    }
+
+    private void record(Peer peer, List<AnnouncementPropagator.Announcement> announcements) {
+        messageCounts.computeIfAbsent(peer, p -> new AtomicInteger()).incrementAndGet();
+        List<Hash> hashes = received.computeIfAbsent(peer, p -> new CopyOnWriteArrayList<>());
+        announcements.forEach(a -> hashes.add(a.getHash()));
+    }
+
+    private AnnouncementPropagator.Scheduler manualScheduler() {
+        return (task, delay) -> scheduledTasks.add(task);
+    }
+
+    private void runScheduledTasks() {
+        while (!scheduledTasks.isEmpty()) {
+            scheduledTasks.remove(0).run();
+        }
+    }
+
+    /**
+     * Completes every message immediately.
+     */
+    private AnnouncementPropagator.Announcer immediateAnnouncer() {
+        return (peer, announcements, inventory, deadline, observer) -> {
+            record(peer, announcements);
+            observer.onNext(Empty.getDefaultInstance());
+            observer.onCompleted();
+        };
+    }
+
+    /**
+     * Only completes messages when the pending calls are completed by the test.
+     */
+    private AnnouncementPropagator.Announcer pendingAnnouncer() {
+        return (peer, announcements, inventory, deadline, observer) -> {
+            record(peer, announcements);
+            pendingCalls.add(observer);
+        };
+    }
+
+    private void completePendingCalls() {
+        while (!pendingCalls.isEmpty()) {
+            StreamObserver<Empty> observer = pendingCalls.remove(0);
+            observer.onCompleted();
+        }
+    }
+
+    @Test
+    void announceToAllPeersInOrder() {
+        AnnouncementPropagator propagator = new AnnouncementPropagator(
+            2,
+            100,
+            1000,
+            0,
+            immediateAnnouncer(),
+            manualScheduler()
+        );
+
+        List<Hash> hashes = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Hash hash = Simulation.randomHash();
+            hashes.add(hash);
+            if (i % 2 == 0) {
+                propagator.announceBlock(hash, peers);
+            }
+            else {
+                propagator.announceTransaction(hash, peers);
+            }
+        }
+
+        for (Peer peer : peers) {
+            assertEquals(hashes, received.get(peer));
+        }
+        assertTrue(scheduledTasks.isEmpty());
+    }
+
+    @Test
+    void boundedConcurrency() {
+        AnnouncementPropagator propagator = new AnnouncementPropagator(
+            2,
+            100,
+            1000,
+            0,
+            pendingAnnouncer(),
+            manualScheduler()
+        );
+
+        Hash hash = Simulation.randomHash();
+        propagator.announceBlock(hash, peers);
+
+        assertEquals(2, pendingCalls.size());
+
+        completePendingCalls();
+
+        for (Peer peer : peers) {
+            assertEquals(Collections.singletonList(hash), received.get(peer));
+        }
+    }
+
+    @Test
+    void slowPeerDoesNotBlockOthers() {
+        Peer slow = peers.get(0);
+        List<StreamObserver<Empty>> slowCalls = new ArrayList<>();
+        AnnouncementPropagator propagator = new AnnouncementPropagator(
+            2,
+            100,
+            1000,
+            0,
+            (peer, announcements, inventory, deadline, observer) -> {
+                record(peer, announcements);
+                if (peer.equals(slow)) {
+                    slowCalls.add(observer);
+                    return;
+                }
+
+                observer.onCompleted();
+            },
+            manualScheduler()
+        );
+
+        for (int i = 0; i < 5; i++) {
+            propagator.announceTransaction(Simulation.randomHash(), peers);
+        }
+
+        assertEquals(1, slowCalls.size());
+        assertEquals(1, received.get(slow).size());
+        assertEquals(5, received.get(peers.get(1)).size());
+        assertEquals(5, received.get(peers.get(2)).size());
+
+        // The deadline of the slow call expires, the remaining announcements are batched
+        slowCalls.remove(0).onError(Status.DEADLINE_EXCEEDED.asRuntimeException());
+        assertEquals(5, received.get(slow).size());
+        assertEquals(2, messageCounts.get(slow).get());
+    }
+
+    @Test
+    void dropOldestWhenQueueFull() {
+        Peer peer = peers.get(0);
+        AnnouncementPropagator propagator = new AnnouncementPropagator(
+            1,
+            2,
+            1000,
+            0,
+            pendingAnnouncer(),
+            manualScheduler()
+        );
+
+        List<Hash> hashes = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Hash hash = Simulation.randomHash();
+            hashes.add(hash);
+            propagator.announceBlock(hash, Collections.singletonList(peer));
+        }
+
+        completePendingCalls();
+
+        assertEquals(Arrays.asList(hashes.get(0), hashes.get(3), hashes.get(4)), received.get(peer));
+
+        // The dropped hashes can be announced again
+        assertFalse(peer.getKnownInventory().contains(hashes.get(1)));
+        assertFalse(peer.getKnownInventory().contains(hashes.get(2)));
+        assertTrue(peer.getKnownInventory().contains(hashes.get(4)));
+    }
+
+    @Test
+    void removedPeerQueueDiscarded() {
+        Peer peer = peers.get(0);
+        AnnouncementPropagator propagator = new AnnouncementPropagator(
+            1,
+            100,
+            1000,
+            0,
+            pendingAnnouncer(),
+            manualScheduler()
+        );
+
+        propagator.announceBlock(Simulation.randomHash(), Collections.singletonList(peer));
+        propagator.announceBlock(Simulation.randomHash(), Collections.singletonList(peer));
+        propagator.removePeer(peer);
+
+        completePendingCalls();
+
+        assertEquals(1, received.get(peer).size());
+        assertTrue(pendingCalls.isEmpty());
+    }
+
+    @Test
+    void forgetFailedAnnouncements() {
+        Peer peer = peers.get(0);
+        AnnouncementPropagator propagator = new AnnouncementPropagator(
+            1,
+            100,
+            1000,
+            0,
+            pendingAnnouncer(),
+            manualScheduler()
+        );
+
+        Hash hash = Simulation.randomHash();
+        propagator.announceBlock(hash, Collections.singletonList(peer));
+        assertTrue(peer.getKnownInventory().contains(hash));
+
+        pendingCalls.remove(0).onError(Status.DEADLINE_EXCEEDED.asRuntimeException());
+        assertFalse(peer.getKnownInventory().contains(hash));
+
+        // The hash is announced again
+        propagator.announceBlock(hash, Collections.singletonList(peer));
+        completePendingCalls();
+
+        assertEquals(Arrays.asList(hash, hash), received.get(peer));
+        assertTrue(peer.getKnownInventory().contains(hash));
+    }
+
+    @Test
+    void forgetAnnouncementsThatCouldNotBeSent() {
+        Peer peer = peers.get(0);
+        AnnouncementPropagator propagator = new AnnouncementPropagator(
+            1,
+            100,
+            1000,
+            0,
+            (p, announcements, inventory, deadline, observer) -> {
+                throw Status.UNAVAILABLE.asRuntimeException();
+            },
+            manualScheduler()
+        );
+
+        Hash hash = Simulation.randomHash();
+        propagator.announceTransaction(hash, Collections.singletonList(peer));
+
+        assertFalse(peer.getKnownInventory().contains(hash));
+        assertEquals(0, propagator.getSuppressedAnnouncementCount());
+    }
+
+    @Test
+    void suppressKnownInventory() {
+        AnnouncementPropagator propagator = new AnnouncementPropagator(
+            10,
+            100,
+            1000,
+            0,
+            immediateAnnouncer(),
+            manualScheduler()
+        );
+
+        Hash hash = Simulation.randomHash();
+        peers.get(0).getKnownInventory().add(hash);
+
+        propagator.announceTransaction(hash, peers);
+        propagator.announceTransaction(hash, peers);
+
+        assertNull(received.get(peers.get(0)));
+        assertEquals(Collections.singletonList(hash), received.get(peers.get(1)));
+        assertEquals(Collections.singletonList(hash), received.get(peers.get(2)));
+        assertEquals(4, propagator.getSuppressedAnnouncementCount());
+    }
+
+    @Test
+    void trickleBatchesTransactions() {
+        AnnouncementPropagator propagator = new AnnouncementPropagator(
+            10,
+            1000,
+            1000,
+            500,
+            immediateAnnouncer(),
+            manualScheduler()
+        );
+
+        List<Hash> hashes = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Hash hash = Simulation.randomHash();
+            hashes.add(hash);
+            propagator.announceTransaction(hash, peers);
+        }
+
+        assertTrue(received.isEmpty());
+        assertEquals(peers.size(), scheduledTasks.size());
+
+        runScheduledTasks();
+
+        for (Peer peer : peers) {
+            assertEquals(hashes, received.get(peer));
+            assertEquals(1, messageCounts.get(peer).get());
+        }
+    }
+
+    @Test
+    void blockFlushesTrickle() {
+        Peer peer = peers.get(0);
+        AnnouncementPropagator propagator = new AnnouncementPropagator(
+            10,
+            1000,
+            1000,
+            500,
+            immediateAnnouncer(),
+            manualScheduler()
+        );
+
+        Hash transactionHash = Simulation.randomHash();
+        Hash blockHash = Simulation.randomHash();
+        propagator.announceTransaction(transactionHash, Collections.singletonList(peer));
+        propagator.announceBlock(blockHash, Collections.singletonList(peer));
+
+        assertEquals(Arrays.asList(transactionHash, blockHash), received.get(peer));
+        assertEquals(1, messageCounts.get(peer).get());
+
+        // The trickle task does not send anything anymore
+        runScheduledTasks();
+        assertEquals(1, messageCounts.get(peer).get());
+    }
+
+    @Test
+    void fallbackWithoutInventorySupport() {
+        Peer peer = peers.get(0);
+        List<Boolean> inventoryFlags = new ArrayList<>();
+        AnnouncementPropagator propagator = new AnnouncementPropagator(
+            10,
+            1000,
+            1000,
+            500,
+            (p, announcements, inventory, deadline, observer) -> {
+                inventoryFlags.add(inventory);
+                if (inventory) {
+                    observer.onError(Status.UNIMPLEMENTED.asRuntimeException());
+                    return;
+                }
+
+                record(p, announcements);
+                observer.onCompleted();
+            },
+            manualScheduler()
+        );
+
+        List<Hash> hashes = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Hash hash = Simulation.randomHash();
+            hashes.add(hash);
+            propagator.announceTransaction(hash, Collections.singletonList(peer));
+        }
+        runScheduledTasks();
+
+        assertEquals(hashes, received.get(peer));
+        assertEquals(3, messageCounts.get(peer).get());
+        assertEquals(Arrays.asList(true, false, false, false), inventoryFlags);
+    }
+}
@@ -0,0 +1,208 @@
+package org.brabocoin.brabocoin.node;
+
+import io.grpc.Status;
+import org.brabocoin.brabocoin.exceptions.MalformedSocketException;
+import org.brabocoin.brabocoin.model.Block;
+import org.brabocoin.brabocoin.model.Hash;
+import org.brabocoin.brabocoin.testutil.Simulation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test {@link BlockDownloader}.
+ */
+class BlockDownloaderTest {
+
+    private List<Block> blocks;
+
+    private List<Hash> hashes;
+
+    private Map<Hash, Block> blocksByHash;
+
+    private List<Peer> peers;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() throws MalformedSocketException {
+        blocks = Simulation.randomBlockChainGenerator(100);
+        hashes = blocks.stream().map(Block::getHash).collect(Collectors.toList());
+        blocksByHash = new HashMap<>();
+        blocks.forEach(b -> blocksByHash.put(b.getHash(), b));
+        peers = Arrays.asList(
+            new Peer("localhost:9001"),
+            new Peer("localhost:9002"),
+            new Peer("localhost:9003")
+        );
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        peers.forEach(Peer::shutdown);
+    }
+
+    /**
+     * Responds to every request asynchronously, sending the blocks in reverse order.
+     */
+    private BlockDownloader.BlockRequester reversedResponder(Map<Peer, AtomicInteger> requestCounts,
+                                                              Map<Peer, AtomicInteger> inFlight,
+                                                              AtomicInteger maxInFlight) {
+        return (peer, requested, observer) -> {
+            requestCounts.computeIfAbsent(peer, p -> new AtomicInteger()).incrementAndGet();
+            int current = inFlight.computeIfAbsent(peer, p -> new AtomicInteger())
+                .incrementAndGet();
+            maxInFlight.accumulateAndGet(current, Math::max);
+
+            executor.submit(() -> {
+                List<Hash> reversed = new ArrayList<>(requested);
+                Collections.reverse(reversed);
+                reversed.forEach(h -> observer.onNext(blocksByHash.get(h)));
+                inFlight.get(peer).decrementAndGet();
+                observer.onCompleted();
+            });
+
+            return () -> {
+            };
+        };
+    }
+
+    @Test
+    void downloadInOrderFromAllPeers() throws InterruptedException {
+        Map<Peer, AtomicInteger> requestCounts = new ConcurrentHashMap<>();
+        Map<Peer, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        BlockDownloader downloader = new BlockDownloader(
+            4,
+            2,
+            10_000,
+            reversedResponder(requestCounts, inFlight, maxInFlight)
+        );
+
+        List<Hash> processed = new ArrayList<>();
+        int count = downloader.download(hashes, peers, b -> processed.add(b.getHash()));
+
+        assertEquals(100, count);
+        assertEquals(hashes, processed);
+        assertEquals(3, requestCounts.size());
+        assertEquals(25, requestCounts.values().stream().mapToInt(AtomicInteger::get).sum());
+        assertTrue(maxInFlight.get() <= 2);
+    }
+
+    @Test
+    void reassignFailingPeer() throws InterruptedException {
+        Map<Peer, AtomicInteger> requestCounts = new ConcurrentHashMap<>();
+        BlockDownloader.BlockRequester responder = reversedResponder(
+            requestCounts,
+            new ConcurrentHashMap<>(),
+            new AtomicInteger()
+        );
+        Peer failing = peers.get(0);
+        AtomicInteger failingRequests = new AtomicInteger();
+        BlockDownloader downloader = new BlockDownloader(4, 2, 10_000, (peer, requested, observer) -> {
+            if (peer.equals(failing)) {
+                failingRequests.incrementAndGet();
+                executor.submit(() -> observer.onError(Status.UNAVAILABLE.asRuntimeException()));
+                return () -> {
+                };
+            }
+
+            return responder.request(peer, requested, observer);
+        });
+
+        List<Hash> processed = new ArrayList<>();
+        int count = downloader.download(hashes, peers, b -> processed.add(b.getHash()));
+
+        assertEquals(100, count);
+        assertEquals(hashes, processed);
+        assertTrue(failingRequests.get() <= 2);
+    }
+
+    @Test
+    void reassignSlowPeer() throws InterruptedException {
+        Map<Peer, AtomicInteger> requestCounts = new ConcurrentHashMap<>();
+        BlockDownloader.BlockRequester responder = reversedResponder(
+            requestCounts,
+            new ConcurrentHashMap<>(),
+            new AtomicInteger()
+        );
+        Peer slow = peers.get(1);
+        AtomicInteger cancelled = new AtomicInteger();
+        BlockDownloader downloader = new BlockDownloader(4, 2, 200, (peer, requested, observer) -> {
+            if (peer.equals(slow)) {
+                // Never respond
+                return cancelled::incrementAndGet;
+            }
+
+            return responder.request(peer, requested, observer);
+        });
+
+        List<Hash> processed = new ArrayList<>();
+        int count = downloader.download(hashes, peers, b -> processed.add(b.getHash()));
+
+        assertEquals(100, count);
+        assertEquals(hashes, processed);
+        assertTrue(cancelled.get() >= 1);
+    }
+
+    @Test
+    void incompleteResponseWithoutOtherPeers() throws InterruptedException {
+        BlockDownloader downloader = new BlockDownloader(4, 2, 10_000, (peer, requested, observer) -> {
+            executor.submit(() -> {
+                requested.stream()
+                    .filter(h -> !h.equals(hashes.get(10)))
+                    .forEach(h -> observer.onNext(blocksByHash.get(h)));
+                observer.onCompleted();
+            });
+            return () -> {
+            };
+        });
+
+        int count = downloader.download(
+            hashes,
+            Collections.singletonList(peers.get(0)),
+            b -> true
+        );
+
+        assertEquals(10, count);
+    }
+
+    @Test
+    void stopWhenRejected() throws InterruptedException {
+        BlockDownloader downloader = new BlockDownloader(
+            4,
+            2,
+            10_000,
+            reversedResponder(
+                new ConcurrentHashMap<>(),
+                new ConcurrentHashMap<>(),
+                new AtomicInteger()
+            )
+        );
+
+        int count = downloader.download(
+            hashes,
+            peers,
+            b -> !b.getHash().equals(hashes.get(42))
+        );
+
+        assertEquals(42, count);
+    }
+}
@@ -0,0 +1,205 @@
+package org.brabocoin.brabocoin.node;
+
+import org.brabocoin.brabocoin.exceptions.MalformedSocketException;
+import org.brabocoin.brabocoin.model.Hash;
+import org.brabocoin.brabocoin.testutil.Simulation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test {@link InFlightRequests}.
+ */
+class InFlightRequestsTest {
+
+    private List<Peer> peers;
+
+    @BeforeEach
+    void setUp() throws MalformedSocketException {
+        peers = Arrays.asList(
+            new Peer("localhost:9001"),
+            new Peer("localhost:9002"),
+            new Peer("localhost:9003")
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        peers.forEach(Peer::shutdown);
+    }
+
+    @Test
+    void assignToSinglePeer() {
+        InFlightRequests requests = new InFlightRequests(10_000);
+        List<Hash> hashes = Arrays.asList(Simulation.randomHash(), Simulation.randomHash());
+
+        Map<Peer, List<Hash>> assigned = requests.assign(
+            InFlightRequests.Type.TRANSACTION,
+            hashes,
+            peers,
+            true
+        );
+
+        assertEquals(Collections.singletonMap(peers.get(0), hashes), assigned);
+        assertEquals(2, requests.size());
+        assertEquals(4, requests.getAvoidedRequestCount());
+    }
+
+    @Test
+    void preferPeerKnowingHash() {
+        InFlightRequests requests = new InFlightRequests(10_000);
+        Hash hash = Simulation.randomHash();
+        peers.get(2).getKnownInventory().add(hash);
+
+        Map<Peer, List<Hash>> assigned = requests.assign(
+            InFlightRequests.Type.BLOCK,
+            Collections.singletonList(hash),
+            peers,
+            false
+        );
+
+        assertEquals(Collections.singletonList(hash), assigned.get(peers.get(2)));
+    }
+
+    @Test
+    void doNotRequestTwice() {
+        InFlightRequests requests = new InFlightRequests(10_000);
+        Hash hash = Simulation.randomHash();
+
+        requests.assign(
+            InFlightRequests.Type.TRANSACTION,
+            Collections.singletonList(hash),
+            Collections.singletonList(peers.get(0)),
+            true
+        );
+        Map<Peer, List<Hash>> assigned = requests.assign(
+            InFlightRequests.Type.TRANSACTION,
+            Collections.singletonList(hash),
+            Collections.singletonList(peers.get(1)),
+            true
+        );
+
+        assertTrue(assigned.isEmpty());
+        assertEquals(1, requests.getAvoidedRequestCount());
+
+        // The second peer is used as alternative
+        List<InFlightRequests.Request> reassigned = requests.reassign(
+            peers.get(0),
+            Collections.singletonList(hash)
+        );
+        assertEquals(1, reassigned.size());
+        assertEquals(peers.get(1), reassigned.get(0).getPeer());
+        assertEquals(1, requests.getRetryCount());
+    }
+
+    @Test
+    void avoidedRequestsOnlyCountNewAlternatives() {
+        InFlightRequests requests = new InFlightRequests(10_000);
+        Hash hash = Simulation.randomHash();
+        List<Hash> hashes = Collections.singletonList(hash);
+
+        requests.assign(
+            InFlightRequests.Type.TRANSACTION,
+            hashes,
+            Collections.singletonList(peers.get(0)),
+            true
+        );
+        assertEquals(0, requests.getAvoidedRequestCount());
+
+        // The peer the hash is requested from is no alternative
+        requests.assign(
+            InFlightRequests.Type.TRANSACTION,
+            hashes,
+            Collections.singletonList(peers.get(0)),
+            true
+        );
+        assertEquals(0, requests.getAvoidedRequestCount());
+
+        requests.assign(InFlightRequests.Type.TRANSACTION, hashes, peers, true);
+        assertEquals(2, requests.getAvoidedRequestCount());
+
+        // The peers are already alternatives
+        requests.assign(InFlightRequests.Type.TRANSACTION, hashes, peers, true);
+        assertEquals(2, requests.getAvoidedRequestCount());
+    }
+
+    @Test
+    void reassignIgnoresReceivedHashes() {
+        InFlightRequests requests = new InFlightRequests(10_000);
+        List<Hash> hashes = Arrays.asList(Simulation.randomHash(), Simulation.randomHash());
+
+        requests.assign(InFlightRequests.Type.BLOCK, hashes, peers, true);
+        assertTrue(requests.complete(hashes.get(0)));
+        assertFalse(requests.complete(hashes.get(0)));
+
+        List<InFlightRequests.Request> reassigned = requests.reassign(peers.get(0), hashes);
+
+        assertEquals(1, reassigned.size());
+        assertEquals(hashes.get(1), reassigned.get(0).getHash());
+        assertEquals(peers.get(1), reassigned.get(0).getPeer());
+
+        // Another finished request of the first peer does not affect the reassigned hash
+        assertTrue(requests.reassign(peers.get(0), hashes).isEmpty());
+    }
+
+    @Test
+    void retrySamePeerWithoutAlternatives() throws InterruptedException {
+        InFlightRequests requests = new InFlightRequests(50);
+        Hash hash = Simulation.randomHash();
+        List<Hash> hashes = Collections.singletonList(hash);
+
+        requests.assign(
+            InFlightRequests.Type.BLOCK,
+            hashes,
+            Collections.singletonList(peers.get(0)),
+            false
+        );
+
+        // The request is kept until the deadline
+        assertTrue(requests.reassign(peers.get(0), hashes).isEmpty());
+        assertTrue(requests.contains(hash));
+
+        Thread.sleep(100);
+
+        List<InFlightRequests.Request> reassigned = requests.expire();
+        assertEquals(1, reassigned.size());
+        assertEquals(peers.get(0), reassigned.get(0).getPeer());
+
+        // Give up after the second attempt
+        assertTrue(requests.reassign(peers.get(0), hashes).isEmpty());
+        Thread.sleep(100);
+        assertTrue(requests.expire().isEmpty());
+        assertFalse(requests.contains(hash));
+    }
+
+    @Test
+    void expireAfterTimeout() throws InterruptedException {
+        InFlightRequests requests = new InFlightRequests(50);
+        Hash hash = Simulation.randomHash();
+
+        requests.assign(
+            InFlightRequests.Type.TRANSACTION,
+            Collections.singletonList(hash),
+            peers,
+            true
+        );
+        assertTrue(requests.expire().isEmpty());
+
+        Thread.sleep(100);
+
+        List<InFlightRequests.Request> reassigned = requests.expire();
+        assertEquals(1, reassigned.size());
+        assertEquals(peers.get(1), reassigned.get(0).getPeer());
+        assertEquals(1, requests.getTimeoutCount());
+        assertTrue(reassigned.get(0).isPropagate());
+    }
+}
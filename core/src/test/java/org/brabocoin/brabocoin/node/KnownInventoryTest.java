@@ -0,0 +1,50 @@
+package org.brabocoin.brabocoin.node;
+
+import org.brabocoin.brabocoin.model.Hash;
+import org.brabocoin.brabocoin.testutil.Simulation;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test {@link KnownInventory}.
+ */
+class KnownInventoryTest {
+
+    @Test
+    void addAndContains() {
+        KnownInventory inventory = new KnownInventory(10);
+        Hash hash = Simulation.randomHash();
+
+        assertFalse(inventory.contains(hash));
+        assertTrue(inventory.add(hash));
+        assertTrue(inventory.contains(hash));
+        assertFalse(inventory.add(hash));
+        assertEquals(1, inventory.size());
+
+        inventory.remove(hash);
+        assertFalse(inventory.contains(hash));
+        assertTrue(inventory.add(hash));
+    }
+
+    @Test
+    void forgetLeastRecentlyAdded() {
+        KnownInventory inventory = new KnownInventory(2);
+        Hash first = Simulation.randomHash();
+        Hash second = Simulation.randomHash();
+        Hash third = Simulation.randomHash();
+
+        inventory.add(first);
+        inventory.add(second);
+        // Adding again makes the first hash the most recent
+        inventory.add(first);
+        inventory.add(third);
+
+        assertEquals(2, inventory.size());
+        assertTrue(inventory.contains(first));
+        assertFalse(inventory.contains(second));
+        assertTrue(inventory.contains(third));
+    }
+}
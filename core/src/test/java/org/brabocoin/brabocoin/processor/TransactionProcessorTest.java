@@ -2,6 +2,7 @@ package org.brabocoin.brabocoin.processor;
 
 import org.brabocoin.brabocoin.Constants;
 import org.brabocoin.brabocoin.config.MutableBraboConfig;
+import org.brabocoin.brabocoin.dal.TransactionPoolIO;
 import org.brabocoin.brabocoin.exceptions.DatabaseException;
 import org.brabocoin.brabocoin.model.Block;
 import org.brabocoin.brabocoin.model.Hash;
@@ -25,6 +26,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -48,6 +50,8 @@ class TransactionProcessorTest {
 
     private TestState state;
 
+    private List<RuleList> validatedRuleLists;
+
     @BeforeAll
     static void setUpConfig() {
         config = new MockLegacyConfig(new LegacyBraboConfig(new MutableBraboConfig()));
@@ -63,6 +67,7 @@ class TransactionProcessorTest {
             txhistFile.delete();
         }
 
+        validatedRuleLists = new ArrayList<>();
         state = new TestState(config) {
             @Override
             protected TransactionValidator createTransactionValidator() {
@@ -73,6 +78,7 @@ class TransactionProcessorTest {
                     public TransactionValidationResult validate(@NotNull Transaction transaction,
                                                                 @NotNull RuleList ruleList,
                                                                 boolean useCompositeUTXO) {
+                        validatedRuleLists.add(ruleList);
                         return TransactionValidationResult.passed();
                     }
                 };
@@ -397,4 +403,50 @@ class TransactionProcessorTest {
         assertTrue(state.getTransactionPool().isDependent(independentHash));
         assertTrue(state.getTransactionPool().isIndependent(orphanHash));
     }
+
+    @Test
+    void restoreTransactionsVerified() throws DatabaseException {
+        Transaction transaction = createIndependentTransaction();
+        Hash hash = transaction.getHash();
+
+        int restored = state.getTransactionProcessor().restoreTransactions(
+            Collections.singletonList(new TransactionPoolIO.Record(transaction, 1234, false, true))
+        );
+
+        assertEquals(1, restored);
+        assertTrue(state.getTransactionPool().isIndependent(hash));
+        assertEquals(1234, state.getTransactionPool().getEntry(hash).getTimeReceived());
+
+        // Only the contextual rules are checked again
+        assertTrue(validatedRuleLists.contains(TransactionValidator.RESTORED));
+        assertFalse(validatedRuleLists.contains(TransactionValidator.ALL));
+    }
+
+    @Test
+    void restoreTransactionsUnverified() throws DatabaseException {
+        Transaction transaction = createIndependentTransaction();
+        Hash hash = transaction.getHash();
+
+        int restored = state.getTransactionProcessor().restoreTransactions(
+            Collections.singletonList(new TransactionPoolIO.Record(transaction, 1234, false, false))
+        );
+
+        assertEquals(1, restored);
+        assertTrue(state.getTransactionPool().isIndependent(hash));
+        assertTrue(validatedRuleLists.contains(TransactionValidator.ALL));
+        assertFalse(validatedRuleLists.contains(TransactionValidator.RESTORED));
+    }
+
+    @Test
+    void restoreTransactionsSkipsKnown() throws DatabaseException {
+        Transaction transaction = createIndependentTransaction();
+        state.getTransactionPool().addIndependentTransaction(transaction);
+
+        int restored = state.getTransactionProcessor().restoreTransactions(
+            Collections.singletonList(new TransactionPoolIO.Record(transaction, 1234, false, true))
+        );
+
+        assertEquals(0, restored);
+        assertTrue(validatedRuleLists.isEmpty());
+    }
 }
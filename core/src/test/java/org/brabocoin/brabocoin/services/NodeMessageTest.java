@@ -2,7 +2,10 @@ package org.brabocoin.brabocoin.services;
 
 import com.google.protobuf.ByteString;
 import com.google.protobuf.Empty;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
 import io.grpc.stub.StreamObserver;
+import org.brabocoin.brabocoin.Constants;
 import org.brabocoin.brabocoin.config.MutableBraboConfig;
 import org.brabocoin.brabocoin.dal.BlockDatabase;
 import org.brabocoin.brabocoin.dal.HashMapDB;
@@ -11,6 +14,7 @@ import org.brabocoin.brabocoin.model.Block;
 import org.brabocoin.brabocoin.model.Hash;
 import org.brabocoin.brabocoin.model.messages.BlockHeight;
 import org.brabocoin.brabocoin.model.messages.ChainCompatibility;
+import org.brabocoin.brabocoin.model.messages.Inventory;
 import org.brabocoin.brabocoin.node.NodeEnvironment;
 import org.brabocoin.brabocoin.node.Peer;
 import org.brabocoin.brabocoin.node.state.State;
@@ -26,11 +30,13 @@ import org.junit.jupiter.api.Test;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
@@ -525,6 +531,82 @@ class NodeMessageTest {
         nodeB.stopAndBlock();
     }
 
+    @Test
+    void announceInventoryTest() throws DatabaseException, IOException, InterruptedException {
+        final CountDownLatch finishLatch = new CountDownLatch(1);
+        final List<List<Hash>> receivedHashes = new CopyOnWriteArrayList<>();
+        MockLegacyConfig config = new MockLegacyConfig(defaultConfig) {
+            @Override
+            public List<String> bootstrapPeers() {
+                return new ArrayList<>();
+            }
+
+            @Override
+            public Integer servicePort() {
+                return 8090;
+            }
+        };
+
+        State stateA = new TestState(config) {
+            @Override
+            protected NodeEnvironment createEnvironment() {
+                return new NodeEnvironment(this) {
+                    @Override
+                    public void onReceiveTransactionHashes(@NotNull List<Hash> transactionHashes,
+                                                           List<Peer> peers) {
+                        receivedHashes.add(transactionHashes);
+                        finishLatch.countDown();
+                    }
+                };
+            }
+        };
+
+        Node nodeB = generateNode(8091, new MockLegacyConfig(defaultConfig) {
+            @Override
+            public List<String> bootstrapPeers() {
+                return new ArrayList<String>() {{
+                    add("localhost:8090");
+                }};
+            }
+        });
+
+        stateA.getNode().start();
+        nodeB.start();
+
+        Peer nodeBpeer = nodeB.getEnvironment().getPeers().iterator().next();
+
+        List<Hash> hashes = Arrays.asList(
+            Simulation.randomHash(),
+            Simulation.randomHash(),
+            Simulation.randomHash()
+        );
+        nodeBpeer.getBlockingStub().announceInventory(ProtoConverter.toProto(
+            new Inventory(Collections.emptyList(), hashes),
+            BrabocoinProtos.Inventory.class
+        ));
+
+        assertTrue(finishLatch.await(1, TimeUnit.MINUTES));
+        assertEquals(Collections.singletonList(hashes), receivedHashes);
+
+        // Inventories that are too large are rejected
+        List<Hash> tooMany = new ArrayList<>();
+        for (int i = 0; i <= Constants.MAX_INVENTORY_SIZE; i++) {
+            tooMany.add(Simulation.randomHash());
+        }
+        StatusRuntimeException exception = assertThrows(
+            StatusRuntimeException.class,
+            () -> nodeBpeer.getBlockingStub().announceInventory(ProtoConverter.toProto(
+                new Inventory(Collections.emptyList(), tooMany),
+                BrabocoinProtos.Inventory.class
+            ))
+        );
+        assertEquals(Status.Code.INVALID_ARGUMENT, exception.getStatus().getCode());
+        assertEquals(1, receivedHashes.size());
+
+        stateA.getNode().stopAndBlock();
+        nodeB.stopAndBlock();
+    }
+
     @Test
     void announceTransactionTest() throws DatabaseException, IOException, InterruptedException {
         final CountDownLatch finishLatch = new CountDownLatch(1);
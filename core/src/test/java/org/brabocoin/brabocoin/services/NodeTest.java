@@ -1,10 +1,16 @@
 package org.brabocoin.brabocoin.services;
 
 import com.google.protobuf.ByteString;
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.StreamObserver;
 import org.brabocoin.brabocoin.chain.IndexedBlock;
 import org.brabocoin.brabocoin.config.MutableBraboConfig;
 import org.brabocoin.brabocoin.crypto.PublicKey;
 import org.brabocoin.brabocoin.exceptions.DatabaseException;
+import org.brabocoin.brabocoin.exceptions.MalformedSocketException;
 import org.brabocoin.brabocoin.mining.Miner;
 import org.brabocoin.brabocoin.model.Block;
 import org.brabocoin.brabocoin.model.Hash;
@@ -12,18 +18,38 @@ import org.brabocoin.brabocoin.model.Input;
 import org.brabocoin.brabocoin.model.Output;
 import org.brabocoin.brabocoin.model.Transaction;
 import org.brabocoin.brabocoin.model.UnsignedTransaction;
+import org.brabocoin.brabocoin.model.messages.BlockHeader;
+import org.brabocoin.brabocoin.model.messages.BlockTransactionsRequest;
+import org.brabocoin.brabocoin.model.messages.CompactBlock;
+import org.brabocoin.brabocoin.model.messages.HandshakeRequest;
+import org.brabocoin.brabocoin.node.NodeEnvironment;
+import org.brabocoin.brabocoin.node.Peer;
 import org.brabocoin.brabocoin.node.state.State;
+import org.brabocoin.brabocoin.proto.model.BrabocoinProtos;
+import org.brabocoin.brabocoin.proto.services.NodeGrpc;
 import org.brabocoin.brabocoin.testutil.LegacyBraboConfig;
 import org.brabocoin.brabocoin.testutil.MockLegacyConfig;
 import org.brabocoin.brabocoin.testutil.Simulation;
 import org.brabocoin.brabocoin.testutil.TestState;
+import org.brabocoin.brabocoin.util.ProtoConverter;
+import org.brabocoin.brabocoin.validation.block.BlockValidationResult;
+import org.brabocoin.brabocoin.validation.block.BlockValidator;
+import org.brabocoin.brabocoin.validation.block.rules.ValidNetworkIdBlkRule;
 import org.brabocoin.brabocoin.validation.consensus.Consensus;
+import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.math.BigInteger;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
 import java.nio.file.DirectoryNotEmptyException;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
@@ -34,13 +60,29 @@ import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 import static org.awaitility.Awaitility.await;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 public class NodeTest {
 
@@ -1327,4 +1369,578 @@ public class NodeTest {
         stateA.getNode().stopAndBlock();
         stateB.getNode().stopAndBlock();
     }
+
+    /**
+     * <em>Setup:</em>
+     * Two nodes: A and B.
+     * A has a chain of 20 blocks, B has the first 8 blocks of this chain.
+     *
+     * <em>Expected result:</em>
+     * When B requests the headers from A, it receives the validated headers of blocks 9 to 20
+     * without storing any block.
+     */
+    @Test
+    void getHeaders() throws DatabaseException, IOException, InterruptedException,
+                             MalformedSocketException {
+        State stateA = new TestState(new MockLegacyConfig(defaultConfig) {
+            @Override
+            public String dataDirectory() {
+                return super.dataDirectory() + "/nodeA";
+            }
+
+            @Override
+            public Integer servicePort() {
+                return 8090;
+            }
+        }, mockConsensus);
+
+        Miner minerA = stateA.getMiner();
+        IndexedBlock previousBlockA = stateA.getBlockchain().getMainChain().getGenesisBlock();
+        for (int i = 0; i < 20; i++) {
+            Block newBlock = minerA.mineNewBlock(previousBlockA, Simulation.randomHash());
+            stateA.getBlockProcessor().processNewBlock(newBlock, false);
+            previousBlockA = stateA.getBlockchain().getIndexedBlock(newBlock.getHash());
+        }
+
+        State stateB = new TestState(new MockLegacyConfig(defaultConfig) {
+            @Override
+            public String dataDirectory() {
+                return super.dataDirectory() + "/nodeB";
+            }
+
+            @Override
+            public Integer servicePort() {
+                return 8091;
+            }
+        }, mockConsensus);
+
+        for (int i = 1; i < 9; i++) {
+            Block newBlock = stateA.getBlockchain()
+                .getBlock(stateA.getBlockchain().getMainChain().getBlockAtHeight(i));
+            stateB.getBlockProcessor().processNewBlock(newBlock, false);
+        }
+
+        stateA.getNode().start();
+
+        List<BlockHeader> headers = stateB.getEnvironment()
+            .getHeadersRequest(new Peer("localhost:8090"));
+
+        assertEquals(12, headers.size());
+        for (int i = 0; i < headers.size(); i++) {
+            assertEquals(9 + i, headers.get(i).getBlockHeight());
+            assertEquals(
+                stateA.getBlockchain().getMainChain().getBlockAtHeight(9 + i).getHash(),
+                headers.get(i).getHash()
+            );
+        }
+        assertEquals(8, stateB.getBlockchain().getMainChain().getHeight());
+
+        stateA.getNode().stopAndBlock();
+    }
+
+    /**
+     * <em>Setup:</em>
+     * Two nodes: A and B.
+     * A has a chain of 5 blocks on a network different from the network of B.
+     *
+     * <em>Expected result:</em>
+     * When B requests the headers from A, the header chain is rejected at the first header.
+     */
+    @Test
+    void getHeadersInvalidNetwork() throws DatabaseException, IOException, InterruptedException,
+                                           MalformedSocketException {
+        State stateA = new TestState(new MockLegacyConfig(defaultConfig) {
+            @Override
+            public String dataDirectory() {
+                return super.dataDirectory() + "/nodeA";
+            }
+
+            @Override
+            public Integer servicePort() {
+                return 8090;
+            }
+        }, mockConsensus);
+
+        Miner minerA = stateA.getMiner();
+        IndexedBlock previousBlockA = stateA.getBlockchain().getMainChain().getGenesisBlock();
+        Block firstBlockA = null;
+        for (int i = 0; i < 5; i++) {
+            Block newBlock = minerA.mineNewBlock(previousBlockA, Simulation.randomHash());
+            stateA.getBlockProcessor().processNewBlock(newBlock, false);
+            previousBlockA = stateA.getBlockchain().getIndexedBlock(newBlock.getHash());
+            if (firstBlockA == null) {
+                firstBlockA = newBlock;
+            }
+        }
+
+        State stateB = new TestState(new MockLegacyConfig(defaultConfig) {
+            @Override
+            public String dataDirectory() {
+                return super.dataDirectory() + "/nodeB";
+            }
+
+            @Override
+            public Integer servicePort() {
+                return 8091;
+            }
+
+            @Override
+            public Integer networkId() {
+                return super.networkId() + 1;
+            }
+        }, mockConsensus);
+
+        // The headers of A connect to the chain of B, but fail the header validation of B
+        assertNotNull(stateB.getBlockchain().getIndexedBlock(firstBlockA.getPreviousBlockHash()));
+        BlockValidationResult result = stateB.getBlockValidator().validate(
+            firstBlockA,
+            BlockValidator.HEADER
+        );
+        assertFalse(result.isPassed());
+        assertEquals(ValidNetworkIdBlkRule.class, result.getFailMarker().getFailedRule());
+
+        stateA.getNode().start();
+
+        List<BlockHeader> headers = stateB.getEnvironment()
+            .getHeadersRequest(new Peer("localhost:8090"));
+
+        assertTrue(headers.isEmpty());
+
+        stateA.getNode().stopAndBlock();
+    }
+
+    /**
+     * <em>Setup:</em>
+     * Node A and a peer that serves malformed compact blocks, but valid full blocks.
+     *
+     * <em>Expected result:</em>
+     * A falls back to requesting the full blocks from the peer.
+     */
+    @Test
+    void malformedCompactBlockFallsBackToFullBlock() throws DatabaseException, IOException,
+                                                            InterruptedException,
+                                                            MalformedSocketException {
+        State stateA = new TestState(new MockLegacyConfig(defaultConfig) {
+            @Override
+            public String dataDirectory() {
+                return super.dataDirectory() + "/nodeA";
+            }
+
+            @Override
+            public Integer servicePort() {
+                return 8090;
+            }
+        }, mockConsensus);
+
+        State stateB = new TestState(new MockLegacyConfig(defaultConfig) {
+            @Override
+            public String dataDirectory() {
+                return super.dataDirectory() + "/nodeB";
+            }
+
+            @Override
+            public Integer servicePort() {
+                return 8091;
+            }
+        }, mockConsensus);
+
+        Miner minerB = stateB.getMiner();
+        IndexedBlock previousBlockB = stateB.getBlockchain().getMainChain().getGenesisBlock();
+        Map<Hash, Block> blocks = new HashMap<>();
+        List<Block> minedBlocks = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Block newBlock = minerB.mineNewBlock(previousBlockB, Simulation.randomHash());
+            stateB.getBlockProcessor().processNewBlock(newBlock, false);
+            previousBlockB = stateB.getBlockchain().getIndexedBlock(newBlock.getHash());
+            blocks.put(newBlock.getHash(), newBlock);
+            minedBlocks.add(newBlock);
+        }
+
+        List<Function<BrabocoinProtos.CompactBlock.Builder, BrabocoinProtos.CompactBlock.Builder>>
+            corruptions = Arrays.asList(
+            // No transactions at all
+            b -> b.clearShortTransactionIds().clearPrefilledTransactions(),
+            // Short ids that are not a multiple of the short id size
+            b -> b.setShortTransactionIds(ByteString.copyFrom(new byte[5])),
+            // Missing header field
+            BrabocoinProtos.CompactBlock.Builder::clearMerkleRoot
+        );
+        AtomicInteger corruption = new AtomicInteger();
+
+        Server server = ServerBuilder.forPort(8092).addService(new NodeGrpc.NodeImplBase() {
+            @Override
+            public void getCompactBlock(BrabocoinProtos.Hash request,
+                                        StreamObserver<BrabocoinProtos.CompactBlock> observer) {
+                Block block = blocks.get(ProtoConverter.toDomain(request, Hash.Builder.class));
+                BrabocoinProtos.CompactBlock.Builder compactBlock = ProtoConverter.toProto(
+                    CompactBlock.fromBlock(block, 0),
+                    BrabocoinProtos.CompactBlock.class
+                ).toBuilder();
+                observer.onNext(corruptions.get(corruption.get()).apply(compactBlock).build());
+                observer.onCompleted();
+            }
+
+            @Override
+            public StreamObserver<BrabocoinProtos.Hash> getBlocks(
+                StreamObserver<BrabocoinProtos.Block> observer) {
+                return new StreamObserver<BrabocoinProtos.Hash>() {
+                    @Override
+                    public void onNext(BrabocoinProtos.Hash value) {
+                        Block block = blocks.get(ProtoConverter.toDomain(
+                            value,
+                            Hash.Builder.class
+                        ));
+                        observer.onNext(ProtoConverter.toProto(
+                            block,
+                            BrabocoinProtos.Block.class
+                        ));
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        observer.onCompleted();
+                    }
+                };
+            }
+        }).build().start();
+
+        Peer peer = new Peer("localhost:8092");
+        try {
+            for (int i = 0; i < corruptions.size(); i++) {
+                corruption.set(i);
+                Block block = minedBlocks.get(i);
+                stateA.getEnvironment().getCompactBlockRequest(
+                    block.getHash(),
+                    Collections.singletonList(peer)
+                );
+
+                await().atMost(30, TimeUnit.SECONDS)
+                    .until(() -> stateA.getBlockchain().getMainChain().getHeight()
+                        == block.getBlockHeight());
+            }
+        }
+        finally {
+            peer.shutdown();
+            server.shutdownNow().awaitTermination();
+        }
+    }
+
+    /**
+     * <em>Setup:</em>
+     * Node A has a block with a single transaction.
+     *
+     * <em>Expected result:</em>
+     * A request for the transactions of the block with a duplicate index is rejected, while a
+     * request with unique indices is served.
+     */
+    @Test
+    void getBlockTransactionsRejectsDuplicateIndices() throws DatabaseException, IOException,
+                                                              InterruptedException,
+                                                              MalformedSocketException {
+        State stateA = new TestState(new MockLegacyConfig(defaultConfig) {
+            @Override
+            public String dataDirectory() {
+                return super.dataDirectory() + "/nodeA";
+            }
+
+            @Override
+            public Integer servicePort() {
+                return 8090;
+            }
+        }, mockConsensus);
+
+        Block block = stateA.getMiner().mineNewBlock(
+            stateA.getBlockchain().getMainChain().getGenesisBlock(),
+            Simulation.randomHash()
+        );
+        stateA.getBlockProcessor().processNewBlock(block, false);
+        assertEquals(1, block.getTransactions().size());
+
+        stateA.getNode().start();
+
+        Peer peer = new Peer("localhost:8090");
+        try {
+            Iterator<BrabocoinProtos.Transaction> transactions = peer.getBlockingStub()
+                .getBlockTransactions(blockTransactionsRequest(block, 0));
+            assertEquals(
+                block.getTransactions().get(0).getHash(),
+                ProtoConverter.toDomain(transactions.next(), Transaction.Builder.class).getHash()
+            );
+            assertFalse(transactions.hasNext());
+
+            Iterator<BrabocoinProtos.Transaction> duplicates = peer.getBlockingStub()
+                .getBlockTransactions(blockTransactionsRequest(block, 0, 0));
+            StatusRuntimeException exception = assertThrows(
+                StatusRuntimeException.class,
+                duplicates::hasNext
+            );
+            assertEquals(Status.Code.INVALID_ARGUMENT, exception.getStatus().getCode());
+        }
+        finally {
+            peer.shutdown();
+            stateA.getNode().stopAndBlock();
+        }
+    }
+
+    /**
+     * <em>Setup:</em>
+     * Node A runs its service on multiple threads.
+     * Two peers connect to A from distinct addresses and perform a handshake concurrently.
+     *
+     * <em>Expected result:</em>
+     * When both peers announce blocks and transactions at the same time, every announcement is
+     * attributed to the peer that sent it.
+     */
+    @Test
+    void concurrentAnnouncementsAttributedToSender() throws DatabaseException, IOException,
+                                                            InterruptedException,
+                                                            ExecutionException,
+                                                            TimeoutException,
+                                                            MalformedSocketException {
+        InetAddress addressB = InetAddress.getByName("127.0.0.2");
+        InetAddress addressC = InetAddress.getByName("127.0.0.3");
+        assumeTrue(
+            SourceAddressRelay.canBind(addressB) && SourceAddressRelay.canBind(addressC),
+            "Loopback addresses other than 127.0.0.1 cannot be bound on this host."
+        );
+
+        Map<Hash, List<Peer>> announcements = new ConcurrentHashMap<>();
+
+        State stateA = new TestState(new MockLegacyConfig(defaultConfig) {
+            @Override
+            public String dataDirectory() {
+                return super.dataDirectory() + "/nodeA";
+            }
+
+            @Override
+            public Integer servicePort() {
+                return 8090;
+            }
+
+            @Override
+            public Integer serviceThreads() {
+                return 4;
+            }
+        }, mockConsensus) {
+            @Override
+            protected NodeEnvironment createEnvironment() {
+                return new NodeEnvironment(this) {
+                    @Override
+                    public void onReceiveBlockHash(@NotNull Hash blockHash,
+                                                   @NotNull List<Peer> peers) {
+                        announcements.put(blockHash, peers);
+                    }
+
+                    @Override
+                    public void onReceiveTransactionHash(@NotNull Hash transactionHash,
+                                                         List<Peer> peers) {
+                        announcements.put(transactionHash, peers);
+                    }
+                };
+            }
+        };
+
+        stateA.getNode().start();
+
+        InetSocketAddress target = new InetSocketAddress(InetAddress.getByName("127.0.0.1"), 8090);
+        int announcementsPerPeer = 50;
+
+        ExecutorService clients = Executors.newFixedThreadPool(2);
+        try (SourceAddressRelay relayB = new SourceAddressRelay(addressB, target);
+             SourceAddressRelay relayC = new SourceAddressRelay(addressC, target)) {
+            Peer peerB = new Peer("127.0.0.1:" + relayB.getPort());
+            Peer peerC = new Peer("127.0.0.1:" + relayC.getPort());
+
+            try {
+                CyclicBarrier handshakeBarrier = new CyclicBarrier(2);
+                List<Future<?>> handshakes = Arrays.asList(
+                    clients.submit(() -> handshake(peerB, 9001, handshakeBarrier)),
+                    clients.submit(() -> handshake(peerC, 9002, handshakeBarrier))
+                );
+                for (Future<?> handshake : handshakes) {
+                    handshake.get(30, TimeUnit.SECONDS);
+                }
+
+                await().atMost(30, TimeUnit.SECONDS)
+                    .until(() -> stateA.getEnvironment().getPeers().size() == 2);
+
+                Map<Hash, InetAddress> senders = new ConcurrentHashMap<>();
+                CyclicBarrier announceBarrier = new CyclicBarrier(2);
+                List<Future<?>> announcers = Arrays.asList(
+                    clients.submit(() -> announce(
+                        peerB, addressB, announcementsPerPeer, senders, announceBarrier
+                    )),
+                    clients.submit(() -> announce(
+                        peerC, addressC, announcementsPerPeer, senders, announceBarrier
+                    ))
+                );
+                for (Future<?> announcer : announcers) {
+                    announcer.get(30, TimeUnit.SECONDS);
+                }
+
+                await().atMost(30, TimeUnit.SECONDS)
+                    .until(() -> announcements.size() == 4 * announcementsPerPeer);
+
+                assertEquals(senders.keySet(), announcements.keySet());
+                for (Map.Entry<Hash, List<Peer>> announcement : announcements.entrySet()) {
+                    InetAddress sender = senders.get(announcement.getKey());
+                    List<Peer> peers = announcement.getValue();
+
+                    assertEquals(1, peers.size());
+                    assertEquals(sender, peers.get(0).getAddress());
+                    assertEquals(sender.equals(addressB) ? 9001 : 9002, peers.get(0).getPort());
+                }
+            }
+            finally {
+                peerB.shutdown();
+                peerC.shutdown();
+            }
+        }
+        finally {
+            clients.shutdownNow();
+            stateA.getNode().stopAndBlock();
+        }
+    }
+
+    private Void handshake(Peer peer, int servicePort,
+                           CyclicBarrier barrier) throws Exception {
+        barrier.await();
+        peer.getBlockingStub().handshake(ProtoConverter.toProto(
+            new HandshakeRequest(servicePort, defaultConfig.networkId()),
+            BrabocoinProtos.HandshakeRequest.class
+        ));
+        return null;
+    }
+
+    private Void announce(Peer peer, InetAddress address, int count,
+                          Map<Hash, InetAddress> senders,
+                          CyclicBarrier barrier) throws Exception {
+        barrier.await();
+        for (int i = 0; i < count; i++) {
+            Hash blockHash = Simulation.randomHash();
+            Hash transactionHash = Simulation.randomHash();
+            senders.put(blockHash, address);
+            senders.put(transactionHash, address);
+
+            peer.getBlockingStub()
+                .announceBlock(ProtoConverter.toProto(blockHash, BrabocoinProtos.Hash.class));
+            peer.getBlockingStub().announceTransaction(
+                ProtoConverter.toProto(transactionHash, BrabocoinProtos.Hash.class)
+            );
+        }
+        return null;
+    }
+
+    private static BrabocoinProtos.BlockTransactionsRequest blockTransactionsRequest(
+        Block block, Integer... indices) {
+        return ProtoConverter.toProto(
+            new BlockTransactionsRequest(block.getHash(), Arrays.asList(indices)),
+            BrabocoinProtos.BlockTransactionsRequest.class
+        );
+    }
+
+    /**
+     * Relays connections to a target address from a fixed local source address, such that the
+     * target observes every relayed client at that source address.
+     */
+    private static class SourceAddressRelay implements Closeable {
+
+        private final ServerSocket serverSocket;
+        private final List<Socket> sockets = new CopyOnWriteArrayList<>();
+
+        SourceAddressRelay(InetAddress source, InetSocketAddress target) throws IOException {
+            serverSocket = new ServerSocket(0, 50, InetAddress.getByName("127.0.0.1"));
+
+            Thread acceptor = new Thread(() -> {
+                while (!serverSocket.isClosed()) {
+                    Socket client;
+                    try {
+                        client = serverSocket.accept();
+                    }
+                    catch (IOException e) {
+                        // Relay is closed
+                        return;
+                    }
+
+                    Socket upstream = new Socket();
+                    sockets.add(client);
+                    sockets.add(upstream);
+                    try {
+                        upstream.bind(new InetSocketAddress(source, 0));
+                        upstream.connect(target);
+                    }
+                    catch (IOException e) {
+                        closeQuietly(client);
+                        closeQuietly(upstream);
+                        continue;
+                    }
+
+                    pipe(client, upstream);
+                    pipe(upstream, client);
+                }
+            }, "relay-" + source.getHostAddress());
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        int getPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        /**
+         * Checks whether outgoing connections can be bound to the given local address.
+         * <p>
+         * Only 127.0.0.1 is guaranteed to be available, other loopback addresses are only
+         * assigned by default on some platforms.
+         */
+        static boolean canBind(InetAddress address) {
+            try (Socket probe = new Socket()) {
+                probe.bind(new InetSocketAddress(address, 0));
+                return true;
+            }
+            catch (IOException e) {
+                return false;
+            }
+        }
+
+        private static void pipe(Socket from, Socket to) {
+            Thread thread = new Thread(() -> {
+                byte[] buffer = new byte[8192];
+                try {
+                    InputStream in = from.getInputStream();
+                    OutputStream out = to.getOutputStream();
+                    int read;
+                    while ((read = in.read(buffer)) != -1) {
+                        out.write(buffer, 0, read);
+                        out.flush();
+                    }
+                    to.shutdownOutput();
+                }
+                catch (IOException ignored) {
+                    // One of the sockets is closed
+                }
+            });
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private static void closeQuietly(Socket socket) {
+            try {
+                socket.close();
+            }
+            catch (IOException ignored) {
+                // Already closed
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+            sockets.forEach(SourceAddressRelay::closeQuietly);
+        }
+    }
 }
@@ -130,6 +130,86 @@ public class LegacyBraboConfig {
         return delegator.isAllowLocalPeers();
     }
 
+    public Integer maxUtxoCacheSize() {
+        return delegator.getMaxUtxoCacheSize();
+    }
+
+    public String blockFileSyncPolicy() {
+        return delegator.getBlockFileSyncPolicy();
+    }
+
+    public Integer blockFileSyncInterval() {
+        return delegator.getBlockFileSyncInterval();
+    }
+
+    public Integer blockFileSyncBytes() {
+        return delegator.getBlockFileSyncBytes();
+    }
+
+    public Integer blockFilePreallocationSize() {
+        return delegator.getBlockFilePreallocationSize();
+    }
+
+    public Integer maxBlockCacheSize() {
+        return delegator.getMaxBlockCacheSize();
+    }
+
+    public Integer signatureCacheSize() {
+        return delegator.getSignatureCacheSize();
+    }
+
+    public Integer signatureVerificationThreads() {
+        return delegator.getSignatureVerificationThreads();
+    }
+
+    public String transactionPoolFile() {
+        return delegator.getTransactionPoolFile();
+    }
+
+    public Integer transactionPoolPersistInterval() {
+        return delegator.getTransactionPoolPersistInterval();
+    }
+
+    public Boolean persistOrphanTransactions() {
+        return delegator.isPersistOrphanTransactions();
+    }
+
+    public Integer blockDownloadChunkSize() {
+        return delegator.getBlockDownloadChunkSize();
+    }
+
+    public Integer blockDownloadWindow() {
+        return delegator.getBlockDownloadWindow();
+    }
+
+    public Integer blockDownloadTimeout() {
+        return delegator.getBlockDownloadTimeout();
+    }
+
+    public Integer serviceThreads() {
+        return delegator.getServiceThreads();
+    }
+
+    public Integer announceDeadline() {
+        return delegator.getAnnounceDeadline();
+    }
+
+    public Integer announceConcurrency() {
+        return delegator.getAnnounceConcurrency();
+    }
+
+    public Integer announceQueueSize() {
+        return delegator.getAnnounceQueueSize();
+    }
+
+    public Integer announceTrickleInterval() {
+        return delegator.getAnnounceTrickleInterval();
+    }
+
+    public Integer requestTimeout() {
+        return delegator.getRequestTimeout();
+    }
+
     public BraboConfig toBraboConfig() {
         BraboConfig config = new MutableBraboConfig();
         for (Field f : config.getClass().getFields()) {
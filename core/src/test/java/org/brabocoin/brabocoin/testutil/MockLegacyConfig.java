@@ -150,4 +150,104 @@ public class MockLegacyConfig extends LegacyBraboConfig {
     public Boolean allowLocalPeers() {
         return delegator.allowLocalPeers();
     }
+
+    @Override
+    public Integer maxUtxoCacheSize() {
+        return delegator.maxUtxoCacheSize();
+    }
+
+    @Override
+    public String blockFileSyncPolicy() {
+        return delegator.blockFileSyncPolicy();
+    }
+
+    @Override
+    public Integer blockFileSyncInterval() {
+        return delegator.blockFileSyncInterval();
+    }
+
+    @Override
+    public Integer blockFileSyncBytes() {
+        return delegator.blockFileSyncBytes();
+    }
+
+    @Override
+    public Integer blockFilePreallocationSize() {
+        return delegator.blockFilePreallocationSize();
+    }
+
+    @Override
+    public Integer maxBlockCacheSize() {
+        return delegator.maxBlockCacheSize();
+    }
+
+    @Override
+    public Integer signatureCacheSize() {
+        return delegator.signatureCacheSize();
+    }
+
+    @Override
+    public Integer signatureVerificationThreads() {
+        return delegator.signatureVerificationThreads();
+    }
+
+    @Override
+    public String transactionPoolFile() {
+        return delegator.transactionPoolFile();
+    }
+
+    @Override
+    public Integer transactionPoolPersistInterval() {
+        return delegator.transactionPoolPersistInterval();
+    }
+
+    @Override
+    public Boolean persistOrphanTransactions() {
+        return delegator.persistOrphanTransactions();
+    }
+
+    @Override
+    public Integer blockDownloadChunkSize() {
+        return delegator.blockDownloadChunkSize();
+    }
+
+    @Override
+    public Integer blockDownloadWindow() {
+        return delegator.blockDownloadWindow();
+    }
+
+    @Override
+    public Integer blockDownloadTimeout() {
+        return delegator.blockDownloadTimeout();
+    }
+
+    @Override
+    public Integer serviceThreads() {
+        return delegator.serviceThreads();
+    }
+
+    @Override
+    public Integer announceDeadline() {
+        return delegator.announceDeadline();
+    }
+
+    @Override
+    public Integer announceConcurrency() {
+        return delegator.announceConcurrency();
+    }
+
+    @Override
+    public Integer announceQueueSize() {
+        return delegator.announceQueueSize();
+    }
+
+    @Override
+    public Integer announceTrickleInterval() {
+        return delegator.announceTrickleInterval();
+    }
+
+    @Override
+    public Integer requestTimeout() {
+        return delegator.requestTimeout();
+    }
 }
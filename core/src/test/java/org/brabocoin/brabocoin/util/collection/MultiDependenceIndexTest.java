@@ -124,4 +124,27 @@ public class MultiDependenceIndexTest {
 
         assertEquals("out to", index.getKeyAt(0));
     }
+
+    @Test
+    void getKeyAtRemoveMovesLast() {
+        index.put("out of");
+        index.put("out to");
+        index.put("out by");
+        index.removeValue("out of");
+
+        assertEquals(2, index.size());
+        assertEquals("out by", index.getKeyAt(0));
+        assertEquals("out to", index.getKeyAt(1));
+    }
+
+    @Test
+    void getKeyAtRemoveLast() {
+        index.put("out of");
+        index.put("out to");
+        index.removeValue("out to");
+        index.put("out by");
+
+        assertEquals("out of", index.getKeyAt(0));
+        assertEquals("out by", index.getKeyAt(1));
+    }
 }
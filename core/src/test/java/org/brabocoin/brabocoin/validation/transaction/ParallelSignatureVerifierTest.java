@@ -0,0 +1,159 @@
+package org.brabocoin.brabocoin.validation.transaction;
+
+import org.brabocoin.brabocoin.crypto.EllipticCurve;
+import org.brabocoin.brabocoin.crypto.Signer;
+import org.brabocoin.brabocoin.model.Input;
+import org.brabocoin.brabocoin.model.Output;
+import org.brabocoin.brabocoin.model.Transaction;
+import org.brabocoin.brabocoin.model.UnsignedTransaction;
+import org.brabocoin.brabocoin.model.crypto.Signature;
+import org.brabocoin.brabocoin.testutil.Simulation;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ParallelSignatureVerifierTest {
+
+    private static final EllipticCurve CURVE = EllipticCurve.secp256k1();
+
+    private static Signer signer;
+
+    private static ParallelSignatureVerifier verifier;
+
+    @BeforeAll
+    static void setUp() {
+        signer = new Signer(CURVE);
+        verifier = new ParallelSignatureVerifier(signer, 4);
+    }
+
+    private static Transaction signedTransaction(int inputCount) {
+        UnsignedTransaction unsignedTransaction = new UnsignedTransaction(
+            Simulation.repeatedBuilder(Simulation::randomInput, inputCount),
+            Collections.singletonList(Simulation.randomOutput())
+        );
+
+        List<Signature> signatures = new ArrayList<>();
+        for (int i = 0; i < inputCount; i++) {
+            signatures.add(signer.signMessage(
+                unsignedTransaction.getSignableTransactionData(),
+                Simulation.randomPrivateKey().add(BigInteger.ONE)
+            ));
+        }
+
+        return unsignedTransaction.sign(signatures);
+    }
+
+    private static List<Transaction> signedTransactions() {
+        List<Transaction> transactions = new ArrayList<>();
+        transactions.add(Transaction.coinbase(Simulation.randomOutput(), 1));
+        for (int i = 0; i < 5; i++) {
+            transactions.add(signedTransaction(3));
+        }
+        return transactions;
+    }
+
+    @Test
+    void allValid() {
+        assertNull(verifier.verify(signedTransactions()));
+    }
+
+    @Test
+    void invalidSignature() {
+        List<Transaction> transactions = signedTransactions();
+        Transaction transaction = transactions.get(3);
+
+        List<Signature> signatures = new ArrayList<>(transaction.getSignatures());
+        Signature signature = signatures.get(1);
+        signatures.set(1, new Signature(
+            signature.getR(),
+            signature.getS().add(BigInteger.ONE),
+            signature.getPublicKey()
+        ));
+        Transaction corrupted = new Transaction(
+            transaction.getInputs(),
+            transaction.getOutputs(),
+            signatures
+        );
+        transactions.set(3, corrupted);
+
+        ParallelSignatureVerifier.InvalidSignature invalidSignature =
+            verifier.verify(transactions);
+
+        assertNotNull(invalidSignature);
+        assertEquals(3, invalidSignature.getTransactionIndex());
+        assertEquals(1, invalidSignature.getInputIndex());
+        assertEquals(corrupted.getHash(), invalidSignature.getTransaction().getHash());
+    }
+
+    @Test
+    void reportLowestInvalidSignature() {
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            transactions.add(signedTransaction(3));
+        }
+        transactions.set(4, withoutLastSignature(transactions.get(4)));
+        transactions.set(15, withoutLastSignature(transactions.get(15)));
+
+        // The reported signature must not depend on the order in which the checks complete
+        for (int i = 0; i < 20; i++) {
+            ParallelSignatureVerifier.InvalidSignature invalidSignature =
+                verifier.verify(transactions);
+
+            assertNotNull(invalidSignature);
+            assertEquals(4, invalidSignature.getTransactionIndex());
+            assertEquals(2, invalidSignature.getInputIndex());
+        }
+    }
+
+    private static Transaction withoutLastSignature(Transaction transaction) {
+        return new Transaction(
+            transaction.getInputs(),
+            transaction.getOutputs(),
+            transaction.getSignatures().subList(0, transaction.getSignatures().size() - 1)
+        );
+    }
+
+    @Test
+    void missingSignature() {
+        List<Transaction> transactions = signedTransactions();
+        Transaction transaction = transactions.get(2);
+
+        transactions.set(2, new Transaction(
+            transaction.getInputs(),
+            transaction.getOutputs(),
+            transaction.getSignatures().subList(0, 2)
+        ));
+
+        ParallelSignatureVerifier.InvalidSignature invalidSignature =
+            verifier.verify(transactions);
+
+        assertNotNull(invalidSignature);
+        assertEquals(2, invalidSignature.getTransactionIndex());
+        assertEquals(2, invalidSignature.getInputIndex());
+    }
+
+    @Test
+    void noSignatures() {
+        List<Transaction> transactions = Collections.singletonList(
+            new Transaction(
+                Collections.singletonList(new Input(Simulation.randomHash(), 0)),
+                Collections.singletonList(new Output(Simulation.randomHash(), 10)),
+                Collections.emptyList()
+            )
+        );
+
+        ParallelSignatureVerifier.InvalidSignature invalidSignature =
+            verifier.verify(transactions);
+
+        assertNotNull(invalidSignature);
+        assertEquals(0, invalidSignature.getInputIndex());
+    }
+}
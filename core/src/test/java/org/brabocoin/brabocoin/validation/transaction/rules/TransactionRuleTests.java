@@ -28,6 +28,7 @@ import org.brabocoin.brabocoin.validation.consensus.Consensus;
 import org.brabocoin.brabocoin.validation.fact.FactMap;
 import org.brabocoin.brabocoin.validation.rule.RuleBook;
 import org.brabocoin.brabocoin.validation.rule.RuleList;
+import org.brabocoin.brabocoin.validation.transaction.ParallelSignatureVerifier;
 import org.brabocoin.brabocoin.validation.transaction.TransactionValidationResult;
 import org.brabocoin.brabocoin.validation.transaction.TransactionValidator;
 import org.jetbrains.annotations.NotNull;
@@ -40,6 +41,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -1840,4 +1842,71 @@ class TransactionRuleTests {
 
         assertFalse(ruleBook.run(facts).isPassed());
     }
+
+    @Test
+    void ParallelSignatureTxRuleSuccess() {
+        Transaction tx = Simulation.randomTransaction(3, 3);
+
+        RuleBook ruleBook = new RuleBook(new RuleList(
+            Collections.singletonList(ParallelSignatureTxRule.class)
+        ));
+
+        FactMap facts = new FactMap();
+        facts.put("transaction", tx);
+        facts.put("consensus", consensus);
+        facts.put("invalidSignature", Optional.empty());
+
+        assertTrue(ruleBook.run(facts).isPassed());
+    }
+
+    @Test
+    void ParallelSignatureTxRuleFailInvalid() {
+        Transaction tx = new Transaction(
+            Simulation.repeatedBuilder(Simulation::randomInput, 2),
+            Collections.singletonList(Simulation.randomOutput()),
+            Simulation.repeatedBuilder(Simulation::randomSignature, 2)
+        );
+
+        ParallelSignatureVerifier verifier = new ParallelSignatureVerifier(signer, 2);
+
+        RuleBook ruleBook = new RuleBook(new RuleList(
+            Collections.singletonList(ParallelSignatureTxRule.class)
+        ));
+
+        FactMap facts = new FactMap();
+        facts.put("transaction", tx);
+        facts.put("consensus", consensus);
+        facts.put(
+            "invalidSignature",
+            Optional.ofNullable(verifier.verify(Collections.singletonList(tx)))
+        );
+
+        assertFalse(ruleBook.run(facts).isPassed());
+    }
+
+    @Test
+    void ParallelSignatureTxRuleSuccessOtherTransaction() {
+        Transaction tx = Simulation.randomTransaction(3, 3);
+        Transaction invalidTx = new Transaction(
+            Simulation.repeatedBuilder(Simulation::randomInput, 2),
+            Collections.singletonList(Simulation.randomOutput()),
+            Simulation.repeatedBuilder(Simulation::randomSignature, 2)
+        );
+
+        ParallelSignatureVerifier verifier = new ParallelSignatureVerifier(signer, 2);
+
+        RuleBook ruleBook = new RuleBook(new RuleList(
+            Collections.singletonList(ParallelSignatureTxRule.class)
+        ));
+
+        FactMap facts = new FactMap();
+        facts.put("transaction", tx);
+        facts.put("consensus", consensus);
+        facts.put(
+            "invalidSignature",
+            Optional.ofNullable(verifier.verify(Collections.singletonList(invalidTx)))
+        );
+
+        assertTrue(ruleBook.run(facts).isPassed());
+    }
 }
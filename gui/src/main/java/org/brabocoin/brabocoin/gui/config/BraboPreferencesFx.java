@@ -8,6 +8,7 @@ import com.dlsc.preferencesfx.model.Group;
 import com.dlsc.preferencesfx.model.Setting;
 import org.brabocoin.brabocoin.BrabocoinApplication;
 import org.brabocoin.brabocoin.config.MutableBraboConfig;
+import org.brabocoin.brabocoin.dal.BlockFileWriter;
 import org.brabocoin.brabocoin.util.ByteUtil;
 import org.brabocoin.brabocoin.validation.consensus.MutableConsensus;
 
@@ -43,7 +44,32 @@ public class BraboPreferencesFx {
                         config.maxSequentialOrphanBlocks
                     ),
                     Setting.of("Message processing interval (ms)", config.loopInterval),
-                    Setting.of("Handshake response deadline (ms)", config.handshakeDeadline)
+                    Setting.of("Handshake response deadline (ms)", config.handshakeDeadline),
+                    Setting.of("Incoming request threads", config.serviceThreads)
+                        .withDescription("Set to 0 to create threads as needed."),
+                    Setting.of("Blocks per download request", config.blockDownloadChunkSize),
+                    Setting.of(
+                        "Download requests in flight per peer",
+                        config.blockDownloadWindow
+                    ),
+                    Setting.of("Block download deadline (ms)", config.blockDownloadTimeout),
+                    Setting.of(
+                        "Block and transaction request deadline (ms)",
+                        config.requestTimeout
+                    ),
+                    Setting.of("Announcement deadline (ms)", config.announceDeadline),
+                    Setting.of("Announcements in flight", config.announceConcurrency),
+                    Setting.of("Queued announcements per peer", config.announceQueueSize),
+                    Setting.of(
+                        "Transaction announcement delay (ms)",
+                        config.announceTrickleInterval
+                    ).withDescription(
+                        "Mean time for which transaction announcements are collected before "
+                            + "they are sent. Set to 0 to send them without delay."),
+                    Setting.of(
+                        "Signature verification threads",
+                        config.signatureVerificationThreads
+                    ).withDescription("Set to 0 to use one thread per processor.")
                 )
             ),
             Category.of(
@@ -71,13 +97,51 @@ public class BraboPreferencesFx {
                     Setting.of(
                         "Maximum rejected transactions in memory",
                         config.maxRecentRejectTransactions
-                    )
+                    ),
+                    Setting.of("Transaction pool file", config.transactionPoolFile),
+                    Setting.of(
+                        "Transaction pool save interval (s)",
+                        config.transactionPoolPersistInterval
+                    ).withDescription("Set to 0 to only save the transaction pool on shutdown."),
+                    Setting.of("Save orphan transactions", config.persistOrphanTransactions)
                 ),
                 Group.of(
                     "Block details",
                     Setting.of("Maximum block storage file size (bytes)", config.maxBlockFileSize),
                     Setting.of("Maximum orphan blocks in memory", config.maxOrphanBlocks),
                     Setting.of("Maximum rejected blocks in memory", config.maxRecentRejectBlocks)
+                ),
+                Group.of(
+                    "Block files",
+                    Setting.of("Sync policy", config.blockFileSyncPolicy)
+                        .withDescription(
+                            "One of 'none' (leave syncing to the operating system), 'block' "
+                                + "(sync every block) or 'group' (sync periodically).")
+                        .validate(CustomValidator.forPredicate(
+                            s -> {
+                                try {
+                                    BlockFileWriter.SyncPolicy.fromName((String)s);
+                                    return true;
+                                }
+                                catch (IllegalArgumentException e) {
+                                    return false;
+                                }
+                            },
+                            "Invalid sync policy"
+                        )),
+                    Setting.of("Group sync interval (ms)", config.blockFileSyncInterval),
+                    Setting.of("Group sync size (bytes)", config.blockFileSyncBytes),
+                    Setting.of("Preallocation size (bytes)", config.blockFilePreallocationSize)
+                        .withDescription("Set to 0 to disable preallocation of block files.")
+                ),
+                Group.of(
+                    "Caching",
+                    Setting.of("UTXO cache size (bytes)", config.maxUtxoCacheSize)
+                        .withDescription("Set to 0 to disable the UTXO cache."),
+                    Setting.of("Block cache size (bytes)", config.maxBlockCacheSize)
+                        .withDescription("Set to 0 to disable the block cache."),
+                    Setting.of("Signature cache size (signatures)", config.signatureCacheSize)
+                        .withDescription("Set to 0 to disable the signature cache.")
                 )
             ),
             Category.of(
@@ -6,14 +6,20 @@ import org.brabocoin.brabocoin.crypto.PublicKey;
 public class MiningConfig {
     private PublicKey rewardPublicKey;
     private IndexedBlock parentBlock;
+    private int threads;
 
     public MiningConfig(PublicKey rewardPublicKey) {
         this(rewardPublicKey, null);
     }
 
     public MiningConfig(PublicKey rewardPublicKey, IndexedBlock parentBlock) {
+        this(rewardPublicKey, parentBlock, Runtime.getRuntime().availableProcessors());
+    }
+
+    public MiningConfig(PublicKey rewardPublicKey, IndexedBlock parentBlock, int threads) {
         this.rewardPublicKey = rewardPublicKey;
         this.parentBlock = parentBlock;
+        this.threads = threads;
     }
 
     public PublicKey getRewardPublicKey() {
@@ -32,6 +38,14 @@ public class MiningConfig {
         this.parentBlock = parentBlock;
     }
 
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
     public boolean hasCustomParentBlock() {
         return parentBlock != null;
     }
@@ -3,6 +3,7 @@ package org.brabocoin.brabocoin.gui.dialog;
 import javafx.scene.control.ButtonType;
 import javafx.scene.control.CheckBox;
 import javafx.scene.control.Label;
+import javafx.scene.control.Spinner;
 import javafx.scene.control.TextField;
 import org.brabocoin.brabocoin.chain.Blockchain;
 import org.brabocoin.brabocoin.chain.IndexedBlock;
@@ -15,6 +16,11 @@ import org.brabocoin.brabocoin.wallet.Wallet;
 
 public class MiningConfigurationDialog extends BraboValidatedDialog<MiningConfig> {
 
+    /**
+     * Maximum number of mining threads that can be selected.
+     */
+    private static final int MAX_THREADS = 4 * Runtime.getRuntime().availableProcessors();
+
     IndexedBlock currentParentBlock = null;
 
     public MiningConfigurationDialog(MiningConfig config, Wallet wallet, Blockchain blockchain) {
@@ -53,8 +59,16 @@ public class MiningConfigurationDialog extends BraboValidatedDialog<MiningConfig
         grid.add(parentBlockHashLabel, 0, 2, 1, 1);
         grid.add(parentBlockHashTextField, 1, 2, 1, 1);
 
+        grid.add(new Label("Mining threads:"), 0, 3, 1, 1);
+        Spinner<Integer> threadsSpinner = new Spinner<>(
+            1,
+            Math.max(MAX_THREADS, config.getThreads()),
+            config.getThreads()
+        );
+        threadsSpinner.setEditable(true);
+        grid.add(threadsSpinner, 1, 3, 1, 1);
 
-        grid.add(messageLabel, 0, 3, 2, 1);
+        grid.add(messageLabel, 0, 4, 2, 1);
 
         parentBlockHashTextField.textProperty().addListener((observable, oldValue, newValue) -> {
             if (parentBlockHashTextField.getText().equals("")) {
@@ -99,7 +113,8 @@ public class MiningConfigurationDialog extends BraboValidatedDialog<MiningConfig
             if (dialogButton == ButtonType.OK) {
                 return new MiningConfig(
                     keyDropDown.getSelectionModel().getSelectedItem(),
-                    mineOnTopBlock.isSelected() ? null : currentParentBlock
+                    mineOnTopBlock.isSelected() ? null : currentParentBlock,
+                    threadsSpinner.getValue()
                 );
             }
             return null;
@@ -121,12 +121,23 @@ public class MinerView extends BorderPane implements BraboControl, Initializable
                 long seconds = delta / 1000;
                 timeField.setText(String.format("%d:%02d", seconds / 60, seconds % 60));
 
-                updateMinerInfo();
+                updateMinerInfo(delta);
             }
         };
     }
 
     private void updateMinerInfo() {
+        updateMinerInfo(0);
+    }
+
+    /**
+     * Update the displayed miner information.
+     *
+     * @param elapsedMillis
+     *     The time that the miner is running in milliseconds, used to display the hashrate
+     *     combined over all mining threads, or {@code 0} to not display the hashrate.
+     */
+    private void updateMinerInfo(long elapsedMillis) {
         MiningBlock block = miner.getMiningBlock();
 
         if (block != null) {
@@ -137,7 +148,17 @@ public class MinerView extends BorderPane implements BraboControl, Initializable
             ));
             targetValueField.selectRange(targetSelection.getStart(), targetSelection.getEnd());
 
-            iterationsField.setText(String.format("%,d", block.getIterations()));
+            long iterations = block.getIterations();
+            if (elapsedMillis > 0) {
+                iterationsField.setText(String.format(
+                    "%,d (%,.0f H/s)",
+                    iterations,
+                    iterations * 1000.0 / elapsedMillis
+                ));
+            }
+            else {
+                iterationsField.setText(String.format("%,d", iterations));
+            }
 
             Hash bestHash = block.getBestHash();
 
@@ -234,7 +255,8 @@ public class MinerView extends BorderPane implements BraboControl, Initializable
 
                 return miner.mineNewBlock(
                     parentBlock,
-                    config.getRewardPublicKey().getHash()
+                    config.getRewardPublicKey().getHash(),
+                    config.getThreads()
                 );
             }
 